@@ -42,6 +42,6 @@ public record HclAttributeNode(
 
   @Override
   public HclLocation end() {
-    return identifier.end();
+    return expression.end();
   }
 }
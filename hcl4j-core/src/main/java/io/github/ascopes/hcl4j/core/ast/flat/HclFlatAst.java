@@ -0,0 +1,517 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.ast.flat;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.ast.visit.HclNodeKind;
+import io.github.ascopes.hcl4j.core.inputs.HclLocatable;
+import io.github.ascopes.hcl4j.core.inputs.HclLocation;
+import io.github.ascopes.hcl4j.core.intern.ImmutableArrayList;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.intern.RecordShape;
+import io.github.ascopes.hcl4j.core.tokens.HclDefaultToken;
+import io.github.ascopes.hcl4j.core.tokens.HclEofToken;
+import io.github.ascopes.hcl4j.core.tokens.HclRawTextToken;
+import io.github.ascopes.hcl4j.core.tokens.HclToken;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact representation of a parsed config file, holding nodes and tokens in primitive arrays.
+ *
+ * <p>Each node is identified by its index, and has a {@link #kind kind}, a {@link #firstChild
+ * first child}, a {@link #nextSibling next sibling} and a {@link #firstToken first token}. Tokens
+ * are identified by their index too, and only hold their type and the offsets of their text in the
+ * source; line and column numbers are recomputed from the source when needed. This needs a small
+ * fraction of the memory of the equivalent tree of records.
+ *
+ * <p>The records for any subtree can be recreated on demand with {@link #node(int)}, and will be
+ * equal to the records that this was built from. Each call creates new records, so callers should
+ * only hold onto them for as long as they are needed.
+ *
+ * <p>Instances are immutable, and this class is thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclFlatAst {
+
+  /**
+   * Index used to indicate that there is no such node.
+   */
+  public static final int NONE = -1;
+
+  private static final int KIND_BITS = 8;
+  private static final int KIND_MASK = (1 << KIND_BITS) - 1;
+  private static final int NULL_TOKEN = -1;
+
+  private static final HclNodeKind[] KINDS = HclNodeKind.values();
+  private static final HclTokenType[] TOKEN_TYPES = HclTokenType.values();
+  private static final Layout[] LAYOUTS = Arrays.stream(KINDS)
+      .map(kind -> new Layout(RecordShape.of(kind.type())))
+      .toArray(Layout[]::new);
+
+  private final CharSequence source;
+  private final int[] lineStarts;
+
+  // Per node. The kind array also holds the index of the record component that each node is held
+  // by in its parent, above the kind ordinal.
+  private final int[] kinds;
+  private final int[] firstChildren;
+  private final int[] nextSiblings;
+  private final int[] firstTokens;
+  private final int[] firstValues;
+
+  // Per token.
+  private final int[] tokenTypes;
+  private final int[] tokenStarts;
+  private final int[] tokenEnds;
+
+  // Tokens that cannot be recreated from their type and offsets alone, e.g. raw text with escapes,
+  // keyed by their token index in ascending order.
+  private final int[] irregularIndexes;
+  private final HclToken[] irregularTokens;
+
+  // Component values other than nodes and tokens, such as literal values.
+  private final Object[] values;
+
+  private HclFlatAst(Builder builder) {
+    source = builder.source;
+    lineStarts = builder.lineStarts;
+    kinds = Arrays.copyOf(builder.kinds, builder.nodeCount);
+    firstChildren = Arrays.copyOf(builder.firstChildren, builder.nodeCount);
+    nextSiblings = Arrays.copyOf(builder.nextSiblings, builder.nodeCount);
+    firstTokens = Arrays.copyOf(builder.firstTokens, builder.nodeCount);
+    firstValues = Arrays.copyOf(builder.firstValues, builder.nodeCount);
+    tokenTypes = Arrays.copyOf(builder.tokenTypes, builder.tokenCount);
+    tokenStarts = Arrays.copyOf(builder.tokenStarts, builder.tokenCount);
+    tokenEnds = Arrays.copyOf(builder.tokenEnds, builder.tokenCount);
+    irregularIndexes = Arrays.copyOf(builder.irregularIndexes, builder.irregularCount);
+    irregularTokens = Arrays.copyOf(builder.irregularTokens, builder.irregularCount);
+    values = builder.values.toArray();
+  }
+
+  /**
+   * Build a flat AST from a parsed config file.
+   *
+   * @param body   the parsed config file.
+   * @param source the source text that the file was parsed from, starting at position 0.
+   * @return the flat AST.
+   * @throws IllegalArgumentException if the tree contains node types not provided by this library.
+   */
+  public static HclFlatAst of(HclBodyNode body, CharSequence source) {
+    var builder = new Builder(source);
+    builder.add(body, 0);
+    return new HclFlatAst(builder);
+  }
+
+  /**
+   * Get the source text.
+   *
+   * @return the source text.
+   */
+  public CharSequence source() {
+    return source;
+  }
+
+  /**
+   * Get the index of the root node, which is always a {@link HclBodyNode}.
+   *
+   * @return the root node index.
+   */
+  public int root() {
+    return 0;
+  }
+
+  /**
+   * Get the number of nodes.
+   *
+   * @return the number of nodes.
+   */
+  public int nodeCount() {
+    return kinds.length;
+  }
+
+  /**
+   * Get the kind of a node.
+   *
+   * @param node the node index.
+   * @return the kind.
+   */
+  public HclNodeKind kind(int node) {
+    return KINDS[kinds[node] & KIND_MASK];
+  }
+
+  /**
+   * Get the first child of a node.
+   *
+   * @param node the node index.
+   * @return the index of the first child, or {@link #NONE} if the node has no children.
+   */
+  public int firstChild(int node) {
+    return firstChildren[node];
+  }
+
+  /**
+   * Get the next sibling of a node.
+   *
+   * @param node the node index.
+   * @return the index of the next sibling, or {@link #NONE} if the node is the last child.
+   */
+  public int nextSibling(int node) {
+    return nextSiblings[node];
+  }
+
+  /**
+   * Get the first token held directly by a node.
+   *
+   * <p>Tokens held directly by a node are stored contiguously in the order of the record
+   * components that hold them. Tokens held by child nodes are not included.
+   *
+   * @param node the node index.
+   * @return the index of the first token.
+   */
+  public int firstToken(int node) {
+    return firstTokens[node];
+  }
+
+  /**
+   * Get the number of tokens slots.
+   *
+   * @return the number of token slots.
+   */
+  public int tokenCount() {
+    return tokenTypes.length;
+  }
+
+  /**
+   * Get the type of a token.
+   *
+   * @param token the token index.
+   * @return the token type, or {@code null} if the slot holds an absent optional token.
+   */
+  @Nullable
+  public HclTokenType tokenType(int token) {
+    var type = tokenTypes[token];
+    return type == NULL_TOKEN ? null : TOKEN_TYPES[type];
+  }
+
+  /**
+   * Create a view of a token.
+   *
+   * @param token the token index.
+   * @return the token, or {@code null} if the slot holds an absent optional token.
+   */
+  @Nullable
+  public HclToken token(int token) {
+    var type = tokenTypes[token];
+
+    if (type == NULL_TOKEN) {
+      return null;
+    }
+
+    var irregular = Arrays.binarySearch(irregularIndexes, token);
+    return irregular < 0
+        ? createToken(source, lineStarts, TOKEN_TYPES[type], tokenStarts[token], tokenEnds[token])
+        : irregularTokens[irregular];
+  }
+
+  /**
+   * Create a view of the subtree rooted at a node.
+   *
+   * @param node the node index.
+   * @return the node.
+   */
+  public HclLocatable node(int node) {
+    var layout = LAYOUTS[kinds[node] & KIND_MASK];
+    var categories = layout.categories;
+    var args = new Object[categories.length];
+    var token = firstTokens[node];
+    var value = firstValues[node];
+
+    for (var i = 0; i < categories.length; ++i) {
+      switch (categories[i]) {
+        case Layout.TOKEN -> args[i] = token(token++);
+        case Layout.VALUE -> args[i] = values[value++];
+        case Layout.LIST -> args[i] = new ArrayList<>();
+        default -> {
+          // Filled in from the children below, or left null if absent.
+        }
+      }
+    }
+
+    for (var child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+      var slot = kinds[child] >>> KIND_BITS;
+
+      if (categories[slot] == Layout.LIST) {
+        @SuppressWarnings("unchecked")
+        var list = (List<Object>) args[slot];
+        list.add(node(child));
+      } else {
+        args[slot] = node(child);
+      }
+    }
+
+    for (var i = 0; i < categories.length; ++i) {
+      if (categories[i] == Layout.LIST) {
+        args[i] = new ImmutableArrayList<>(((List<?>) args[i]).toArray());
+      }
+    }
+
+    return (HclLocatable) layout.shape.create(args);
+  }
+
+  /**
+   * Create a view of the entire tree.
+   *
+   * @return the root node.
+   */
+  public HclBodyNode body() {
+    return (HclBodyNode) node(root());
+  }
+
+  private static HclToken createToken(
+      CharSequence source,
+      int[] lineStarts,
+      HclTokenType type,
+      int start,
+      int end
+  ) {
+    var startLocation = location(lineStarts, start);
+
+    if (type == HclTokenType.EOF) {
+      return new HclEofToken(startLocation);
+    }
+
+    var raw = source.subSequence(start, end).toString();
+    var endLocation = location(lineStarts, end);
+
+    // Raw text only needs to be kept when escapes make its content differ from the source.
+    return type == HclTokenType.RAW_TEXT
+        ? new HclRawTextToken(raw, raw, startLocation, endLocation)
+        : new HclDefaultToken(type, raw, startLocation, endLocation);
+  }
+
+  private static HclLocation location(int[] lineStarts, int position) {
+    var line = Arrays.binarySearch(lineStarts, position);
+
+    if (line < 0) {
+      // Not the start of a line, so take the line that it falls within.
+      line = -line - 2;
+    }
+
+    return new HclLocation(position, line + 1, position - lineStarts[line] + 1);
+  }
+
+  private static final class Layout {
+
+    private static final byte NODE = 0;
+    private static final byte LIST = 1;
+    private static final byte TOKEN = 2;
+    private static final byte VALUE = 3;
+
+    private final RecordShape shape;
+    private final byte[] categories;
+
+    private Layout(RecordShape shape) {
+      this.shape = shape;
+
+      var components = shape.components();
+      categories = new byte[components.length];
+
+      for (var i = 0; i < components.length; ++i) {
+        var type = components[i].getType();
+
+        if (type == List.class) {
+          categories[i] = LIST;
+        } else if (HclToken.class.isAssignableFrom(type)) {
+          categories[i] = TOKEN;
+        } else if (HclLocatable.class.isAssignableFrom(type)) {
+          categories[i] = NODE;
+        } else {
+          categories[i] = VALUE;
+        }
+      }
+    }
+  }
+
+  private static final class Builder {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final CharSequence source;
+    private final int[] lineStarts;
+
+    private int nodeCount;
+    private int[] kinds;
+    private int[] firstChildren;
+    private int[] nextSiblings;
+    private int[] firstTokens;
+    private int[] firstValues;
+
+    private int tokenCount;
+    private int[] tokenTypes;
+    private int[] tokenStarts;
+    private int[] tokenEnds;
+
+    private int irregularCount;
+    private int[] irregularIndexes;
+    private HclToken[] irregularTokens;
+
+    private final List<Object> values;
+
+    private Builder(CharSequence source) {
+      this.source = source;
+      lineStarts = lineStarts(source);
+
+      nodeCount = 0;
+      kinds = new int[INITIAL_CAPACITY];
+      firstChildren = new int[INITIAL_CAPACITY];
+      nextSiblings = new int[INITIAL_CAPACITY];
+      firstTokens = new int[INITIAL_CAPACITY];
+      firstValues = new int[INITIAL_CAPACITY];
+
+      tokenCount = 0;
+      tokenTypes = new int[INITIAL_CAPACITY];
+      tokenStarts = new int[INITIAL_CAPACITY];
+      tokenEnds = new int[INITIAL_CAPACITY];
+
+      irregularCount = 0;
+      irregularIndexes = new int[INITIAL_CAPACITY];
+      irregularTokens = new HclToken[INITIAL_CAPACITY];
+
+      values = new ArrayList<>();
+    }
+
+    private int add(HclLocatable node, int slot) {
+      var kind = HclNodeKind.of(node);
+
+      if (kind == null) {
+        throw new IllegalArgumentException(
+            "Cannot flatten node of type " + node.getClass().getName());
+      }
+
+      var layout = LAYOUTS[kind.ordinal()];
+      var categories = layout.categories;
+      var components = layout.shape.read((Record) node);
+
+      if (nodeCount == kinds.length) {
+        var capacity = nodeCount * 2;
+        kinds = Arrays.copyOf(kinds, capacity);
+        firstChildren = Arrays.copyOf(firstChildren, capacity);
+        nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+        firstTokens = Arrays.copyOf(firstTokens, capacity);
+        firstValues = Arrays.copyOf(firstValues, capacity);
+      }
+
+      var index = nodeCount++;
+      kinds[index] = kind.ordinal() | slot << KIND_BITS;
+      firstChildren[index] = NONE;
+      nextSiblings[index] = NONE;
+      firstTokens[index] = tokenCount;
+      firstValues[index] = values.size();
+
+      // Tokens and values first, so that they are contiguous for this node.
+      for (var i = 0; i < categories.length; ++i) {
+        if (categories[i] == Layout.TOKEN) {
+          addToken((HclToken) components[i]);
+        } else if (categories[i] == Layout.VALUE) {
+          values.add(components[i]);
+        }
+      }
+
+      var lastChild = NONE;
+
+      for (var i = 0; i < categories.length; ++i) {
+        if (categories[i] == Layout.NODE && components[i] != null) {
+          lastChild = link(index, lastChild, add((HclLocatable) components[i], i));
+        } else if (categories[i] == Layout.LIST) {
+          for (var element : (List<?>) components[i]) {
+            lastChild = link(index, lastChild, add((HclLocatable) element, i));
+          }
+        }
+      }
+
+      return index;
+    }
+
+    private int link(int parent, int lastChild, int child) {
+      if (lastChild == NONE) {
+        firstChildren[parent] = child;
+      } else {
+        nextSiblings[lastChild] = child;
+      }
+      return child;
+    }
+
+    private void addToken(@Nullable HclToken token) {
+      if (tokenCount == tokenTypes.length) {
+        var capacity = tokenCount * 2;
+        tokenTypes = Arrays.copyOf(tokenTypes, capacity);
+        tokenStarts = Arrays.copyOf(tokenStarts, capacity);
+        tokenEnds = Arrays.copyOf(tokenEnds, capacity);
+      }
+
+      var index = tokenCount++;
+
+      if (token == null) {
+        tokenTypes[index] = NULL_TOKEN;
+        return;
+      }
+
+      var start = Math.toIntExact(token.start().position());
+      var end = Math.toIntExact(token.end().position());
+      tokenTypes[index] = token.type().ordinal();
+      tokenStarts[index] = start;
+      tokenEnds[index] = end;
+
+      if (start > end || end > source.length()
+          || !token.equals(createToken(source, lineStarts, token.type(), start, end))) {
+        addIrregularToken(index, token);
+      }
+    }
+
+    private void addIrregularToken(int index, HclToken token) {
+      if (irregularCount == irregularIndexes.length) {
+        var capacity = irregularCount * 2;
+        irregularIndexes = Arrays.copyOf(irregularIndexes, capacity);
+        irregularTokens = Arrays.copyOf(irregularTokens, capacity);
+      }
+
+      // Tokens are added in index order, so these stay sorted for binary searches.
+      irregularIndexes[irregularCount] = index;
+      irregularTokens[irregularCount++] = token;
+    }
+
+    private static int[] lineStarts(CharSequence source) {
+      var starts = new int[16];
+      var count = 1;
+
+      for (var i = 0; i < source.length(); ++i) {
+        if (source.charAt(i) == '\n') {
+          if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+          }
+          starts[count++] = i + 1;
+        }
+      }
+
+      return Arrays.copyOf(starts, count);
+    }
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.ast.hash;
+
+import io.github.ascopes.hcl4j.core.inputs.HclLocatable;
+import io.github.ascopes.hcl4j.core.intern.ImmutableArrayList;
+import io.github.ascopes.hcl4j.core.intern.RecordShape;
+import io.github.ascopes.hcl4j.core.tokens.HclToken;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash-consing pass that deduplicates structurally equal subtrees into shared instances.
+ *
+ * <p>Interning a tree returns an equivalent tree in which every subtree that is
+ * {@link HclStructuralHash#equals structurally equal} to one seen before is replaced with the
+ * instance seen first. Repeated expressions across many files are then only held once, and two
+ * interned subtrees are structurally equal exactly when they are the same instance.
+ *
+ * <p>Since shared subtrees keep the locations of the first occurrence, interned trees are intended
+ * for analysis rather than for reporting locations. This combines well with
+ * {@code HclParseMode.SEMANTIC}, which already drops most location detail.
+ *
+ * <p>The interner holds every canonical subtree it has produced until it is discarded or
+ * {@link #clear() cleared}. This class is thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclNodeInterner {
+
+  private final Map<Key, HclLocatable> canonical;
+  private final Map<HclLocatable, Long> hashes;
+
+  /**
+   * Initialize the interner.
+   */
+  public HclNodeInterner() {
+    canonical = new HashMap<>();
+    hashes = new IdentityHashMap<>();
+  }
+
+  /**
+   * Intern the given subtree.
+   *
+   * @param node the root of the subtree.
+   * @param <T>  the node type.
+   * @return the canonical instance of the subtree.
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized <T extends HclLocatable> T intern(T node) {
+    return (T) internNode(node);
+  }
+
+  /**
+   * Get the structural hash of a subtree.
+   *
+   * <p>This takes constant time for subtrees returned by {@link #intern}, and is the same as
+   * {@link HclStructuralHash#hash} for any other subtree.
+   *
+   * @param node the root of the subtree.
+   * @return the 64-bit hash.
+   */
+  public long hash(HclLocatable node) {
+    Long hash;
+
+    synchronized (this) {
+      hash = hashes.get(node);
+    }
+
+    return hash == null ? HclStructuralHash.hash(node) : hash;
+  }
+
+  /**
+   * Get the number of canonical subtrees held.
+   *
+   * @return the number of canonical subtrees.
+   */
+  public synchronized int size() {
+    return canonical.size();
+  }
+
+  /**
+   * Discard all canonical subtrees.
+   */
+  public synchronized void clear() {
+    canonical.clear();
+    hashes.clear();
+  }
+
+  private HclLocatable internNode(HclLocatable node) {
+    if (hashes.containsKey(node)) {
+      return node;
+    }
+
+    var shape = RecordShape.of(node.getClass());
+    var components = shape.read((Record) node);
+    var changed = false;
+
+    for (var i = 0; i < components.length; ++i) {
+      var component = components[i];
+
+      if (component instanceof HclToken) {
+        continue;
+      }
+
+      if (component instanceof HclLocatable child) {
+        var interned = internNode(child);
+        changed |= interned != child;
+        components[i] = interned;
+      } else if (component instanceof List<?> list) {
+        var elements = new Object[list.size()];
+        var listChanged = false;
+
+        for (var j = 0; j < elements.length; ++j) {
+          var element = (HclLocatable) list.get(j);
+          elements[j] = internNode(element);
+          listChanged |= elements[j] != element;
+        }
+
+        if (listChanged) {
+          components[i] = new ImmutableArrayList<>(elements);
+          changed = true;
+        }
+      }
+    }
+
+    // Children are canonical now, so they can be hashed and compared by identity.
+    var hash = HclStructuralHash.hashComponents(node, components, hashes::get);
+    var key = new Key(node.getClass(), components, hash);
+    var existing = canonical.get(key);
+
+    if (existing != null) {
+      return existing;
+    }
+
+    var result = changed ? (HclLocatable) shape.create(components) : node;
+    canonical.put(key, result);
+    hashes.put(result, hash);
+    return result;
+  }
+
+  private record Key(Class<?> type, Object[] components, long hash) {
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Key that
+          && hash == that.hash
+          && type == that.type
+          && HclStructuralHash.componentsEqual(components, that.components, (a, b) -> a == b);
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(hash);
+    }
+
+    @Override
+    public String toString() {
+      return type.getSimpleName() + Arrays.toString(components);
+    }
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.ast.hash;
+
+import io.github.ascopes.hcl4j.core.inputs.HclLocatable;
+import io.github.ascopes.hcl4j.core.inputs.HclLocation;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.intern.RecordShape;
+import io.github.ascopes.hcl4j.core.tokens.HclToken;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Location-insensitive structural hashing and equality for AST nodes.
+ *
+ * <p>Two nodes are structurally equal if they are of the same type, their tokens have the same
+ * types and raw content, and their other components are structurally equal, regardless of where
+ * in which files they were parsed from. Record {@code equals} cannot be used for this, since it
+ * also compares every location.
+ *
+ * <p>Both operations walk the entire subtree. Use a {@link HclNodeInterner} to compute each hash
+ * once and compare interned subtrees by reference instead.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclStructuralHash {
+
+  private static final long PRIME = 0x100000001B3L;
+
+  private HclStructuralHash() {
+    throw new UnsupportedOperationException("static-only class");
+  }
+
+  /**
+   * Compute the structural hash of a subtree.
+   *
+   * @param node the root of the subtree.
+   * @return the 64-bit hash.
+   */
+  public static long hash(HclLocatable node) {
+    return hashComponents(node, RecordShape.of(node.getClass()).read((Record) node),
+        HclStructuralHash::hash);
+  }
+
+  /**
+   * Determine if two subtrees are structurally equal.
+   *
+   * @param first  the first subtree.
+   * @param second the second subtree.
+   * @return {@code true} if they are structurally equal, or {@code false} otherwise.
+   */
+  public static boolean equals(HclLocatable first, HclLocatable second) {
+    if (first == second) {
+      return true;
+    }
+
+    if (first.getClass() != second.getClass()) {
+      return false;
+    }
+
+    var shape = RecordShape.of(first.getClass());
+    return componentsEqual(
+        shape.read((Record) first),
+        shape.read((Record) second),
+        HclStructuralHash::equals
+    );
+  }
+
+  static long hashComponents(
+      HclLocatable node,
+      Object[] components,
+      ToLongFunction<HclLocatable> nodeHash
+  ) {
+    var hash = (long) node.getClass().getName().hashCode();
+
+    for (var component : components) {
+      hash = combine(hash, componentHash(component, nodeHash));
+    }
+
+    return mix(hash);
+  }
+
+  static boolean componentsEqual(
+      Object[] first,
+      Object[] second,
+      BiPredicate<HclLocatable, HclLocatable> nodeEquals
+  ) {
+    for (var i = 0; i < first.length; ++i) {
+      if (!componentEquals(first[i], second[i], nodeEquals)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static long componentHash(
+      @Nullable Object component,
+      ToLongFunction<HclLocatable> nodeHash
+  ) {
+    if (component == null || component instanceof HclLocation) {
+      return 0;
+    }
+
+    if (component instanceof HclToken token) {
+      var hash = combine(token.type().ordinal() + 1, 0);
+      var raw = token.raw();
+      for (var i = 0; i < raw.length(); ++i) {
+        hash = combine(hash, raw.charAt(i));
+      }
+      return hash;
+    }
+
+    if (component instanceof HclLocatable node) {
+      return nodeHash.applyAsLong(node);
+    }
+
+    if (component instanceof List<?> list) {
+      var hash = (long) list.size();
+      for (var i = 0; i < list.size(); ++i) {
+        hash = combine(hash, nodeHash.applyAsLong((HclLocatable) list.get(i)));
+      }
+      return hash;
+    }
+
+    return component.hashCode();
+  }
+
+  private static boolean componentEquals(
+      @Nullable Object first,
+      @Nullable Object second,
+      BiPredicate<HclLocatable, HclLocatable> nodeEquals
+  ) {
+    if (first == null || second == null) {
+      return first == second;
+    }
+
+    if (first instanceof HclLocation) {
+      return second instanceof HclLocation;
+    }
+
+    if (first instanceof HclToken firstToken) {
+      return second instanceof HclToken secondToken
+          && firstToken.type() == secondToken.type()
+          && firstToken.rawEquals(secondToken.raw());
+    }
+
+    if (first instanceof HclLocatable firstNode) {
+      return second instanceof HclLocatable secondNode
+          && firstNode.getClass() == secondNode.getClass()
+          && nodeEquals.test(firstNode, secondNode);
+    }
+
+    if (first instanceof List<?> firstList) {
+      if (!(second instanceof List<?> secondList) || firstList.size() != secondList.size()) {
+        return false;
+      }
+
+      for (var i = 0; i < firstList.size(); ++i) {
+        var firstElement = (HclLocatable) firstList.get(i);
+        var secondElement = (HclLocatable) secondList.get(i);
+        if (firstElement.getClass() != secondElement.getClass()
+            || !nodeEquals.test(firstElement, secondElement)) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+    return Objects.equals(first, second);
+  }
+
+  private static long combine(long hash, long value) {
+    return (hash ^ value) * PRIME;
+  }
+
+  private static long mix(long hash) {
+    // Finalizer from MurmurHash3, so that similar trees get very different hashes.
+    hash ^= hash >>> 33;
+    hash *= 0xFF51AFD7ED558CCDL;
+    hash ^= hash >>> 33;
+    hash *= 0xC4CEB9FE1A85EC53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
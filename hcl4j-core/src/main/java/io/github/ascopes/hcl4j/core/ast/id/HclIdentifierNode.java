@@ -36,6 +36,6 @@ public record HclIdentifierNode(
 
   @Override
   public HclLocation end() {
-    return contentToken.start();
+    return contentToken.end();
   }
 }
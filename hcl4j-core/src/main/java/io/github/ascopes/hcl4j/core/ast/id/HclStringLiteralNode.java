@@ -41,6 +41,6 @@ public record HclStringLiteralNode(
 
   @Override
   public HclLocation end() {
-    return closingQuoteToken.start();
+    return closingQuoteToken.end();
   }
 }
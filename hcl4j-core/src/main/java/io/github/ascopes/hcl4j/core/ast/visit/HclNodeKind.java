@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.ast.visit;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclAttributeNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBlockNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectElementNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectExpressionKeyNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectIdentifierKeyNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclTupleElementNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclTupleNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclBinaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclTernaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclUnaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclWrappedExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.func.HclFunctionCallNode;
+import io.github.ascopes.hcl4j.core.ast.func.HclParameterNode;
+import io.github.ascopes.hcl4j.core.ast.getattr.HclGetAttrNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclIdentifierNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclStringLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclVariableExprNode;
+import io.github.ascopes.hcl4j.core.ast.index.HclIndexNode;
+import io.github.ascopes.hcl4j.core.ast.index.HclLegacyIndexNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForConditionNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForIntroNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForObjectExprNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForTupleExprNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclBooleanLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclIntegerLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclNullLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclRealLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.splat.HclAttrSplatNode;
+import io.github.ascopes.hcl4j.core.ast.splat.HclFullSplatNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclHeredocTemplateNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclQuotedTemplateNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateContentNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateElsePartNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateEndPartNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateForNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateForPartNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateIfNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateIfPartNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateInterpolationNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateLiteralNode;
+import io.github.ascopes.hcl4j.core.inputs.HclLocatable;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enumeration of the concrete AST record types.
+ *
+ * <p>This allows dispatching on the type of a node with a single table lookup and a {@code switch},
+ * rather than a chain of {@code instanceof} checks.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public enum HclNodeKind {
+  ATTRIBUTE(HclAttributeNode.class),
+  BLOCK(HclBlockNode.class),
+  BODY(HclBodyNode.class),
+  OBJECT_ELEMENT(HclObjectElementNode.class),
+  OBJECT_EXPRESSION_KEY(HclObjectExpressionKeyNode.class),
+  OBJECT_IDENTIFIER_KEY(HclObjectIdentifierKeyNode.class),
+  OBJECT(HclObjectNode.class),
+  TUPLE_ELEMENT(HclTupleElementNode.class),
+  TUPLE(HclTupleNode.class),
+  BINARY_OPERATION(HclBinaryOperationNode.class),
+  TERNARY_OPERATION(HclTernaryOperationNode.class),
+  UNARY_OPERATION(HclUnaryOperationNode.class),
+  WRAPPED_EXPRESSION(HclWrappedExpressionNode.class),
+  FUNCTION_CALL(HclFunctionCallNode.class),
+  PARAMETER(HclParameterNode.class),
+  GET_ATTR(HclGetAttrNode.class),
+  IDENTIFIER(HclIdentifierNode.class),
+  STRING_LITERAL(HclStringLiteralNode.class),
+  VARIABLE_EXPR(HclVariableExprNode.class),
+  INDEX(HclIndexNode.class),
+  LEGACY_INDEX(HclLegacyIndexNode.class),
+  FOR_CONDITION(HclForConditionNode.class),
+  FOR_INTRO(HclForIntroNode.class),
+  FOR_OBJECT_EXPR(HclForObjectExprNode.class),
+  FOR_TUPLE_EXPR(HclForTupleExprNode.class),
+  BOOLEAN_LITERAL(HclBooleanLiteralNode.class),
+  INTEGER_LITERAL(HclIntegerLiteralNode.class),
+  NULL_LITERAL(HclNullLiteralNode.class),
+  REAL_LITERAL(HclRealLiteralNode.class),
+  ATTR_SPLAT(HclAttrSplatNode.class),
+  FULL_SPLAT(HclFullSplatNode.class),
+  HEREDOC_TEMPLATE(HclHeredocTemplateNode.class),
+  QUOTED_TEMPLATE(HclQuotedTemplateNode.class),
+  TEMPLATE_CONTENT(HclTemplateContentNode.class),
+  TEMPLATE_ELSE_PART(HclTemplateElsePartNode.class),
+  TEMPLATE_END_PART(HclTemplateEndPartNode.class),
+  TEMPLATE_FOR(HclTemplateForNode.class),
+  TEMPLATE_FOR_PART(HclTemplateForPartNode.class),
+  TEMPLATE_IF(HclTemplateIfNode.class),
+  TEMPLATE_IF_PART(HclTemplateIfPartNode.class),
+  TEMPLATE_INTERPOLATION(HclTemplateInterpolationNode.class),
+  TEMPLATE_LITERAL(HclTemplateLiteralNode.class);
+
+  private static final Map<Class<?>, HclNodeKind> KINDS_BY_TYPE;
+
+  static {
+    var kindsByType = new HashMap<Class<?>, HclNodeKind>();
+    for (var kind : values()) {
+      kindsByType.put(kind.type, kind);
+    }
+    KINDS_BY_TYPE = Map.copyOf(kindsByType);
+  }
+
+  private final Class<? extends HclLocatable> type;
+
+  HclNodeKind(Class<? extends HclLocatable> type) {
+    this.type = type;
+  }
+
+  /**
+   * Get the record type that this kind represents.
+   *
+   * @return the record type.
+   */
+  public Class<? extends HclLocatable> type() {
+    return type;
+  }
+
+  /**
+   * Get the kind of the given node.
+   *
+   * @param node the node.
+   * @return the kind, or {@code null} if the node is not one of the AST record types provided by
+   *     this library.
+   */
+  @Nullable
+  public static HclNodeKind of(HclLocatable node) {
+    return KINDS_BY_TYPE.get(node.getClass());
+  }
+}
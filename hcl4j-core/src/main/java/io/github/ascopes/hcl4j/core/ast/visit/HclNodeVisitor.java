@@ -0,0 +1,611 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.ast.visit;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclAttributeNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBlockNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectElementNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectExpressionKeyNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectIdentifierKeyNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclTupleElementNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclTupleNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclBinaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclTernaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclUnaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclWrappedExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.func.HclFunctionCallNode;
+import io.github.ascopes.hcl4j.core.ast.func.HclParameterNode;
+import io.github.ascopes.hcl4j.core.ast.getattr.HclGetAttrNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclIdentifierNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclStringLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclVariableExprNode;
+import io.github.ascopes.hcl4j.core.ast.index.HclIndexNode;
+import io.github.ascopes.hcl4j.core.ast.index.HclLegacyIndexNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForConditionNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForIntroNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForObjectExprNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForTupleExprNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclBooleanLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclIntegerLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclNullLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclRealLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.splat.HclAttrSplatNode;
+import io.github.ascopes.hcl4j.core.ast.splat.HclFullSplatNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclHeredocTemplateNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclQuotedTemplateNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateContentNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateElsePartNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateEndPartNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateForNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateForPartNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateIfNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateIfPartNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateInterpolationNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateLiteralNode;
+import io.github.ascopes.hcl4j.core.inputs.HclLocatable;
+
+/**
+ * Visitor over the AST record types.
+ *
+ * <p>Every visit method defaults to calling {@link #visitDefault}, so implementations only need to
+ * override the methods for the nodes they are interested in. Use {@link #visit} to dispatch a node
+ * to the appropriate method. Visitors do not descend into child nodes by themselves; use
+ * {@link HclNodeWalker} to visit an entire tree.
+ *
+ * @param <R> the result type.
+ * @param <C> the context type.
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+@FunctionalInterface
+public interface HclNodeVisitor<R, C> {
+
+  /**
+   * Visit the given node, dispatching to the method for its type.
+   *
+   * @param node    the node to visit.
+   * @param context the context to pass to the visit method.
+   * @return the result of the visit method.
+   */
+  default R visit(HclLocatable node, C context) {
+    var kind = HclNodeKind.of(node);
+
+    if (kind == null) {
+      return visitDefault(node, context);
+    }
+
+    return switch (kind) {
+      case ATTRIBUTE -> visitAttribute((HclAttributeNode) node, context);
+      case BLOCK -> visitBlock((HclBlockNode) node, context);
+      case BODY -> visitBody((HclBodyNode) node, context);
+      case OBJECT_ELEMENT -> visitObjectElement((HclObjectElementNode) node, context);
+      case OBJECT_EXPRESSION_KEY ->
+          visitObjectExpressionKey((HclObjectExpressionKeyNode) node, context);
+      case OBJECT_IDENTIFIER_KEY ->
+          visitObjectIdentifierKey((HclObjectIdentifierKeyNode) node, context);
+      case OBJECT -> visitObject((HclObjectNode) node, context);
+      case TUPLE_ELEMENT -> visitTupleElement((HclTupleElementNode) node, context);
+      case TUPLE -> visitTuple((HclTupleNode) node, context);
+      case BINARY_OPERATION -> visitBinaryOperation((HclBinaryOperationNode) node, context);
+      case TERNARY_OPERATION -> visitTernaryOperation((HclTernaryOperationNode) node, context);
+      case UNARY_OPERATION -> visitUnaryOperation((HclUnaryOperationNode) node, context);
+      case WRAPPED_EXPRESSION -> visitWrappedExpression((HclWrappedExpressionNode) node, context);
+      case FUNCTION_CALL -> visitFunctionCall((HclFunctionCallNode) node, context);
+      case PARAMETER -> visitParameter((HclParameterNode) node, context);
+      case GET_ATTR -> visitGetAttr((HclGetAttrNode) node, context);
+      case IDENTIFIER -> visitIdentifier((HclIdentifierNode) node, context);
+      case STRING_LITERAL -> visitStringLiteral((HclStringLiteralNode) node, context);
+      case VARIABLE_EXPR -> visitVariableExpr((HclVariableExprNode) node, context);
+      case INDEX -> visitIndex((HclIndexNode) node, context);
+      case LEGACY_INDEX -> visitLegacyIndex((HclLegacyIndexNode) node, context);
+      case FOR_CONDITION -> visitForCondition((HclForConditionNode) node, context);
+      case FOR_INTRO -> visitForIntro((HclForIntroNode) node, context);
+      case FOR_OBJECT_EXPR -> visitForObjectExpr((HclForObjectExprNode) node, context);
+      case FOR_TUPLE_EXPR -> visitForTupleExpr((HclForTupleExprNode) node, context);
+      case BOOLEAN_LITERAL -> visitBooleanLiteral((HclBooleanLiteralNode) node, context);
+      case INTEGER_LITERAL -> visitIntegerLiteral((HclIntegerLiteralNode) node, context);
+      case NULL_LITERAL -> visitNullLiteral((HclNullLiteralNode) node, context);
+      case REAL_LITERAL -> visitRealLiteral((HclRealLiteralNode) node, context);
+      case ATTR_SPLAT -> visitAttrSplat((HclAttrSplatNode) node, context);
+      case FULL_SPLAT -> visitFullSplat((HclFullSplatNode) node, context);
+      case HEREDOC_TEMPLATE -> visitHeredocTemplate((HclHeredocTemplateNode) node, context);
+      case QUOTED_TEMPLATE -> visitQuotedTemplate((HclQuotedTemplateNode) node, context);
+      case TEMPLATE_CONTENT -> visitTemplateContent((HclTemplateContentNode) node, context);
+      case TEMPLATE_ELSE_PART -> visitTemplateElsePart((HclTemplateElsePartNode) node, context);
+      case TEMPLATE_END_PART -> visitTemplateEndPart((HclTemplateEndPartNode) node, context);
+      case TEMPLATE_FOR -> visitTemplateFor((HclTemplateForNode) node, context);
+      case TEMPLATE_FOR_PART -> visitTemplateForPart((HclTemplateForPartNode) node, context);
+      case TEMPLATE_IF -> visitTemplateIf((HclTemplateIfNode) node, context);
+      case TEMPLATE_IF_PART -> visitTemplateIfPart((HclTemplateIfPartNode) node, context);
+      case TEMPLATE_INTERPOLATION ->
+          visitTemplateInterpolation((HclTemplateInterpolationNode) node, context);
+      case TEMPLATE_LITERAL -> visitTemplateLiteral((HclTemplateLiteralNode) node, context);
+    };
+  }
+
+  /**
+   * Visit a node that has no more specific visit method overridden.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  R visitDefault(HclLocatable node, C context);
+
+  /**
+   * Visit an attribute node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitAttribute(HclAttributeNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a block node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitBlock(HclBlockNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a body node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitBody(HclBodyNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit an object element node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitObjectElement(HclObjectElementNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit an object expression key node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitObjectExpressionKey(HclObjectExpressionKeyNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit an object identifier key node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitObjectIdentifierKey(HclObjectIdentifierKeyNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit an object node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitObject(HclObjectNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a tuple element node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitTupleElement(HclTupleElementNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a tuple node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitTuple(HclTupleNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a binary operation node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitBinaryOperation(HclBinaryOperationNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a ternary operation node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitTernaryOperation(HclTernaryOperationNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit an unary operation node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitUnaryOperation(HclUnaryOperationNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a wrapped expression node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitWrappedExpression(HclWrappedExpressionNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a function call node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitFunctionCall(HclFunctionCallNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a parameter node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitParameter(HclParameterNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a get attr node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitGetAttr(HclGetAttrNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit an identifier node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitIdentifier(HclIdentifierNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a string literal node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitStringLiteral(HclStringLiteralNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a variable expr node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitVariableExpr(HclVariableExprNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit an index node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitIndex(HclIndexNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a legacy index node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitLegacyIndex(HclLegacyIndexNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a for condition node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitForCondition(HclForConditionNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a for intro node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitForIntro(HclForIntroNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a for object expr node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitForObjectExpr(HclForObjectExprNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a for tuple expr node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitForTupleExpr(HclForTupleExprNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a boolean literal node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitBooleanLiteral(HclBooleanLiteralNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit an integer literal node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitIntegerLiteral(HclIntegerLiteralNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a null literal node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitNullLiteral(HclNullLiteralNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a real literal node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitRealLiteral(HclRealLiteralNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit an attr splat node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitAttrSplat(HclAttrSplatNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a full splat node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitFullSplat(HclFullSplatNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a heredoc template node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitHeredocTemplate(HclHeredocTemplateNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a quoted template node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitQuotedTemplate(HclQuotedTemplateNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a template content node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitTemplateContent(HclTemplateContentNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a template else part node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitTemplateElsePart(HclTemplateElsePartNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a template end part node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitTemplateEndPart(HclTemplateEndPartNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a template for node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitTemplateFor(HclTemplateForNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a template for part node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitTemplateForPart(HclTemplateForPartNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a template if node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitTemplateIf(HclTemplateIfNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a template if part node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitTemplateIfPart(HclTemplateIfPartNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a template interpolation node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitTemplateInterpolation(HclTemplateInterpolationNode node, C context) {
+    return visitDefault(node, context);
+  }
+
+  /**
+   * Visit a template literal node.
+   *
+   * @param node    the node.
+   * @param context the context.
+   * @return the result.
+   */
+  default R visitTemplateLiteral(HclTemplateLiteralNode node, C context) {
+    return visitDefault(node, context);
+  }
+}
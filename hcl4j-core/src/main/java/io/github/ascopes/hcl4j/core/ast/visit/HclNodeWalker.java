@@ -0,0 +1,325 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.ast.visit;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclAttributeNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBlockNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectElementNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectExpressionKeyNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectIdentifierKeyNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclTupleElementNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclTupleNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclBinaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclTernaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclUnaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclWrappedExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.func.HclFunctionCallNode;
+import io.github.ascopes.hcl4j.core.ast.func.HclParameterNode;
+import io.github.ascopes.hcl4j.core.ast.getattr.HclGetAttrNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclVariableExprNode;
+import io.github.ascopes.hcl4j.core.ast.index.HclIndexNode;
+import io.github.ascopes.hcl4j.core.ast.index.HclLegacyIndexNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForConditionNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForIntroNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForObjectExprNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForTupleExprNode;
+import io.github.ascopes.hcl4j.core.ast.splat.HclAttrSplatNode;
+import io.github.ascopes.hcl4j.core.ast.splat.HclFullSplatNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclHeredocTemplateNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclQuotedTemplateNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateContentNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateElsePartNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateForNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateForPartNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateIfNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateIfPartNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateInterpolationNode;
+import io.github.ascopes.hcl4j.core.inputs.HclLocatable;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Iterative depth-first walker over an AST.
+ *
+ * <p>Nodes are entered in source order. The walker keeps its own stack rather than recursing, so it
+ * can walk arbitrarily deep trees without overflowing the call stack, and it does not allocate
+ * anything per node.
+ *
+ * <p>Each node is passed to the {@code enter} visitor before its children (pre-order), and to the
+ * {@code leave} visitor after its children (post-order). The result of the {@code enter} visitor
+ * decides whether the children are visited, or whether the walk stops entirely.
+ *
+ * <p>Nodes of types not provided by this library are treated as leaves.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclNodeWalker {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private HclLocatable[] nodes;
+  private boolean[] leaving;
+  private int size;
+
+  private HclNodeWalker() {
+    nodes = new HclLocatable[INITIAL_CAPACITY];
+    leaving = new boolean[INITIAL_CAPACITY];
+    size = 0;
+  }
+
+  /**
+   * Walk the tree in pre-order.
+   *
+   * @param root    the root of the tree.
+   * @param context the context to pass to the visitor.
+   * @param enter   the visitor to call before the children of each node.
+   * @param <C>     the context type.
+   * @return {@code true} if the entire tree was walked, or {@code false} if the walk was stopped.
+   */
+  public static <C> boolean preOrder(
+      HclLocatable root,
+      C context,
+      HclNodeVisitor<HclWalkAction, ? super C> enter
+  ) {
+    return walk(root, context, enter, null);
+  }
+
+  /**
+   * Walk the tree in post-order.
+   *
+   * @param root    the root of the tree.
+   * @param context the context to pass to the visitor.
+   * @param leave   the visitor to call after the children of each node.
+   * @param <C>     the context type.
+   */
+  public static <C> void postOrder(
+      HclLocatable root,
+      C context,
+      HclNodeVisitor<?, ? super C> leave
+  ) {
+    walk(root, context, (node, ctx) -> HclWalkAction.CONTINUE, leave);
+  }
+
+  /**
+   * Walk the tree, visiting each node both before and after its children.
+   *
+   * <p>The {@code leave} visitor is still called for nodes whose children were skipped, but it is
+   * not called for any node once the walk has been stopped.
+   *
+   * @param root    the root of the tree.
+   * @param context the context to pass to the visitors.
+   * @param enter   the visitor to call before the children of each node.
+   * @param leave   the visitor to call after the children of each node, or {@code null} if not
+   *                needed.
+   * @param <C>     the context type.
+   * @return {@code true} if the entire tree was walked, or {@code false} if the walk was stopped.
+   */
+  public static <C> boolean walk(
+      HclLocatable root,
+      C context,
+      HclNodeVisitor<HclWalkAction, ? super C> enter,
+      @Nullable HclNodeVisitor<?, ? super C> leave
+  ) {
+    var walker = new HclNodeWalker();
+    walker.push(root);
+
+    while (walker.size > 0) {
+      var index = --walker.size;
+      var node = walker.nodes[index];
+      var isLeaving = walker.leaving[index];
+      walker.nodes[index] = null;
+
+      if (isLeaving) {
+        leave.visit(node, context);
+        continue;
+      }
+
+      var action = enter.visit(node, context);
+
+      if (action == HclWalkAction.STOP) {
+        return false;
+      }
+
+      if (leave != null) {
+        walker.push(node);
+        walker.leaving[walker.size - 1] = true;
+      }
+
+      if (action == HclWalkAction.CONTINUE) {
+        // Children are pushed in source order, then reversed so that they pop in source order.
+        var mark = walker.size;
+        walker.pushChildren(node);
+        walker.reverse(mark);
+      }
+    }
+
+    return true;
+  }
+
+  private void pushChildren(HclLocatable node) {
+    var kind = HclNodeKind.of(node);
+
+    if (kind == null) {
+      return;
+    }
+
+    switch (kind) {
+      case ATTRIBUTE -> {
+        var attribute = (HclAttributeNode) node;
+        push(attribute.identifier());
+        push(attribute.expression());
+      }
+      case BLOCK -> {
+        var block = (HclBlockNode) node;
+        push(block.identifier());
+        pushAll(block.additionalIdentifiers());
+        push(block.body());
+      }
+      case BODY -> pushAll(((HclBodyNode) node).bodyItems());
+      case OBJECT_ELEMENT -> {
+        var element = (HclObjectElementNode) node;
+        push(element.keyExpression());
+        push(element.valueExpression());
+      }
+      case OBJECT_EXPRESSION_KEY -> push(((HclObjectExpressionKeyNode) node).expression());
+      case OBJECT_IDENTIFIER_KEY -> push(((HclObjectIdentifierKeyNode) node).identifier());
+      case OBJECT -> pushAll(((HclObjectNode) node).elements());
+      case TUPLE_ELEMENT -> push(((HclTupleElementNode) node).expression());
+      case TUPLE -> pushAll(((HclTupleNode) node).elements());
+      case BINARY_OPERATION -> {
+        var operation = (HclBinaryOperationNode) node;
+        push(operation.leftValue());
+        push(operation.rightValue());
+      }
+      case TERNARY_OPERATION -> {
+        var operation = (HclTernaryOperationNode) node;
+        push(operation.condition());
+        push(operation.ifTrue());
+        push(operation.ifFalse());
+      }
+      case UNARY_OPERATION -> push(((HclUnaryOperationNode) node).value());
+      case WRAPPED_EXPRESSION -> push(((HclWrappedExpressionNode) node).expression());
+      case FUNCTION_CALL -> {
+        var call = (HclFunctionCallNode) node;
+        push(call.identifier());
+        pushAll(call.arguments());
+      }
+      case PARAMETER -> push(((HclParameterNode) node).expression());
+      case GET_ATTR -> {
+        var getAttr = (HclGetAttrNode) node;
+        push(getAttr.exprTerm());
+        push(getAttr.identifier());
+      }
+      case VARIABLE_EXPR -> push(((HclVariableExprNode) node).identifier());
+      case INDEX -> {
+        var index = (HclIndexNode) node;
+        push(index.exprTerm());
+        push(index.expression());
+      }
+      case LEGACY_INDEX -> {
+        var index = (HclLegacyIndexNode) node;
+        push(index.exprTerm());
+        push(index.digits());
+      }
+      case FOR_CONDITION -> push(((HclForConditionNode) node).ifExpression());
+      case FOR_INTRO -> {
+        var intro = (HclForIntroNode) node;
+        push(intro.firstIdentifier());
+        push(intro.secondIdentifier());
+        push(intro.inExpression());
+      }
+      case FOR_OBJECT_EXPR -> {
+        var forExpr = (HclForObjectExprNode) node;
+        push(forExpr.intro());
+        push(forExpr.keyExpression());
+        push(forExpr.valueExpression());
+        push(forExpr.condition());
+      }
+      case FOR_TUPLE_EXPR -> {
+        var forExpr = (HclForTupleExprNode) node;
+        push(forExpr.intro());
+        push(forExpr.expression());
+        push(forExpr.condition());
+      }
+      case ATTR_SPLAT -> push(((HclAttrSplatNode) node).exprTerm());
+      case FULL_SPLAT -> push(((HclFullSplatNode) node).exprTerm());
+      case HEREDOC_TEMPLATE -> push(((HclHeredocTemplateNode) node).template());
+      case QUOTED_TEMPLATE -> push(((HclQuotedTemplateNode) node).template());
+      case TEMPLATE_CONTENT -> pushAll(((HclTemplateContentNode) node).items());
+      case TEMPLATE_ELSE_PART -> push(((HclTemplateElsePartNode) node).template());
+      case TEMPLATE_FOR -> {
+        var templateFor = (HclTemplateForNode) node;
+        push(templateFor.forPart());
+        push(templateFor.template());
+        push(templateFor.endForPart());
+      }
+      case TEMPLATE_FOR_PART -> {
+        var forPart = (HclTemplateForPartNode) node;
+        push(forPart.firstIdentifier());
+        push(forPart.secondIdentifier());
+        push(forPart.expression());
+      }
+      case TEMPLATE_IF -> {
+        var templateIf = (HclTemplateIfNode) node;
+        push(templateIf.ifPart());
+        push(templateIf.elsePart());
+        push(templateIf.endIfPart());
+      }
+      case TEMPLATE_IF_PART -> {
+        var ifPart = (HclTemplateIfPartNode) node;
+        push(ifPart.expression());
+        push(ifPart.template());
+      }
+      case TEMPLATE_INTERPOLATION -> push(((HclTemplateInterpolationNode) node).expression());
+      default -> {
+        // Leaf node.
+      }
+    }
+  }
+
+  private void pushAll(List<? extends HclLocatable> children) {
+    for (var i = 0; i < children.size(); ++i) {
+      push(children.get(i));
+    }
+  }
+
+  private void push(@Nullable HclLocatable node) {
+    if (node == null) {
+      return;
+    }
+
+    if (size == nodes.length) {
+      nodes = Arrays.copyOf(nodes, size * 2);
+      leaving = Arrays.copyOf(leaving, size * 2);
+    }
+
+    nodes[size] = node;
+    leaving[size] = false;
+    ++size;
+  }
+
+  private void reverse(int from) {
+    for (int i = from, j = size - 1; i < j; ++i, --j) {
+      var node = nodes[i];
+      nodes[i] = nodes[j];
+      nodes[j] = node;
+    }
+  }
+}
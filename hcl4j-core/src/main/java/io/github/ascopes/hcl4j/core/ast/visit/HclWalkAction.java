@@ -13,15 +13,27 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package io.github.ascopes.hcl4j.core.intern;
+package io.github.ascopes.hcl4j.core.ast.visit;
 
 /**
- * Tuple of an index and a corresponding element at that index.
+ * Action to take after a {@link HclNodeWalker} enters a node.
  *
- * @param index  the index.
- * @param object the object.
- * @param <T>    the object type.
  * @author Ashley Scopes
  * @since 0.0.1
  */
-public record Indexed<T>(int index, T object) {}
+public enum HclWalkAction {
+  /**
+   * Continue into the children of the node.
+   */
+  CONTINUE,
+
+  /**
+   * Do not visit the children of the node, but continue with its siblings.
+   */
+  SKIP_CHILDREN,
+
+  /**
+   * Stop walking the tree immediately.
+   */
+  STOP,
+}
@@ -0,0 +1,413 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.binary;
+
+import static io.github.ascopes.hcl4j.core.binary.HclBinarySchema.KIND_BIG_DECIMAL;
+import static io.github.ascopes.hcl4j.core.binary.HclBinarySchema.KIND_BIG_INTEGER;
+import static io.github.ascopes.hcl4j.core.binary.HclBinarySchema.KIND_BOOLEAN;
+import static io.github.ascopes.hcl4j.core.binary.HclBinarySchema.KIND_BOXED_BOOLEAN;
+import static io.github.ascopes.hcl4j.core.binary.HclBinarySchema.KIND_LIST;
+import static io.github.ascopes.hcl4j.core.binary.HclBinarySchema.KIND_LOCATION;
+import static io.github.ascopes.hcl4j.core.binary.HclBinarySchema.KIND_RECORD;
+import static io.github.ascopes.hcl4j.core.binary.HclBinarySchema.KIND_STRING;
+import static io.github.ascopes.hcl4j.core.binary.HclBinarySchema.KIND_TOKEN_TYPE;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.binary.HclBinarySchema.TokenLayout;
+import io.github.ascopes.hcl4j.core.ex.HclBinaryFormatException;
+import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
+import io.github.ascopes.hcl4j.core.ex.HclStreamException;
+import io.github.ascopes.hcl4j.core.inputs.HclLocation;
+import io.github.ascopes.hcl4j.core.intern.ImmutableArrayList;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reader for the binary encoding produced by {@link HclBinaryAstWriter}.
+ *
+ * <p>The reader checks that the data was written from the same source text, and by a version of
+ * this library with the same AST types. If either check fails, the data is treated as stale and
+ * {@code null} is returned, so that the caller can parse the source again instead.
+ *
+ * <p>The data is not trusted. Every length is checked against the bytes that remain before
+ * anything is allocated for it, every ID is checked against the table it refers to, every record
+ * is checked to be of the type its parent expects, and records may be nested at most
+ * {@value #MAX_DEPTH} deep. Corrupt data is reported as a {@link HclBinaryFormatException} rather
+ * than exhausting memory or the stack.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclBinaryAstReader {
+
+  // Low enough that reading never overflows a default-sized thread stack.
+  static final int MAX_DEPTH = 512;
+
+  private static final HclTokenType[] TOKEN_TYPES = HclTokenType.values();
+
+  private final HclBinarySchema schema;
+
+  /**
+   * Initialize the reader.
+   */
+  public HclBinaryAstReader() {
+    schema = HclBinarySchema.INSTANCE;
+  }
+
+  /**
+   * Read an AST from the given input stream.
+   *
+   * @param input  the input stream to read from. This will not be closed.
+   * @param source the source that the AST is expected to have been parsed from.
+   * @return the AST, or {@code null} if the data is stale.
+   * @throws HclStreamException        if an {@link IOException} occurs reading the stream.
+   * @throws HclBinaryFormatException if the data is not a valid binary AST.
+   */
+  @Nullable
+  public HclBodyNode read(InputStream input, CharSequence source) throws HclProcessingException {
+    return read(input, HclBinarySchema.contentHash(source));
+  }
+
+  /**
+   * Read an AST from the given input stream, given a hash of the source that has already been
+   * computed.
+   *
+   * @param input       the input stream to read from. This will not be closed.
+   * @param contentHash the SHA-256 hash of the UTF-8 encoding of the source that the AST is
+   *                    expected to have been parsed from.
+   * @return the AST, or {@code null} if the data is stale.
+   * @throws HclStreamException        if an {@link IOException} occurs reading the stream.
+   * @throws HclBinaryFormatException if the data is not a valid binary AST.
+   */
+  @Nullable
+  public HclBodyNode read(
+      InputStream input,
+      byte[] contentHash
+  ) throws HclProcessingException {
+    byte[] bytes;
+
+    try {
+      bytes = input.readAllBytes();
+    } catch (IOException ex) {
+      throw new HclStreamException("Failed to read binary AST", ex);
+    }
+
+    return new Decoder(bytes).readFile(contentHash);
+  }
+
+  private final class Decoder {
+
+    private final byte[] bytes;
+    private int offset;
+    private String[] strings;
+    private long lastPosition;
+    private long lastLine;
+    private long lastColumn;
+    private int depth;
+
+    private Decoder(byte[] bytes) {
+      this.bytes = bytes;
+      offset = 0;
+      depth = 0;
+      strings = new String[0];
+      lastPosition = 0;
+      lastLine = 1;
+      lastColumn = 1;
+    }
+
+    @Nullable
+    private HclBodyNode readFile(byte[] contentHash) {
+      if (bytes.length < 4 || readInt() != HclBinarySchema.MAGIC) {
+        throw new HclBinaryFormatException("Data is not a binary AST");
+      }
+
+      if (readByte() != HclBinarySchema.VERSION || readLong() != schema.fingerprint()) {
+        // Written by a different version of this library.
+        return null;
+      }
+
+      if (bytes.length - offset < HclBinarySchema.HASH_LENGTH) {
+        throw truncated();
+      }
+
+      var hash = Arrays.copyOfRange(bytes, offset, offset + HclBinarySchema.HASH_LENGTH);
+      offset += HclBinarySchema.HASH_LENGTH;
+
+      if (!Arrays.equals(hash, contentHash)) {
+        // Source has changed since this was written.
+        return null;
+      }
+
+      // Every string takes at least one byte for its length.
+      strings = new String[readLength()];
+
+      for (var i = 0; i < strings.length; ++i) {
+        var length = readLength();
+        strings[i] = new String(bytes, offset, length, StandardCharsets.UTF_8);
+        offset += length;
+      }
+
+      var root = readRecord(HclBodyNode.class);
+
+      if (!(root instanceof HclBodyNode body) || offset != bytes.length) {
+        throw new HclBinaryFormatException("Binary AST does not contain a single body");
+      }
+
+      return body;
+    }
+
+    @Nullable
+    private Object readValue(byte kind, Class<?> type) {
+      return switch (kind) {
+        case KIND_LOCATION -> readLocation();
+        case KIND_STRING -> readString();
+        case KIND_BOOLEAN -> readByte() != 0;
+        case KIND_BOXED_BOOLEAN -> switch (readByte()) {
+          case 0 -> null;
+          case 1 -> Boolean.FALSE;
+          default -> Boolean.TRUE;
+        };
+        case KIND_BIG_INTEGER -> {
+          var string = readString();
+          yield string == null ? null : readNumber(string, BigInteger::new);
+        }
+        case KIND_BIG_DECIMAL -> {
+          var string = readString();
+          yield string == null ? null : readNumber(string, BigDecimal::new);
+        }
+        case KIND_TOKEN_TYPE -> TOKEN_TYPES[readId(TOKEN_TYPES.length, "token type")];
+        case KIND_LIST -> readList(type);
+        default -> readRecord(type);
+      };
+    }
+
+    private HclLocation readLocation() {
+      return readLocation(readVarint());
+    }
+
+    // Read a location given its header, with any extra flags already shifted out.
+    private HclLocation readLocation(long header) {
+      var positionDelta = unZigZag(header >>> 1);
+      var position = lastPosition + positionDelta;
+      long line;
+      long column;
+
+      if ((header & 1) == 0) {
+        // Further along the same line as the last location.
+        line = lastLine;
+        column = lastColumn + positionDelta;
+      } else {
+        line = lastLine + unZigZag(readVarint());
+        column = readVarint();
+      }
+
+      return skipLocation(new HclLocation(position, line, column));
+    }
+
+    private HclLocation skipLocation(HclLocation location) {
+      lastPosition = location.position();
+      lastLine = location.line();
+      lastColumn = location.column();
+      return location;
+    }
+
+    @Nullable
+    private String readString() {
+      var id = readId(strings.length + 1, "string");
+      return id == 0 ? null : strings[id - 1];
+    }
+
+    private <N> N readNumber(String string, Function<String, N> parser) {
+      try {
+        return parser.apply(string);
+      } catch (NumberFormatException ex) {
+        throw new HclBinaryFormatException("Invalid number " + string + " in binary AST", ex);
+      }
+    }
+
+    private List<Object> readList(Class<?> elementType) {
+      // Every element takes at least one byte for its type ID.
+      var elements = new Object[readLength()];
+      for (var i = 0; i < elements.length; ++i) {
+        elements[i] = readRecord(elementType);
+      }
+      return new ImmutableArrayList<>(elements);
+    }
+
+    @Nullable
+    private Record readRecord(Class<?> type) {
+      var id = readId(schema.typeCount() + 1, "type");
+
+      if (id == 0) {
+        return null;
+      }
+
+      if (++depth > MAX_DEPTH) {
+        throw new HclBinaryFormatException("Binary AST is nested more than " + MAX_DEPTH
+            + " records deep");
+      }
+
+      var typeId = id - 1;
+      var shape = schema.shape(typeId);
+
+      if (!type.isAssignableFrom(shape.type())) {
+        throw new HclBinaryFormatException("Found " + shape.type().getSimpleName() + " where "
+            + type.getSimpleName() + " was expected in binary AST");
+      }
+
+      var kinds = schema.kinds(typeId);
+      var classes = schema.classes(typeId);
+      var layout = schema.tokenLayout(typeId);
+      var values = layout == null
+          ? readValues(kinds, classes)
+          : readToken(layout, kinds, classes);
+
+      --depth;
+      return shape.create(values);
+    }
+
+    private Object[] readValues(byte[] kinds, Class<?>[] classes) {
+      var values = new Object[kinds.length];
+
+      for (var i = 0; i < kinds.length; ++i) {
+        values[i] = readValue(kinds[i], classes[i]);
+      }
+
+      return values;
+    }
+
+    private Object[] readToken(TokenLayout layout, byte[] kinds, Class<?>[] classes) {
+      var values = new Object[kinds.length];
+      HclTokenType type = null;
+      var symbolic = false;
+      var impliedEnd = false;
+
+      for (var i = 0; i < kinds.length; ++i) {
+        if (i == layout.type()) {
+          var header = readVarint();
+          type = TOKEN_TYPES[checkId(header >>> 1, TOKEN_TYPES.length, "token type")];
+          symbolic = (header & 1) != 0;
+
+          if (symbolic && type.symbol() == null) {
+            throw new HclBinaryFormatException("Token type " + type + " has no symbol");
+          }
+
+          values[i] = type;
+        } else if (i == layout.raw()) {
+          var raw = symbolic ? type.symbol() : readString();
+
+          if (raw == null) {
+            throw new HclBinaryFormatException("Token at offset " + offset + " has no raw text");
+          }
+
+          values[i] = raw;
+        } else if (i == layout.start()) {
+          var header = readVarint();
+          impliedEnd = (header & 1) != 0;
+          values[i] = readLocation(header >>> 1);
+        } else if (i == layout.end() && impliedEnd) {
+          var start = (HclLocation) values[layout.start()];
+          var raw = (CharSequence) values[layout.raw()];
+          values[i] = skipLocation(HclBinarySchema.endOf(start, raw));
+        } else {
+          values[i] = readValue(kinds[i], classes[i]);
+        }
+      }
+
+      return values;
+    }
+
+    // Read an index into a table of the given size.
+    private int readId(int count, String description) {
+      return checkId(readVarint(), count, description);
+    }
+
+    private int checkId(long id, int count, String description) {
+      if (id < 0 || id >= count) {
+        throw new HclBinaryFormatException("Unknown " + description + " ID " + id + " at offset "
+            + offset + " in binary AST");
+      }
+
+      return (int) id;
+    }
+
+    // Read a count of items that each take at least one byte, and check that they can fit.
+    private int readLength() {
+      var length = readVarint();
+
+      if (length < 0 || length > bytes.length - offset) {
+        throw new HclBinaryFormatException("Length " + length + " at offset " + offset
+            + " exceeds the remaining data in binary AST");
+      }
+
+      return (int) length;
+    }
+
+    private int readByte() {
+      if (offset >= bytes.length) {
+        throw truncated();
+      }
+
+      return bytes[offset++] & 0xFF;
+    }
+
+    private int readInt() {
+      return readByte() << 24 | readByte() << 16 | readByte() << 8 | readByte();
+    }
+
+    private long readLong() {
+      return (long) readInt() << 32 | readInt() & 0xFFFFFFFFL;
+    }
+
+    private long readVarint() {
+      var result = 0L;
+      var shift = 0;
+
+      while (true) {
+        var next = readByte();
+        result |= (long) (next & 0x7F) << shift;
+
+        if ((next & 0x80) == 0) {
+          return result;
+        }
+
+        shift += 7;
+
+        if (shift >= 64) {
+          throw new HclBinaryFormatException("Malformed variable-length integer in binary AST");
+        }
+      }
+    }
+
+    private HclBinaryFormatException truncated() {
+      return new HclBinaryFormatException("Binary AST is truncated at offset " + offset);
+    }
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.binary;
+
+import static io.github.ascopes.hcl4j.core.binary.HclBinarySchema.KIND_BIG_DECIMAL;
+import static io.github.ascopes.hcl4j.core.binary.HclBinarySchema.KIND_BIG_INTEGER;
+import static io.github.ascopes.hcl4j.core.binary.HclBinarySchema.KIND_BOOLEAN;
+import static io.github.ascopes.hcl4j.core.binary.HclBinarySchema.KIND_BOXED_BOOLEAN;
+import static io.github.ascopes.hcl4j.core.binary.HclBinarySchema.KIND_LIST;
+import static io.github.ascopes.hcl4j.core.binary.HclBinarySchema.KIND_LOCATION;
+import static io.github.ascopes.hcl4j.core.binary.HclBinarySchema.KIND_RECORD;
+import static io.github.ascopes.hcl4j.core.binary.HclBinarySchema.KIND_STRING;
+import static io.github.ascopes.hcl4j.core.binary.HclBinarySchema.KIND_TOKEN_TYPE;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.binary.HclBinarySchema.TokenLayout;
+import io.github.ascopes.hcl4j.core.ex.HclStreamException;
+import io.github.ascopes.hcl4j.core.inputs.HclLocation;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writer for a compact binary encoding of a parsed config file, suitable for caching on disk.
+ *
+ * <p>The encoding consists of:
+ *
+ * <ul>
+ *   <li>A header holding a magic number, format version, fingerprint of the AST schema, and a
+ *     SHA-256 hash of the source that was parsed.</li>
+ *   <li>A table of every distinct string in the AST (token content, mostly), so that repeated
+ *     identifiers and operators are only stored once.</li>
+ *   <li>The AST itself, written depth-first. Each record is written as its type ID followed by its
+ *     components. Locations are written as variable-length deltas from the previous location.
+ *     The line and column are only written when they cannot be worked out from the position,
+ *     which is only the case for the first location on each line, so most locations take a
+ *     single byte. Tokens also leave out their raw text if it is the symbol of their type, and
+ *     their end location if it directly follows their raw text.</li>
+ * </ul>
+ *
+ * <p>Use {@link HclBinaryAstReader} to read the encoding back.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclBinaryAstWriter {
+
+  private final HclBinarySchema schema;
+
+  /**
+   * Initialize the writer.
+   */
+  public HclBinaryAstWriter() {
+    schema = HclBinarySchema.INSTANCE;
+  }
+
+  /**
+   * Write the given AST to the output stream.
+   *
+   * @param body   the AST to write.
+   * @param source the source that the AST was parsed from, which is hashed so that readers can
+   *               detect if it has since changed.
+   * @param output the output stream to write to. This will not be closed.
+   * @throws HclStreamException if an {@link IOException} occurs writing to the stream.
+   */
+  public void write(
+      HclBodyNode body,
+      CharSequence source,
+      OutputStream output
+  ) throws HclStreamException {
+    write(body, HclBinarySchema.contentHash(source), output);
+  }
+
+  /**
+   * Write the given AST to the output stream, given a hash of the source that has already been
+   * computed.
+   *
+   * @param body        the AST to write.
+   * @param contentHash the SHA-256 hash of the UTF-8 encoding of the source that the AST was
+   *                    parsed from.
+   * @param output      the output stream to write to. This will not be closed.
+   * @throws HclStreamException if an {@link IOException} occurs writing to the stream.
+   */
+  public void write(
+      HclBodyNode body,
+      byte[] contentHash,
+      OutputStream output
+  ) throws HclStreamException {
+    if (contentHash.length != HclBinarySchema.HASH_LENGTH) {
+      throw new IllegalArgumentException("Content hash must be " + HclBinarySchema.HASH_LENGTH
+          + " bytes long");
+    }
+
+    var encoder = new Encoder();
+    encoder.writeValue(KIND_RECORD, body);
+
+    var header = new ByteSink();
+    header.writeInt(HclBinarySchema.MAGIC);
+    header.writeByte(HclBinarySchema.VERSION);
+    header.writeLong(schema.fingerprint());
+    header.writeBytes(contentHash);
+    header.writeVarint(encoder.strings.size());
+
+    for (var string : encoder.strings) {
+      var bytes = string.getBytes(StandardCharsets.UTF_8);
+      header.writeVarint(bytes.length);
+      header.writeBytes(bytes);
+    }
+
+    try {
+      header.writeTo(output);
+      encoder.body.writeTo(output);
+    } catch (IOException ex) {
+      throw new HclStreamException("Failed to write binary AST", ex);
+    }
+  }
+
+  private final class Encoder {
+
+    private final ByteSink body = new ByteSink();
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private long lastPosition = 0;
+    private long lastLine = 1;
+    private long lastColumn = 1;
+
+    private void writeValue(byte kind, @Nullable Object value) {
+      switch (kind) {
+        case KIND_LOCATION -> writeLocation((HclLocation) value);
+        case KIND_STRING -> writeString((CharSequence) value);
+        case KIND_BOOLEAN -> body.writeByte((Boolean) value ? 1 : 0);
+        case KIND_BOXED_BOOLEAN -> body.writeByte(value == null ? 0 : (Boolean) value ? 2 : 1);
+        case KIND_BIG_INTEGER, KIND_BIG_DECIMAL -> writeString(value == null
+            ? null
+            : value.toString());
+        case KIND_TOKEN_TYPE -> body.writeVarint(((HclTokenType) value).ordinal());
+        case KIND_LIST -> writeList((List<?>) value);
+        default -> writeRecord((Record) value);
+      }
+    }
+
+    private void writeLocation(HclLocation location) {
+      writeLocation(location, 0, 0);
+    }
+
+    // Any extra flags are written in the lowest bits, before the position delta.
+    private void writeLocation(HclLocation location, int flags, int flagCount) {
+      var positionDelta = location.position() - lastPosition;
+      var header = zigZag(positionDelta) << 1;
+
+      // The lowest bit after the flags is set if the location is not further along the same line
+      // as the last one.
+      var sameLine = location.line() == lastLine && location.column() - lastColumn == positionDelta;
+      header = (sameLine ? header : header | 1) << flagCount | flags;
+      body.writeVarint(header);
+
+      if (!sameLine) {
+        body.writeVarint(zigZag(location.line() - lastLine));
+        body.writeVarint(location.column());
+      }
+
+      skipLocation(location);
+    }
+
+    private void skipLocation(HclLocation location) {
+      lastPosition = location.position();
+      lastLine = location.line();
+      lastColumn = location.column();
+    }
+
+    private void writeString(@Nullable CharSequence value) {
+      if (value == null) {
+        body.writeVarint(0);
+        return;
+      }
+
+      var string = value.toString();
+      var id = stringIds.get(string);
+
+      if (id == null) {
+        id = strings.size();
+        strings.add(string);
+        stringIds.put(string, id);
+      }
+
+      body.writeVarint(id + 1);
+    }
+
+    private void writeList(List<?> list) {
+      body.writeVarint(list.size());
+      for (var element : list) {
+        writeRecord((Record) element);
+      }
+    }
+
+    private void writeRecord(@Nullable Record record) {
+      if (record == null) {
+        body.writeVarint(0);
+        return;
+      }
+
+      var typeId = schema.typeId(record.getClass());
+      body.writeVarint(typeId + 1);
+
+      var kinds = schema.kinds(typeId);
+      var values = schema.shape(typeId).read(record);
+      var layout = schema.tokenLayout(typeId);
+
+      if (layout != null) {
+        writeToken(layout, kinds, values);
+        return;
+      }
+
+      for (var i = 0; i < kinds.length; ++i) {
+        writeValue(kinds[i], values[i]);
+      }
+    }
+
+    private void writeToken(TokenLayout layout, byte[] kinds, Object[] values) {
+      var type = layout.type() < 0 ? null : (HclTokenType) values[layout.type()];
+      var raw = (CharSequence) values[layout.raw()];
+      var start = (HclLocation) values[layout.start()];
+      var end = (HclLocation) values[layout.end()];
+      var symbolic = type != null && type.symbol() != null && type.symbol().contentEquals(raw);
+      var impliedEnd = end.equals(HclBinarySchema.endOf(start, raw));
+
+      for (var i = 0; i < kinds.length; ++i) {
+        if (i == layout.type()) {
+          // The low bit is set if the raw text is the symbol of the token type.
+          body.writeVarint((long) type.ordinal() << 1 | (symbolic ? 1 : 0));
+        } else if (i == layout.raw()) {
+          if (!symbolic) {
+            writeString(raw);
+          }
+        } else if (i == layout.start()) {
+          writeLocation(start, impliedEnd ? 1 : 0, 1);
+        } else if (i == layout.end()) {
+          if (impliedEnd) {
+            skipLocation(end);
+          } else {
+            writeLocation(end);
+          }
+        } else {
+          writeValue(kinds[i], values[i]);
+        }
+      }
+    }
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static final class ByteSink {
+
+    private byte[] bytes = new byte[1024];
+    private int size = 0;
+
+    private void writeByte(int value) {
+      ensureCapacity(1);
+      bytes[size++] = (byte) value;
+    }
+
+    private void writeBytes(byte[] values) {
+      ensureCapacity(values.length);
+      System.arraycopy(values, 0, bytes, size, values.length);
+      size += values.length;
+    }
+
+    private void writeInt(int value) {
+      writeByte(value >>> 24);
+      writeByte(value >>> 16);
+      writeByte(value >>> 8);
+      writeByte(value);
+    }
+
+    private void writeLong(long value) {
+      writeInt((int) (value >>> 32));
+      writeInt((int) value);
+    }
+
+    private void writeVarint(long value) {
+      ensureCapacity(10);
+
+      while ((value & ~0x7FL) != 0) {
+        bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+
+      bytes[size++] = (byte) value;
+    }
+
+    private void writeTo(OutputStream output) throws IOException {
+      output.write(bytes, 0, size);
+    }
+
+    private void ensureCapacity(int extra) {
+      if (size + extra > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+      }
+    }
+  }
+}
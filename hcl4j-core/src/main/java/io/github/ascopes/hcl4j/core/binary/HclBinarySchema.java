@@ -0,0 +1,357 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.binary;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclIntegerLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclRealLiteralNode;
+import io.github.ascopes.hcl4j.core.inputs.HclLocation;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.intern.RecordShape;
+import io.github.ascopes.hcl4j.core.tokens.HclToken;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Description of the record types that can appear in a binary AST, and how each of their
+ * components is encoded.
+ *
+ * <p>The schema is derived by walking the component types of the AST records, starting from
+ * {@link HclBodyNode} and descending into the permitted subtypes of sealed interfaces, so it
+ * always matches the AST types in this version of the library. A fingerprint of the schema is
+ * written to each file so that files written by a version with a different AST are detected
+ * rather than misread.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+final class HclBinarySchema {
+
+  static final int MAGIC = 0x48434C42;
+  static final int VERSION = 2;
+  static final int HASH_LENGTH = 32;
+
+  static final byte KIND_LOCATION = 0;
+  static final byte KIND_STRING = 1;
+  static final byte KIND_BOOLEAN = 2;
+  static final byte KIND_BOXED_BOOLEAN = 3;
+  static final byte KIND_BIG_INTEGER = 4;
+  static final byte KIND_BIG_DECIMAL = 5;
+  static final byte KIND_TOKEN_TYPE = 6;
+  static final byte KIND_LIST = 7;
+  static final byte KIND_RECORD = 8;
+
+  // Non-sealed interfaces cannot be walked, so their implementations are listed here explicitly.
+  static final HclBinarySchema INSTANCE = new HclBinarySchema(
+      HclBodyNode.class,
+      HclIntegerLiteralNode.class,
+      HclRealLiteralNode.class
+  );
+
+  private final List<RecordShape> shapes;
+  private final byte[][] kinds;
+  private final Class<?>[][] classes;
+  private final TokenLayout[] tokenLayouts;
+  private final Map<Class<?>, Integer> typeIds;
+  private final long fingerprint;
+
+  private HclBinarySchema(Class<?>... roots) {
+    var types = new TreeSet<Class<?>>(Comparator.comparing(Class::getName));
+    for (var root : roots) {
+      collectTypes(root, types);
+    }
+
+    shapes = new ArrayList<>(types.size());
+    kinds = new byte[types.size()][];
+    classes = new Class<?>[types.size()][];
+    tokenLayouts = new TokenLayout[types.size()];
+    typeIds = new HashMap<>();
+
+    var description = new StringBuilder();
+
+    for (var type : types) {
+      var shape = RecordShape.of(type);
+      var components = shape.components();
+      var typeKinds = new byte[components.length];
+      var typeClasses = new Class<?>[components.length];
+
+      description.append(type.getName()).append('(');
+
+      for (var i = 0; i < components.length; ++i) {
+        typeKinds[i] = kindOf(components[i].getType());
+        typeClasses[i] = typeKinds[i] == KIND_LIST
+            ? elementClassOf(components[i].getGenericType())
+            : components[i].getType();
+        description.append(components[i].getName()).append(':').append(typeKinds[i]).append(',');
+      }
+
+      description.append(")\n");
+
+      typeIds.put(type, shapes.size());
+      kinds[shapes.size()] = typeKinds;
+      classes[shapes.size()] = typeClasses;
+      tokenLayouts[shapes.size()] = tokenLayoutOf(type, components, typeKinds);
+      shapes.add(shape);
+    }
+
+    fingerprint = ByteBuffer.wrap(sha256(description)).getLong();
+  }
+
+  /**
+   * Get the schema fingerprint.
+   *
+   * @return the fingerprint.
+   */
+  long fingerprint() {
+    return fingerprint;
+  }
+
+  /**
+   * Get the ID of a record type.
+   *
+   * @param type the record type.
+   * @return the ID.
+   * @throws IllegalArgumentException if the type is not part of the schema.
+   */
+  int typeId(Class<?> type) {
+    var id = typeIds.get(type);
+    if (id == null) {
+      throw new IllegalArgumentException("Type " + type.getName() + " is not part of the AST");
+    }
+    return id;
+  }
+
+  /**
+   * Get the number of record types.
+   *
+   * @return the number of record types.
+   */
+  int typeCount() {
+    return shapes.size();
+  }
+
+  /**
+   * Get the shape of the record type with the given ID.
+   *
+   * @param typeId the type ID.
+   * @return the shape.
+   */
+  RecordShape shape(int typeId) {
+    return shapes.get(typeId);
+  }
+
+  /**
+   * Get the component kinds of the record type with the given ID.
+   *
+   * @param typeId the type ID.
+   * @return the component kinds. This must not be modified.
+   */
+  byte[] kinds(int typeId) {
+    return kinds[typeId];
+  }
+
+  /**
+   * Get the classes that the components of the record type with the given ID must be instances
+   * of. For list components, this is the class of the list elements instead.
+   *
+   * @param typeId the type ID.
+   * @return the component classes. This must not be modified.
+   */
+  Class<?>[] classes(int typeId) {
+    return classes[typeId];
+  }
+
+  /**
+   * Get the layout of the record type with the given ID, if it is a token that can be encoded
+   * more tightly.
+   *
+   * @param typeId the type ID.
+   * @return the layout, or {@code null} if the record type is not such a token.
+   */
+  @Nullable
+  TokenLayout tokenLayout(int typeId) {
+    return tokenLayouts[typeId];
+  }
+
+  /**
+   * Compute the content hash of some source text.
+   *
+   * @param source the source text.
+   * @return the hash, which will be {@link #HASH_LENGTH} bytes long.
+   */
+  static byte[] contentHash(CharSequence source) {
+    return sha256(source);
+  }
+
+  private static byte[] sha256(CharSequence text) {
+    try {
+      return MessageDigest.getInstance("SHA-256")
+          .digest(text.toString().getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException ex) {
+      // All JVMs are required to support SHA-256.
+      throw new IllegalStateException("SHA-256 is not available", ex);
+    }
+  }
+
+  private static byte kindOf(Class<?> type) {
+    if (type == HclLocation.class) {
+      return KIND_LOCATION;
+    } else if (type == CharSequence.class) {
+      return KIND_STRING;
+    } else if (type == boolean.class) {
+      return KIND_BOOLEAN;
+    } else if (type == Boolean.class) {
+      return KIND_BOXED_BOOLEAN;
+    } else if (type == BigInteger.class) {
+      return KIND_BIG_INTEGER;
+    } else if (type == BigDecimal.class) {
+      return KIND_BIG_DECIMAL;
+    } else if (type == HclTokenType.class) {
+      return KIND_TOKEN_TYPE;
+    } else if (type == List.class) {
+      return KIND_LIST;
+    } else {
+      return KIND_RECORD;
+    }
+  }
+
+  /**
+   * Get the location just past some raw text, if it does not span several lines.
+   *
+   * @param start the start of the raw text.
+   * @param raw   the raw text.
+   * @return the end location.
+   */
+  static HclLocation endOf(HclLocation start, CharSequence raw) {
+    return new HclLocation(start.position() + raw.length(), start.line(),
+        start.column() + raw.length());
+  }
+
+  @Nullable
+  private static TokenLayout tokenLayoutOf(
+      Class<?> type,
+      RecordComponent[] components,
+      byte[] kinds
+  ) {
+    if (!HclToken.class.isAssignableFrom(type)) {
+      return null;
+    }
+
+    var tokenType = indexOf(components, kinds, "type", KIND_TOKEN_TYPE);
+    var raw = indexOf(components, kinds, "raw", KIND_STRING);
+    var start = indexOf(components, kinds, "start", KIND_LOCATION);
+    var end = indexOf(components, kinds, "end", KIND_LOCATION);
+
+    // Each of these has to be known by the time the next one is read.
+    return tokenType < raw && 0 <= raw && raw < start && start < end
+        ? new TokenLayout(tokenType, raw, start, end)
+        : null;
+  }
+
+  private static int indexOf(RecordComponent[] components, byte[] kinds, String name, byte kind) {
+    for (var i = 0; i < components.length; ++i) {
+      if (components[i].getName().equals(name) && kinds[i] == kind) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static Class<?> elementClassOf(Type listType) {
+    var element = ((ParameterizedType) listType).getActualTypeArguments()[0];
+
+    if (element instanceof WildcardType wildcardType) {
+      element = wildcardType.getUpperBounds()[0];
+    }
+
+    return (Class<?>) element;
+  }
+
+  /**
+   * Indexes of the components of a token record that are encoded more tightly than usual.
+   *
+   * <p>The raw text is left out when it is the fixed symbol of the token type, and the end
+   * location is left out when it directly follows the raw text on the same line, which between
+   * them covers most tokens.
+   *
+   * @param type  the index of the token type, or -1 if the token type is not a component.
+   * @param raw   the index of the raw text.
+   * @param start the index of the start location.
+   * @param end   the index of the end location.
+   */
+  record TokenLayout(int type, int raw, int start, int end) {
+
+  }
+
+  private static void collectTypes(Type type, TreeSet<Class<?>> types) {
+    if (type instanceof ParameterizedType parameterizedType) {
+      for (var argument : parameterizedType.getActualTypeArguments()) {
+        collectTypes(argument, types);
+      }
+      return;
+    }
+
+    if (type instanceof WildcardType wildcardType) {
+      for (var bound : wildcardType.getUpperBounds()) {
+        collectTypes(bound, types);
+      }
+      return;
+    }
+
+    var cls = (Class<?>) type;
+
+    if (kindOf(cls) != KIND_RECORD) {
+      return;
+    }
+
+    if (cls.isSealed()) {
+      for (var subclass : cls.getPermittedSubclasses()) {
+        collectTypes(subclass, types);
+      }
+      return;
+    }
+
+    if (cls.isInterface()) {
+      // Non-sealed, so implementations must be provided as roots.
+      return;
+    }
+
+    if (!cls.isRecord()) {
+      throw new IllegalStateException("Cannot encode AST type " + cls.getName());
+    }
+
+    if (types.add(cls)) {
+      for (var component : cls.getRecordComponents()) {
+        collectTypes(component.getGenericType(), types);
+      }
+    }
+  }
+}
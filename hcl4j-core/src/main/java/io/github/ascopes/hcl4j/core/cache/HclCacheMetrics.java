@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.cache;
+
+/**
+ * Snapshot of the metrics for a {@link HclParseCache}.
+ *
+ * @param hits        the number of requests that were served from memory.
+ * @param diskHits    the number of requests that were served from the disk tier.
+ * @param misses      the number of requests that had to be parsed.
+ * @param evictions   the number of entries evicted to free space.
+ * @param collections the number of entries dropped because their value was garbage collected.
+ * @param entryCount  the number of entries currently held in memory.
+ * @param totalWeight the total weight of the entries currently held in memory.
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public record HclCacheMetrics(
+    long hits,
+    long diskHits,
+    long misses,
+    long evictions,
+    long collections,
+    long entryCount,
+    long totalWeight
+) {
+
+  /**
+   * Get the proportion of requests that did not need to be parsed.
+   *
+   * @return the hit rate, between 0 and 1, or 0 if there have been no requests.
+   */
+  public double hitRate() {
+    var requests = hits + diskHits + misses;
+    return requests == 0 ? 0 : (double) (hits + diskHits) / requests;
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.cache;
+
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+
+/**
+ * Policy that decides which entry to evict from a cache once it exceeds its maximum weight.
+ *
+ * <p>The cache informs the policy of every insertion, access and removal, and asks it for a victim
+ * whenever it needs to free space. Implementations do not need to be thread-safe, since the cache
+ * only calls them while holding its own lock.
+ *
+ * @param <K> the cache key type.
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public interface HclEvictionPolicy<K> {
+
+  /**
+   * Record that an entry was inserted.
+   *
+   * @param key    the key of the entry.
+   * @param weight the weight of the entry.
+   */
+  void recordInsertion(K key, long weight);
+
+  /**
+   * Record that an existing entry was accessed.
+   *
+   * @param key the key of the entry.
+   */
+  void recordAccess(K key);
+
+  /**
+   * Record that an entry was removed, either because it was evicted or because its value was
+   * garbage collected.
+   *
+   * @param key the key of the entry.
+   */
+  void recordRemoval(K key);
+
+  /**
+   * Select the next entry to evict.
+   *
+   * <p>The cache will call {@link #recordRemoval} once the entry has been evicted.
+   *
+   * @return the key of the entry to evict, or {@code null} if there are no entries.
+   */
+  @Nullable
+  K selectVictim();
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.cache;
+
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import java.util.LinkedHashSet;
+
+/**
+ * Eviction policy that evicts the least recently used entry.
+ *
+ * <p>This class is <strong>not</strong> thread-safe.
+ *
+ * @param <K> the cache key type.
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclLruEvictionPolicy<K> implements HclEvictionPolicy<K> {
+
+  // Iteration order is least recently used first.
+  private final LinkedHashSet<K> keys;
+
+  /**
+   * Initialize the policy.
+   */
+  public HclLruEvictionPolicy() {
+    keys = new LinkedHashSet<>();
+  }
+
+  @Override
+  public void recordInsertion(K key, long weight) {
+    keys.remove(key);
+    keys.add(key);
+  }
+
+  @Override
+  public void recordAccess(K key) {
+    if (keys.remove(key)) {
+      keys.add(key);
+    }
+  }
+
+  @Override
+  public void recordRemoval(K key) {
+    keys.remove(key);
+  }
+
+  @Nullable
+  @Override
+  public K selectVictim() {
+    var iterator = keys.iterator();
+    return iterator.hasNext() ? iterator.next() : null;
+  }
+}
@@ -0,0 +1,466 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.cache;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.binary.HclBinaryAstReader;
+import io.github.ascopes.hcl4j.core.binary.HclBinaryAstWriter;
+import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
+import io.github.ascopes.hcl4j.core.ex.HclStreamException;
+import io.github.ascopes.hcl4j.core.inputs.HclStringCharSource;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.parser.HclConfigFileParser;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared cache of parsed config files.
+ *
+ * <p>Entries are keyed by a SHA-256 hash of the file content, so identical files loaded from
+ * different paths share a single AST. Files loaded with {@link #parse(Path)} are additionally keyed
+ * by their path, size and modification time, which lets unchanged files be served without being
+ * read at all.
+ *
+ * <p>Each entry is weighted by the length of its source text. Once the total weight exceeds the
+ * maximum, entries are evicted as chosen by the {@link HclEvictionPolicy}. Values can optionally be
+ * held by {@link SoftReference soft references}, in which case the garbage collector may also
+ * discard them when memory is low.
+ *
+ * <p>If a disk directory is given, every parsed file is also written there in the binary format of
+ * {@link HclBinaryAstWriter}, and files missing from memory are read back from there before falling
+ * back to parsing. The disk tier is best-effort: any file that cannot be read or written is
+ * ignored.
+ *
+ * <p>Concurrent requests for the same content will only parse it once.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclParseCache {
+
+  private static final int MAX_FILE_KEYS = 4_096;
+  private static final String DISK_SUFFIX = ".hclb";
+
+  private final long maxWeight;
+  private final HclEvictionPolicy<String> evictionPolicy;
+  private final boolean softValues;
+  private final @Nullable Path diskDirectory;
+
+  private final Object lock;
+  private final Map<String, Entry> entries;
+  private final Map<FileKey, String> fileHashes;
+  private final Map<String, CompletableFuture<HclBodyNode>> inFlight;
+  private final HclBinaryAstReader binaryReader;
+  private final HclBinaryAstWriter binaryWriter;
+  private long totalWeight;
+
+  private final LongAdder hits;
+  private final LongAdder diskHits;
+  private final LongAdder misses;
+  private final LongAdder evictions;
+  private final LongAdder collections;
+
+  /**
+   * Initialize an in-memory cache that strongly references its entries and evicts the least
+   * recently used entries first.
+   *
+   * @param maxWeight the maximum total length of source text to keep parsed results for.
+   */
+  public HclParseCache(long maxWeight) {
+    this(maxWeight, new HclLruEvictionPolicy<>(), false, null);
+  }
+
+  /**
+   * Initialize the cache.
+   *
+   * @param maxWeight      the maximum total length of source text to keep parsed results for.
+   * @param evictionPolicy the policy to select entries to evict. This must not be shared with any
+   *                       other cache.
+   * @param softValues     {@code true} to hold values by soft references, {@code false} to hold
+   *                       them by strong references.
+   * @param diskDirectory  the directory to use as the second tier, or {@code null} to only cache in
+   *                       memory. This will be created if it does not exist.
+   */
+  public HclParseCache(
+      long maxWeight,
+      HclEvictionPolicy<String> evictionPolicy,
+      boolean softValues,
+      @Nullable Path diskDirectory
+  ) {
+    if (maxWeight < 0) {
+      throw new IllegalArgumentException("maxWeight cannot be negative");
+    }
+
+    this.maxWeight = maxWeight;
+    this.evictionPolicy = Objects.requireNonNull(evictionPolicy);
+    this.softValues = softValues;
+    this.diskDirectory = diskDirectory;
+
+    lock = new Object();
+    entries = new HashMap<>();
+    fileHashes = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<FileKey, String> eldest) {
+        return size() > MAX_FILE_KEYS;
+      }
+    };
+    inFlight = new ConcurrentHashMap<>();
+    binaryReader = new HclBinaryAstReader();
+    binaryWriter = new HclBinaryAstWriter();
+    totalWeight = 0;
+
+    hits = new LongAdder();
+    diskHits = new LongAdder();
+    misses = new LongAdder();
+    evictions = new LongAdder();
+    collections = new LongAdder();
+  }
+
+  /**
+   * Parse the config file at the given path, or return the cached result.
+   *
+   * <p>The file is assumed to be encoded in UTF-8.
+   *
+   * @param path the path to the file.
+   * @return the parsed file.
+   * @throws HclStreamException     if the file cannot be read.
+   * @throws HclProcessingException if the file cannot be parsed.
+   */
+  public HclBodyNode parse(Path path) throws HclProcessingException {
+    var absolutePath = path.toAbsolutePath().normalize();
+    BasicFileAttributes attributes;
+
+    try {
+      attributes = Files.readAttributes(absolutePath, BasicFileAttributes.class);
+    } catch (IOException ex) {
+      throw new HclStreamException("Failed to read attributes of " + absolutePath, ex);
+    }
+
+    var key = new FileKey(absolutePath, attributes.size(), attributes.lastModifiedTime());
+    String hash;
+
+    synchronized (lock) {
+      hash = fileHashes.get(key);
+    }
+
+    if (hash != null) {
+      var cached = getEntry(hash);
+      if (cached != null) {
+        hits.increment();
+        return cached;
+      }
+    }
+
+    String source;
+
+    try {
+      source = new String(Files.readAllBytes(absolutePath), StandardCharsets.UTF_8);
+    } catch (IOException ex) {
+      throw new HclStreamException("Failed to read " + absolutePath, ex);
+    }
+
+    if (!source.isEmpty() && source.charAt(0) == '\uFEFF') {
+      source = source.substring(1);
+    }
+
+    var digest = digest(source);
+    hash = HexFormat.of().formatHex(digest);
+
+    synchronized (lock) {
+      fileHashes.put(key, hash);
+    }
+
+    return load(absolutePath.toString(), source, hash, digest);
+  }
+
+  /**
+   * Parse the given config file content, or return the cached result.
+   *
+   * <p>Since entries are keyed by content, the name is only used for error messages, and the
+   * result may be shared with content parsed under a different name.
+   *
+   * @param name   the name of the file.
+   * @param source the content of the file.
+   * @return the parsed file.
+   * @throws HclProcessingException if the content cannot be parsed.
+   */
+  public HclBodyNode parse(String name, CharSequence source) throws HclProcessingException {
+    var digest = digest(source);
+    return load(name, source, HexFormat.of().formatHex(digest), digest);
+  }
+
+  /**
+   * Get a snapshot of the metrics for this cache.
+   *
+   * @return the metrics.
+   */
+  public HclCacheMetrics metrics() {
+    long entryCount;
+    long weight;
+
+    synchronized (lock) {
+      entryCount = entries.size();
+      weight = totalWeight;
+    }
+
+    return new HclCacheMetrics(
+        hits.sum(),
+        diskHits.sum(),
+        misses.sum(),
+        evictions.sum(),
+        collections.sum(),
+        entryCount,
+        weight
+    );
+  }
+
+  /**
+   * Discard all entries held in memory.
+   *
+   * <p>The disk tier and metrics are not affected.
+   */
+  public void invalidateAll() {
+    synchronized (lock) {
+      for (var hash : entries.keySet()) {
+        evictionPolicy.recordRemoval(hash);
+      }
+      entries.clear();
+      fileHashes.clear();
+      totalWeight = 0;
+    }
+  }
+
+  private HclBodyNode load(
+      String name,
+      CharSequence source,
+      String hash,
+      byte[] digest
+  ) throws HclProcessingException {
+    var cached = getEntry(hash);
+    if (cached != null) {
+      hits.increment();
+      return cached;
+    }
+
+    var future = new CompletableFuture<HclBodyNode>();
+    var existing = inFlight.putIfAbsent(hash, future);
+
+    if (existing != null) {
+      // Another thread is already loading this content.
+      hits.increment();
+      return await(existing);
+    }
+
+    try {
+      // Another thread may have finished loading this content since the miss above.
+      var body = getEntry(hash);
+
+      if (body != null) {
+        hits.increment();
+        future.complete(body);
+        return body;
+      }
+
+      body = readFromDisk(hash, digest);
+
+      if (body == null) {
+        misses.increment();
+
+        try (var charSource = new HclStringCharSource(name, source)) {
+          body = new HclConfigFileParser(charSource).parseFile();
+        }
+
+        writeToDisk(hash, digest, body);
+      } else {
+        diskHits.increment();
+      }
+
+      putEntry(hash, body, source.length());
+      future.complete(body);
+      return body;
+    } catch (RuntimeException | Error ex) {
+      future.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      inFlight.remove(hash, future);
+    }
+  }
+
+  @Nullable
+  private HclBodyNode getEntry(String hash) {
+    synchronized (lock) {
+      var entry = entries.get(hash);
+
+      if (entry == null) {
+        return null;
+      }
+
+      var body = entry.get();
+
+      if (body == null) {
+        // Cleared by the garbage collector, which is not an eviction.
+        if (removeEntry(hash) != null) {
+          collections.increment();
+        }
+        return null;
+      }
+
+      evictionPolicy.recordAccess(hash);
+      return body;
+    }
+  }
+
+  private void putEntry(String hash, HclBodyNode body, long weight) {
+    var value = softValues ? new SoftReference<>(body) : body;
+
+    synchronized (lock) {
+      var previous = entries.put(hash, new Entry(value, weight));
+
+      if (previous != null) {
+        totalWeight -= previous.weight;
+      }
+
+      totalWeight += weight;
+      evictionPolicy.recordInsertion(hash, weight);
+
+      while (totalWeight > maxWeight) {
+        var victim = evictionPolicy.selectVictim();
+        if (victim == null || removeEntry(victim) == null) {
+          break;
+        }
+        evictions.increment();
+      }
+    }
+  }
+
+  @Nullable
+  private Entry removeEntry(String hash) {
+    // Caller must hold the lock.
+    var entry = entries.remove(hash);
+    evictionPolicy.recordRemoval(hash);
+
+    if (entry != null) {
+      totalWeight -= entry.weight;
+    }
+
+    return entry;
+  }
+
+  @Nullable
+  private HclBodyNode readFromDisk(String hash, byte[] digest) {
+    if (diskDirectory == null) {
+      return null;
+    }
+
+    var file = diskDirectory.resolve(hash + DISK_SUFFIX);
+
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+
+    try (var input = Files.newInputStream(file)) {
+      return binaryReader.read(input, digest);
+    } catch (IOException | HclProcessingException ex) {
+      return null;
+    }
+  }
+
+  private void writeToDisk(String hash, byte[] digest, HclBodyNode body) {
+    if (diskDirectory == null) {
+      return;
+    }
+
+    try {
+      Files.createDirectories(diskDirectory);
+      var file = diskDirectory.resolve(hash + DISK_SUFFIX);
+      var temp = Files.createTempFile(diskDirectory, hash, ".tmp");
+
+      try {
+        try (var output = Files.newOutputStream(temp)) {
+          binaryWriter.write(body, digest, output);
+        }
+        // Move into place so that concurrent readers never see a partial file.
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    } catch (IOException | HclProcessingException ex) {
+      // Best-effort only, the next load will just parse the file again.
+    }
+  }
+
+  private static HclBodyNode await(
+      CompletableFuture<HclBodyNode> future
+  ) throws HclProcessingException {
+    try {
+      return future.join();
+    } catch (CompletionException ex) {
+      var cause = ex.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      throw ex;
+    }
+  }
+
+  private static byte[] digest(CharSequence source) {
+    MessageDigest digest;
+
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      // Every Java platform is required to support SHA-256.
+      throw new IllegalStateException("SHA-256 is not supported", ex);
+    }
+
+    return digest.digest(source.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private record FileKey(Path path, long size, FileTime lastModifiedTime) {
+  }
+
+  private record Entry(Object value, long weight) {
+
+    @Nullable
+    private HclBodyNode get() {
+      return value instanceof SoftReference<?> reference
+          ? (HclBodyNode) reference.get()
+          : (HclBodyNode) value;
+    }
+  }
+}
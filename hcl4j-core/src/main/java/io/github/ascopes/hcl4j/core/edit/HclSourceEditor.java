@@ -0,0 +1,276 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.edit;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclAttributeNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyItemNode;
+import io.github.ascopes.hcl4j.core.ex.HclStreamException;
+import io.github.ascopes.hcl4j.core.inputs.HclLocatable;
+import io.github.ascopes.hcl4j.core.inputs.HclTextEdit;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Collects edits to the source text of a parsed file, addressed by the nodes they change.
+ *
+ * <p>Edits are applied to the original text as-is, so everything outside of the edited ranges is
+ * kept exactly as it was, including formatting and comments. Each edit is trimmed to the
+ * characters that actually change, so that replacing {@code "1.2.3"} with {@code "1.2.4"} only
+ * touches a single character, and edits that change nothing are dropped.
+ *
+ * <p>Nodes must have been parsed from the same source text, starting at position 0. Edits may not
+ * overlap each other.
+ *
+ * <p>This class is <strong>not</strong> thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclSourceEditor {
+
+  private final CharSequence source;
+  private final TreeMap<Integer, HclTextEdit> edits;
+
+  /**
+   * Initialize the editor.
+   *
+   * @param source the source text to edit.
+   */
+  public HclSourceEditor(CharSequence source) {
+    this.source = source;
+    edits = new TreeMap<>();
+  }
+
+  /**
+   * Replace the text of a node.
+   *
+   * @param node the node to replace.
+   * @param text the replacement text.
+   * @return this editor, for chaining calls.
+   * @throws IllegalArgumentException  if the edit overlaps an existing edit.
+   * @throws IndexOutOfBoundsException if the node is not within the source text.
+   */
+  public HclSourceEditor replace(HclLocatable node, CharSequence text) {
+    var start = position(node.start().position());
+    return edit(start, position(node.end().position()) - start, text);
+  }
+
+  /**
+   * Replace the expression of an attribute, keeping its name and the spacing around the equals
+   * sign.
+   *
+   * @param attribute      the attribute to change.
+   * @param expressionText the text of the new expression.
+   * @return this editor, for chaining calls.
+   * @throws IllegalArgumentException  if the edit overlaps an existing edit.
+   * @throws IndexOutOfBoundsException if the attribute is not within the source text.
+   */
+  public HclSourceEditor replaceExpression(
+      HclAttributeNode attribute,
+      CharSequence expressionText
+  ) {
+    return replace(attribute.expression(), expressionText);
+  }
+
+  /**
+   * Insert text immediately before a node.
+   *
+   * @param node the node.
+   * @param text the text to insert.
+   * @return this editor, for chaining calls.
+   * @throws IllegalArgumentException  if the edit overlaps an existing edit.
+   * @throws IndexOutOfBoundsException if the node is not within the source text.
+   */
+  public HclSourceEditor insertBefore(HclLocatable node, CharSequence text) {
+    return edit(position(node.start().position()), 0, text);
+  }
+
+  /**
+   * Insert text immediately after a node.
+   *
+   * @param node the node.
+   * @param text the text to insert.
+   * @return this editor, for chaining calls.
+   * @throws IllegalArgumentException  if the edit overlaps an existing edit.
+   * @throws IndexOutOfBoundsException if the node is not within the source text.
+   */
+  public HclSourceEditor insertAfter(HclLocatable node, CharSequence text) {
+    return edit(position(node.end().position()), 0, text);
+  }
+
+  /**
+   * Remove an attribute or block.
+   *
+   * <p>If the item is the only thing on its lines, the lines are removed entirely rather than
+   * being left blank.
+   *
+   * @param item the item to remove.
+   * @return this editor, for chaining calls.
+   * @throws IllegalArgumentException  if the edit overlaps an existing edit.
+   * @throws IndexOutOfBoundsException if the item is not within the source text.
+   */
+  public HclSourceEditor removeItem(HclBodyItemNode item) {
+    var start = position(item.start().position());
+    var end = position(item.end().position());
+
+    var lineStart = start;
+    while (lineStart > 0 && isBlank(source.charAt(lineStart - 1))) {
+      --lineStart;
+    }
+
+    var lineEnd = end;
+    while (lineEnd < source.length() && isBlank(source.charAt(lineEnd))) {
+      ++lineEnd;
+    }
+
+    var ownsLines = (lineStart == 0 || source.charAt(lineStart - 1) == '\n')
+        && (lineEnd == source.length() || source.charAt(lineEnd) == '\n');
+
+    if (ownsLines) {
+      start = lineStart;
+      end = Math.min(lineEnd + 1, source.length());
+    }
+
+    return edit(start, end - start, "");
+  }
+
+  /**
+   * Replace a range of the source text.
+   *
+   * @param offset        the position of the first character to replace.
+   * @param removedLength the number of characters to replace.
+   * @param insertedText  the replacement text.
+   * @return this editor, for chaining calls.
+   * @throws IllegalArgumentException  if the edit overlaps an existing edit.
+   * @throws IndexOutOfBoundsException if the range is not within the source text.
+   */
+  public HclSourceEditor edit(int offset, int removedLength, CharSequence insertedText) {
+    var end = offset + removedLength;
+
+    if (offset < 0 || removedLength < 0 || end > source.length()) {
+      throw new IndexOutOfBoundsException("Range [" + offset + ", " + end
+          + ") is out of bounds for text of length " + source.length());
+    }
+
+    // Trim the characters that are unchanged at either end.
+    var insertedLength = insertedText.length();
+    var prefix = 0;
+
+    while (prefix < removedLength
+        && prefix < insertedLength
+        && source.charAt(offset + prefix) == insertedText.charAt(prefix)) {
+      ++prefix;
+    }
+
+    var suffix = 0;
+
+    while (suffix < removedLength - prefix
+        && suffix < insertedLength - prefix
+        && source.charAt(end - suffix - 1) == insertedText.charAt(insertedLength - suffix - 1)) {
+      ++suffix;
+    }
+
+    var edit = new HclTextEdit(
+        offset + prefix,
+        removedLength - prefix - suffix,
+        insertedText.subSequence(prefix, insertedLength - suffix).toString()
+    );
+
+    if (edit.removedLength() == 0 && edit.insertedText().length() == 0) {
+      return this;
+    }
+
+    var previous = edits.floorEntry(edit.offset());
+    var next = edits.ceilingEntry(edit.offset());
+
+    if (previous != null && overlaps(previous.getValue(), edit)
+        || next != null && overlaps(edit, next.getValue())) {
+      throw new IllegalArgumentException("Edit " + edit + " overlaps an existing edit");
+    }
+
+    edits.put(edit.offset(), edit);
+    return this;
+  }
+
+  /**
+   * Get the edits made so far.
+   *
+   * <p>The edits are in descending order of offset, so they can be applied one at a time (e.g.
+   * with {@link HclTextEdit#apply} or an incremental parser) without adjusting their offsets.
+   *
+   * @return the edits.
+   */
+  public List<HclTextEdit> edits() {
+    return List.copyOf(new ArrayList<>(edits.descendingMap().values()));
+  }
+
+  /**
+   * Apply all edits to the source text.
+   *
+   * @return the edited text.
+   */
+  public String apply() {
+    var delta = 0;
+    for (var edit : edits.values()) {
+      delta += edit.insertedText().length() - edit.removedLength();
+    }
+
+    var output = new StringBuilder(source.length() + delta);
+    applyTo(output);
+    return output.toString();
+  }
+
+  /**
+   * Apply all edits to the source text, writing the result to the given output.
+   *
+   * @param output the output to write to. This will not be closed.
+   * @throws HclStreamException if an {@link IOException} occurs writing to the output.
+   */
+  public void applyTo(Appendable output) throws HclStreamException {
+    try {
+      var cursor = 0;
+
+      for (var edit : edits.values()) {
+        output.append(source, cursor, edit.offset()).append(edit.insertedText());
+        cursor = edit.removedEnd();
+      }
+
+      output.append(source, cursor, source.length());
+    } catch (IOException ex) {
+      throw new HclStreamException("Failed to write edited output", ex);
+    }
+  }
+
+  private int position(long position) {
+    if (position < 0 || position > source.length()) {
+      throw new IndexOutOfBoundsException("Position " + position
+          + " is out of bounds for text of length " + source.length());
+    }
+
+    return (int) position;
+  }
+
+  private static boolean overlaps(HclTextEdit first, HclTextEdit second) {
+    // Two edits at the same offset would be ambiguous about which comes first.
+    return first.offset() == second.offset() || first.removedEnd() > second.offset();
+  }
+
+  private static boolean isBlank(char c) {
+    return c == ' ' || c == '\t' || c == '\r';
+  }
+}
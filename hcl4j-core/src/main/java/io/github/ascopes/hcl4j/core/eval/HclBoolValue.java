@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+/**
+ * A boolean value.
+ *
+ * <p>There are exactly two instances, so values can be compared by reference.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclBoolValue implements HclValue {
+
+  /**
+   * The true value.
+   */
+  public static final HclBoolValue TRUE = new HclBoolValue(true);
+
+  /**
+   * The false value.
+   */
+  public static final HclBoolValue FALSE = new HclBoolValue(false);
+
+  private final boolean value;
+
+  private HclBoolValue(boolean value) {
+    this.value = value;
+  }
+
+  /**
+   * Get the value for the given boolean.
+   *
+   * @param value the boolean.
+   * @return the value.
+   */
+  public static HclBoolValue of(boolean value) {
+    return value ? TRUE : FALSE;
+  }
+
+  /**
+   * Get the boolean.
+   *
+   * @return the boolean.
+   */
+  public boolean booleanValue() {
+    return value;
+  }
+
+  @Override
+  public HclValueType type() {
+    return HclValueType.BOOL;
+  }
+
+  @Override
+  public String toString() {
+    return Boolean.toString(value);
+  }
+}
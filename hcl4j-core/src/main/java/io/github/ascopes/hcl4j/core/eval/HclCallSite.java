@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+import io.github.ascopes.hcl4j.core.ex.HclEvaluationException;
+import io.github.ascopes.hcl4j.core.inputs.HclLocatable;
+import io.github.ascopes.hcl4j.core.intern.ImmutableArrayList;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A function call that has been resolved by a {@link HclFunctionRegistry}.
+ *
+ * <p>Call sites hold the function that the call refers to, so calling through them does not
+ * look the function up again. Calls with up to three arguments can pass them directly, which
+ * avoids building an argument list unless the function needs one.
+ *
+ * <p>Calls to functions that are not defined resolve successfully, and fail when they are
+ * called. Errors thrown by the function are reported as a {@link HclEvaluationException} at
+ * the location of the call.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclCallSite {
+
+  private final String name;
+  private final @Nullable HclFunction function;
+  private final int argumentCount;
+  private final boolean expandsFinalArgument;
+
+  HclCallSite(
+      String name,
+      @Nullable HclFunction function,
+      int argumentCount,
+      boolean expandsFinalArgument
+  ) {
+    this.name = name;
+    this.function = function;
+    this.argumentCount = argumentCount;
+    this.expandsFinalArgument = expandsFinalArgument;
+  }
+
+  /**
+   * Get the function name.
+   *
+   * @return the function name.
+   */
+  public String name() {
+    return name;
+  }
+
+  /**
+   * Get the function.
+   *
+   * @return the function, or {@code null} if the function is not defined.
+   */
+  @Nullable
+  public HclFunction function() {
+    return function;
+  }
+
+  /**
+   * Get the number of argument expressions in the call.
+   *
+   * @return the number of argument expressions.
+   */
+  public int argumentCount() {
+    return argumentCount;
+  }
+
+  /**
+   * Determine if the final argument is expanded into multiple arguments with {@code ...}.
+   *
+   * @return {@code true} if the final argument is expanded.
+   */
+  public boolean expandsFinalArgument() {
+    return expandsFinalArgument;
+  }
+
+  /**
+   * Call the function with no arguments.
+   *
+   * @param node the call, for error reporting.
+   * @return the result.
+   * @throws HclEvaluationException if the call fails.
+   */
+  public HclValue call(HclLocatable node) throws HclEvaluationException {
+    try {
+      return require(node).call();
+    } catch (IllegalArgumentException | ArithmeticException | IndexOutOfBoundsException ex) {
+      throw failed(node, ex);
+    }
+  }
+
+  /**
+   * Call the function with one argument.
+   *
+   * @param node     the call, for error reporting.
+   * @param argument the argument.
+   * @return the result.
+   * @throws HclEvaluationException if the call fails.
+   */
+  public HclValue call(HclLocatable node, HclValue argument) throws HclEvaluationException {
+    try {
+      return require(node).call(argument);
+    } catch (IllegalArgumentException | ArithmeticException | IndexOutOfBoundsException ex) {
+      throw failed(node, ex);
+    }
+  }
+
+  /**
+   * Call the function with two arguments.
+   *
+   * @param node   the call, for error reporting.
+   * @param first  the first argument.
+   * @param second the second argument.
+   * @return the result.
+   * @throws HclEvaluationException if the call fails.
+   */
+  public HclValue call(
+      HclLocatable node,
+      HclValue first,
+      HclValue second
+  ) throws HclEvaluationException {
+    try {
+      return require(node).call(first, second);
+    } catch (IllegalArgumentException | ArithmeticException | IndexOutOfBoundsException ex) {
+      throw failed(node, ex);
+    }
+  }
+
+  /**
+   * Call the function with three arguments.
+   *
+   * @param node   the call, for error reporting.
+   * @param first  the first argument.
+   * @param second the second argument.
+   * @param third  the third argument.
+   * @return the result.
+   * @throws HclEvaluationException if the call fails.
+   */
+  public HclValue call(
+      HclLocatable node,
+      HclValue first,
+      HclValue second,
+      HclValue third
+  ) throws HclEvaluationException {
+    try {
+      return require(node).call(first, second, third);
+    } catch (IllegalArgumentException | ArithmeticException | IndexOutOfBoundsException ex) {
+      throw failed(node, ex);
+    }
+  }
+
+  /**
+   * Call the function with any number of arguments.
+   *
+   * @param node      the call, for error reporting.
+   * @param arguments the arguments, with any expanded final argument already expanded.
+   * @return the result.
+   * @throws HclEvaluationException if the call fails.
+   */
+  public HclValue call(
+      HclLocatable node,
+      List<HclValue> arguments
+  ) throws HclEvaluationException {
+    try {
+      return require(node).call(Collections.unmodifiableList(arguments));
+    } catch (IllegalArgumentException | ArithmeticException | IndexOutOfBoundsException ex) {
+      throw failed(node, ex);
+    }
+  }
+
+  /**
+   * Call the function with an array of arguments that the caller will not modify afterwards.
+   *
+   * @param node      the call, for error reporting.
+   * @param arguments the arguments, which are not copied.
+   * @return the result.
+   * @throws HclEvaluationException if the call fails.
+   */
+  HclValue call(HclLocatable node, HclValue[] arguments) throws HclEvaluationException {
+    try {
+      return require(node).call(new ImmutableArrayList<>(arguments));
+    } catch (IllegalArgumentException | ArithmeticException | IndexOutOfBoundsException ex) {
+      throw failed(node, ex);
+    }
+  }
+
+  private HclFunction require(HclLocatable node) {
+    if (function == null) {
+      throw new HclEvaluationException(node, "Call to unknown function \"" + name + "\"");
+    }
+    return function;
+  }
+
+  private HclEvaluationException failed(HclLocatable node, RuntimeException ex) {
+    return new HclEvaluationException(node, "Call to function \"" + name + "\" failed: "
+        + ex.getMessage(), ex);
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.ex.HclEvaluationException;
+import java.util.List;
+
+/**
+ * An expression compiled by a {@link HclExpressionCompiler}.
+ *
+ * <p>Variables are referred to by position rather than by name. The names that each position
+ * corresponds to are given by {@link #variables()}. Variables that are given a {@code null} value
+ * are treated as undefined, and only cause an error if the expression actually uses them.
+ *
+ * <p>Compiled expressions are immutable and thread-safe, and can be evaluated any number of times
+ * against different values.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclCompiledExpression {
+
+  private static final HclValue[] NO_LOCALS = new HclValue[0];
+
+  private final HclExpressionNode expression;
+  private final List<String> variables;
+  private final int localCount;
+  private final Code code;
+
+  HclCompiledExpression(
+      HclExpressionNode expression,
+      List<String> variables,
+      int localCount,
+      Code code
+  ) {
+    this.expression = expression;
+    this.variables = List.copyOf(variables);
+    this.localCount = localCount;
+    this.code = code;
+  }
+
+  /**
+   * Get the expression that was compiled.
+   *
+   * @return the expression.
+   */
+  public HclExpressionNode expression() {
+    return expression;
+  }
+
+  /**
+   * Get the names of the variables, in the order that their values must be given in.
+   *
+   * @return the variable names.
+   */
+  public List<String> variables() {
+    return variables;
+  }
+
+  /**
+   * Evaluate the expression.
+   *
+   * @param values the variable values, in the order given by {@link #variables()}.
+   * @return the result.
+   * @throws IllegalArgumentException if the wrong number of values is given.
+   * @throws HclEvaluationException   if the expression cannot be evaluated.
+   */
+  public HclValue evaluate(HclValue... values) throws HclEvaluationException {
+    if (values.length != variables.size()) {
+      throw new IllegalArgumentException("Expected " + variables.size()
+          + " variable values but got " + values.length);
+    }
+
+    return code.run(values, localCount == 0 ? NO_LOCALS : new HclValue[localCount]);
+  }
+
+  /**
+   * Evaluate the expression, taking the variable values from a context.
+   *
+   * <p>This looks up each variable by name, so is slower than passing the values directly.
+   *
+   * @param context the context to take the variables from.
+   * @return the result.
+   * @throws HclEvaluationException if the expression cannot be evaluated.
+   */
+  public HclValue evaluate(HclEvalContext context) throws HclEvaluationException {
+    var values = new HclValue[variables.size()];
+
+    for (var i = 0; i < values.length; ++i) {
+      values[i] = context.variable(variables.get(i));
+    }
+
+    return evaluate(values);
+  }
+
+  /**
+   * A compiled expression or subexpression.
+   */
+  @FunctionalInterface
+  interface Code {
+
+    /**
+     * Run the code.
+     *
+     * @param variables the variable values.
+     * @param locals    the values of variables declared by {@code for} expressions and
+     *                  directives.
+     * @return the result.
+     */
+    HclValue run(HclValue[] variables, HclValue[] locals);
+  }
+}
@@ -0,0 +1,1014 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectElementNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclTupleElementNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclTupleNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclBinaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclExprTermNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclTernaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclUnaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclWrappedExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.getattr.HclGetAttrNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclIdentifierNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclVariableExprNode;
+import io.github.ascopes.hcl4j.core.ast.index.HclIndexNode;
+import io.github.ascopes.hcl4j.core.ast.index.HclLegacyIndexNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForConditionNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForIntroNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForObjectExprNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForTupleExprNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclBooleanLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclIntegerLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclLiteralValueNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclNullLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclRealLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclHeredocTemplateNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclQuotedTemplateNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateContentNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateElsePartNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateForNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateForPartNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateIfNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateIfPartNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateInterpolationNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateItemNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.visit.HclNodeKind;
+import io.github.ascopes.hcl4j.core.ex.HclEvaluationException;
+import io.github.ascopes.hcl4j.core.inputs.HclLocatable;
+import io.github.ascopes.hcl4j.core.intern.ImmutableArrayList;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.intern.RecordShape;
+import io.github.ascopes.hcl4j.core.tokens.HclDefaultToken;
+import io.github.ascopes.hcl4j.core.tokens.HclRawTextToken;
+import io.github.ascopes.hcl4j.core.tokens.HclToken;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Optimisation pass that folds the constant subexpressions of an AST.
+ *
+ * <p>Operators, conditionals, traversals and quoted templates whose operands are all known are
+ * replaced with the literal they evaluate to, and conditionals and template {@code if} directives
+ * with a known condition are replaced with the branch that would be taken. Variables are known if
+ * they are defined in the context given to the folder. Function calls are never folded, as
+ * functions need not be pure, but their arguments are.
+ *
+ * <p>The result evaluates to the same value as the original tree. Subexpressions that would fail
+ * to evaluate are left in place so that the error is still raised during evaluation. Folded
+ * literals take the location of the subexpression they replace. Heredocs keep their text as
+ * written, as merging values into it could change the indentation that is removed from it.
+ *
+ * <p>Subtrees that contain nothing to fold are returned as the same instance. This class is
+ * thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclConstantFolder {
+
+  private final HclEvalContext context;
+
+  /**
+   * Initialize a folder that only folds expressions made entirely of literals.
+   */
+  public HclConstantFolder() {
+    this(HclEvalContext.EMPTY);
+  }
+
+  /**
+   * Initialize a folder that treats the variables in the given context as known.
+   *
+   * @param context the known variables. Functions in the context are ignored.
+   */
+  public HclConstantFolder(HclEvalContext context) {
+    this.context = context;
+  }
+
+  /**
+   * Fold the constant subexpressions of an expression.
+   *
+   * @param expression the expression to fold.
+   * @return the folded expression.
+   */
+  public HclExpressionNode fold(HclExpressionNode expression) {
+    return fold(expression, new Scope(context, Set.of())).node;
+  }
+
+  /**
+   * Fold the constant subexpressions of every expression in a body.
+   *
+   * @param body the body to fold.
+   * @return the folded body.
+   */
+  public HclBodyNode fold(HclBodyNode body) {
+    return (HclBodyNode) rebuild(body, new Scope(context, Set.of()));
+  }
+
+  private Folded fold(HclExpressionNode expression, Scope scope) {
+    var kind = HclNodeKind.of(expression);
+
+    if (kind == null) {
+      return new Folded((HclExpressionNode) rebuild(expression, scope), null);
+    }
+
+    return switch (kind) {
+      case BOOLEAN_LITERAL, INTEGER_LITERAL, REAL_LITERAL, NULL_LITERAL ->
+          new Folded(expression, literalValue((HclLiteralValueNode<?>) expression));
+      case VARIABLE_EXPR -> variable((HclVariableExprNode) expression, scope);
+      case WRAPPED_EXPRESSION -> wrappedExpression((HclWrappedExpressionNode) expression, scope);
+      case UNARY_OPERATION -> unaryOperation((HclUnaryOperationNode) expression, scope);
+      case BINARY_OPERATION -> binaryOperation((HclBinaryOperationNode) expression, scope);
+      case TERNARY_OPERATION -> ternaryOperation((HclTernaryOperationNode) expression, scope);
+      case TUPLE -> tuple((HclTupleNode) expression, scope);
+      case OBJECT -> object((HclObjectNode) expression, scope);
+      case GET_ATTR, INDEX, LEGACY_INDEX -> traversal((HclExprTermNode) expression, scope);
+      case FOR_TUPLE_EXPR -> new Folded(forTuple((HclForTupleExprNode) expression, scope), null);
+      case FOR_OBJECT_EXPR ->
+          new Folded(forObject((HclForObjectExprNode) expression, scope), null);
+      case QUOTED_TEMPLATE -> quotedTemplate((HclQuotedTemplateNode) expression, scope);
+      case HEREDOC_TEMPLATE -> heredocTemplate((HclHeredocTemplateNode) expression, scope);
+      default -> new Folded((HclExpressionNode) rebuild(expression, scope), null);
+    };
+  }
+
+  ////////////////////////////
+  // Variables and operators.
+  ////////////////////////////
+
+  private Folded variable(HclVariableExprNode node, Scope scope) {
+    var value = scope.variable(node.identifier().value().toString());
+    return value == null ? new Folded(node, null) : constant(node, value);
+  }
+
+  private Folded wrappedExpression(HclWrappedExpressionNode node, Scope scope) {
+    var inner = fold(node.expression(), scope);
+
+    if (inner.node == node.expression()) {
+      return new Folded(node, inner.value);
+    }
+
+    // Parentheses around a folded literal serve no purpose.
+    if (inner.value != null && isLiteral(inner.node)) {
+      return inner;
+    }
+
+    return new Folded(
+        new HclWrappedExpressionNode(node.leftParen(), inner.node, node.rightParen()),
+        inner.value
+    );
+  }
+
+  private Folded unaryOperation(HclUnaryOperationNode node, Scope scope) {
+    var operand = fold(node.value(), scope);
+    var rebuilt = operand.node == node.value()
+        ? node
+        : new HclUnaryOperationNode(node.operatorToken(), operand.node);
+
+    if (operand.value != null) {
+      try {
+        return constant(rebuilt, HclOperations.unary(node, operand.value));
+      } catch (HclEvaluationException ex) {
+        // Leave it for the error to be raised during evaluation.
+      }
+    }
+
+    return new Folded(rebuilt, null);
+  }
+
+  private Folded binaryOperation(HclBinaryOperationNode node, Scope scope) {
+    var left = fold(node.leftValue(), scope);
+    var right = fold(node.rightValue(), scope);
+    var rebuilt = left.node == node.leftValue() && right.node == node.rightValue()
+        ? node
+        : new HclBinaryOperationNode(left.node, node.operatorToken(), right.node);
+
+    try {
+      if (!HclOperations.isLogical(node)) {
+        if (left.value != null && right.value != null) {
+          return constant(rebuilt, HclOperations.binary(node, left.value, right.value));
+        }
+      } else if (left.value != null) {
+        var leftValue = HclOperations.toBoolean(left.value, node.leftValue());
+
+        // A left operand that decides the result makes the right operand dead code.
+        if (leftValue == (node.operatorToken().type() == HclTokenType.OR)) {
+          return constant(rebuilt, HclBoolValue.of(leftValue));
+        }
+
+        if (right.value != null) {
+          var rightValue = HclOperations.toBoolean(right.value, node.rightValue());
+          return constant(rebuilt, HclBoolValue.of(rightValue));
+        }
+      }
+    } catch (HclEvaluationException ex) {
+      // Leave it for the error to be raised during evaluation.
+    }
+
+    return new Folded(rebuilt, null);
+  }
+
+  private Folded ternaryOperation(HclTernaryOperationNode node, Scope scope) {
+    var condition = fold(node.condition(), scope);
+
+    if (condition.value != null) {
+      try {
+        return HclOperations.toBoolean(condition.value, node.condition())
+            ? fold(node.ifTrue(), scope)
+            : fold(node.ifFalse(), scope);
+      } catch (HclEvaluationException ex) {
+        // Leave it for the error to be raised during evaluation.
+      }
+    }
+
+    var ifTrue = fold(node.ifTrue(), scope);
+    var ifFalse = fold(node.ifFalse(), scope);
+
+    if (condition.node == node.condition()
+        && ifTrue.node == node.ifTrue()
+        && ifFalse.node == node.ifFalse()) {
+      return new Folded(node, null);
+    }
+
+    return new Folded(new HclTernaryOperationNode(
+        condition.node,
+        node.questionToken(),
+        ifTrue.node,
+        node.colonToken(),
+        ifFalse.node
+    ), null);
+  }
+
+  ////////////////
+  // Collections.
+  ////////////////
+
+  private Folded tuple(HclTupleNode node, Scope scope) {
+    var elements = node.elements();
+    var folded = new Object[elements.size()];
+    var values = new ArrayList<HclValue>(elements.size());
+    var known = true;
+    var changed = false;
+
+    for (var i = 0; i < folded.length; ++i) {
+      var element = elements.get(i);
+      var expression = fold(element.expression(), scope);
+
+      if (expression.node == element.expression()) {
+        folded[i] = element;
+      } else {
+        folded[i] = new HclTupleElementNode(element.commaToken(), expression.node);
+        changed = true;
+      }
+
+      if (expression.value == null) {
+        known = false;
+      } else {
+        values.add(expression.value);
+      }
+    }
+
+    var tuple = changed
+        ? new HclTupleNode(node.leftToken(), new ImmutableArrayList<>(folded),
+            node.trailerComma(), node.rightToken())
+        : node;
+    return new Folded(tuple, known ? HclTupleValue.of(values) : null);
+  }
+
+  private Folded object(HclObjectNode node, Scope scope) {
+    var elements = node.elements();
+    var folded = new Object[elements.size()];
+    var value = HclObjectValue.EMPTY;
+    var known = true;
+    var changed = false;
+
+    for (var i = 0; i < folded.length; ++i) {
+      var element = elements.get(i);
+      var keyExpression = element.keyExpression();
+      var keyNode = keyExpression;
+
+      // A bare identifier is the literal name of the attribute, so must not be replaced.
+      var key = HclOperations.literalKey(keyExpression);
+      if (key == null) {
+        var foldedKey = fold(keyExpression, scope);
+        keyNode = foldedKey.node;
+        key = foldedKey.value == null ? null : toText(foldedKey.value);
+      }
+
+      var valueExpression = fold(element.valueExpression(), scope);
+
+      if (keyNode == keyExpression && valueExpression.node == element.valueExpression()) {
+        folded[i] = element;
+      } else {
+        folded[i] = new HclObjectElementNode(element.commaToken(), keyNode,
+            element.keyIsExpression(), element.mapperToken(), valueExpression.node);
+        changed = true;
+      }
+
+      if (known && key != null && valueExpression.value != null && value.get(key) == null) {
+        value = value.with(key, valueExpression.value);
+      } else {
+        known = false;
+      }
+    }
+
+    var object = changed
+        ? new HclObjectNode(node.leftToken(), new ImmutableArrayList<>(folded),
+            node.trailerComma(), node.rightToken())
+        : node;
+    return new Folded(object, known ? value : null);
+  }
+
+  private HclExpressionNode forTuple(HclForTupleExprNode node, Scope scope) {
+    var intro = forIntro(node.intro(), scope);
+    var inner = scope.shadow(intro.firstIdentifier(), intro.secondIdentifier());
+    var expression = fold(node.expression(), inner).node;
+    var condition = forCondition(node.condition(), inner);
+
+    if (intro == node.intro()
+        && expression == node.expression()
+        && condition == node.condition()) {
+      return node;
+    }
+
+    return new HclForTupleExprNode(node.leftToken(), intro, expression, condition,
+        node.rightToken());
+  }
+
+  private HclExpressionNode forObject(HclForObjectExprNode node, Scope scope) {
+    var intro = forIntro(node.intro(), scope);
+    var inner = scope.shadow(intro.firstIdentifier(), intro.secondIdentifier());
+    var keyExpression = fold(node.keyExpression(), inner).node;
+    var valueExpression = fold(node.valueExpression(), inner).node;
+    var condition = forCondition(node.condition(), inner);
+
+    if (intro == node.intro()
+        && keyExpression == node.keyExpression()
+        && valueExpression == node.valueExpression()
+        && condition == node.condition()) {
+      return node;
+    }
+
+    return new HclForObjectExprNode(node.leftToken(), intro, keyExpression,
+        node.fatArrowToken(), valueExpression, node.ellipsisToken(), condition,
+        node.rightToken());
+  }
+
+  private HclForIntroNode forIntro(HclForIntroNode intro, Scope scope) {
+    var inExpression = fold(intro.inExpression(), scope).node;
+
+    return inExpression == intro.inExpression()
+        ? intro
+        : new HclForIntroNode(intro.forToken(), intro.firstIdentifier(), intro.commaToken(),
+            intro.secondIdentifier(), intro.inToken(), inExpression, intro.colonToken());
+  }
+
+  @Nullable
+  private HclForConditionNode forCondition(@Nullable HclForConditionNode condition, Scope scope) {
+    if (condition == null) {
+      return null;
+    }
+
+    var ifExpression = fold(condition.ifExpression(), scope).node;
+
+    return ifExpression == condition.ifExpression()
+        ? condition
+        : new HclForConditionNode(condition.ifToken(), ifExpression);
+  }
+
+  ///////////////
+  // Traversals.
+  ///////////////
+
+  private Folded traversal(HclExprTermNode node, Scope scope) {
+    var source = HclOperations.traversalSource(node);
+    var foldedSource = fold(source, scope);
+    var sourceNode = exprTerm(foldedSource.node);
+    HclExprTermNode rebuilt;
+    HclValue key;
+
+    if (node instanceof HclGetAttrNode getAttr) {
+      rebuilt = sourceNode == source
+          ? node
+          : new HclGetAttrNode(sourceNode, getAttr.dot(), getAttr.identifier());
+      key = new HclStringValue(getAttr.identifier().value().toString());
+    } else if (node instanceof HclIndexNode index) {
+      var foldedKey = fold(index.expression(), scope);
+      rebuilt = sourceNode == source && foldedKey.node == index.expression()
+          ? node
+          : new HclIndexNode(sourceNode, index.leftSquare(), foldedKey.node,
+              index.rightSquare());
+      key = foldedKey.value;
+    } else {
+      var index = (HclLegacyIndexNode) node;
+      rebuilt = sourceNode == source
+          ? node
+          : new HclLegacyIndexNode(sourceNode, index.dot(), index.digits());
+      key = HclNumberValue.of(index.digits().value());
+    }
+
+    if (foldedSource.value == null || key == null) {
+      return new Folded(rebuilt, null);
+    }
+
+    try {
+      var value = node instanceof HclGetAttrNode
+          ? HclOperations.attribute(node, foldedSource.value, ((HclStringValue) key).value())
+          : HclOperations.index(node, foldedSource.value, key);
+      return constant(rebuilt, value);
+    } catch (HclEvaluationException ex) {
+      // Leave it for the error to be raised during evaluation.
+      return new Folded(rebuilt, null);
+    }
+  }
+
+  //////////////
+  // Templates.
+  //////////////
+
+  private Folded quotedTemplate(HclQuotedTemplateNode node, Scope scope) {
+    var template = node.template();
+    var items = template.items();
+
+    // A template that is a single interpolation produces the value itself, not a string.
+    if (items.size() == 1 && isBareInterpolation(items.get(0))) {
+      var interpolation = (HclTemplateInterpolationNode) items.get(0);
+      var inner = fold(interpolation.expression(), scope);
+
+      if (inner.value != null && isLiteral(inner.node)) {
+        return inner;
+      }
+
+      if (inner.node == interpolation.expression()) {
+        return new Folded(node, inner.value);
+      }
+
+      var content = new HclTemplateContentNode(
+          List.of(interpolation(interpolation, inner.node)),
+          template.start(),
+          template.end()
+      );
+      return new Folded(
+          new HclQuotedTemplateNode(node.leftQuoteToken(), content, node.rightQuoteToken()),
+          inner.value
+      );
+    }
+
+    var content = templateContent(template, scope, true, false);
+
+    // Folding must not leave a bare interpolation behind, as that would stop the value from being
+    // converted to a string.
+    if (content.items().size() == 1 && isBareInterpolation(content.items().get(0))) {
+      content = templateContent(template, scope, false, false);
+    }
+
+    var rebuilt = content == template
+        ? node
+        : new HclQuotedTemplateNode(node.leftQuoteToken(), content, node.rightQuoteToken());
+
+    var text = new StringBuilder();
+    for (var item : content.items()) {
+      if (!(item instanceof HclTemplateLiteralNode literal)) {
+        return new Folded(rebuilt, null);
+      }
+      text.append(literal.value());
+    }
+
+    return new Folded(rebuilt, new HclStringValue(text.toString()));
+  }
+
+  private Folded heredocTemplate(HclHeredocTemplateNode node, Scope scope) {
+    var template = node.template();
+    var content = templateContent(template, scope, false, false);
+    var rebuilt = content == template
+        ? node
+        : new HclHeredocTemplateNode(node.anchorToken(), node.indentToken(),
+            node.openingIdentifierToken(), content, node.closingIdentifierToken());
+
+    if (!content.items().stream().allMatch(HclTemplateLiteralNode.class::isInstance)) {
+      return new Folded(rebuilt, null);
+    }
+
+    var writer = new HclTemplateWriter(node.indentToken() == null
+        ? 0
+        : HclTemplateWriter.commonIndent(content));
+    for (var item : content.items()) {
+      writer.literal(((HclTemplateLiteralNode) item).value());
+    }
+
+    return new Folded(rebuilt, new HclStringValue(writer.toString()));
+  }
+
+  private HclTemplateContentNode templateContent(
+      HclTemplateContentNode template,
+      Scope scope,
+      boolean inline,
+      boolean trimmed
+  ) {
+    var output = new ArrayList<HclTemplateItemNode>();
+    var changed = false;
+
+    for (var item : template.items()) {
+      changed |= templateItem(item, scope, inline, trimmed, output);
+    }
+
+    return changed
+        ? new HclTemplateContentNode(
+            new ImmutableArrayList<>(output.toArray()),
+            template.start(),
+            template.end()
+        )
+        : template;
+  }
+
+  private boolean templateItem(
+      HclTemplateItemNode item,
+      Scope scope,
+      boolean inline,
+      boolean trimmed,
+      List<HclTemplateItemNode> output
+  ) {
+    if (item instanceof HclTemplateLiteralNode literal) {
+      if (inline && !output.isEmpty()
+          && output.get(output.size() - 1) instanceof HclTemplateLiteralNode previous) {
+        output.set(output.size() - 1, merge(previous, literal.valueToken()));
+        return true;
+      }
+
+      output.add(literal);
+      return false;
+    }
+
+    // Text that replaces a directive or interpolation must not be stripped by a preceding trim
+    // marker, which only applies to text that was originally literal.
+    var canInline = inline && !trimsNext(output, trimmed);
+
+    if (item instanceof HclTemplateInterpolationNode interpolation) {
+      var inner = fold(interpolation.expression(), scope);
+
+      if (canInline && isBareInterpolation(interpolation) && inner.value != null) {
+        var text = toText(inner.value);
+
+        if (text != null) {
+          var token = new HclRawTextToken(escape(text), text, item.start(), item.end());
+          templateItem(new HclTemplateLiteralNode(token), scope, true, trimmed, output);
+          return true;
+        }
+      }
+
+      output.add(interpolation(interpolation, inner.node));
+      return inner.node != interpolation.expression();
+    }
+
+    if (item instanceof HclTemplateIfNode templateIf) {
+      return templateIf(templateIf, scope, inline, canInline, trimmed, output);
+    }
+
+    var templateFor = templateFor((HclTemplateForNode) item, scope, inline);
+    output.add(templateFor);
+    return templateFor != item;
+  }
+
+  private boolean templateIf(
+      HclTemplateIfNode node,
+      Scope scope,
+      boolean inline,
+      boolean canInline,
+      boolean trimmed,
+      List<HclTemplateItemNode> output
+  ) {
+    var ifPart = node.ifPart();
+    var elsePart = node.elsePart();
+    var condition = fold(ifPart.expression(), scope);
+
+    if (canInline && condition.value != null && !hasTrimMarkers(node)) {
+      try {
+        var taken = HclOperations.toBoolean(condition.value, ifPart.expression())
+            ? ifPart.template().items()
+            : elsePart == null ? List.<HclTemplateItemNode>of() : elsePart.template().items();
+
+        // The end of the directive stops a trim marker at the end of the branch from applying
+        // to the text after it, so the branch cannot be spliced in if it ends with one.
+        if (!trimsNext(taken, false)) {
+          for (var item : taken) {
+            templateItem(item, scope, true, trimmed, output);
+          }
+
+          return true;
+        }
+      } catch (HclEvaluationException ex) {
+        // Leave it for the error to be raised during evaluation.
+      }
+    }
+
+    var ifTemplate = templateContent(ifPart.template(), scope, inline,
+        ifPart.rightTrimToken() != null);
+    var foldedIfPart = condition.node == ifPart.expression() && ifTemplate == ifPart.template()
+        ? ifPart
+        : new HclTemplateIfPartNode(ifPart.leftToken(), ifPart.leftTrimToken(),
+            ifPart.ifToken(), condition.node, ifPart.rightTrimToken(), ifPart.rightToken(),
+            ifTemplate);
+
+    var foldedElsePart = elsePart;
+    if (elsePart != null) {
+      var elseTemplate = templateContent(elsePart.template(), scope, inline,
+          elsePart.rightTrimToken() != null);
+
+      if (elseTemplate != elsePart.template()) {
+        foldedElsePart = new HclTemplateElsePartNode(elsePart.leftToken(),
+            elsePart.leftTrimToken(), elsePart.elseToken(), elsePart.rightTrimToken(),
+            elsePart.rightToken(), elseTemplate);
+      }
+    }
+
+    if (foldedIfPart == ifPart && foldedElsePart == elsePart) {
+      output.add(node);
+      return false;
+    }
+
+    output.add(new HclTemplateIfNode(foldedIfPart, foldedElsePart, node.endIfPart()));
+    return true;
+  }
+
+  private HclTemplateItemNode templateFor(HclTemplateForNode node, Scope scope, boolean inline) {
+    var forPart = node.forPart();
+    var expression = fold(forPart.expression(), scope).node;
+    var inner = scope.shadow(forPart.firstIdentifier(), forPart.secondIdentifier());
+    var template = templateContent(node.template(), inner, inline,
+        forPart.rightTrimToken() != null);
+
+    if (expression == forPart.expression() && template == node.template()) {
+      return node;
+    }
+
+    var foldedForPart = expression == forPart.expression()
+        ? forPart
+        : new HclTemplateForPartNode(forPart.leftToken(), forPart.leftTrimToken(),
+            forPart.forToken(), forPart.firstIdentifier(), forPart.commaToken(),
+            forPart.secondIdentifier(), forPart.inToken(), expression,
+            forPart.rightTrimToken(), forPart.rightToken());
+
+    return new HclTemplateForNode(foldedForPart, template, node.endForPart());
+  }
+
+  private static HclTemplateInterpolationNode interpolation(
+      HclTemplateInterpolationNode node,
+      HclExpressionNode expression
+  ) {
+    return expression == node.expression()
+        ? node
+        : new HclTemplateInterpolationNode(node.leftToken(), node.leftTrimToken(), expression,
+            node.rightTrimToken(), node.rightToken());
+  }
+
+  private static boolean isBareInterpolation(HclTemplateItemNode item) {
+    return item instanceof HclTemplateInterpolationNode interpolation
+        && interpolation.leftTrimToken() == null
+        && interpolation.rightTrimToken() == null;
+  }
+
+  private static boolean hasTrimMarkers(HclTemplateIfNode node) {
+    var ifPart = node.ifPart();
+    var elsePart = node.elsePart();
+    var endPart = node.endIfPart();
+
+    return ifPart.leftTrimToken() != null
+        || ifPart.rightTrimToken() != null
+        || elsePart != null && (elsePart.leftTrimToken() != null
+            || elsePart.rightTrimToken() != null)
+        || endPart.leftTrimToken() != null
+        || endPart.rightTrimToken() != null;
+  }
+
+  private static boolean trimsNext(List<? extends HclTemplateItemNode> output, boolean trimmed) {
+    if (output.isEmpty()) {
+      return trimmed;
+    }
+
+    var previous = output.get(output.size() - 1);
+
+    if (previous instanceof HclTemplateInterpolationNode interpolation) {
+      return interpolation.rightTrimToken() != null;
+    }
+
+    if (previous instanceof HclTemplateIfNode templateIf) {
+      return templateIf.endIfPart().rightTrimToken() != null;
+    }
+
+    if (previous instanceof HclTemplateForNode templateFor) {
+      return templateFor.endForPart().rightTrimToken() != null;
+    }
+
+    return false;
+  }
+
+  private static HclTemplateLiteralNode merge(HclTemplateLiteralNode previous, HclToken next) {
+    var previousToken = previous.valueToken();
+    var raw = new StringBuilder().append(previousToken.raw());
+    var content = previous.value();
+    var nextRaw = next.raw();
+
+    // "$" followed by "{" would start an interpolation once joined, so it needs escaping.
+    if (content.length() > 0 && nextRaw.length() > 0 && nextRaw.charAt(0) == '{') {
+      var last = content.charAt(content.length() - 1);
+      if (last == '$' || last == '%') {
+        raw.append(last);
+      }
+    }
+
+    raw.append(nextRaw);
+    var joined = new StringBuilder(content).append(next.content()).toString();
+    var token = new HclRawTextToken(raw.toString(), joined, previousToken.start(), next.end());
+    return new HclTemplateLiteralNode(token);
+  }
+
+  private static String escape(String text) {
+    var raw = new StringBuilder(text.length());
+
+    for (var i = 0; i < text.length(); ++i) {
+      var c = text.charAt(i);
+
+      switch (c) {
+        case '\\' -> raw.append("\\\\");
+        case '"' -> raw.append("\\\"");
+        case '\n' -> raw.append("\\n");
+        case '\r' -> raw.append("\\r");
+        case '\t' -> raw.append("\\t");
+        case '$', '%' -> {
+          raw.append(c);
+          if (i + 1 < text.length() && text.charAt(i + 1) == '{') {
+            raw.append(c);
+          }
+        }
+        default -> {
+          if (c < ' ') {
+            raw.append(String.format("\\u%04x", (int) c));
+          } else {
+            raw.append(c);
+          }
+        }
+      }
+    }
+
+    return raw.toString();
+  }
+
+  ////////////////
+  // Rebuilding.
+  ////////////////
+
+  private HclLocatable rebuild(HclLocatable node, Scope scope) {
+    if (!(node instanceof Record record)) {
+      return node;
+    }
+
+    var shape = RecordShape.of(node.getClass());
+    var components = shape.components();
+    var values = shape.read(record);
+    Object[] rebuilt = null;
+
+    for (var i = 0; i < values.length; ++i) {
+      var value = values[i];
+      var replacement = value;
+
+      if (value instanceof HclToken) {
+        continue;
+      }
+
+      if (value instanceof HclExpressionNode expression) {
+        replacement = coerce(components[i].getType(), fold(expression, scope).node, expression);
+      } else if (value instanceof HclLocatable child) {
+        replacement = rebuild(child, scope);
+      } else if (value instanceof List<?> list) {
+        replacement = rebuildList(list, scope);
+      }
+
+      if (replacement != value) {
+        if (rebuilt == null) {
+          rebuilt = values.clone();
+        }
+        rebuilt[i] = replacement;
+      }
+    }
+
+    return rebuilt == null ? node : (HclLocatable) shape.create(rebuilt);
+  }
+
+  private List<?> rebuildList(List<?> list, Scope scope) {
+    Object[] rebuilt = null;
+
+    for (var i = 0; i < list.size(); ++i) {
+      var element = list.get(i);
+
+      if (element instanceof HclLocatable child && !(element instanceof HclToken)) {
+        var replacement = element instanceof HclExpressionNode expression
+            ? coerce(element.getClass(), fold(expression, scope).node, expression)
+            : rebuild(child, scope);
+
+        if (replacement != element) {
+          if (rebuilt == null) {
+            rebuilt = list.toArray();
+          }
+          rebuilt[i] = replacement;
+        }
+      }
+    }
+
+    return rebuilt == null ? list : new ImmutableArrayList<>(rebuilt);
+  }
+
+  /**
+   * Make a folded expression fit the place of the expression it replaces, wrapping it in
+   * parentheses if it is not an expression term where one is required.
+   */
+  private static Object coerce(
+      Class<?> type,
+      HclExpressionNode folded,
+      HclExpressionNode original
+  ) {
+    if (folded == original || type.isInstance(folded)) {
+      return folded;
+    }
+
+    var wrapped = exprTerm(folded);
+    return type.isInstance(wrapped) ? wrapped : original;
+  }
+
+  private static HclExprTermNode exprTerm(HclExpressionNode node) {
+    if (node instanceof HclExprTermNode exprTerm) {
+      return exprTerm;
+    }
+
+    return new HclWrappedExpressionNode(
+        token(HclTokenType.LEFT_PAREN, node),
+        node,
+        token(HclTokenType.RIGHT_PAREN, node)
+    );
+  }
+
+  //////////////
+  // Literals.
+  //////////////
+
+  private static Folded constant(HclExpressionNode fallback, HclValue value) {
+    if (isLiteral(fallback)) {
+      return new Folded(fallback, value);
+    }
+
+    var literal = literal(value, fallback);
+    return new Folded(literal == null ? fallback : literal, value);
+  }
+
+  private static boolean isLiteral(HclExpressionNode node) {
+    if (node instanceof HclLiteralValueNode<?>) {
+      return true;
+    }
+
+    if (node instanceof HclUnaryOperationNode unary) {
+      return unary.operatorToken().type() == HclTokenType.MINUS
+          && unary.value() instanceof HclLiteralValueNode<?>;
+    }
+
+    return node instanceof HclQuotedTemplateNode quoted
+        && quoted.template().items().stream().allMatch(HclTemplateLiteralNode.class::isInstance);
+  }
+
+  @Nullable
+  private static HclValue literalValue(HclLiteralValueNode<?> node) {
+    if (node instanceof HclBooleanLiteralNode bool) {
+      return HclBoolValue.of(bool.value());
+    }
+
+    if (node instanceof HclIntegerLiteralNode integer) {
+      return HclNumberValue.of(integer.value());
+    }
+
+    if (node instanceof HclRealLiteralNode real) {
+      return HclNumberValue.of(real.value());
+    }
+
+    return node instanceof HclNullLiteralNode ? HclNullValue.INSTANCE : null;
+  }
+
+  @Nullable
+  private static HclExpressionNode literal(HclValue value, HclLocatable at) {
+    return switch (value.type()) {
+      case NULL -> new HclNullLiteralNode(token(HclTokenType.IDENTIFIER, "null", at));
+      case BOOL -> {
+        var bool = ((HclBoolValue) value).booleanValue();
+        yield new HclBooleanLiteralNode(
+            token(HclTokenType.IDENTIFIER, Boolean.toString(bool), at), bool);
+      }
+      case NUMBER -> number((HclNumberValue) value, at);
+      case STRING -> string(((HclStringValue) value).value(), at);
+      default -> null;
+    };
+  }
+
+  private static HclExpressionNode number(HclNumberValue number, HclLocatable at) {
+    if (number.signum() < 0) {
+      return new HclUnaryOperationNode(
+          token(HclTokenType.MINUS, at),
+          number(number.negate(), at)
+      );
+    }
+
+    var decimal = number.bigDecimalValue().stripTrailingZeros();
+
+    if (decimal.scale() <= 0) {
+      var integer = decimal.toBigIntegerExact();
+      return new HclIntegerLiteralNode(
+          token(HclTokenType.INTEGER, integer.toString(), at), integer);
+    }
+
+    return new HclRealLiteralNode(
+        token(HclTokenType.REAL, decimal.toPlainString(), at),
+        new BigDecimal(decimal.toPlainString())
+    );
+  }
+
+  private static HclExpressionNode string(String value, HclLocatable at) {
+    List<HclTemplateItemNode> items = value.isEmpty()
+        ? List.of()
+        : List.of(new HclTemplateLiteralNode(
+            new HclRawTextToken(escape(value), value, at.start(), at.end())));
+
+    return new HclQuotedTemplateNode(
+        token(HclTokenType.OPENING_QUOTE, at),
+        new HclTemplateContentNode(items, at.start(), at.end()),
+        token(HclTokenType.CLOSING_QUOTE, at)
+    );
+  }
+
+  private static HclToken token(HclTokenType type, HclLocatable at) {
+    return token(type, type.symbol(), at);
+  }
+
+  private static HclToken token(HclTokenType type, CharSequence raw, HclLocatable at) {
+    return new HclDefaultToken(type, raw, at.start(), at.end());
+  }
+
+  @Nullable
+  private static String toText(HclValue value) {
+    try {
+      return HclConversions.toString(value);
+    } catch (IllegalArgumentException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * The result of folding an expression.
+   *
+   * @param node  the folded expression.
+   * @param value the value of the expression, or {@code null} if it is not known.
+   */
+  private record Folded(HclExpressionNode node, @Nullable HclValue value) {
+  }
+
+  /**
+   * The known variables at a point in the tree.
+   *
+   * @param context  the known variables.
+   * @param shadowed the names declared by enclosing {@code for} expressions and directives, whose
+   *                 values are not known.
+   */
+  private record Scope(HclEvalContext context, Set<String> shadowed) {
+
+    @Nullable
+    private HclValue variable(String name) {
+      return shadowed.contains(name) ? null : context.variable(name);
+    }
+
+    private Scope shadow(HclIdentifierNode first, @Nullable HclIdentifierNode second) {
+      var names = new HashSet<>(shadowed);
+      names.add(first.value().toString());
+      if (second != null) {
+        names.add(second.value().toString());
+      }
+      return new Scope(context, names);
+    }
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+/**
+ * Conversions between value types, following the automatic conversion rules of HCL.
+ *
+ * <p>Strings convert to and from numbers and booleans where the content allows. No other
+ * conversions are performed.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclConversions {
+
+  private HclConversions() {
+    throw new UnsupportedOperationException("static-only class");
+  }
+
+  /**
+   * Convert a value to a number.
+   *
+   * @param value the value.
+   * @return the number.
+   * @throws IllegalArgumentException if the value cannot be converted.
+   */
+  public static HclNumberValue toNumber(HclValue value) {
+    if (value instanceof HclNumberValue number) {
+      return number;
+    }
+
+    if (value instanceof HclStringValue string) {
+      try {
+        return HclNumberValue.parse(string.value());
+      } catch (NumberFormatException ex) {
+        throw new IllegalArgumentException("Cannot convert string \"" + string.value()
+            + "\" to number", ex);
+      }
+    }
+
+    throw cannotConvert(value, HclValueType.NUMBER);
+  }
+
+  /**
+   * Convert a value to a boolean.
+   *
+   * @param value the value.
+   * @return the boolean.
+   * @throws IllegalArgumentException if the value cannot be converted.
+   */
+  public static boolean toBoolean(HclValue value) {
+    if (value instanceof HclBoolValue bool) {
+      return bool.booleanValue();
+    }
+
+    if (value instanceof HclStringValue string) {
+      switch (string.value()) {
+        case "true":
+          return true;
+        case "false":
+          return false;
+        default:
+          throw new IllegalArgumentException("Cannot convert string \"" + string.value()
+              + "\" to bool");
+      }
+    }
+
+    throw cannotConvert(value, HclValueType.BOOL);
+  }
+
+  /**
+   * Convert a value to a string.
+   *
+   * @param value the value.
+   * @return the string.
+   * @throws IllegalArgumentException if the value cannot be converted.
+   */
+  public static String toString(HclValue value) {
+    return switch (value.type()) {
+      case STRING -> ((HclStringValue) value).value();
+      case NUMBER, BOOL -> value.toString();
+      default -> throw cannotConvert(value, HclValueType.STRING);
+    };
+  }
+
+  /**
+   * Convert a value to a tuple.
+   *
+   * @param value the value.
+   * @return the tuple.
+   * @throws IllegalArgumentException if the value cannot be converted.
+   */
+  public static HclTupleValue toTuple(HclValue value) {
+    if (value instanceof HclTupleValue tuple) {
+      return tuple;
+    }
+
+    throw cannotConvert(value, HclValueType.TUPLE);
+  }
+
+  /**
+   * Convert a value to an object.
+   *
+   * @param value the value.
+   * @return the object.
+   * @throws IllegalArgumentException if the value cannot be converted.
+   */
+  public static HclObjectValue toObject(HclValue value) {
+    if (value instanceof HclObjectValue object) {
+      return object;
+    }
+
+    throw cannotConvert(value, HclValueType.OBJECT);
+  }
+
+  private static IllegalArgumentException cannotConvert(HclValue value, HclValueType type) {
+    return new IllegalArgumentException("Cannot convert " + value.type().displayName() + " to "
+        + type.displayName());
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.intern.PersistentSortedMap;
+import java.util.Map;
+
+/**
+ * The variables and functions that expressions are evaluated against.
+ *
+ * <p>Contexts are immutable. Adding a variable or function returns a new context that shares
+ * structure with the original in logarithmic time, so nested scopes such as the iterations of a
+ * {@code for} expression are cheap to create.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclEvalContext {
+
+  /**
+   * The context with no variables or functions.
+   */
+  public static final HclEvalContext EMPTY = new HclEvalContext(
+      PersistentSortedMap.empty(),
+      HclFunctionRegistry.EMPTY
+  );
+
+  private final PersistentSortedMap<String, HclValue> variables;
+  private final HclFunctionRegistry functions;
+
+  private HclEvalContext(
+      PersistentSortedMap<String, HclValue> variables,
+      HclFunctionRegistry functions
+  ) {
+    this.variables = variables;
+    this.functions = functions;
+  }
+
+  /**
+   * Get the value of a variable.
+   *
+   * @param name the variable name.
+   * @return the value, or {@code null} if the variable is not defined.
+   */
+  @Nullable
+  public HclValue variable(String name) {
+    return variables.get(name);
+  }
+
+  /**
+   * Get a function.
+   *
+   * @param name the function name.
+   * @return the function, or {@code null} if the function is not defined.
+   */
+  @Nullable
+  public HclFunction function(String name) {
+    return functions.function(name);
+  }
+
+  /**
+   * Get the functions.
+   *
+   * <p>Contexts derived from this one by adding variables share the same registry, and so share
+   * the call sites that it has already resolved.
+   *
+   * @return the function registry.
+   */
+  public HclFunctionRegistry functions() {
+    return functions;
+  }
+
+  /**
+   * Create a new context with the given variable added or replaced.
+   *
+   * @param name  the variable name.
+   * @param value the variable value.
+   * @return the new context.
+   */
+  public HclEvalContext withVariable(String name, HclValue value) {
+    return new HclEvalContext(variables.put(name, value), functions);
+  }
+
+  /**
+   * Create a new context with the given variables added or replaced.
+   *
+   * @param variables the variable names and values.
+   * @return the new context.
+   */
+  public HclEvalContext withVariables(Map<String, ? extends HclValue> variables) {
+    var updated = this.variables;
+    for (var variable : variables.entrySet()) {
+      updated = updated.put(variable.getKey(), variable.getValue());
+    }
+    return new HclEvalContext(updated, functions);
+  }
+
+  /**
+   * Create a new context with the given variable removed.
+   *
+   * @param name the variable name.
+   * @return the new context, or this context if the variable is not defined.
+   */
+  public HclEvalContext withoutVariable(String name) {
+    var updated = variables.remove(name);
+    return updated == variables ? this : new HclEvalContext(updated, functions);
+  }
+
+  /**
+   * Create a new context with the given function added or replaced.
+   *
+   * @param name     the function name.
+   * @param function the function.
+   * @return the new context.
+   */
+  public HclEvalContext withFunction(String name, HclFunction function) {
+    return new HclEvalContext(variables, functions.with(name, function));
+  }
+
+  /**
+   * Create a new context with the given functions added or replaced.
+   *
+   * @param functions the function names and functions.
+   * @return the new context.
+   */
+  public HclEvalContext withFunctions(Map<String, ? extends HclFunction> functions) {
+    return new HclEvalContext(variables, this.functions.withAll(functions));
+  }
+
+  /**
+   * Create a new context with the given functions, replacing all existing functions.
+   *
+   * @param functions the function registry.
+   * @return the new context.
+   */
+  public HclEvalContext withFunctions(HclFunctionRegistry functions) {
+    return new HclEvalContext(variables, functions);
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.ex.HclEvaluationException;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Evaluator that memoises the results of expressions against a set of variable bindings that
+ * can change over time.
+ *
+ * <p>Each binding has a version that changes whenever the binding is given a different value or
+ * removed. A result is cached against the identity of the expression node and the versions of
+ * the variables that the expression reads, so evaluating the same node again only recomputes it
+ * if one of those variables has changed since. Variables that are declared within the expression
+ * by {@code for} expressions and directives are not dependencies. Functions are assumed to be
+ * pure, as {@link HclFunction} requires.
+ *
+ * <p>This suits evaluation runs where the same expressions, such as shared local values, are
+ * referenced from many places: evaluate each one through the cache and it is only computed once
+ * until its inputs change. Expressions are compiled with an {@link HclExpressionCompiler} the
+ * first time they are seen, so recomputing a result does not walk the AST either. Failed
+ * evaluations are not cached.
+ *
+ * <p>The cache holds every expression it has seen until it is discarded or
+ * {@link #clear() cleared}. This class is thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclEvaluationCache {
+
+  private final HclExpressionCompiler compiler;
+  private final Map<HclExpressionNode, Entry> entries;
+  private final Map<String, Long> versions;
+  private HclEvalContext context;
+  private long clock;
+
+  /**
+   * Initialize the cache.
+   *
+   * @param context the functions to evaluate with, and the initial variable bindings.
+   */
+  public HclEvaluationCache(HclEvalContext context) {
+    compiler = new HclExpressionCompiler(context);
+    entries = new IdentityHashMap<>();
+    versions = new HashMap<>();
+    this.context = context;
+    clock = 0;
+  }
+
+  /**
+   * Get the value of a variable.
+   *
+   * @param name the variable name.
+   * @return the value, or {@code null} if the variable is not bound.
+   */
+  @Nullable
+  public synchronized HclValue variable(String name) {
+    return context.variable(name);
+  }
+
+  /**
+   * Bind a variable, invalidating the cached results that read it if its value changes.
+   *
+   * @param name  the variable name.
+   * @param value the variable value.
+   */
+  public synchronized void bind(String name, HclValue value) {
+    if (!value.equals(context.variable(name))) {
+      context = context.withVariable(name, value);
+      versions.put(name, ++clock);
+    }
+  }
+
+  /**
+   * Remove the binding for a variable, invalidating the cached results that read it if it was
+   * bound.
+   *
+   * @param name the variable name.
+   */
+  public synchronized void unbind(String name) {
+    var updated = context.withoutVariable(name);
+
+    if (updated != context) {
+      context = updated;
+      versions.put(name, ++clock);
+    }
+  }
+
+  /**
+   * Bind several variables, invalidating the cached results that read any whose value changes.
+   *
+   * @param variables the variable names and values.
+   */
+  public synchronized void bindAll(Map<String, ? extends HclValue> variables) {
+    for (var variable : variables.entrySet()) {
+      bind(variable.getKey(), variable.getValue());
+    }
+  }
+
+  /**
+   * Evaluate an expression against the current bindings, reusing the cached result if none of the
+   * variables it reads have changed since it was last evaluated.
+   *
+   * @param expression the expression to evaluate.
+   * @return the result.
+   * @throws HclEvaluationException if the expression cannot be evaluated.
+   */
+  public synchronized HclValue evaluate(
+      HclExpressionNode expression
+  ) throws HclEvaluationException {
+    var entry = entries.get(expression);
+
+    if (entry == null) {
+      var compiled = compiler.compile(expression);
+      entry = new Entry(compiled, new long[compiled.variables().size()]);
+      entries.put(expression, entry);
+    } else if (entry.result != null && isCurrent(entry)) {
+      return entry.result;
+    }
+
+    var variables = entry.compiled.variables();
+    var values = new HclValue[variables.size()];
+
+    for (var i = 0; i < values.length; ++i) {
+      var name = variables.get(i);
+      values[i] = context.variable(name);
+      entry.versions[i] = versions.getOrDefault(name, 0L);
+    }
+
+    // Clear the result first so that a failure leaves nothing cached.
+    entry.result = null;
+    entry.result = entry.compiled.evaluate(values);
+    return entry.result;
+  }
+
+  /**
+   * Get the number of expressions in the cache.
+   *
+   * @return the number of expressions.
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Discard all cached results and compiled expressions. Variable bindings are kept.
+   */
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  private boolean isCurrent(Entry entry) {
+    var variables = entry.compiled.variables();
+
+    for (var i = 0; i < entry.versions.length; ++i) {
+      if (entry.versions[i] != versions.getOrDefault(variables.get(i), 0L)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static final class Entry {
+
+    private final HclCompiledExpression compiled;
+    private final long[] versions;
+    private @Nullable HclValue result;
+
+    private Entry(HclCompiledExpression compiled, long[] versions) {
+      this.compiled = compiled;
+      this.versions = versions;
+      result = null;
+    }
+  }
+}
@@ -0,0 +1,528 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+import static io.github.ascopes.hcl4j.core.eval.HclOperations.duplicateKey;
+import static io.github.ascopes.hcl4j.core.eval.HclOperations.notIterable;
+import static io.github.ascopes.hcl4j.core.eval.HclOperations.toBoolean;
+import static io.github.ascopes.hcl4j.core.eval.HclOperations.toText;
+import static io.github.ascopes.hcl4j.core.eval.HclOperations.unknownVariable;
+
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclTupleNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclBinaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclExprTermNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclTernaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclUnaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclWrappedExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.func.HclFunctionCallNode;
+import io.github.ascopes.hcl4j.core.ast.getattr.HclGetAttrNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclIdentifierNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclVariableExprNode;
+import io.github.ascopes.hcl4j.core.ast.index.HclIndexNode;
+import io.github.ascopes.hcl4j.core.ast.index.HclLegacyIndexNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForConditionNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForObjectExprNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForTupleExprNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclBooleanLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclIntegerLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclRealLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.splat.HclSplatNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclHeredocTemplateNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclQuotedTemplateNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateContentNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateForNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateIfNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateInterpolationNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateItemNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.visit.HclNodeKind;
+import io.github.ascopes.hcl4j.core.ex.HclEvaluationException;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Evaluator for expressions.
+ *
+ * <p>Expressions are evaluated directly from the AST against a {@link HclEvalContext}. The
+ * following HCL behaviours are supported:
+ *
+ * <ul>
+ *   <li>Arithmetic, comparison and logical operators, with strings converted to numbers and
+ *      booleans where needed. The logical operators short-circuit.</li>
+ *   <li>Attribute access and indexing of objects and tuples, including splats. Splats over
+ *      {@code null} produce an empty tuple, and splats over any other non-tuple value treat it as
+ *      a tuple of one element.</li>
+ *   <li>Tuple and object {@code for} expressions, including grouping with {@code ...}.</li>
+ *   <li>Function calls, including expansion of the final argument with {@code ...}. Calls are
+ *      resolved through the {@link HclFunctionRegistry} of the context, so each call shape only
+ *      looks its function up once.</li>
+ *   <li>Quoted and heredoc templates, including directives, strip markers and the removal of
+ *      common indentation from {@code <<-} heredocs. A template made of a single interpolation
+ *      produces the interpolated value without converting it to a string.</li>
+ * </ul>
+ *
+ * <p>Errors are reported as a {@link HclEvaluationException} at the location of the expression
+ * that failed. This class is thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclEvaluator {
+
+  /**
+   * Initialize the evaluator.
+   */
+  public HclEvaluator() {
+    // Nothing to do.
+  }
+
+  /**
+   * Evaluate an expression.
+   *
+   * @param expression the expression to evaluate.
+   * @param context    the variables and functions to evaluate against.
+   * @return the result.
+   * @throws HclEvaluationException if the expression cannot be evaluated.
+   */
+  public HclValue evaluate(
+      HclExpressionNode expression,
+      HclEvalContext context
+  ) throws HclEvaluationException {
+    var kind = HclNodeKind.of(expression);
+
+    if (kind == null) {
+      throw new HclEvaluationException(expression, "Cannot evaluate node of type "
+          + expression.getClass().getName());
+    }
+
+    return switch (kind) {
+      case BOOLEAN_LITERAL -> HclBoolValue.of(((HclBooleanLiteralNode) expression).value());
+      case INTEGER_LITERAL -> HclNumberValue.of(((HclIntegerLiteralNode) expression).value());
+      case REAL_LITERAL -> HclNumberValue.of(((HclRealLiteralNode) expression).value());
+      case NULL_LITERAL -> HclNullValue.INSTANCE;
+      case VARIABLE_EXPR -> variable((HclVariableExprNode) expression, context);
+      case WRAPPED_EXPRESSION ->
+          evaluate(((HclWrappedExpressionNode) expression).expression(), context);
+      case UNARY_OPERATION -> unaryOperation((HclUnaryOperationNode) expression, context);
+      case BINARY_OPERATION -> binaryOperation((HclBinaryOperationNode) expression, context);
+      case TERNARY_OPERATION -> ternaryOperation((HclTernaryOperationNode) expression, context);
+      case TUPLE -> tuple((HclTupleNode) expression, context);
+      case OBJECT -> object((HclObjectNode) expression, context);
+      case FUNCTION_CALL -> functionCall((HclFunctionCallNode) expression, context);
+      case GET_ATTR, INDEX, LEGACY_INDEX, ATTR_SPLAT, FULL_SPLAT ->
+          traversal((HclExprTermNode) expression, context);
+      case FOR_TUPLE_EXPR -> forTuple((HclForTupleExprNode) expression, context);
+      case FOR_OBJECT_EXPR -> forObject((HclForObjectExprNode) expression, context);
+      case QUOTED_TEMPLATE ->
+          template(((HclQuotedTemplateNode) expression).template(), 0, context);
+      case HEREDOC_TEMPLATE -> heredocTemplate((HclHeredocTemplateNode) expression, context);
+      default -> throw new HclEvaluationException(expression, "Cannot evaluate " + kind);
+    };
+  }
+
+  ////////////////////////////
+  // Variables and operators.
+  ////////////////////////////
+
+  private HclValue variable(HclVariableExprNode node, HclEvalContext context) {
+    var name = node.identifier().value().toString();
+    var value = context.variable(name);
+
+    if (value == null) {
+      throw unknownVariable(node, name);
+    }
+
+    return value;
+  }
+
+  private HclValue unaryOperation(HclUnaryOperationNode node, HclEvalContext context) {
+    return HclOperations.unary(node, evaluate(node.value(), context));
+  }
+
+  private HclValue binaryOperation(HclBinaryOperationNode node, HclEvalContext context) {
+    var left = node.leftValue();
+    var right = node.rightValue();
+
+    if (HclOperations.isLogical(node)) {
+      var leftValue = toBoolean(evaluate(left, context), left);
+
+      // AND only needs the right operand if the left is true, and OR only if it is false.
+      if (leftValue == (node.operatorToken().type() == HclTokenType.OR)) {
+        return HclBoolValue.of(leftValue);
+      }
+
+      return HclBoolValue.of(toBoolean(evaluate(right, context), right));
+    }
+
+    return HclOperations.binary(node, evaluate(left, context), evaluate(right, context));
+  }
+
+  private HclValue ternaryOperation(HclTernaryOperationNode node, HclEvalContext context) {
+    return toBoolean(evaluate(node.condition(), context), node.condition())
+        ? evaluate(node.ifTrue(), context)
+        : evaluate(node.ifFalse(), context);
+  }
+
+  ////////////////
+  // Collections.
+  ////////////////
+
+  private HclValue tuple(HclTupleNode node, HclEvalContext context) {
+    var elements = new ArrayList<HclValue>(node.elements().size());
+
+    for (var element : node.elements()) {
+      elements.add(evaluate(element.expression(), context));
+    }
+
+    return HclTupleValue.of(elements);
+  }
+
+  private HclValue object(HclObjectNode node, HclEvalContext context) {
+    var object = HclObjectValue.EMPTY;
+
+    for (var element : node.elements()) {
+      var keyExpression = element.keyExpression();
+      var key = HclOperations.literalKey(keyExpression);
+
+      if (key == null) {
+        key = toText(evaluate(keyExpression, context), keyExpression);
+      }
+
+      if (object.get(key) != null) {
+        throw duplicateKey(keyExpression, key, false);
+      }
+
+      object = object.with(key, evaluate(element.valueExpression(), context));
+    }
+
+    return object;
+  }
+
+  private HclValue forTuple(HclForTupleExprNode node, HclEvalContext context) {
+    var intro = node.intro();
+
+    return iterate(
+        intro.inExpression(),
+        intro.firstIdentifier(),
+        intro.secondIdentifier(),
+        context,
+        HclTupleValue.EMPTY,
+        (tuple, scope) -> condition(node.condition(), scope)
+            ? tuple.append(evaluate(node.expression(), scope))
+            : tuple
+    );
+  }
+
+  private HclValue forObject(HclForObjectExprNode node, HclEvalContext context) {
+    var intro = node.intro();
+    var grouping = node.ellipsisToken() != null;
+
+    return iterate(
+        intro.inExpression(),
+        intro.firstIdentifier(),
+        intro.secondIdentifier(),
+        context,
+        HclObjectValue.EMPTY,
+        (object, scope) -> {
+          if (!condition(node.condition(), scope)) {
+            return object;
+          }
+
+          var keyExpression = node.keyExpression();
+          var key = toText(evaluate(keyExpression, scope), keyExpression);
+          var value = evaluate(node.valueExpression(), scope);
+          var existing = object.get(key);
+
+          if (grouping) {
+            return object.with(key, existing == null
+                ? HclTupleValue.of(value)
+                : ((HclTupleValue) existing).append(value));
+          }
+
+          if (existing != null) {
+            throw duplicateKey(keyExpression, key, true);
+          }
+
+          return object.with(key, value);
+        }
+    );
+  }
+
+  private boolean condition(@Nullable HclForConditionNode condition, HclEvalContext scope) {
+    return condition == null
+        || toBoolean(evaluate(condition.ifExpression(), scope), condition.ifExpression());
+  }
+
+  private <A> A iterate(
+      HclExpressionNode collectionExpression,
+      HclIdentifierNode firstIdentifier,
+      @Nullable HclIdentifierNode secondIdentifier,
+      HclEvalContext context,
+      A initial,
+      BiFunction<A, HclEvalContext, A> step
+  ) {
+    var collection = evaluate(collectionExpression, context);
+    var keyName = secondIdentifier == null ? null : firstIdentifier.value().toString();
+    var valueName = (secondIdentifier == null ? firstIdentifier : secondIdentifier)
+        .value().toString();
+    var result = initial;
+
+    if (collection instanceof HclTupleValue tuple) {
+      var index = 0;
+
+      for (var element : tuple) {
+        var scope = context.withVariable(valueName, element);
+        if (keyName != null) {
+          scope = scope.withVariable(keyName, HclNumberValue.of(index));
+        }
+        result = step.apply(result, scope);
+        ++index;
+      }
+    } else if (collection instanceof HclObjectValue object) {
+      for (var attribute : object) {
+        var scope = context.withVariable(valueName, attribute.getValue());
+        if (keyName != null) {
+          scope = scope.withVariable(keyName, new HclStringValue(attribute.getKey()));
+        }
+        result = step.apply(result, scope);
+      }
+    } else {
+      throw notIterable(collectionExpression, collection);
+    }
+
+    return result;
+  }
+
+  ///////////////////////////////
+  // Traversals and splats.
+  ///////////////////////////////
+
+  private HclValue traversal(HclExprTermNode node, HclEvalContext context) {
+    // Find the nearest splat below this node, if there is one, as the traversal steps between the
+    // splat and this node must be applied to each element rather than to the whole tuple.
+    var steps = 0;
+    var current = node;
+
+    while (!(current instanceof HclSplatNode)) {
+      var source = HclOperations.traversalSource(current);
+
+      if (source == null) {
+        var value = evaluate(HclOperations.traversalSource(node), context);
+        return traverse(node, value, context);
+      }
+
+      current = source;
+      ++steps;
+    }
+
+    var splat = (HclSplatNode) current;
+    var elements = HclOperations.splat(evaluate(HclOperations.splatSource(splat), context));
+
+    if (steps == 0) {
+      return elements;
+    }
+
+    var path = new HclExprTermNode[steps];
+    current = node;
+    for (var i = steps - 1; i >= 0; --i) {
+      path[i] = current;
+      current = HclOperations.traversalSource(current);
+    }
+
+    var results = new ArrayList<HclValue>(elements.size());
+
+    for (var element : elements) {
+      var value = element;
+      for (var step : path) {
+        value = traverse(step, value, context);
+      }
+      results.add(value);
+    }
+
+    return HclTupleValue.of(results);
+  }
+
+  private HclValue traverse(HclExprTermNode node, HclValue value, HclEvalContext context) {
+    if (node instanceof HclGetAttrNode getAttr) {
+      return HclOperations.attribute(node, value, getAttr.identifier().value().toString());
+    }
+
+    if (node instanceof HclIndexNode index) {
+      return HclOperations.index(node, value, evaluate(index.expression(), context));
+    }
+
+    var digits = ((HclLegacyIndexNode) node).digits().value();
+    return HclOperations.index(node, value, HclNumberValue.of(digits));
+  }
+
+  ///////////////////
+  // Function calls.
+  ///////////////////
+
+  private HclValue functionCall(HclFunctionCallNode node, HclEvalContext context) {
+    var callSite = context.functions().resolve(node);
+    var arguments = node.arguments();
+
+    if (callSite.expandsFinalArgument()) {
+      var values = new ArrayList<HclValue>(arguments.size());
+      var last = arguments.size() - 1;
+
+      for (var i = 0; i < last; ++i) {
+        values.add(evaluate(arguments.get(i).expression(), context));
+      }
+
+      var argument = arguments.get(last).expression();
+      HclOperations.expand(argument, evaluate(argument, context), values);
+      return callSite.call(node, values);
+    }
+
+    return switch (arguments.size()) {
+      case 0 -> callSite.call(node);
+      case 1 -> callSite.call(node, evaluate(arguments.get(0).expression(), context));
+      case 2 -> callSite.call(
+          node,
+          evaluate(arguments.get(0).expression(), context),
+          evaluate(arguments.get(1).expression(), context)
+      );
+      case 3 -> callSite.call(
+          node,
+          evaluate(arguments.get(0).expression(), context),
+          evaluate(arguments.get(1).expression(), context),
+          evaluate(arguments.get(2).expression(), context)
+      );
+      default -> {
+        var values = new HclValue[arguments.size()];
+        for (var i = 0; i < values.length; ++i) {
+          values[i] = evaluate(arguments.get(i).expression(), context);
+        }
+        yield callSite.call(node, values);
+      }
+    };
+  }
+
+  //////////////
+  // Templates.
+  //////////////
+
+  private HclValue heredocTemplate(HclHeredocTemplateNode node, HclEvalContext context) {
+    var template = node.template();
+    var indent = node.indentToken() == null ? 0 : HclTemplateWriter.commonIndent(template);
+    return template(template, indent, context);
+  }
+
+  private HclValue template(HclTemplateContentNode template, int indent, HclEvalContext context) {
+    var items = template.items();
+
+    if (items.isEmpty()) {
+      return HclStringValue.EMPTY;
+    }
+
+    if (items.size() == 1) {
+      var item = items.get(0);
+
+      if (indent == 0 && item instanceof HclTemplateLiteralNode literal) {
+        return new HclStringValue(literal.value().toString());
+      }
+
+      if (item instanceof HclTemplateInterpolationNode interpolation
+          && interpolation.leftTrimToken() == null
+          && interpolation.rightTrimToken() == null) {
+        return evaluate(interpolation.expression(), context);
+      }
+    }
+
+    var writer = new HclTemplateWriter(indent);
+    render(items, context, writer);
+    return new HclStringValue(writer.toString());
+  }
+
+  private void render(
+      List<? extends HclTemplateItemNode> items,
+      HclEvalContext context,
+      HclTemplateWriter writer
+  ) {
+    for (var item : items) {
+      if (item instanceof HclTemplateLiteralNode literal) {
+        writer.literal(literal.value());
+      } else if (item instanceof HclTemplateInterpolationNode interpolation) {
+        var expression = interpolation.expression();
+        writer.trimTrailing(interpolation.leftTrimToken());
+        writer.value(toText(evaluate(expression, context), expression));
+        writer.trimLeading(interpolation.rightTrimToken());
+      } else if (item instanceof HclTemplateIfNode ifNode) {
+        renderIf(ifNode, context, writer);
+      } else {
+        renderFor((HclTemplateForNode) item, context, writer);
+      }
+    }
+  }
+
+  private void renderIf(
+      HclTemplateIfNode node,
+      HclEvalContext context,
+      HclTemplateWriter writer
+  ) {
+    var ifPart = node.ifPart();
+    var elsePart = node.elsePart();
+    var endPart = node.endIfPart();
+
+    writer.trimTrailing(ifPart.leftTrimToken());
+
+    if (toBoolean(evaluate(ifPart.expression(), context), ifPart.expression())) {
+      writer.trimLeading(ifPart.rightTrimToken());
+      render(ifPart.template().items(), context, writer);
+      writer.trimTrailing(elsePart == null ? endPart.leftTrimToken() : elsePart.leftTrimToken());
+    } else if (elsePart != null) {
+      writer.trimLeading(elsePart.rightTrimToken());
+      render(elsePart.template().items(), context, writer);
+      writer.trimTrailing(endPart.leftTrimToken());
+    }
+
+    writer.trimLeading(endPart.rightTrimToken());
+  }
+
+  private void renderFor(
+      HclTemplateForNode node,
+      HclEvalContext context,
+      HclTemplateWriter writer
+  ) {
+    var forPart = node.forPart();
+    var endPart = node.endForPart();
+
+    writer.trimTrailing(forPart.leftTrimToken());
+
+    iterate(
+        forPart.expression(),
+        forPart.firstIdentifier(),
+        forPart.secondIdentifier(),
+        context,
+        writer,
+        (ignored, scope) -> {
+          writer.trimLeading(forPart.rightTrimToken());
+          render(node.template().items(), scope, writer);
+          writer.trimTrailing(endPart.leftTrimToken());
+          return writer;
+        }
+    );
+
+    writer.trimLeading(endPart.rightTrimToken());
+  }
+}
@@ -0,0 +1,770 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+import static io.github.ascopes.hcl4j.core.eval.HclOperations.duplicateKey;
+import static io.github.ascopes.hcl4j.core.eval.HclOperations.notIterable;
+import static io.github.ascopes.hcl4j.core.eval.HclOperations.toBoolean;
+import static io.github.ascopes.hcl4j.core.eval.HclOperations.toText;
+import static io.github.ascopes.hcl4j.core.eval.HclOperations.unknownVariable;
+
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclTupleNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclBinaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclExprTermNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclTernaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclUnaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclWrappedExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.func.HclFunctionCallNode;
+import io.github.ascopes.hcl4j.core.ast.getattr.HclGetAttrNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclIdentifierNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclVariableExprNode;
+import io.github.ascopes.hcl4j.core.ast.index.HclIndexNode;
+import io.github.ascopes.hcl4j.core.ast.index.HclLegacyIndexNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForConditionNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForObjectExprNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForTupleExprNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclBooleanLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclIntegerLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclRealLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.splat.HclSplatNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclHeredocTemplateNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclQuotedTemplateNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateContentNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateForNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateIfNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateInterpolationNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateItemNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.visit.HclNodeKind;
+import io.github.ascopes.hcl4j.core.eval.HclCompiledExpression.Code;
+import io.github.ascopes.hcl4j.core.ex.HclEvaluationException;
+import io.github.ascopes.hcl4j.core.inputs.HclLocatable;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiler that turns expressions into a form that can be evaluated repeatedly without walking
+ * the AST.
+ *
+ * <p>Each node is compiled once into a closure that directly invokes the closures of its
+ * children. Variable names are resolved to positions in an array up front, as are the variables
+ * declared by {@code for} expressions and directives, and functions are looked up in the context
+ * given to the compiler at compile time. Work that does not depend on variables, such as
+ * converting literals to values and rendering templates that are entirely literal text, is done
+ * during compilation.
+ *
+ * <p>Compiled expressions produce the same results and errors as the {@link HclEvaluator}. Errors
+ * are raised when the offending subexpression is evaluated rather than during compilation, so an
+ * unknown variable or function in a branch that is never taken is not an error.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclExpressionCompiler {
+
+  private final HclEvalContext context;
+
+  /**
+   * Initialize the compiler.
+   *
+   * @param context the context to take functions from. Variables in the context are ignored.
+   */
+  public HclExpressionCompiler(HclEvalContext context) {
+    this.context = context;
+  }
+
+  /**
+   * Compile an expression, assigning positions to variables in the order they first appear.
+   *
+   * @param expression the expression to compile.
+   * @return the compiled expression.
+   */
+  public HclCompiledExpression compile(HclExpressionNode expression) {
+    var compilation = new Compilation(List.of(), true);
+    var code = compilation.compile(expression);
+    return new HclCompiledExpression(
+        expression,
+        compilation.variables,
+        compilation.maxLocals,
+        code
+    );
+  }
+
+  /**
+   * Compile an expression using the given variable positions.
+   *
+   * <p>This allows several expressions to be evaluated against the same array of values. Any
+   * variable not in the list is treated as undefined.
+   *
+   * @param expression the expression to compile.
+   * @param variables  the variable names, in the order their values will be given in.
+   * @return the compiled expression.
+   */
+  public HclCompiledExpression compile(HclExpressionNode expression, List<String> variables) {
+    var compilation = new Compilation(variables, false);
+    var code = compilation.compile(expression);
+    return new HclCompiledExpression(expression, variables, compilation.maxLocals, code);
+  }
+
+  private static Code constant(HclValue value) {
+    return (variables, locals) -> value;
+  }
+
+  private static void iterate(
+      HclLocatable collectionExpression,
+      HclValue collection,
+      int keySlot,
+      int valueSlot,
+      HclValue[] locals,
+      Runnable body
+  ) {
+    if (collection instanceof HclTupleValue tuple) {
+      var index = 0;
+
+      for (var element : tuple) {
+        locals[valueSlot] = element;
+        if (keySlot >= 0) {
+          locals[keySlot] = HclNumberValue.of(index);
+        }
+        body.run();
+        ++index;
+      }
+    } else if (collection instanceof HclObjectValue object) {
+      for (var attribute : object) {
+        locals[valueSlot] = attribute.getValue();
+        if (keySlot >= 0) {
+          locals[keySlot] = new HclStringValue(attribute.getKey());
+        }
+        body.run();
+      }
+    } else {
+      throw notIterable(collectionExpression, collection);
+    }
+  }
+
+  private static boolean test(
+      @Nullable Code condition,
+      @Nullable HclForConditionNode conditionNode,
+      HclValue[] variables,
+      HclValue[] locals
+  ) {
+    return condition == null
+        || toBoolean(condition.run(variables, locals), conditionNode.ifExpression());
+  }
+
+  private static void render(
+      Part[] parts,
+      HclValue[] variables,
+      HclValue[] locals,
+      HclTemplateWriter writer
+  ) {
+    for (var part : parts) {
+      part.render(variables, locals, writer);
+    }
+  }
+
+  /**
+   * A traversal step, applied to the value produced by the expression before it.
+   */
+  @FunctionalInterface
+  private interface Step {
+
+    HclValue apply(HclValue value, HclValue[] variables, HclValue[] locals);
+  }
+
+  /**
+   * Part of a template that writes its output to a template writer.
+   */
+  @FunctionalInterface
+  private interface Part {
+
+    void render(HclValue[] variables, HclValue[] locals, HclTemplateWriter writer);
+  }
+
+  /**
+   * The local variables visible at a point in the expression.
+   */
+  private record Scope(Map<String, Integer> localSlots, int nextLocal) {
+  }
+
+  /**
+   * The state of a single compilation.
+   */
+  private final class Compilation {
+
+    private final List<String> variables;
+    private final Map<String, Integer> variableSlots;
+    private final boolean extensible;
+    private Map<String, Integer> localSlots;
+    private int nextLocal;
+    private int maxLocals;
+
+    private Compilation(List<String> variables, boolean extensible) {
+      this.variables = new ArrayList<>(variables);
+      variableSlots = new HashMap<>();
+      for (var i = 0; i < variables.size(); ++i) {
+        variableSlots.putIfAbsent(variables.get(i), i);
+      }
+      this.extensible = extensible;
+      localSlots = new HashMap<>();
+      nextLocal = 0;
+      maxLocals = 0;
+    }
+
+    private Code compile(HclExpressionNode expression) {
+      var kind = HclNodeKind.of(expression);
+
+      if (kind == null) {
+        throw new HclEvaluationException(expression, "Cannot evaluate node of type "
+            + expression.getClass().getName());
+      }
+
+      return switch (kind) {
+        case BOOLEAN_LITERAL ->
+            constant(HclBoolValue.of(((HclBooleanLiteralNode) expression).value()));
+        case INTEGER_LITERAL ->
+            constant(HclNumberValue.of(((HclIntegerLiteralNode) expression).value()));
+        case REAL_LITERAL ->
+            constant(HclNumberValue.of(((HclRealLiteralNode) expression).value()));
+        case NULL_LITERAL -> constant(HclNullValue.INSTANCE);
+        case VARIABLE_EXPR -> variable((HclVariableExprNode) expression);
+        case WRAPPED_EXPRESSION -> compile(((HclWrappedExpressionNode) expression).expression());
+        case UNARY_OPERATION -> unaryOperation((HclUnaryOperationNode) expression);
+        case BINARY_OPERATION -> binaryOperation((HclBinaryOperationNode) expression);
+        case TERNARY_OPERATION -> ternaryOperation((HclTernaryOperationNode) expression);
+        case TUPLE -> tuple((HclTupleNode) expression);
+        case OBJECT -> object((HclObjectNode) expression);
+        case FUNCTION_CALL -> functionCall((HclFunctionCallNode) expression);
+        case GET_ATTR, INDEX, LEGACY_INDEX, ATTR_SPLAT, FULL_SPLAT ->
+            traversal((HclExprTermNode) expression);
+        case FOR_TUPLE_EXPR -> forTuple((HclForTupleExprNode) expression);
+        case FOR_OBJECT_EXPR -> forObject((HclForObjectExprNode) expression);
+        case QUOTED_TEMPLATE -> template(((HclQuotedTemplateNode) expression).template(), 0);
+        case HEREDOC_TEMPLATE -> heredocTemplate((HclHeredocTemplateNode) expression);
+        default -> throw new HclEvaluationException(expression, "Cannot evaluate " + kind);
+      };
+    }
+
+    ////////////////////////////
+    // Variables and operators.
+    ////////////////////////////
+
+    private Code variable(HclVariableExprNode node) {
+      var name = node.identifier().value().toString();
+      var localSlot = localSlots.get(name);
+
+      if (localSlot != null) {
+        int slot = localSlot;
+        return (variables, locals) -> locals[slot];
+      }
+
+      var variableSlot = variableSlots.get(name);
+
+      if (variableSlot == null && extensible) {
+        variableSlot = variables.size();
+        variables.add(name);
+        variableSlots.put(name, variableSlot);
+      }
+
+      if (variableSlot == null) {
+        return (variables, locals) -> {
+          throw unknownVariable(node, name);
+        };
+      }
+
+      int slot = variableSlot;
+      return (variables, locals) -> {
+        var value = variables[slot];
+
+        if (value == null) {
+          throw unknownVariable(node, name);
+        }
+
+        return value;
+      };
+    }
+
+    private Code unaryOperation(HclUnaryOperationNode node) {
+      var operand = compile(node.value());
+      return (variables, locals) -> HclOperations.unary(node, operand.run(variables, locals));
+    }
+
+    private Code binaryOperation(HclBinaryOperationNode node) {
+      var leftNode = node.leftValue();
+      var rightNode = node.rightValue();
+      var left = compile(leftNode);
+      var right = compile(rightNode);
+
+      if (!HclOperations.isLogical(node)) {
+        return (variables, locals) -> HclOperations.binary(
+            node,
+            left.run(variables, locals),
+            right.run(variables, locals)
+        );
+      }
+
+      return switch (node.operatorToken().type()) {
+        case AND -> (variables, locals) -> HclBoolValue.of(
+            toBoolean(left.run(variables, locals), leftNode)
+                && toBoolean(right.run(variables, locals), rightNode));
+        default -> (variables, locals) -> HclBoolValue.of(
+            toBoolean(left.run(variables, locals), leftNode)
+                || toBoolean(right.run(variables, locals), rightNode));
+      };
+    }
+
+    private Code ternaryOperation(HclTernaryOperationNode node) {
+      var conditionNode = node.condition();
+      var condition = compile(conditionNode);
+      var ifTrue = compile(node.ifTrue());
+      var ifFalse = compile(node.ifFalse());
+
+      return (variables, locals) -> toBoolean(condition.run(variables, locals), conditionNode)
+          ? ifTrue.run(variables, locals)
+          : ifFalse.run(variables, locals);
+    }
+
+    ////////////////
+    // Collections.
+    ////////////////
+
+    private Code tuple(HclTupleNode node) {
+      var elements = node.elements();
+      var codes = new Code[elements.size()];
+
+      for (var i = 0; i < codes.length; ++i) {
+        codes[i] = compile(elements.get(i).expression());
+      }
+
+      if (codes.length == 0) {
+        return constant(HclTupleValue.EMPTY);
+      }
+
+      return (variables, locals) -> {
+        var values = new ArrayList<HclValue>(codes.length);
+        for (var code : codes) {
+          values.add(code.run(variables, locals));
+        }
+        return HclTupleValue.of(values);
+      };
+    }
+
+    private Code object(HclObjectNode node) {
+      var elements = node.elements();
+      var keyNodes = new HclExpressionNode[elements.size()];
+      var literalKeys = new String[elements.size()];
+      var keys = new Code[elements.size()];
+      var values = new Code[elements.size()];
+
+      for (var i = 0; i < values.length; ++i) {
+        var element = elements.get(i);
+        keyNodes[i] = element.keyExpression();
+        literalKeys[i] = HclOperations.literalKey(keyNodes[i]);
+        keys[i] = literalKeys[i] == null ? compile(keyNodes[i]) : null;
+        values[i] = compile(element.valueExpression());
+      }
+
+      return (variables, locals) -> {
+        var object = HclObjectValue.EMPTY;
+
+        for (var i = 0; i < values.length; ++i) {
+          var key = literalKeys[i];
+
+          if (key == null) {
+            key = toText(keys[i].run(variables, locals), keyNodes[i]);
+          }
+
+          if (object.get(key) != null) {
+            throw duplicateKey(keyNodes[i], key, false);
+          }
+
+          object = object.with(key, values[i].run(variables, locals));
+        }
+
+        return object;
+      };
+    }
+
+    private Code forTuple(HclForTupleExprNode node) {
+      var intro = node.intro();
+      var collectionNode = intro.inExpression();
+      var collection = compile(collectionNode);
+
+      var savedLocals = enterScope();
+      var keySlot = declareKey(intro.firstIdentifier(), intro.secondIdentifier());
+      var valueSlot = declareValue(intro.firstIdentifier(), intro.secondIdentifier());
+      var conditionNode = node.condition();
+      var condition = condition(conditionNode);
+      var body = compile(node.expression());
+      exitScope(savedLocals);
+
+      return (variables, locals) -> {
+        var results = new ArrayList<HclValue>();
+
+        iterate(collectionNode, collection.run(variables, locals), keySlot, valueSlot, locals,
+            () -> {
+              if (test(condition, conditionNode, variables, locals)) {
+                results.add(body.run(variables, locals));
+              }
+            });
+
+        return HclTupleValue.of(results);
+      };
+    }
+
+    private Code forObject(HclForObjectExprNode node) {
+      var intro = node.intro();
+      var collectionNode = intro.inExpression();
+      var collection = compile(collectionNode);
+      var grouping = node.ellipsisToken() != null;
+
+      var savedLocals = enterScope();
+      var keySlot = declareKey(intro.firstIdentifier(), intro.secondIdentifier());
+      var valueSlot = declareValue(intro.firstIdentifier(), intro.secondIdentifier());
+      var conditionNode = node.condition();
+      var condition = condition(conditionNode);
+      var keyNode = node.keyExpression();
+      var key = compile(keyNode);
+      var value = compile(node.valueExpression());
+      exitScope(savedLocals);
+
+      return (variables, locals) -> {
+        var result = new HclObjectValue[] {HclObjectValue.EMPTY};
+
+        iterate(collectionNode, collection.run(variables, locals), keySlot, valueSlot, locals,
+            () -> {
+              if (!test(condition, conditionNode, variables, locals)) {
+                return;
+              }
+
+              var name = toText(key.run(variables, locals), keyNode);
+              var element = value.run(variables, locals);
+              var existing = result[0].get(name);
+
+              if (grouping) {
+                result[0] = result[0].with(name, existing == null
+                    ? HclTupleValue.of(element)
+                    : ((HclTupleValue) existing).append(element));
+              } else if (existing != null) {
+                throw duplicateKey(keyNode, name, true);
+              } else {
+                result[0] = result[0].with(name, element);
+              }
+            });
+
+        return result[0];
+      };
+    }
+
+    @Nullable
+    private Code condition(@Nullable HclForConditionNode condition) {
+      return condition == null ? null : compile(condition.ifExpression());
+    }
+
+    ///////////////////////////////
+    // Scopes.
+    ///////////////////////////////
+
+    private Scope enterScope() {
+      var saved = new Scope(localSlots, nextLocal);
+      localSlots = new HashMap<>(localSlots);
+      return saved;
+    }
+
+    private void exitScope(Scope saved) {
+      // Sibling scopes never run at the same time, so they can reuse the same slots.
+      localSlots = saved.localSlots;
+      nextLocal = saved.nextLocal;
+    }
+
+    private int declareKey(HclIdentifierNode first, @Nullable HclIdentifierNode second) {
+      return second == null ? -1 : declare(first);
+    }
+
+    private int declareValue(HclIdentifierNode first, @Nullable HclIdentifierNode second) {
+      return declare(second == null ? first : second);
+    }
+
+    private int declare(HclIdentifierNode identifier) {
+      var slot = nextLocal++;
+      maxLocals = Math.max(maxLocals, nextLocal);
+      localSlots.put(identifier.value().toString(), slot);
+      return slot;
+    }
+
+    ///////////////////////////////
+    // Traversals and splats.
+    ///////////////////////////////
+
+    private Code traversal(HclExprTermNode node) {
+      var steps = 0;
+      var current = node;
+
+      while (!(current instanceof HclSplatNode)) {
+        var source = HclOperations.traversalSource(current);
+
+        if (source == null) {
+          var sourceCode = compile(HclOperations.traversalSource(node));
+          var step = step(node);
+          return (variables, locals) ->
+              step.apply(sourceCode.run(variables, locals), variables, locals);
+        }
+
+        current = source;
+        ++steps;
+      }
+
+      var source = compile(HclOperations.splatSource((HclSplatNode) current));
+
+      if (steps == 0) {
+        return (variables, locals) -> HclOperations.splat(source.run(variables, locals));
+      }
+
+      var path = new Step[steps];
+      current = node;
+      for (var i = steps - 1; i >= 0; --i) {
+        path[i] = step(current);
+        current = HclOperations.traversalSource(current);
+      }
+
+      return (variables, locals) -> {
+        var elements = HclOperations.splat(source.run(variables, locals));
+        var results = new ArrayList<HclValue>(elements.size());
+
+        for (var element : elements) {
+          var value = element;
+          for (var step : path) {
+            value = step.apply(value, variables, locals);
+          }
+          results.add(value);
+        }
+
+        return HclTupleValue.of(results);
+      };
+    }
+
+    private Step step(HclExprTermNode node) {
+      if (node instanceof HclGetAttrNode getAttr) {
+        var name = getAttr.identifier().value().toString();
+        return (value, variables, locals) -> HclOperations.attribute(node, value, name);
+      }
+
+      if (node instanceof HclIndexNode index) {
+        var key = compile(index.expression());
+        return (value, variables, locals) ->
+            HclOperations.index(node, value, key.run(variables, locals));
+      }
+
+      var key = HclNumberValue.of(((HclLegacyIndexNode) node).digits().value());
+      return (value, variables, locals) -> HclOperations.index(node, value, key);
+    }
+
+    ///////////////////
+    // Function calls.
+    ///////////////////
+
+    private Code functionCall(HclFunctionCallNode node) {
+      var callSite = context.functions().resolve(node);
+      var arguments = node.arguments();
+      var codes = new Code[arguments.size()];
+
+      for (var i = 0; i < codes.length; ++i) {
+        codes[i] = compile(arguments.get(i).expression());
+      }
+
+      if (callSite.expandsFinalArgument()) {
+        var last = codes.length - 1;
+        var lastNode = arguments.get(last).expression();
+
+        return (variables, locals) -> {
+          var values = new ArrayList<HclValue>(codes.length);
+          for (var i = 0; i < last; ++i) {
+            values.add(codes[i].run(variables, locals));
+          }
+          HclOperations.expand(lastNode, codes[last].run(variables, locals), values);
+          return callSite.call(node, values);
+        };
+      }
+
+      return switch (codes.length) {
+        case 0 -> (variables, locals) -> callSite.call(node);
+        case 1 -> {
+          var first = codes[0];
+          yield (variables, locals) -> callSite.call(node, first.run(variables, locals));
+        }
+        case 2 -> {
+          var first = codes[0];
+          var second = codes[1];
+          yield (variables, locals) -> callSite.call(
+              node,
+              first.run(variables, locals),
+              second.run(variables, locals)
+          );
+        }
+        case 3 -> {
+          var first = codes[0];
+          var second = codes[1];
+          var third = codes[2];
+          yield (variables, locals) -> callSite.call(
+              node,
+              first.run(variables, locals),
+              second.run(variables, locals),
+              third.run(variables, locals)
+          );
+        }
+        default -> (variables, locals) -> {
+          var values = new HclValue[codes.length];
+          for (var i = 0; i < values.length; ++i) {
+            values[i] = codes[i].run(variables, locals);
+          }
+          return callSite.call(node, values);
+        };
+      };
+    }
+
+    //////////////
+    // Templates.
+    //////////////
+
+    private Code heredocTemplate(HclHeredocTemplateNode node) {
+      var template = node.template();
+      var indent = node.indentToken() == null ? 0 : HclTemplateWriter.commonIndent(template);
+      return template(template, indent);
+    }
+
+    private Code template(HclTemplateContentNode template, int indent) {
+      var items = template.items();
+
+      if (items.size() == 1
+          && items.get(0) instanceof HclTemplateInterpolationNode interpolation
+          && interpolation.leftTrimToken() == null
+          && interpolation.rightTrimToken() == null) {
+        return compile(interpolation.expression());
+      }
+
+      if (items.stream().allMatch(HclTemplateLiteralNode.class::isInstance)) {
+        var writer = new HclTemplateWriter(indent);
+        for (var item : items) {
+          writer.literal(((HclTemplateLiteralNode) item).value());
+        }
+        return constant(new HclStringValue(writer.toString()));
+      }
+
+      var parts = parts(items);
+
+      return (variables, locals) -> {
+        var writer = new HclTemplateWriter(indent);
+        render(parts, variables, locals, writer);
+        return new HclStringValue(writer.toString());
+      };
+    }
+
+    private Part[] parts(List<? extends HclTemplateItemNode> items) {
+      var parts = new Part[items.size()];
+
+      for (var i = 0; i < parts.length; ++i) {
+        var item = items.get(i);
+
+        if (item instanceof HclTemplateLiteralNode literal) {
+          var text = literal.value();
+          parts[i] = (variables, locals, writer) -> writer.literal(text);
+        } else if (item instanceof HclTemplateInterpolationNode interpolation) {
+          parts[i] = interpolation(interpolation);
+        } else if (item instanceof HclTemplateIfNode ifNode) {
+          parts[i] = templateIf(ifNode);
+        } else {
+          parts[i] = templateFor((HclTemplateForNode) item);
+        }
+      }
+
+      return parts;
+    }
+
+    private Part interpolation(HclTemplateInterpolationNode node) {
+      var expression = node.expression();
+      var code = compile(expression);
+      var leftTrimToken = node.leftTrimToken();
+      var rightTrimToken = node.rightTrimToken();
+
+      return (variables, locals, writer) -> {
+        writer.trimTrailing(leftTrimToken);
+        writer.value(toText(code.run(variables, locals), expression));
+        writer.trimLeading(rightTrimToken);
+      };
+    }
+
+    private Part templateIf(HclTemplateIfNode node) {
+      var ifPart = node.ifPart();
+      var elsePart = node.elsePart();
+      var endPart = node.endIfPart();
+      var conditionNode = ifPart.expression();
+      var condition = compile(conditionNode);
+      var ifParts = parts(ifPart.template().items());
+      var elseParts = elsePart == null ? null : parts(elsePart.template().items());
+
+      return (variables, locals, writer) -> {
+        writer.trimTrailing(ifPart.leftTrimToken());
+
+        if (toBoolean(condition.run(variables, locals), conditionNode)) {
+          writer.trimLeading(ifPart.rightTrimToken());
+          render(ifParts, variables, locals, writer);
+          writer.trimTrailing(elsePart == null
+              ? endPart.leftTrimToken()
+              : elsePart.leftTrimToken());
+        } else if (elsePart != null) {
+          writer.trimLeading(elsePart.rightTrimToken());
+          render(elseParts, variables, locals, writer);
+          writer.trimTrailing(endPart.leftTrimToken());
+        }
+
+        writer.trimLeading(endPart.rightTrimToken());
+      };
+    }
+
+    private Part templateFor(HclTemplateForNode node) {
+      var forPart = node.forPart();
+      var endPart = node.endForPart();
+      var collectionNode = forPart.expression();
+      var collection = compile(collectionNode);
+
+      var savedLocals = enterScope();
+      var keySlot = declareKey(forPart.firstIdentifier(), forPart.secondIdentifier());
+      var valueSlot = declareValue(forPart.firstIdentifier(), forPart.secondIdentifier());
+      var body = parts(node.template().items());
+      exitScope(savedLocals);
+
+      return (variables, locals, writer) -> {
+        writer.trimTrailing(forPart.leftTrimToken());
+
+        iterate(collectionNode, collection.run(variables, locals), keySlot, valueSlot, locals,
+            () -> {
+              writer.trimLeading(forPart.rightTrimToken());
+              render(body, variables, locals, writer);
+              writer.trimTrailing(endPart.leftTrimToken());
+            });
+
+        writer.trimLeading(endPart.rightTrimToken());
+      };
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+import java.util.List;
+
+/**
+ * A function that can be called from an expression.
+ *
+ * <p>Functions should be pure, and should report invalid arguments by throwing an
+ * {@link IllegalArgumentException}. The evaluator reports this as an error at the location of
+ * the call.
+ *
+ * <p>Functions that take a fixed number of arguments may also override the overloads that take
+ * those arguments directly, so that calls passing that many arguments do not build a list.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+@FunctionalInterface
+public interface HclFunction {
+
+  /**
+   * Call the function.
+   *
+   * @param arguments the evaluated arguments, with any expanded final argument already expanded.
+   * @return the result.
+   * @throws IllegalArgumentException if the arguments are invalid.
+   */
+  HclValue call(List<HclValue> arguments) throws IllegalArgumentException;
+
+  /**
+   * Call the function with no arguments.
+   *
+   * @return the result.
+   * @throws IllegalArgumentException if the arguments are invalid.
+   */
+  default HclValue call() throws IllegalArgumentException {
+    return call(List.of());
+  }
+
+  /**
+   * Call the function with one argument.
+   *
+   * @param argument the argument.
+   * @return the result.
+   * @throws IllegalArgumentException if the arguments are invalid.
+   */
+  default HclValue call(HclValue argument) throws IllegalArgumentException {
+    return call(List.of(argument));
+  }
+
+  /**
+   * Call the function with two arguments.
+   *
+   * @param first  the first argument.
+   * @param second the second argument.
+   * @return the result.
+   * @throws IllegalArgumentException if the arguments are invalid.
+   */
+  default HclValue call(HclValue first, HclValue second) throws IllegalArgumentException {
+    return call(List.of(first, second));
+  }
+
+  /**
+   * Call the function with three arguments.
+   *
+   * @param first  the first argument.
+   * @param second the second argument.
+   * @param third  the third argument.
+   * @return the result.
+   * @throws IllegalArgumentException if the arguments are invalid.
+   */
+  default HclValue call(
+      HclValue first,
+      HclValue second,
+      HclValue third
+  ) throws IllegalArgumentException {
+    return call(List.of(first, second, third));
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+import io.github.ascopes.hcl4j.core.ast.func.HclFunctionCallNode;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.intern.PersistentSortedMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable set of named functions that resolves function calls to {@link HclCallSite}s.
+ *
+ * <p>A call is resolved from its function name, its argument count, and whether its final
+ * argument is expanded with {@code ...}. The resolved call site is cached in the registry, so
+ * every call with the same shape shares one call site and only looks up the function once.
+ * Registries are thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclFunctionRegistry {
+
+  /**
+   * The registry with no functions.
+   */
+  public static final HclFunctionRegistry EMPTY =
+      new HclFunctionRegistry(PersistentSortedMap.empty());
+
+  private final PersistentSortedMap<String, HclFunction> functions;
+  private final Map<Signature, HclCallSite> callSites;
+
+  private HclFunctionRegistry(PersistentSortedMap<String, HclFunction> functions) {
+    this.functions = functions;
+    callSites = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Get a function.
+   *
+   * @param name the function name.
+   * @return the function, or {@code null} if the function is not defined.
+   */
+  @Nullable
+  public HclFunction function(String name) {
+    return functions.get(name);
+  }
+
+  /**
+   * Get the number of functions in the registry.
+   *
+   * @return the number of functions.
+   */
+  public int size() {
+    return functions.size();
+  }
+
+  /**
+   * Resolve a function call.
+   *
+   * @param node the function call.
+   * @return the call site.
+   */
+  public HclCallSite resolve(HclFunctionCallNode node) {
+    return resolve(
+        node.identifier().value().toString(),
+        node.arguments().size(),
+        node.hasTrailingEllipsis()
+    );
+  }
+
+  /**
+   * Resolve a function call.
+   *
+   * @param name                 the function name.
+   * @param argumentCount        the number of argument expressions in the call.
+   * @param expandsFinalArgument {@code true} if the final argument is expanded with {@code ...}.
+   * @return the call site.
+   */
+  public HclCallSite resolve(String name, int argumentCount, boolean expandsFinalArgument) {
+    var signature = new Signature(name, argumentCount, expandsFinalArgument);
+    var callSite = callSites.get(signature);
+
+    if (callSite == null) {
+      callSite = new HclCallSite(name, function(name), argumentCount, expandsFinalArgument);
+      var existing = callSites.putIfAbsent(signature, callSite);
+      if (existing != null) {
+        callSite = existing;
+      }
+    }
+
+    return callSite;
+  }
+
+  /**
+   * Create a new registry with the given function added or replaced.
+   *
+   * @param name     the function name.
+   * @param function the function.
+   * @return the new registry.
+   */
+  public HclFunctionRegistry with(String name, HclFunction function) {
+    return new HclFunctionRegistry(functions.put(name, function));
+  }
+
+  /**
+   * Create a new registry with the given functions added or replaced.
+   *
+   * @param functions the function names and functions.
+   * @return the new registry, or this registry if {@code functions} is empty.
+   */
+  public HclFunctionRegistry withAll(Map<String, ? extends HclFunction> functions) {
+    if (functions.isEmpty()) {
+      return this;
+    }
+
+    var updated = this.functions;
+    for (var function : functions.entrySet()) {
+      updated = updated.put(function.getKey(), function.getValue());
+    }
+    return new HclFunctionRegistry(updated);
+  }
+
+  private record Signature(String name, int argumentCount, boolean expandsFinalArgument) {}
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+/**
+ * The null value.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclNullValue implements HclValue {
+
+  /**
+   * The only instance.
+   */
+  public static final HclNullValue INSTANCE = new HclNullValue();
+
+  private HclNullValue() {
+    // Singleton.
+  }
+
+  @Override
+  public HclValueType type() {
+    return HclValueType.NULL;
+  }
+
+  @Override
+  public String toString() {
+    return "null";
+  }
+}
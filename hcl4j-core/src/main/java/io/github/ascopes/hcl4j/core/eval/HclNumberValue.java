@@ -0,0 +1,324 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+/**
+ * A number value.
+ *
+ * <p>Whole numbers that fit in a {@code long} are held as a primitive, and arithmetic between
+ * them does not allocate beyond the result. Anything else is held as a {@link BigDecimal}.
+ * Operations that overflow a {@code long} fall back to arbitrary precision transparently.
+ * Division that does not produce a whole number is rounded to {@link MathContext#DECIMAL128}.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclNumberValue implements HclValue, Comparable<HclNumberValue> {
+
+  private static final int CACHE_LOW = -128;
+  private static final int CACHE_HIGH = 1024;
+  private static final HclNumberValue[] CACHE = new HclNumberValue[CACHE_HIGH - CACHE_LOW + 1];
+  private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+  private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+  static {
+    for (var i = 0; i < CACHE.length; ++i) {
+      CACHE[i] = new HclNumberValue(i + CACHE_LOW, null);
+    }
+  }
+
+  /**
+   * Zero.
+   */
+  public static final HclNumberValue ZERO = of(0);
+
+  /**
+   * One.
+   */
+  public static final HclNumberValue ONE = of(1);
+
+  private final long longValue;
+
+  // Null when the value is held in longValue. Otherwise, stripped of trailing zeros so that
+  // equal values have equal representations.
+  private final @Nullable BigDecimal bigValue;
+
+  private HclNumberValue(long longValue, @Nullable BigDecimal bigValue) {
+    this.longValue = longValue;
+    this.bigValue = bigValue;
+  }
+
+  /**
+   * Get the value for the given number.
+   *
+   * @param value the number.
+   * @return the value.
+   */
+  public static HclNumberValue of(long value) {
+    return CACHE_LOW <= value && value <= CACHE_HIGH
+        ? CACHE[(int) value - CACHE_LOW]
+        : new HclNumberValue(value, null);
+  }
+
+  /**
+   * Get the value for the given number.
+   *
+   * @param value the number.
+   * @return the value.
+   */
+  public static HclNumberValue of(BigInteger value) {
+    return value.bitLength() < Long.SIZE
+        ? of(value.longValue())
+        : new HclNumberValue(0, new BigDecimal(value));
+  }
+
+  /**
+   * Get the value for the given number.
+   *
+   * @param value the number.
+   * @return the value.
+   */
+  public static HclNumberValue of(BigDecimal value) {
+    if (value.signum() == 0) {
+      return ZERO;
+    }
+
+    var stripped = value.stripTrailingZeros();
+
+    if (stripped.scale() <= 0
+        && stripped.compareTo(LONG_MIN) >= 0
+        && stripped.compareTo(LONG_MAX) <= 0) {
+      return of(stripped.longValueExact());
+    }
+
+    return new HclNumberValue(0, stripped);
+  }
+
+  /**
+   * Parse a number from its decimal representation.
+   *
+   * @param text the text to parse.
+   * @return the value.
+   * @throws NumberFormatException if the text is not a valid number.
+   */
+  public static HclNumberValue parse(CharSequence text) {
+    return of(new BigDecimal(text.toString().strip()));
+  }
+
+  /**
+   * Determine if this is a whole number that fits in a {@code long}.
+   *
+   * @return {@code true} if this is a whole number that fits in a {@code long}.
+   */
+  public boolean isLong() {
+    return bigValue == null;
+  }
+
+  /**
+   * Get this number as a {@code long}, truncating any fractional part.
+   *
+   * @return the number.
+   */
+  public long longValue() {
+    return bigValue == null ? longValue : bigValue.longValue();
+  }
+
+  /**
+   * Get this number as an {@code int}.
+   *
+   * @return the number.
+   * @throws ArithmeticException if this is not a whole number that fits in an {@code int}.
+   */
+  public int intValueExact() {
+    if (bigValue != null) {
+      return bigValue.intValueExact();
+    }
+
+    return Math.toIntExact(longValue);
+  }
+
+  /**
+   * Get this number as a {@code double}, which may lose precision.
+   *
+   * @return the number.
+   */
+  public double doubleValue() {
+    return bigValue == null ? longValue : bigValue.doubleValue();
+  }
+
+  /**
+   * Get this number as a {@link BigDecimal}.
+   *
+   * @return the number.
+   */
+  public BigDecimal bigDecimalValue() {
+    return bigValue == null ? BigDecimal.valueOf(longValue) : bigValue;
+  }
+
+  /**
+   * Add another number to this one.
+   *
+   * @param other the other number.
+   * @return the sum.
+   */
+  public HclNumberValue add(HclNumberValue other) {
+    if (bigValue == null && other.bigValue == null) {
+      var result = longValue + other.longValue;
+
+      // Overflow occurred if both operands have a different sign to the result.
+      if (((longValue ^ result) & (other.longValue ^ result)) >= 0) {
+        return of(result);
+      }
+    }
+
+    return of(bigDecimalValue().add(other.bigDecimalValue()));
+  }
+
+  /**
+   * Subtract another number from this one.
+   *
+   * @param other the other number.
+   * @return the difference.
+   */
+  public HclNumberValue subtract(HclNumberValue other) {
+    if (bigValue == null && other.bigValue == null) {
+      var result = longValue - other.longValue;
+
+      // Overflow occurred if the operands have different signs, and the result has a different
+      // sign to this number.
+      if (((longValue ^ other.longValue) & (longValue ^ result)) >= 0) {
+        return of(result);
+      }
+    }
+
+    return of(bigDecimalValue().subtract(other.bigDecimalValue()));
+  }
+
+  /**
+   * Multiply this number by another.
+   *
+   * @param other the other number.
+   * @return the product.
+   */
+  public HclNumberValue multiply(HclNumberValue other) {
+    if (bigValue == null && other.bigValue == null) {
+      var high = Math.multiplyHigh(longValue, other.longValue);
+      var result = longValue * other.longValue;
+
+      if (high == (result >> (Long.SIZE - 1))) {
+        return of(result);
+      }
+    }
+
+    return of(bigDecimalValue().multiply(other.bigDecimalValue()));
+  }
+
+  /**
+   * Divide this number by another.
+   *
+   * @param other the other number.
+   * @return the quotient.
+   * @throws ArithmeticException if the other number is zero.
+   */
+  public HclNumberValue divide(HclNumberValue other) {
+    if (other.signum() == 0) {
+      throw new ArithmeticException("Division by zero");
+    }
+
+    if (bigValue == null
+        && other.bigValue == null
+        && longValue % other.longValue == 0
+        && (longValue != Long.MIN_VALUE || other.longValue != -1)) {
+      return of(longValue / other.longValue);
+    }
+
+    return of(bigDecimalValue().divide(other.bigDecimalValue(), MathContext.DECIMAL128));
+  }
+
+  /**
+   * Get the remainder of dividing this number by another.
+   *
+   * @param other the other number.
+   * @return the remainder, which has the same sign as this number.
+   * @throws ArithmeticException if the other number is zero.
+   */
+  public HclNumberValue remainder(HclNumberValue other) {
+    if (other.signum() == 0) {
+      throw new ArithmeticException("Division by zero");
+    }
+
+    if (bigValue == null && other.bigValue == null) {
+      // Long.MIN_VALUE % -1 is 0 rather than overflowing, so needs no special case.
+      return of(longValue % other.longValue);
+    }
+
+    return of(bigDecimalValue().remainder(other.bigDecimalValue()));
+  }
+
+  /**
+   * Negate this number.
+   *
+   * @return the negated number.
+   */
+  public HclNumberValue negate() {
+    return bigValue == null && longValue != Long.MIN_VALUE
+        ? of(-longValue)
+        : of(bigDecimalValue().negate());
+  }
+
+  /**
+   * Get the sign of this number.
+   *
+   * @return {@code -1}, {@code 0} or {@code 1} if this number is negative, zero or positive.
+   */
+  public int signum() {
+    return bigValue == null ? Long.signum(longValue) : bigValue.signum();
+  }
+
+  @Override
+  public int compareTo(HclNumberValue other) {
+    return bigValue == null && other.bigValue == null
+        ? Long.compare(longValue, other.longValue)
+        : bigDecimalValue().compareTo(other.bigDecimalValue());
+  }
+
+  @Override
+  public HclValueType type() {
+    return HclValueType.NUMBER;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof HclNumberValue number
+        && longValue == number.longValue
+        && (bigValue == null ? number.bigValue == null : bigValue.equals(number.bigValue));
+  }
+
+  @Override
+  public int hashCode() {
+    return bigValue == null ? Long.hashCode(longValue) : bigValue.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return bigValue == null ? Long.toString(longValue) : bigValue.toPlainString();
+  }
+}
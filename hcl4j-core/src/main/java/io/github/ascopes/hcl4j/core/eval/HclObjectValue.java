@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.intern.PersistentSortedMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An object value, mapping attribute names to values.
+ *
+ * <p>Attributes are always iterated in lexicographical order of their names, regardless of the
+ * order they were added in. Objects are persistent: {@link #with} and {@link #without} return a
+ * new object that shares structure with the original, taking logarithmic time.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclObjectValue implements HclValue, Iterable<Map.Entry<String, HclValue>> {
+
+  /**
+   * The empty object.
+   */
+  public static final HclObjectValue EMPTY = new HclObjectValue(PersistentSortedMap.empty());
+
+  private final PersistentSortedMap<String, HclValue> attributes;
+
+  private HclObjectValue(PersistentSortedMap<String, HclValue> attributes) {
+    this.attributes = attributes;
+  }
+
+  /**
+   * Create an object holding the given attributes.
+   *
+   * @param attributes the attributes.
+   * @return the object.
+   */
+  public static HclObjectValue of(Map<String, ? extends HclValue> attributes) {
+    var map = PersistentSortedMap.<String, HclValue>empty();
+    for (var attribute : attributes.entrySet()) {
+      map = map.put(attribute.getKey(), attribute.getValue());
+    }
+    return new HclObjectValue(map);
+  }
+
+  /**
+   * Get the number of attributes.
+   *
+   * @return the number of attributes.
+   */
+  public int size() {
+    return attributes.size();
+  }
+
+  /**
+   * Get the value of the given attribute.
+   *
+   * @param name the attribute name.
+   * @return the value, or {@code null} if there is no such attribute.
+   */
+  @Nullable
+  public HclValue get(String name) {
+    return attributes.get(name);
+  }
+
+  /**
+   * Create a new object with the given attribute added or replaced.
+   *
+   * @param name  the attribute name.
+   * @param value the attribute value.
+   * @return the new object.
+   */
+  public HclObjectValue with(String name, HclValue value) {
+    var updated = attributes.put(name, value);
+    return updated == attributes ? this : new HclObjectValue(updated);
+  }
+
+  /**
+   * Create a new object with the given attribute removed.
+   *
+   * @param name the attribute name.
+   * @return the new object.
+   */
+  public HclObjectValue without(String name) {
+    var updated = attributes.remove(name);
+    return updated == attributes ? this : new HclObjectValue(updated);
+  }
+
+  /**
+   * Get an unmodifiable map view of this object.
+   *
+   * @return the map view.
+   */
+  public Map<String, HclValue> asMap() {
+    return new MapView();
+  }
+
+  @Override
+  public Iterator<Map.Entry<String, HclValue>> iterator() {
+    return attributes.iterator();
+  }
+
+  @Override
+  public HclValueType type() {
+    return HclValueType.OBJECT;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+
+    if (!(other instanceof HclObjectValue object) || object.size() != size()) {
+      return false;
+    }
+
+    // Both are iterated in the same order, so can be compared pairwise.
+    var theirs = object.iterator();
+    for (var attribute : this) {
+      if (!attribute.equals(theirs.next())) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    var hash = 0;
+    for (var attribute : this) {
+      hash += attribute.hashCode();
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return asMap().toString();
+  }
+
+  private final class MapView extends AbstractMap<String, HclValue> {
+
+    @Override
+    @Nullable
+    public HclValue get(Object key) {
+      return key instanceof String name ? attributes.get(name) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+      return attributes.size();
+    }
+
+    @Override
+    public Set<Entry<String, HclValue>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<String, HclValue>> iterator() {
+          return attributes.iterator();
+        }
+
+        @Override
+        public int size() {
+          return attributes.size();
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+import io.github.ascopes.hcl4j.core.ast.expr.HclBinaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclExprTermNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclUnaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.getattr.HclGetAttrNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclVariableExprNode;
+import io.github.ascopes.hcl4j.core.ast.index.HclIndexNode;
+import io.github.ascopes.hcl4j.core.ast.index.HclLegacyIndexNode;
+import io.github.ascopes.hcl4j.core.ast.splat.HclAttrSplatNode;
+import io.github.ascopes.hcl4j.core.ast.splat.HclFullSplatNode;
+import io.github.ascopes.hcl4j.core.ast.splat.HclSplatNode;
+import io.github.ascopes.hcl4j.core.ex.HclEvaluationException;
+import io.github.ascopes.hcl4j.core.inputs.HclLocatable;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.util.List;
+
+/**
+ * The semantics of individual operations, shared between the ways of evaluating an expression.
+ *
+ * <p>Each operation takes the node it is evaluated for so that errors can be reported at the
+ * right location.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+final class HclOperations {
+
+  private HclOperations() {
+    throw new UnsupportedOperationException("static-only class");
+  }
+
+  /**
+   * Apply a unary operator.
+   *
+   * @param node  the operation.
+   * @param value the evaluated operand.
+   * @return the result.
+   */
+  static HclValue unary(HclUnaryOperationNode node, HclValue value) {
+    return switch (node.operatorToken().type()) {
+      case MINUS -> toNumber(value, node.value()).negate();
+      case NOT -> HclBoolValue.of(!toBoolean(value, node.value()));
+      default -> throw unsupportedOperator(node);
+    };
+  }
+
+  /**
+   * Determine if a binary operation short-circuits, in which case the right operand must only be
+   * evaluated if the left operand does not decide the result.
+   *
+   * @param node the operation.
+   * @return {@code true} for the logical operators, {@code false} otherwise.
+   */
+  static boolean isLogical(HclBinaryOperationNode node) {
+    var type = node.operatorToken().type();
+    return type == HclTokenType.AND || type == HclTokenType.OR;
+  }
+
+  /**
+   * Apply a binary operator that does not short-circuit.
+   *
+   * @param node  the operation.
+   * @param left  the evaluated left operand.
+   * @param right the evaluated right operand.
+   * @return the result.
+   */
+  static HclValue binary(HclBinaryOperationNode node, HclValue left, HclValue right) {
+    var operator = node.operatorToken().type();
+
+    switch (operator) {
+      case EQUAL:
+        return HclBoolValue.of(left.equals(right));
+      case NOT_EQUAL:
+        return HclBoolValue.of(!left.equals(right));
+      default:
+        break;
+    }
+
+    var leftNumber = toNumber(left, node.leftValue());
+    var rightNumber = toNumber(right, node.rightValue());
+
+    try {
+      return switch (operator) {
+        case PLUS -> leftNumber.add(rightNumber);
+        case MINUS -> leftNumber.subtract(rightNumber);
+        case STAR -> leftNumber.multiply(rightNumber);
+        case DIVIDE -> leftNumber.divide(rightNumber);
+        case MODULO -> leftNumber.remainder(rightNumber);
+        case LESS -> HclBoolValue.of(leftNumber.compareTo(rightNumber) < 0);
+        case LESS_EQUAL -> HclBoolValue.of(leftNumber.compareTo(rightNumber) <= 0);
+        case GREATER -> HclBoolValue.of(leftNumber.compareTo(rightNumber) > 0);
+        case GREATER_EQUAL -> HclBoolValue.of(leftNumber.compareTo(rightNumber) >= 0);
+        default -> throw unsupportedOperator(node);
+      };
+    } catch (ArithmeticException ex) {
+      throw new HclEvaluationException(node, ex.getMessage(), ex);
+    }
+  }
+
+  /**
+   * Get the literal name of an object key, if it is a bare identifier.
+   *
+   * @param keyExpression the key expression.
+   * @return the name, or {@code null} if the key is an expression that must be evaluated.
+   */
+  @Nullable
+  static String literalKey(HclExpressionNode keyExpression) {
+    return keyExpression instanceof HclVariableExprNode variable
+        ? variable.identifier().value().toString()
+        : null;
+  }
+
+  /**
+   * Get the expression that a traversal step is applied to.
+   *
+   * @param node the traversal step.
+   * @return the expression, or {@code null} if the node is not an attribute access or index.
+   */
+  @Nullable
+  static HclExprTermNode traversalSource(HclExprTermNode node) {
+    if (node instanceof HclGetAttrNode getAttr) {
+      return getAttr.exprTerm();
+    }
+
+    if (node instanceof HclIndexNode index) {
+      return index.exprTerm();
+    }
+
+    if (node instanceof HclLegacyIndexNode index) {
+      return index.exprTerm();
+    }
+
+    return null;
+  }
+
+  /**
+   * Get the expression that a splat is applied to.
+   *
+   * @param splat the splat.
+   * @return the expression.
+   */
+  static HclExprTermNode splatSource(HclSplatNode splat) {
+    return splat instanceof HclAttrSplatNode attrSplat
+        ? attrSplat.exprTerm()
+        : ((HclFullSplatNode) splat).exprTerm();
+  }
+
+  /**
+   * Get the elements that a splat iterates over.
+   *
+   * @param value the value the splat is applied to.
+   * @return the tuple itself, an empty tuple for {@code null}, or a tuple of the single value.
+   */
+  static HclTupleValue splat(HclValue value) {
+    if (value instanceof HclTupleValue tuple) {
+      return tuple;
+    }
+
+    return value == HclNullValue.INSTANCE
+        ? HclTupleValue.EMPTY
+        : HclTupleValue.of(value);
+  }
+
+  /**
+   * Access an attribute of an object.
+   *
+   * @param node  the node the access is for.
+   * @param value the object.
+   * @param name  the attribute name.
+   * @return the attribute value.
+   */
+  static HclValue attribute(HclLocatable node, HclValue value, String name) {
+    if (!(value instanceof HclObjectValue object)) {
+      throw new HclEvaluationException(node, "Cannot access attribute \"" + name + "\" of a "
+          + value.type().displayName());
+    }
+
+    var attribute = object.get(name);
+
+    if (attribute == null) {
+      throw new HclEvaluationException(node, "Object has no attribute \"" + name + "\"");
+    }
+
+    return attribute;
+  }
+
+  /**
+   * Index a tuple or object.
+   *
+   * @param node  the node the index is for.
+   * @param value the tuple or object.
+   * @param key   the index or attribute name.
+   * @return the element.
+   */
+  static HclValue index(HclLocatable node, HclValue value, HclValue key) {
+    if (value instanceof HclTupleValue tuple) {
+      int index;
+
+      try {
+        index = toNumber(key, node).intValueExact();
+      } catch (ArithmeticException ex) {
+        throw new HclEvaluationException(node, "Tuple index must be a whole number", ex);
+      }
+
+      if (index < 0 || index >= tuple.size()) {
+        throw new HclEvaluationException(node, "Index " + index
+            + " is out of range for a tuple of " + tuple.size() + " elements");
+      }
+
+      return tuple.get(index);
+    }
+
+    if (value instanceof HclObjectValue) {
+      return attribute(node, value, toText(key, node));
+    }
+
+    throw new HclEvaluationException(node, "Cannot index a " + value.type().displayName());
+  }
+
+  /**
+   * Expand a tuple into function arguments.
+   *
+   * @param argument  the argument expression.
+   * @param value     the evaluated argument.
+   * @param arguments the arguments to add the elements to.
+   */
+  static void expand(HclLocatable argument, HclValue value, List<HclValue> arguments) {
+    if (!(value instanceof HclTupleValue tuple)) {
+      throw new HclEvaluationException(argument, "Cannot expand a "
+          + value.type().displayName() + " into function arguments");
+    }
+
+    for (var element : tuple) {
+      arguments.add(element);
+    }
+  }
+
+  /**
+   * Convert a value to a number.
+   *
+   * @param value the value.
+   * @param node  the node the value was produced by.
+   * @return the number.
+   */
+  static HclNumberValue toNumber(HclValue value, HclLocatable node) {
+    try {
+      return HclConversions.toNumber(value);
+    } catch (IllegalArgumentException ex) {
+      throw new HclEvaluationException(node, ex.getMessage(), ex);
+    }
+  }
+
+  /**
+   * Convert a value to a boolean.
+   *
+   * @param value the value.
+   * @param node  the node the value was produced by.
+   * @return the boolean.
+   */
+  static boolean toBoolean(HclValue value, HclLocatable node) {
+    try {
+      return HclConversions.toBoolean(value);
+    } catch (IllegalArgumentException ex) {
+      throw new HclEvaluationException(node, ex.getMessage(), ex);
+    }
+  }
+
+  /**
+   * Convert a value to a string.
+   *
+   * @param value the value.
+   * @param node  the node the value was produced by.
+   * @return the string.
+   */
+  static String toText(HclValue value, HclLocatable node) {
+    try {
+      return HclConversions.toString(value);
+    } catch (IllegalArgumentException ex) {
+      throw new HclEvaluationException(node, ex.getMessage(), ex);
+    }
+  }
+
+  /**
+   * Report a duplicate key in an object.
+   *
+   * @param keyExpression the key expression.
+   * @param key           the key.
+   * @param grouping      {@code true} to suggest grouping, as in a {@code for} expression.
+   * @return the exception to throw.
+   */
+  static HclEvaluationException duplicateKey(
+      HclLocatable keyExpression,
+      String key,
+      boolean grouping
+  ) {
+    var message = "Duplicate object key \"" + key + "\"";
+    if (grouping) {
+      message += ", use \"...\" to group values with the same key";
+    }
+    return new HclEvaluationException(keyExpression, message);
+  }
+
+  /**
+   * Report an attempt to iterate over a value that is not a collection.
+   *
+   * @param node  the collection expression.
+   * @param value the value.
+   * @return the exception to throw.
+   */
+  static HclEvaluationException notIterable(HclLocatable node, HclValue value) {
+    return new HclEvaluationException(node, "Cannot iterate over a "
+        + value.type().displayName());
+  }
+
+  /**
+   * Report a reference to an undefined variable.
+   *
+   * @param node the variable reference.
+   * @param name the variable name.
+   * @return the exception to throw.
+   */
+  static HclEvaluationException unknownVariable(HclLocatable node, String name) {
+    return new HclEvaluationException(node, "Unknown variable \"" + name + "\"");
+  }
+
+  private static HclEvaluationException unsupportedOperator(HclUnaryOperationNode node) {
+    return new HclEvaluationException(node, "Unsupported operator "
+        + node.operatorToken().raw());
+  }
+
+  private static HclEvaluationException unsupportedOperator(HclBinaryOperationNode node) {
+    return new HclEvaluationException(node, "Unsupported operator "
+        + node.operatorToken().raw());
+  }
+}
@@ -0,0 +1,1135 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The standard library of functions that HCL-based languages such as Terraform provide.
+ *
+ * <p>The following functions are provided:
+ *
+ * <ul>
+ *   <li>Collections: {@code coalesce}, {@code compact}, {@code concat}, {@code contains},
+ *      {@code distinct}, {@code element}, {@code flatten}, {@code keys}, {@code length},
+ *      {@code lookup}, {@code merge}, {@code range}, {@code reverse}, {@code slice},
+ *      {@code values}, {@code zipmap}.</li>
+ *   <li>Strings: {@code chomp}, {@code endswith}, {@code format}, {@code join}, {@code lower},
+ *      {@code replace}, {@code split}, {@code startswith}, {@code strrev}, {@code substr},
+ *      {@code trimprefix}, {@code trimspace}, {@code trimsuffix}, {@code upper}.</li>
+ *   <li>Numbers: {@code abs}, {@code ceil}, {@code floor}, {@code max}, {@code min},
+ *      {@code parseint}, {@code signum}.</li>
+ *   <li>Conversions and encodings: {@code base64decode}, {@code base64encode},
+ *      {@code jsonencode}, {@code tobool}, {@code tonumber}, {@code tostring}.</li>
+ *   <li>Networking: {@code cidrhost}, {@code cidrnetmask}, {@code cidrsubnet}.</li>
+ * </ul>
+ *
+ * <p>Functions that build collections from other collections add elements to the persistent
+ * structures behind the values, or build them in bulk, so never copy the whole result for each
+ * input. Functions that produce text write into a single buffer.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclStandardFunctions {
+
+  private static final int MAX_RANGE_LENGTH = 1024 * 1024;
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+  private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+  private static final Pattern IPV6 = Pattern.compile("[0-9A-Fa-f:.]+");
+
+  private static final Map<String, HclFunction> FUNCTIONS;
+  private static final HclEvalContext CONTEXT;
+
+  static {
+    var functions = new TreeMap<String, HclFunction>();
+
+    functions.put("coalesce", HclStandardFunctions::coalesce);
+    functions.put("compact", unary("compact", HclStandardFunctions::compact));
+    functions.put("concat", HclStandardFunctions::concat);
+    functions.put("contains", binary("contains", HclStandardFunctions::contains));
+    functions.put("distinct", unary("distinct", HclStandardFunctions::distinct));
+    functions.put("element", binary("element", HclStandardFunctions::element));
+    functions.put("flatten", unary("flatten", HclStandardFunctions::flatten));
+    functions.put("keys", unary("keys", HclStandardFunctions::keys));
+    functions.put("length", unary("length", HclStandardFunctions::length));
+    functions.put("lookup", new FixedArityFunction("lookup", null, HclStandardFunctions::lookup,
+        HclStandardFunctions::lookup));
+    functions.put("merge", HclStandardFunctions::merge);
+    functions.put("range", new FixedArityFunction("range", HclStandardFunctions::range,
+        HclStandardFunctions::range, HclStandardFunctions::range));
+    functions.put("reverse", unary("reverse", HclStandardFunctions::reverse));
+    functions.put("slice", ternary("slice", HclStandardFunctions::slice));
+    functions.put("values", unary("values", HclStandardFunctions::values));
+    functions.put("zipmap", binary("zipmap", HclStandardFunctions::zipmap));
+
+    functions.put("chomp", unary("chomp", HclStandardFunctions::chomp));
+    functions.put("endswith", binary("endswith", HclStandardFunctions::endswith));
+    functions.put("format", HclStandardFunctions::format);
+    functions.put("join", HclStandardFunctions::join);
+    functions.put("lower", unary("lower", HclStandardFunctions::lower));
+    functions.put("replace", ternary("replace", HclStandardFunctions::replace));
+    functions.put("split", binary("split", HclStandardFunctions::split));
+    functions.put("startswith", binary("startswith", HclStandardFunctions::startswith));
+    functions.put("strrev", unary("strrev", HclStandardFunctions::strrev));
+    functions.put("substr", ternary("substr", HclStandardFunctions::substr));
+    functions.put("trimprefix", binary("trimprefix", HclStandardFunctions::trimprefix));
+    functions.put("trimspace", unary("trimspace", HclStandardFunctions::trimspace));
+    functions.put("trimsuffix", binary("trimsuffix", HclStandardFunctions::trimsuffix));
+    functions.put("upper", unary("upper", HclStandardFunctions::upper));
+
+    functions.put("abs", unary("abs", HclStandardFunctions::abs));
+    functions.put("ceil", unary("ceil", HclStandardFunctions::ceil));
+    functions.put("floor", unary("floor", HclStandardFunctions::floor));
+    functions.put("max", HclStandardFunctions::max);
+    functions.put("min", HclStandardFunctions::min);
+    functions.put("parseint", binary("parseint", HclStandardFunctions::parseint));
+    functions.put("signum", unary("signum", HclStandardFunctions::signum));
+
+    functions.put("base64decode", unary("base64decode", HclStandardFunctions::base64decode));
+    functions.put("base64encode", unary("base64encode", HclStandardFunctions::base64encode));
+    functions.put("jsonencode", unary("jsonencode", HclStandardFunctions::jsonencode));
+    functions.put("tobool", unary("tobool", HclStandardFunctions::tobool));
+    functions.put("tonumber", unary("tonumber", HclStandardFunctions::tonumber));
+    functions.put("tostring", unary("tostring", HclStandardFunctions::tostring));
+
+    functions.put("cidrhost", binary("cidrhost", HclStandardFunctions::cidrhost));
+    functions.put("cidrnetmask", unary("cidrnetmask", HclStandardFunctions::cidrnetmask));
+    functions.put("cidrsubnet", ternary("cidrsubnet", HclStandardFunctions::cidrsubnet));
+
+    FUNCTIONS = Collections.unmodifiableMap(functions);
+    CONTEXT = HclEvalContext.EMPTY.withFunctions(FUNCTIONS);
+  }
+
+  private HclStandardFunctions() {
+    throw new UnsupportedOperationException("static-only class");
+  }
+
+  /**
+   * Get the standard functions.
+   *
+   * @return an immutable map of function names to functions.
+   */
+  public static Map<String, HclFunction> functions() {
+    return FUNCTIONS;
+  }
+
+  /**
+   * Get a context that contains the standard functions and no variables.
+   *
+   * @return the context.
+   */
+  public static HclEvalContext context() {
+    return CONTEXT;
+  }
+
+  ////////////////
+  // Collections.
+  ////////////////
+
+  private static HclValue coalesce(List<HclValue> args) {
+    arity("coalesce", args, 1, Integer.MAX_VALUE);
+
+    for (var arg : args) {
+      if (arg != HclNullValue.INSTANCE && !arg.equals(HclStringValue.EMPTY)) {
+        return arg;
+      }
+    }
+
+    throw new IllegalArgumentException("No non-null, non-empty-string arguments");
+  }
+
+  private static HclValue compact(HclValue argument) {
+    var results = new ArrayList<HclValue>();
+
+    for (var element : tupleArgument(argument)) {
+      if (element != HclNullValue.INSTANCE) {
+        var string = HclConversions.toString(element);
+        if (!string.isEmpty()) {
+          results.add(new HclStringValue(string));
+        }
+      }
+    }
+
+    return HclTupleValue.of(results);
+  }
+
+  private static HclValue concat(List<HclValue> args) {
+    arity("concat", args, 1, Integer.MAX_VALUE);
+    var size = 0;
+    HclTupleValue only = null;
+
+    for (var i = 0; i < args.size(); ++i) {
+      var tuple = tupleArgument(args.get(i));
+      if (!tuple.isEmpty()) {
+        only = size == 0 ? tuple : null;
+        size += tuple.size();
+      }
+    }
+
+    if (size == 0) {
+      return HclTupleValue.EMPTY;
+    }
+
+    if (only != null) {
+      return only;
+    }
+
+    var results = new ArrayList<HclValue>(size);
+    for (var arg : args) {
+      results.addAll(((HclTupleValue) arg).asList());
+    }
+
+    return HclTupleValue.of(results);
+  }
+
+  private static HclValue contains(HclValue first, HclValue second) {
+    var value = second;
+
+    for (var element : tupleArgument(first)) {
+      if (element.equals(value)) {
+        return HclBoolValue.TRUE;
+      }
+    }
+
+    return HclBoolValue.FALSE;
+  }
+
+  private static HclValue distinct(HclValue argument) {
+    var tuple = tupleArgument(argument);
+    var results = new LinkedHashSet<HclValue>(tuple.asList());
+
+    return results.size() == tuple.size()
+        ? tuple
+        : HclTupleValue.of(new ArrayList<>(results));
+  }
+
+  private static HclValue element(HclValue first, HclValue second) {
+    var tuple = tupleArgument(first);
+    var index = intArgument(second);
+
+    if (tuple.isEmpty()) {
+      throw new IllegalArgumentException("Cannot use element function with an empty list");
+    }
+
+    if (index < 0) {
+      throw new IllegalArgumentException("Cannot use element function with a negative index");
+    }
+
+    return tuple.get(index % tuple.size());
+  }
+
+  private static HclValue flatten(HclValue argument) {
+    var tuple = tupleArgument(argument);
+
+    for (var element : tuple) {
+      if (element instanceof HclTupleValue) {
+        var results = new ArrayList<HclValue>(tuple.size());
+        flattenInto(tuple, results);
+        return HclTupleValue.of(results);
+      }
+    }
+
+    return tuple;
+  }
+
+  private static void flattenInto(HclTupleValue tuple, List<HclValue> results) {
+    for (var element : tuple) {
+      if (element instanceof HclTupleValue nested) {
+        flattenInto(nested, results);
+      } else {
+        results.add(element);
+      }
+    }
+  }
+
+  private static HclValue keys(HclValue argument) {
+    var object = objectArgument(argument);
+    var results = new ArrayList<HclValue>(object.size());
+
+    for (var attribute : object) {
+      results.add(new HclStringValue(attribute.getKey()));
+    }
+
+    return HclTupleValue.of(results);
+  }
+
+  private static HclValue length(HclValue argument) {
+    var value = argument;
+
+    return switch (value.type()) {
+      case STRING -> {
+        var string = ((HclStringValue) value).value();
+        yield HclNumberValue.of(string.codePointCount(0, string.length()));
+      }
+      case TUPLE -> HclNumberValue.of(((HclTupleValue) value).size());
+      case OBJECT -> HclNumberValue.of(((HclObjectValue) value).size());
+      default -> throw new IllegalArgumentException("Cannot find the length of a "
+          + value.type().displayName());
+    };
+  }
+
+  private static HclValue lookup(HclValue first, HclValue second) {
+    var key = stringArgument(second);
+    var value = objectArgument(first).get(key);
+
+    if (value == null) {
+      throw new IllegalArgumentException("Object has no attribute \"" + key + "\"");
+    }
+
+    return value;
+  }
+
+  private static HclValue lookup(HclValue first, HclValue second, HclValue third) {
+    var value = objectArgument(first).get(stringArgument(second));
+    return value == null ? third : value;
+  }
+
+  private static HclValue merge(List<HclValue> args) {
+    HclObjectValue result = null;
+
+    for (var i = 0; i < args.size(); ++i) {
+      if (args.get(i) == HclNullValue.INSTANCE) {
+        continue;
+      }
+
+      var object = objectArgument(args.get(i));
+
+      if (result == null || result.size() == 0) {
+        result = object;
+      } else {
+        for (var attribute : object) {
+          result = result.with(attribute.getKey(), attribute.getValue());
+        }
+      }
+    }
+
+    return result == null ? HclObjectValue.EMPTY : result;
+  }
+
+  private static HclValue range(HclValue argument) {
+    return range(HclNumberValue.ZERO, numberArgument(argument));
+  }
+
+  private static HclValue range(HclValue first, HclValue second) {
+    return range(numberArgument(first), numberArgument(second));
+  }
+
+  private static HclValue range(HclNumberValue start, HclNumberValue limit) {
+    return range(start, limit, HclNumberValue.of(start.compareTo(limit) > 0 ? -1 : 1));
+  }
+
+  private static HclValue range(HclValue first, HclValue second, HclValue third) {
+    return range(numberArgument(first), numberArgument(second), numberArgument(third));
+  }
+
+  private static HclValue range(HclNumberValue start, HclNumberValue limit, HclNumberValue step) {
+    if (step.signum() == 0) {
+      throw new IllegalArgumentException("Step must not be zero");
+    }
+
+    var results = new ArrayList<HclValue>();
+
+    for (var next = start; next.compareTo(limit) * step.signum() < 0; next = next.add(step)) {
+      if (results.size() == MAX_RANGE_LENGTH) {
+        throw new IllegalArgumentException("Range would have more than " + MAX_RANGE_LENGTH
+            + " elements");
+      }
+      results.add(next);
+    }
+
+    return HclTupleValue.of(results);
+  }
+
+  private static HclValue reverse(HclValue argument) {
+    var results = new ArrayList<>(tupleArgument(argument).asList());
+    Collections.reverse(results);
+    return HclTupleValue.of(results);
+  }
+
+  private static HclValue slice(HclValue first, HclValue second, HclValue third) {
+    var tuple = tupleArgument(first);
+    var start = intArgument(second);
+    var end = intArgument(third);
+
+    if (start < 0 || end > tuple.size() || start > end) {
+      throw new IllegalArgumentException("Slice [" + start + ", " + end
+          + ") is out of range for a list of " + tuple.size() + " elements");
+    }
+
+    return start == 0 && end == tuple.size()
+        ? tuple
+        : HclTupleValue.of(tuple.asList().subList(start, end));
+  }
+
+  private static HclValue values(HclValue argument) {
+    var object = objectArgument(argument);
+    var results = new ArrayList<HclValue>(object.size());
+
+    for (var attribute : object) {
+      results.add(attribute.getValue());
+    }
+
+    return HclTupleValue.of(results);
+  }
+
+  private static HclValue zipmap(HclValue first, HclValue second) {
+    var keys = tupleArgument(first);
+    var values = tupleArgument(second);
+
+    if (keys.size() != values.size()) {
+      throw new IllegalArgumentException("Number of keys (" + keys.size()
+          + ") does not match number of values (" + values.size() + ")");
+    }
+
+    var result = HclObjectValue.EMPTY;
+    for (var i = 0; i < keys.size(); ++i) {
+      result = result.with(HclConversions.toString(keys.get(i)), values.get(i));
+    }
+
+    return result;
+  }
+
+  ////////////
+  // Strings.
+  ////////////
+
+  private static HclValue chomp(HclValue argument) {
+    var string = stringArgument(argument);
+    var end = string.length();
+
+    while (end > 0 && (string.charAt(end - 1) == '\n' || string.charAt(end - 1) == '\r')) {
+      --end;
+    }
+
+    return new HclStringValue(string.substring(0, end));
+  }
+
+  private static HclValue endswith(HclValue first, HclValue second) {
+    return HclBoolValue.of(stringArgument(first).endsWith(stringArgument(second)));
+  }
+
+  private static HclValue format(List<HclValue> args) {
+    arity("format", args, 1, Integer.MAX_VALUE);
+    var spec = stringArgument(args.get(0));
+    var length = spec.length();
+    var output = new StringBuilder(length + 16 * args.size());
+    var next = 1;
+
+    for (var i = 0; i < length; ++i) {
+      var c = spec.charAt(i);
+
+      if (c != '%') {
+        output.append(c);
+        continue;
+      }
+
+      var start = ++i;
+      while (i < length && "+- #0".indexOf(spec.charAt(i)) >= 0) {
+        ++i;
+      }
+      while (i < length && Character.isDigit(spec.charAt(i))) {
+        ++i;
+      }
+      if (i < length && spec.charAt(i) == '.') {
+        ++i;
+        while (i < length && Character.isDigit(spec.charAt(i))) {
+          ++i;
+        }
+      }
+
+      if (i == length) {
+        throw new IllegalArgumentException("Unterminated format verb at the end of the string");
+      }
+
+      var verb = spec.charAt(i);
+
+      if (verb == '%') {
+        output.append('%');
+        continue;
+      }
+
+      if (next == args.size()) {
+        throw new IllegalArgumentException("Not enough arguments for format string");
+      }
+
+      formatVerb(output, verb, spec.substring(start, i), args.get(next++));
+    }
+
+    if (next != args.size()) {
+      throw new IllegalArgumentException("Too many arguments for format string");
+    }
+
+    return new HclStringValue(output.toString());
+  }
+
+  private static void formatVerb(
+      StringBuilder output,
+      char verb,
+      String modifiers,
+      HclValue value
+  ) {
+    var pattern = "%" + modifiers;
+
+    switch (verb) {
+      case 'v' -> {
+        var text = new StringBuilder();
+        if (value instanceof HclStringValue string) {
+          text.append(string.value());
+        } else {
+          writeJson(value, text);
+        }
+        output.append(String.format(Locale.ROOT, pattern + "s", text));
+      }
+      case 's' -> output.append(String.format(Locale.ROOT, pattern + "s",
+          HclConversions.toString(value)));
+      case 'q' -> {
+        var text = new StringBuilder();
+        writeJsonString(HclConversions.toString(value), text);
+        output.append(String.format(Locale.ROOT, pattern + "s", text));
+      }
+      case 't' -> output.append(String.format(Locale.ROOT, pattern + "b",
+          HclConversions.toBoolean(value)));
+      case 'd', 'x', 'X', 'o' -> output.append(String.format(Locale.ROOT, pattern + verb,
+          integer(HclConversions.toNumber(value))));
+      case 'b' -> output.append(integer(HclConversions.toNumber(value)).toString(2));
+      case 'e', 'E', 'f', 'g', 'G' -> output.append(String.format(Locale.ROOT, pattern + verb,
+          HclConversions.toNumber(value).bigDecimalValue()));
+      default -> throw new IllegalArgumentException("Unsupported format verb '%" + verb + "'");
+    }
+  }
+
+  private static HclValue join(List<HclValue> args) {
+    arity("join", args, 2, Integer.MAX_VALUE);
+    var separator = stringArgument(args.get(0));
+    var output = new StringBuilder();
+    var first = true;
+
+    for (var i = 1; i < args.size(); ++i) {
+      for (var element : tupleArgument(args.get(i))) {
+        if (!first) {
+          output.append(separator);
+        }
+        output.append(HclConversions.toString(element));
+        first = false;
+      }
+    }
+
+    return new HclStringValue(output.toString());
+  }
+
+  private static HclValue lower(HclValue argument) {
+    return new HclStringValue(stringArgument(argument).toLowerCase(Locale.ROOT));
+  }
+
+  private static HclValue replace(HclValue first, HclValue second, HclValue third) {
+    var string = stringArgument(first);
+    var search = stringArgument(second);
+    var replacement = stringArgument(third);
+
+    // A search string in slashes is a regular expression.
+    if (search.length() > 1 && search.startsWith("/") && search.endsWith("/")) {
+      try {
+        var pattern = Pattern.compile(search.substring(1, search.length() - 1));
+        return new HclStringValue(pattern.matcher(string).replaceAll(replacement));
+      } catch (PatternSyntaxException | IndexOutOfBoundsException ex) {
+        throw new IllegalArgumentException("Invalid regular expression " + search, ex);
+      }
+    }
+
+    return new HclStringValue(string.replace(search, replacement));
+  }
+
+  private static HclValue split(HclValue first, HclValue second) {
+    var separator = stringArgument(first);
+    var string = stringArgument(second);
+    var results = new ArrayList<HclValue>();
+
+    if (separator.isEmpty()) {
+      string.codePoints().forEach(codePoint ->
+          results.add(new HclStringValue(Character.toString(codePoint))));
+      return HclTupleValue.of(results);
+    }
+
+    var start = 0;
+    for (var end = string.indexOf(separator); end >= 0; end = string.indexOf(separator, start)) {
+      results.add(new HclStringValue(string.substring(start, end)));
+      start = end + separator.length();
+    }
+    results.add(new HclStringValue(string.substring(start)));
+
+    return HclTupleValue.of(results);
+  }
+
+  private static HclValue startswith(HclValue first, HclValue second) {
+    return HclBoolValue.of(stringArgument(first).startsWith(stringArgument(second)));
+  }
+
+  private static HclValue strrev(HclValue argument) {
+    return new HclStringValue(new StringBuilder(stringArgument(argument)).reverse().toString());
+  }
+
+  private static HclValue substr(HclValue first, HclValue second, HclValue third) {
+    var string = stringArgument(first);
+    var offset = intArgument(second);
+    var length = intArgument(third);
+    var codePoints = string.codePointCount(0, string.length());
+
+    if (offset < 0) {
+      offset = Math.max(0, codePoints + offset);
+    }
+
+    if (offset > codePoints) {
+      throw new IllegalArgumentException("Offset " + offset + " is greater than the length of "
+          + "the string");
+    }
+
+    var end = length < 0 ? codePoints : Math.min(codePoints, offset + length);
+    var startIndex = string.offsetByCodePoints(0, offset);
+    var endIndex = string.offsetByCodePoints(startIndex, end - offset);
+    return new HclStringValue(string.substring(startIndex, endIndex));
+  }
+
+  private static HclValue trimprefix(HclValue first, HclValue second) {
+    var string = stringArgument(first);
+    var prefix = stringArgument(second);
+    return new HclStringValue(string.startsWith(prefix)
+        ? string.substring(prefix.length())
+        : string);
+  }
+
+  private static HclValue trimspace(HclValue argument) {
+    return new HclStringValue(stringArgument(argument).strip());
+  }
+
+  private static HclValue trimsuffix(HclValue first, HclValue second) {
+    var string = stringArgument(first);
+    var suffix = stringArgument(second);
+    return new HclStringValue(string.endsWith(suffix)
+        ? string.substring(0, string.length() - suffix.length())
+        : string);
+  }
+
+  private static HclValue upper(HclValue argument) {
+    return new HclStringValue(stringArgument(argument).toUpperCase(Locale.ROOT));
+  }
+
+  ////////////
+  // Numbers.
+  ////////////
+
+  private static HclValue abs(HclValue argument) {
+    var number = numberArgument(argument);
+    return number.signum() < 0 ? number.negate() : number;
+  }
+
+  private static HclValue ceil(HclValue argument) {
+    return round(numberArgument(argument), RoundingMode.CEILING);
+  }
+
+  private static HclValue floor(HclValue argument) {
+    return round(numberArgument(argument), RoundingMode.FLOOR);
+  }
+
+  private static HclValue round(HclNumberValue number, RoundingMode mode) {
+    return number.isLong()
+        ? number
+        : HclNumberValue.of(number.bigDecimalValue().setScale(0, mode));
+  }
+
+  private static HclValue max(List<HclValue> args) {
+    arity("max", args, 1, Integer.MAX_VALUE);
+    var result = numberArgument(args.get(0));
+
+    for (var i = 1; i < args.size(); ++i) {
+      var number = numberArgument(args.get(i));
+      if (number.compareTo(result) > 0) {
+        result = number;
+      }
+    }
+
+    return result;
+  }
+
+  private static HclValue min(List<HclValue> args) {
+    arity("min", args, 1, Integer.MAX_VALUE);
+    var result = numberArgument(args.get(0));
+
+    for (var i = 1; i < args.size(); ++i) {
+      var number = numberArgument(args.get(i));
+      if (number.compareTo(result) < 0) {
+        result = number;
+      }
+    }
+
+    return result;
+  }
+
+  private static HclValue parseint(HclValue first, HclValue second) {
+    var base = intArgument(second);
+
+    if (base < Character.MIN_RADIX || base > Character.MAX_RADIX) {
+      throw new IllegalArgumentException("Base must be between " + Character.MIN_RADIX
+          + " and " + Character.MAX_RADIX);
+    }
+
+    return HclNumberValue.of(new BigInteger(stringArgument(first), base));
+  }
+
+  private static HclValue signum(HclValue argument) {
+    return HclNumberValue.of(numberArgument(argument).signum());
+  }
+
+  /////////////////////////////////
+  // Conversions and encodings.
+  /////////////////////////////////
+
+  private static HclValue base64decode(HclValue argument) {
+    try {
+      var bytes = Base64.getDecoder().decode(stringArgument(argument));
+      var text = StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(bytes));
+      return new HclStringValue(text.toString());
+    } catch (CharacterCodingException ex) {
+      throw new IllegalArgumentException("Decoded bytes are not valid UTF-8", ex);
+    }
+  }
+
+  private static HclValue base64encode(HclValue argument) {
+    var bytes = stringArgument(argument).getBytes(StandardCharsets.UTF_8);
+    return new HclStringValue(Base64.getEncoder().encodeToString(bytes));
+  }
+
+  private static HclValue jsonencode(HclValue argument) {
+    var output = new StringBuilder(64);
+    writeJson(argument, output);
+    return new HclStringValue(output.toString());
+  }
+
+  private static void writeJson(HclValue value, StringBuilder output) {
+    switch (value.type()) {
+      case NULL, BOOL, NUMBER -> output.append(value);
+      case STRING -> writeJsonString(((HclStringValue) value).value(), output);
+      case TUPLE -> {
+        output.append('[');
+        var first = true;
+        for (var element : (HclTupleValue) value) {
+          if (!first) {
+            output.append(',');
+          }
+          writeJson(element, output);
+          first = false;
+        }
+        output.append(']');
+      }
+      default -> {
+        output.append('{');
+        var first = true;
+        for (var attribute : (HclObjectValue) value) {
+          if (!first) {
+            output.append(',');
+          }
+          writeJsonString(attribute.getKey(), output);
+          output.append(':');
+          writeJson(attribute.getValue(), output);
+          first = false;
+        }
+        output.append('}');
+      }
+    }
+  }
+
+  private static void writeJsonString(String string, StringBuilder output) {
+    output.append('"');
+
+    for (var i = 0; i < string.length(); ++i) {
+      var next = string.charAt(i);
+
+      switch (next) {
+        case '"' -> output.append("\\\"");
+        case '\\' -> output.append("\\\\");
+        case '\b' -> output.append("\\b");
+        case '\f' -> output.append("\\f");
+        case '\n' -> output.append("\\n");
+        case '\r' -> output.append("\\r");
+        case '\t' -> output.append("\\t");
+        // Terraform escapes these too, so that the output is safe to embed in HTML and JavaScript.
+        case '<', '>', '&', '\u2028', '\u2029' -> writeJsonEscape(next, output);
+        default -> {
+          if (next < ' ') {
+            writeJsonEscape(next, output);
+          } else {
+            output.append(next);
+          }
+        }
+      }
+    }
+
+    output.append('"');
+  }
+
+  private static void writeJsonEscape(char next, StringBuilder output) {
+    output.append("\\u")
+        .append(HEX_DIGITS[next >> 12])
+        .append(HEX_DIGITS[next >> 8 & 0xF])
+        .append(HEX_DIGITS[next >> 4 & 0xF])
+        .append(HEX_DIGITS[next & 0xF]);
+  }
+
+  private static HclValue tobool(HclValue argument) {
+    var value = argument;
+    return value == HclNullValue.INSTANCE
+        ? value
+        : HclBoolValue.of(HclConversions.toBoolean(value));
+  }
+
+  private static HclValue tonumber(HclValue argument) {
+    var value = argument;
+    return value == HclNullValue.INSTANCE ? value : HclConversions.toNumber(value);
+  }
+
+  private static HclValue tostring(HclValue argument) {
+    var value = argument;
+    return value == HclNullValue.INSTANCE || value instanceof HclStringValue
+        ? value
+        : new HclStringValue(HclConversions.toString(value));
+  }
+
+  ///////////////
+  // Networking.
+  ///////////////
+
+  private static HclValue cidrhost(HclValue first, HclValue second) {
+    var prefix = Cidr.parse(stringArgument(first));
+    var hostNumber = integer(numberArgument(second));
+    var hostBits = prefix.bits - prefix.length;
+    var hosts = BigInteger.ONE.shiftLeft(hostBits);
+
+    if (hostNumber.signum() < 0) {
+      hostNumber = hostNumber.add(hosts);
+    }
+
+    if (hostNumber.signum() < 0 || hostNumber.compareTo(hosts) >= 0) {
+      throw new IllegalArgumentException("Host number " + second
+          + " does not fit in " + hostBits + " bits");
+    }
+
+    return new HclStringValue(Cidr.format(prefix.network().or(hostNumber), prefix.bits));
+  }
+
+  private static HclValue cidrnetmask(HclValue argument) {
+    var prefix = Cidr.parse(stringArgument(argument));
+
+    if (prefix.bits != 32) {
+      throw new IllegalArgumentException("Only IPv4 prefixes have a netmask");
+    }
+
+    return new HclStringValue(Cidr.format(prefix.mask(), prefix.bits));
+  }
+
+  private static HclValue cidrsubnet(HclValue first, HclValue second, HclValue third) {
+    var prefix = Cidr.parse(stringArgument(first));
+    var newBits = intArgument(second);
+    var netNumber = integer(numberArgument(third));
+    var length = prefix.length + newBits;
+
+    if (newBits < 0 || length > prefix.bits) {
+      throw new IllegalArgumentException("Cannot extend a prefix of length " + prefix.length
+          + " by " + newBits + " bits");
+    }
+
+    if (netNumber.signum() < 0 || netNumber.bitLength() > newBits) {
+      throw new IllegalArgumentException("Network number " + third
+          + " does not fit in " + newBits + " bits");
+    }
+
+    var network = prefix.network().or(netNumber.shiftLeft(prefix.bits - length));
+    return new HclStringValue(Cidr.format(network, prefix.bits) + "/" + length);
+  }
+
+  /**
+   * An IP address prefix in CIDR notation.
+   *
+   * @param address the address, as an unsigned integer.
+   * @param length  the prefix length.
+   * @param bits    the number of bits in the address.
+   */
+  private record Cidr(BigInteger address, int length, int bits) {
+
+    private static Cidr parse(String prefix) {
+      var slash = prefix.indexOf('/');
+
+      if (slash < 0) {
+        throw new IllegalArgumentException("Invalid CIDR prefix \"" + prefix + "\"");
+      }
+
+      var address = prefix.substring(0, slash);
+      int length;
+
+      try {
+        length = Integer.parseInt(prefix.substring(slash + 1));
+      } catch (NumberFormatException ex) {
+        throw new IllegalArgumentException("Invalid CIDR prefix \"" + prefix + "\"", ex);
+      }
+
+      // Only parse address literals, so that host names are never looked up.
+      var literal = address.indexOf(':') >= 0
+          ? IPV6.matcher(address).matches()
+          : IPV4.matcher(address).matches();
+
+      byte[] bytes;
+      try {
+        if (!literal) {
+          throw new UnknownHostException(address);
+        }
+        bytes = InetAddress.getByName(address).getAddress();
+      } catch (UnknownHostException ex) {
+        throw new IllegalArgumentException("Invalid IP address \"" + address + "\"", ex);
+      }
+
+      var bits = bytes.length * 8;
+
+      if (length < 0 || length > bits) {
+        throw new IllegalArgumentException("Invalid prefix length " + length);
+      }
+
+      return new Cidr(new BigInteger(1, bytes), length, bits);
+    }
+
+    private static String format(BigInteger address, int bits) {
+      var output = new StringBuilder();
+
+      if (bits == 32) {
+        for (var shift = 24; shift >= 0; shift -= 8) {
+          output.append(address.shiftRight(shift).intValue() & 0xFF);
+          if (shift > 0) {
+            output.append('.');
+          }
+        }
+        return output.toString();
+      }
+
+      var groups = new int[8];
+      for (var i = 0; i < 8; ++i) {
+        groups[i] = address.shiftRight(112 - 16 * i).intValue() & 0xFFFF;
+      }
+
+      // Collapse the longest run of two or more zero groups into "::".
+      var bestStart = -1;
+      var bestLength = 1;
+      for (var i = 0; i < 8; ) {
+        var j = i;
+        while (j < 8 && groups[j] == 0) {
+          ++j;
+        }
+        if (j - i > bestLength) {
+          bestStart = i;
+          bestLength = j - i;
+        }
+        i = Math.max(j, i + 1);
+      }
+
+      for (var i = 0; i < 8; ++i) {
+        if (i == bestStart) {
+          output.append("::");
+          i += bestLength - 1;
+          continue;
+        }
+        if (output.length() > 0 && output.charAt(output.length() - 1) != ':') {
+          output.append(':');
+        }
+        output.append(Integer.toHexString(groups[i]));
+      }
+
+      return output.toString();
+    }
+
+    private BigInteger mask() {
+      var hostBits = bits - length;
+      return BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE.shiftLeft(hostBits));
+    }
+
+    private BigInteger network() {
+      return address.and(mask());
+    }
+  }
+
+  //////////////
+  // Arguments.
+  //////////////
+
+  private static HclFunction unary(String name, Unary function) {
+    return new FixedArityFunction(name, function, null, null);
+  }
+
+  private static HclFunction binary(String name, Binary function) {
+    return new FixedArityFunction(name, null, function, null);
+  }
+
+  private static HclFunction ternary(String name, Ternary function) {
+    return new FixedArityFunction(name, null, null, function);
+  }
+
+  private static void arity(String name, List<HclValue> args, int min, int max) {
+    if (args.size() < min || args.size() > max) {
+      throw arityMismatch(name, args.size(), min, max);
+    }
+  }
+
+  private static IllegalArgumentException arityMismatch(String name, int count, int min, int max) {
+    var expected = min == max
+        ? Integer.toString(min)
+        : max == Integer.MAX_VALUE ? "at least " + min : min + " to " + max;
+    return new IllegalArgumentException("Function " + name + " expects " + expected
+        + " arguments but got " + count);
+  }
+
+  private static String stringArgument(HclValue argument) {
+    return HclConversions.toString(argument);
+  }
+
+  private static HclNumberValue numberArgument(HclValue argument) {
+    return HclConversions.toNumber(argument);
+  }
+
+  private static int intArgument(HclValue argument) {
+    try {
+      return numberArgument(argument).intValueExact();
+    } catch (ArithmeticException ex) {
+      throw new IllegalArgumentException("Expected a whole number but got " + argument, ex);
+    }
+  }
+
+  private static HclTupleValue tupleArgument(HclValue argument) {
+    return HclConversions.toTuple(argument);
+  }
+
+  private static HclObjectValue objectArgument(HclValue argument) {
+    return HclConversions.toObject(argument);
+  }
+
+  private static BigInteger integer(HclNumberValue number) {
+    try {
+      return number.bigDecimalValue().toBigIntegerExact();
+    } catch (ArithmeticException ex) {
+      throw new IllegalArgumentException("Expected a whole number but got " + number, ex);
+    }
+  }
+
+  @FunctionalInterface
+  private interface Unary {
+
+    HclValue apply(HclValue argument);
+  }
+
+  @FunctionalInterface
+  private interface Binary {
+
+    HclValue apply(HclValue first, HclValue second);
+  }
+
+  @FunctionalInterface
+  private interface Ternary {
+
+    HclValue apply(HclValue first, HclValue second, HclValue third);
+  }
+
+  /**
+   * A function that takes one, two or three arguments, and implements the overloads of
+   * {@link HclFunction} for each of those directly, so that calls never build a list of arguments.
+   * Calls with a list of arguments are dispatched to those overloads by size.
+   */
+  private static final class FixedArityFunction implements HclFunction {
+
+    private final String name;
+    private final @Nullable Unary unary;
+    private final @Nullable Binary binary;
+    private final @Nullable Ternary ternary;
+    private final int min;
+    private final int max;
+
+    private FixedArityFunction(
+        String name,
+        @Nullable Unary unary,
+        @Nullable Binary binary,
+        @Nullable Ternary ternary
+    ) {
+      this.name = name;
+      this.unary = unary;
+      this.binary = binary;
+      this.ternary = ternary;
+      min = unary != null ? 1 : binary != null ? 2 : 3;
+      max = ternary != null ? 3 : binary != null ? 2 : 1;
+    }
+
+    @Override
+    public HclValue call(List<HclValue> arguments) {
+      return switch (arguments.size()) {
+        case 0 -> call();
+        case 1 -> call(arguments.get(0));
+        case 2 -> call(arguments.get(0), arguments.get(1));
+        case 3 -> call(arguments.get(0), arguments.get(1), arguments.get(2));
+        default -> throw arityMismatch(name, arguments.size(), min, max);
+      };
+    }
+
+    @Override
+    public HclValue call() {
+      throw arityMismatch(name, 0, min, max);
+    }
+
+    @Override
+    public HclValue call(HclValue argument) {
+      if (unary == null) {
+        throw arityMismatch(name, 1, min, max);
+      }
+      return unary.apply(argument);
+    }
+
+    @Override
+    public HclValue call(HclValue first, HclValue second) {
+      if (binary == null) {
+        throw arityMismatch(name, 2, min, max);
+      }
+      return binary.apply(first, second);
+    }
+
+    @Override
+    public HclValue call(HclValue first, HclValue second, HclValue third) {
+      if (ternary == null) {
+        throw arityMismatch(name, 3, min, max);
+      }
+      return ternary.apply(first, second, third);
+    }
+  }
+}
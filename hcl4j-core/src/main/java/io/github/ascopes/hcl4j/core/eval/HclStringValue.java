@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+/**
+ * A string value.
+ *
+ * @param value the string.
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public record HclStringValue(String value) implements HclValue {
+
+  /**
+   * The empty string.
+   */
+  public static final HclStringValue EMPTY = new HclStringValue("");
+
+  @Override
+  public HclValueType type() {
+    return HclValueType.STRING;
+  }
+
+  @Override
+  public String toString() {
+    return value;
+  }
+}
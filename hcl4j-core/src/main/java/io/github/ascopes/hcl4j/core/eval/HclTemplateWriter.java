@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateContentNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateLiteralNode;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.tokens.HclToken;
+
+/**
+ * Builds the output of a template, applying strip markers and heredoc indentation.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+final class HclTemplateWriter {
+
+  private final StringBuilder builder;
+  private final int indent;
+  private boolean trimNext;
+
+  /**
+   * Initialize the writer.
+   *
+   * @param indent the number of indentation characters to remove from the start of each line.
+   */
+  HclTemplateWriter(int indent) {
+    builder = new StringBuilder();
+    this.indent = indent;
+    trimNext = false;
+  }
+
+  /**
+   * Determine the indentation shared by every line of a flush heredoc.
+   *
+   * @param template the heredoc content.
+   * @return the number of indentation characters to remove from each line.
+   */
+  static int commonIndent(HclTemplateContentNode template) {
+    var indent = Integer.MAX_VALUE;
+    var lineStart = true;
+    var pending = -1;
+
+    for (var item : template.items()) {
+      if (!(item instanceof HclTemplateLiteralNode literal)) {
+        // Whitespace before an interpolation or directive at the start of a line is indentation.
+        if (pending >= 0) {
+          indent = Math.min(indent, pending);
+          pending = -1;
+        }
+        lineStart = false;
+        continue;
+      }
+
+      pending = -1;
+      var text = literal.value();
+      var length = text.length();
+      var i = 0;
+
+      while (i < length) {
+        if (lineStart) {
+          var start = i;
+          while (i < length && isIndentation(text.charAt(i))) {
+            ++i;
+          }
+
+          // Lines with no content do not count towards the indentation.
+          if (i == length) {
+            pending = i - start;
+          } else if (text.charAt(i) != '\n') {
+            indent = Math.min(indent, i - start);
+          }
+
+          lineStart = false;
+        }
+
+        while (i < length && text.charAt(i) != '\n') {
+          ++i;
+        }
+
+        if (i < length) {
+          ++i;
+          lineStart = true;
+        }
+      }
+    }
+
+    return indent == Integer.MAX_VALUE ? 0 : indent;
+  }
+
+  /**
+   * Append literal template text.
+   *
+   * @param text the text.
+   */
+  void literal(CharSequence text) {
+    var length = text.length();
+    var i = 0;
+
+    if (trimNext) {
+      while (i < length && Character.isWhitespace(text.charAt(i))) {
+        ++i;
+      }
+      trimNext = false;
+    }
+
+    while (i < length) {
+      if (indent > 0 && isLineStart()) {
+        var limit = i + indent;
+        while (i < length && i < limit && isIndentation(text.charAt(i))) {
+          ++i;
+        }
+
+        if (i == length) {
+          break;
+        }
+      }
+
+      builder.append(text.charAt(i++));
+    }
+  }
+
+  /**
+   * Append an interpolated value.
+   *
+   * @param text the value, converted to a string.
+   */
+  void value(String text) {
+    trimNext = false;
+    builder.append(text);
+  }
+
+  /**
+   * Remove trailing whitespace written so far if a strip marker is present.
+   *
+   * @param trimToken the strip marker, or {@code null} if there is none.
+   */
+  void trimTrailing(@Nullable HclToken trimToken) {
+    if (trimToken != null) {
+      var length = builder.length();
+      while (length > 0 && Character.isWhitespace(builder.charAt(length - 1))) {
+        --length;
+      }
+      builder.setLength(length);
+    }
+  }
+
+  /**
+   * Remove leading whitespace from the next literal if a strip marker is present.
+   *
+   * @param trimToken the strip marker, or {@code null} if there is none.
+   */
+  void trimLeading(@Nullable HclToken trimToken) {
+    trimNext = trimToken != null;
+  }
+
+  @Override
+  public String toString() {
+    return builder.toString();
+  }
+
+  private boolean isLineStart() {
+    var length = builder.length();
+    return length == 0 || builder.charAt(length - 1) == '\n';
+  }
+
+  private static boolean isIndentation(char c) {
+    return c == ' ' || c == '\t';
+  }
+}
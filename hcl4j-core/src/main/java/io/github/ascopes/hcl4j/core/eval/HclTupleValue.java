@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+import io.github.ascopes.hcl4j.core.intern.PersistentVector;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A tuple value, holding an ordered sequence of values.
+ *
+ * <p>Tuples are persistent: {@link #append} and {@link #set} return a new tuple that shares
+ * structure with the original, taking effectively constant time.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclTupleValue implements HclValue, Iterable<HclValue> {
+
+  /**
+   * The empty tuple.
+   */
+  public static final HclTupleValue EMPTY = new HclTupleValue(PersistentVector.empty());
+
+  private final PersistentVector<HclValue> elements;
+
+  private HclTupleValue(PersistentVector<HclValue> elements) {
+    this.elements = elements;
+  }
+
+  /**
+   * Create a tuple holding the given elements.
+   *
+   * @param elements the elements.
+   * @return the tuple.
+   */
+  public static HclTupleValue of(HclValue... elements) {
+    return of(List.of(elements));
+  }
+
+  /**
+   * Create a tuple holding the given elements.
+   *
+   * @param elements the elements.
+   * @return the tuple.
+   */
+  public static HclTupleValue of(List<? extends HclValue> elements) {
+    return elements.isEmpty() ? EMPTY : new HclTupleValue(PersistentVector.of(elements));
+  }
+
+  /**
+   * Get the number of elements.
+   *
+   * @return the number of elements.
+   */
+  public int size() {
+    return elements.size();
+  }
+
+  /**
+   * Determine if this tuple has no elements.
+   *
+   * @return {@code true} if this tuple has no elements.
+   */
+  public boolean isEmpty() {
+    return elements.size() == 0;
+  }
+
+  /**
+   * Get the element at the given index.
+   *
+   * @param index the index.
+   * @return the element.
+   * @throws IndexOutOfBoundsException if the index is out of bounds.
+   */
+  public HclValue get(int index) {
+    return elements.get(index);
+  }
+
+  /**
+   * Create a new tuple with the given element added to the end.
+   *
+   * @param element the element.
+   * @return the new tuple.
+   */
+  public HclTupleValue append(HclValue element) {
+    return new HclTupleValue(elements.append(element));
+  }
+
+  /**
+   * Create a new tuple with the element at the given index replaced.
+   *
+   * @param index   the index.
+   * @param element the new element.
+   * @return the new tuple.
+   * @throws IndexOutOfBoundsException if the index is out of bounds.
+   */
+  public HclTupleValue set(int index, HclValue element) {
+    return new HclTupleValue(elements.set(index, element));
+  }
+
+  /**
+   * Get an unmodifiable list view of this tuple.
+   *
+   * @return the list view.
+   */
+  public List<HclValue> asList() {
+    return new ListView();
+  }
+
+  @Override
+  public Iterator<HclValue> iterator() {
+    return elements.iterator();
+  }
+
+  @Override
+  public HclValueType type() {
+    return HclValueType.TUPLE;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+
+    if (!(other instanceof HclTupleValue tuple) || tuple.size() != size()) {
+      return false;
+    }
+
+    var theirs = tuple.iterator();
+    for (var element : this) {
+      if (!element.equals(theirs.next())) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    var hash = 1;
+    for (var element : this) {
+      hash = 31 * hash + element.hashCode();
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return asList().toString();
+  }
+
+  private final class ListView extends AbstractList<HclValue> implements RandomAccess {
+
+    @Override
+    public HclValue get(int index) {
+      return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+      return elements.size();
+    }
+
+    @Override
+    public Iterator<HclValue> iterator() {
+      return elements.iterator();
+    }
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+/**
+ * A value produced by evaluating an expression.
+ *
+ * <p>All values are immutable. Numbers and booleans are held unboxed, and tuples and objects are
+ * persistent collections, so deriving a new collection from an existing one shares most of its
+ * structure rather than copying it.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public sealed interface HclValue
+    permits HclBoolValue, HclNullValue, HclNumberValue, HclObjectValue, HclStringValue,
+    HclTupleValue {
+
+  /**
+   * Get the type of this value.
+   *
+   * @return the type.
+   */
+  HclValueType type();
+}
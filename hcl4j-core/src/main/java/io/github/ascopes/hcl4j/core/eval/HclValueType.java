@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.eval;
+
+/**
+ * The types of {@link HclValue}.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public enum HclValueType {
+  NULL("null"),
+  BOOL("bool"),
+  NUMBER("number"),
+  STRING("string"),
+  TUPLE("tuple"),
+  OBJECT("object");
+
+  private final String displayName;
+
+  HclValueType(String displayName) {
+    this.displayName = displayName;
+  }
+
+  public String displayName() {
+    return displayName;
+  }
+}
@@ -16,6 +16,7 @@
 package io.github.ascopes.hcl4j.core.ex;
 
 import io.github.ascopes.hcl4j.core.inputs.HclLocation;
+import java.util.Set;
 
 /**
  * Exception thrown if the lexer comes across some chunk of text that it cannot make sense of, such
@@ -91,4 +92,18 @@ public final class HclBadTokenException extends HclSyntaxException {
   public CharSequence getRawContent() {
     return rawContent;
   }
+
+  @Override
+  public HclDiagnostic toDiagnostic() {
+    return new HclDiagnostic(
+        getFileName(),
+        getMessage(),
+        start,
+        end,
+        rawContent,
+        null,
+        Set.of(),
+        Set.of()
+    );
+  }
 }
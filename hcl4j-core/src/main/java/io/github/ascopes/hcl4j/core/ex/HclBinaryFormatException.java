@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.ex;
+
+/**
+ * Exception thrown if binary AST data is malformed or truncated.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclBinaryFormatException extends HclProcessingException {
+
+  /**
+   * Initialise this exception.
+   *
+   * @param message the associated error message.
+   */
+  public HclBinaryFormatException(String message) {
+    super(message);
+  }
+
+  /**
+   * Initialise this exception.
+   *
+   * @param message the associated error message.
+   * @param cause   the cause of this exception.
+   */
+  public HclBinaryFormatException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.ex;
+
+import io.github.ascopes.hcl4j.core.inputs.HclLocatable;
+import io.github.ascopes.hcl4j.core.inputs.HclLocation;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.tokens.HclToken;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Structured record of a syntax error in an input file.
+ *
+ * <p>Diagnostics hold the raw details of the problem only. No message text is formatted until
+ * {@link #render()} is called, which makes them cheap to collect in bulk (e.g. when linting large
+ * numbers of files, or when speculatively parsing input in several modes).
+ *
+ * @param fileName         the name of the file that produced the diagnostic.
+ * @param message          the short summary of the problem.
+ * @param start            the start location of the offending content.
+ * @param end              the end location of the offending content.
+ * @param rawContent       the offending content.
+ * @param unexpectedToken  the token that was received, or {@code null} if the content could not be
+ *                         tokenized at all.
+ * @param expectedTypes    the token types that were expected instead, if known.
+ * @param expectedKeywords the keywords that were expected instead, if known.
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public record HclDiagnostic(
+    String fileName,
+    String message,
+    @Override HclLocation start,
+    @Override HclLocation end,
+    CharSequence rawContent,
+    @Nullable HclToken unexpectedToken,
+    Set<HclTokenType> expectedTypes,
+    Set<CharSequence> expectedKeywords
+) implements HclLocatable {
+
+  /**
+   * Render this diagnostic to a human-readable message.
+   *
+   * @return the rendered message.
+   */
+  public String render() {
+    var buff = new StringBuilder(message);
+
+    if (!expectedTypes.isEmpty()) {
+      buff.append("\nExpected one of:\n").append(expectedTypes
+          .stream()
+          .sorted(Comparator.comparing(HclTokenType::displayName))
+          .map(type -> {
+            var symbol = type.symbol();
+            return symbol == null
+                ? " - " + type.displayName()
+                : " - " + type.displayName() + " (" + HclException.safeRepr(symbol) + ")";
+          })
+          .collect(Collectors.joining("\n")));
+    } else if (!expectedKeywords.isEmpty()) {
+      buff.append("\nExpected one of:\n").append(expectedKeywords
+          .stream()
+          .map(CharSequence::toString)
+          .sorted()
+          .map(kw -> " - " + HclException.safeRepr(kw))
+          .collect(Collectors.joining("\n")));
+    }
+
+    buff.append("\nReceived:\n - ");
+
+    if (unexpectedToken != null && expectedKeywords.isEmpty()) {
+      buff.append(unexpectedToken.type().displayName())
+          .append(" (")
+          .append(HclException.safeRepr(rawContent))
+          .append(")");
+    } else {
+      buff.append(HclException.safeRepr(rawContent));
+    }
+
+    return buff
+        .append("\n\nin ").append(fileName).append(" at ")
+        .append("line ").append(start.line()).append(", ")
+        .append("column: ").append(start.column())
+        .append("\n")
+        .toString();
+  }
+
+  /**
+   * Render this diagnostic to a human-readable message, followed by the line of the source that
+   * it refers to, with the offending content marked by carets underneath.
+   *
+   * @param source the source text that the diagnostic was produced from.
+   * @return the rendered message.
+   */
+  public String render(CharSequence source) {
+    var buff = new StringBuilder(render());
+
+    if (start.position() < 0 || start.position() > source.length()) {
+      return buff.toString();
+    }
+
+    var position = (int) start.position();
+    var lineStart = position;
+    var lineEnd = position;
+
+    while (lineStart > 0 && source.charAt(lineStart - 1) != '\n') {
+      --lineStart;
+    }
+
+    while (lineEnd < source.length() && source.charAt(lineEnd) != '\n'
+        && source.charAt(lineEnd) != '\r') {
+      ++lineEnd;
+    }
+
+    buff.append("\n").append(source, lineStart, lineEnd).append("\n");
+
+    // Keep tabs in the padding so that the caret lines up however they are displayed.
+    for (var i = lineStart; i < position; ++i) {
+      buff.append(source.charAt(i) == '\t' ? '\t' : ' ');
+    }
+
+    var width = Math.max(1, Math.min(end.position(), lineEnd) - position);
+    return buff.append("^".repeat((int) width)).append("\n").toString();
+  }
+
+  /**
+   * Convert this diagnostic into the equivalent exception, ready to be thrown.
+   *
+   * @return the exception.
+   */
+  public HclSyntaxException toException() {
+    if (unexpectedToken == null) {
+      return new HclBadTokenException(fileName, rawContent, start, end, message);
+    }
+
+    if (!expectedKeywords.isEmpty()) {
+      return new HclUnexpectedKeywordException(
+          unexpectedToken,
+          expectedKeywords,
+          fileName,
+          message
+      );
+    }
+
+    return new HclUnexpectedTokenException(unexpectedToken, expectedTypes, fileName, message);
+  }
+
+  @Override
+  public String toString() {
+    return render();
+  }
+}
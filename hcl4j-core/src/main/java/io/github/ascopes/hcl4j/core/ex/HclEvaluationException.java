@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.ex;
+
+import io.github.ascopes.hcl4j.core.inputs.HclLocatable;
+import io.github.ascopes.hcl4j.core.inputs.HclLocation;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+
+/**
+ * Exception thrown if an expression cannot be evaluated, such as when it refers to an unknown
+ * variable or applies an operator to a value of the wrong type.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclEvaluationException extends HclException {
+
+  private final HclLocation start;
+  private final HclLocation end;
+
+  /**
+   * Initialise this exception.
+   *
+   * @param node    the node that failed to evaluate.
+   * @param message the associated error message.
+   */
+  public HclEvaluationException(HclLocatable node, String message) {
+    this(node, message, null);
+  }
+
+  /**
+   * Initialise this exception.
+   *
+   * @param node    the node that failed to evaluate.
+   * @param message the associated error message.
+   * @param cause   the cause of this exception, or {@code null} if there is no cause.
+   */
+  public HclEvaluationException(HclLocatable node, String message, @Nullable Throwable cause) {
+    super(message, cause, false);
+    start = node.start();
+    end = node.end();
+  }
+
+  /**
+   * Get the start of the node that failed to evaluate.
+   *
+   * @return the start location.
+   */
+  public HclLocation getStart() {
+    return start;
+  }
+
+  /**
+   * Get the end of the node that failed to evaluate.
+   *
+   * @return the end location.
+   */
+  public HclLocation getEnd() {
+    return end;
+  }
+}
@@ -15,6 +15,8 @@
  */
 package io.github.ascopes.hcl4j.core.ex;
 
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+
 /**
  * Base for any exception raised by HCL4J libraries.
  *
@@ -42,6 +44,23 @@ public abstract class HclException extends RuntimeException {
     super(message, cause);
   }
 
+  /**
+   * Initialise this exception.
+   *
+   * @param message            the exception message.
+   * @param cause              the exception cause, or {@code null} if there is no cause.
+   * @param writableStackTrace {@code false} to skip capturing the stack trace. This is useful for
+   *                           exceptions describing problems in the input rather than problems in
+   *                           the program, where the stack trace carries no useful information.
+   */
+  protected HclException(
+      String message,
+      @Nullable Throwable cause,
+      boolean writableStackTrace
+  ) {
+    super(message, cause, true, writableStackTrace);
+  }
+
   /**
    * Produce a quoted representation of some raw input content to use in a message. This content
    * will be quoted and escaped to keep the message clear. Any characters outside the space
@@ -15,6 +15,8 @@
  */
 package io.github.ascopes.hcl4j.core.ex;
 
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+
 /**
  * Base for any exception raised when something goes wrong with the processing of HCL content.
  *
@@ -41,4 +43,19 @@ public abstract class HclProcessingException extends HclException {
   protected HclProcessingException(String message, Throwable cause) {
     super(message, cause);
   }
+
+  /**
+   * Initialise this exception.
+   *
+   * @param message            the exception message.
+   * @param cause              the exception cause, or {@code null} if there is no cause.
+   * @param writableStackTrace {@code false} to skip capturing the stack trace.
+   */
+  protected HclProcessingException(
+      String message,
+      @Nullable Throwable cause,
+      boolean writableStackTrace
+  ) {
+    super(message, cause, writableStackTrace);
+  }
 }
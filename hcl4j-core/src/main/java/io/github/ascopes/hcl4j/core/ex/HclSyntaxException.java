@@ -20,6 +20,10 @@ import io.github.ascopes.hcl4j.core.inputs.HclLocation;
 /**
  * Base type for an exception that can be thrown due to malformed syntax in an input file.
  *
+ * <p>Syntax exceptions describe a problem in the input rather than a problem in the program, so
+ * they do not capture a stack trace. Use {@link #toDiagnostic()} to obtain a structured record of
+ * the problem that can be collected without keeping the exception itself around.
+ *
  * @author Ashley Scopes
  * @since 0.0.1
  */
@@ -34,7 +38,7 @@ public abstract class HclSyntaxException extends HclProcessingException {
    * @param message  the error message to use.
    */
   protected HclSyntaxException(String fileName, String message) {
-    super(message);
+    super(message, null, false);
     this.fileName = fileName;
   }
 
@@ -46,7 +50,7 @@ public abstract class HclSyntaxException extends HclProcessingException {
    * @param cause    the cause of the exception.
    */
   protected HclSyntaxException(String fileName, String message, Throwable cause) {
-    super(message, cause);
+    super(message, cause, false);
     this.fileName = fileName;
   }
 
@@ -79,4 +83,11 @@ public abstract class HclSyntaxException extends HclProcessingException {
    * @return the raw content.
    */
   public abstract CharSequence getRawContent();
+
+  /**
+   * Get a structured diagnostic describing this exception.
+   *
+   * @return the diagnostic.
+   */
+  public abstract HclDiagnostic toDiagnostic();
 }
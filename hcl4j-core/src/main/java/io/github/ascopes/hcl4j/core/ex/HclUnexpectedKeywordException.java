@@ -19,7 +19,6 @@ import io.github.ascopes.hcl4j.core.inputs.HclLocation;
 import io.github.ascopes.hcl4j.core.tokens.HclToken;
 import java.util.Collections;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Exception thrown if the parser comes across a token that it does not expect during parsing.
@@ -86,20 +85,21 @@ public final class HclUnexpectedKeywordException extends HclSyntaxException {
   }
 
   @Override
-  public String toString() {
-    var expected = expectedKeywords
-        .stream()
-        .sorted()
-        .map(kw -> " - " + safeRepr(kw))
-        .collect(Collectors.joining("\n"));
+  public HclDiagnostic toDiagnostic() {
+    return new HclDiagnostic(
+        getFileName(),
+        getMessage(),
+        unexpectedToken.start(),
+        unexpectedToken.end(),
+        unexpectedToken.content(),
+        unexpectedToken,
+        Set.of(),
+        expectedKeywords
+    );
+  }
 
-    return getMessage()
-        + "\nExpected one of:\n" + expected
-        + "\nReceived:"
-        + "\n - " + safeRepr(unexpectedToken.content())
-        + "\n\nin " + getFileName() + " at "
-        + "line " + unexpectedToken.start().line() + ", "
-        + "column: " + unexpectedToken.start().column()
-        + "\n";
+  @Override
+  public String toString() {
+    return toDiagnostic().render();
   }
 }
@@ -19,9 +19,7 @@ import io.github.ascopes.hcl4j.core.inputs.HclLocation;
 import io.github.ascopes.hcl4j.core.tokens.HclToken;
 import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Exception thrown if the parser comes across a token that it does not expect during parsing.
@@ -88,26 +86,21 @@ public final class HclUnexpectedTokenException extends HclSyntaxException {
   }
 
   @Override
-  public String toString() {
-    var expected = expectedTypes
-        .stream()
-        .sorted(Comparator.comparing(HclTokenType::displayName))
-        .map(type -> {
-          var symbol = type.symbol();
-          return symbol == null
-              ? " - " + type.displayName()
-              : " - " + type.displayName() + " (" + safeRepr(type.symbol()) + ")";
-        })
-        .collect(Collectors.joining("\n"));
+  public HclDiagnostic toDiagnostic() {
+    return new HclDiagnostic(
+        getFileName(),
+        getMessage(),
+        unexpectedToken.start(),
+        unexpectedToken.end(),
+        unexpectedToken.content(),
+        unexpectedToken,
+        expectedTypes,
+        Set.of()
+    );
+  }
 
-    return getMessage()
-        + "\nExpected one of:\n" + expected
-        + "\nReceived:"
-        + "\n - " + unexpectedToken.type().displayName()
-        + " (" + safeRepr(unexpectedToken.content()) + ")"
-        + "\n\nin " + getFileName() + " at "
-        + "line " + unexpectedToken.start().line() + ", "
-        + "column: " + unexpectedToken.start().column()
-        + "\n";
+  @Override
+  public String toString() {
+    return toDiagnostic().render();
   }
 }
@@ -0,0 +1,921 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.format;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclAttributeNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBlockNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyItemNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectElementNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectExpressionKeyNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectIdentifierKeyNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclTupleNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclBinaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclTernaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclUnaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclWrappedExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.func.HclFunctionCallNode;
+import io.github.ascopes.hcl4j.core.ast.func.HclParameterNode;
+import io.github.ascopes.hcl4j.core.ast.getattr.HclGetAttrNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclIdentifierNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclStringLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclVariableExprNode;
+import io.github.ascopes.hcl4j.core.ast.index.HclIndexNode;
+import io.github.ascopes.hcl4j.core.ast.index.HclLegacyIndexNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForConditionNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForIntroNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForObjectExprNode;
+import io.github.ascopes.hcl4j.core.ast.iter.HclForTupleExprNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclLiteralValueNode;
+import io.github.ascopes.hcl4j.core.ast.splat.HclAttrSplatNode;
+import io.github.ascopes.hcl4j.core.ast.splat.HclFullSplatNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclHeredocTemplateNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclQuotedTemplateNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateContentNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateForNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateIfNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateInterpolationNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.visit.HclNodeKind;
+import io.github.ascopes.hcl4j.core.ast.visit.HclNodeVisitor;
+import io.github.ascopes.hcl4j.core.ast.visit.HclNodeWalker;
+import io.github.ascopes.hcl4j.core.ast.visit.HclWalkAction;
+import io.github.ascopes.hcl4j.core.ex.HclStreamException;
+import io.github.ascopes.hcl4j.core.inputs.HclLocatable;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.tokens.HclToken;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Formatter that writes an AST back out as HCL in the canonical style used by
+ * {@code terraform fmt}.
+ *
+ * <p>The output uses two spaces per level of indentation, aligns the equals signs of consecutive
+ * attributes and object elements, and puts single spaces around binary operators. Collections
+ * that spanned several lines in the source are written one element per line, and all other
+ * expressions are written on a single line. Heredoc and string content is written exactly as it
+ * appeared in the source.
+ *
+ * <p>Comments are not part of the AST. If the source text is provided, comments between the
+ * attributes and blocks of a body and between the elements of multi-line collections are carried
+ * over, along with single blank lines between them. An attribute whose expression contains a
+ * comment anywhere else is copied from the source unchanged, so comments are never lost.
+ * Separating commas in collections, including trailing commas, are kept as they were written, as
+ * is the spacing just inside the brackets of {@code for} expressions.
+ *
+ * <p>Each top-level item is written to an internal buffer and then flushed to the output, so the
+ * memory used does not grow with the size of the file. The buffer is reused between calls, so
+ * instances should be reused where possible. This class is <strong>not</strong> thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclFormatter {
+
+  private static final String INDENT = "  ";
+
+  private static final HclNodeVisitor<HclWalkAction, BitSet> TEXT_FINDER =
+      new HclNodeVisitor<>() {
+        @Override
+        public HclWalkAction visitDefault(HclLocatable node, BitSet text) {
+          return HclWalkAction.CONTINUE;
+        }
+
+        @Override
+        public HclWalkAction visitStringLiteral(HclStringLiteralNode node, BitSet text) {
+          return mark(node, text);
+        }
+
+        @Override
+        public HclWalkAction visitTemplateLiteral(HclTemplateLiteralNode node, BitSet text) {
+          return mark(node, text);
+        }
+
+        private HclWalkAction mark(HclLocatable node, BitSet text) {
+          text.set((int) node.start().position(), (int) node.end().position());
+          return HclWalkAction.SKIP_CHILDREN;
+        }
+      };
+
+  private static final HclNodeVisitor<HclWalkAction, Void> MULTI_LINE_FINDER =
+      new HclNodeVisitor<>() {
+        @Override
+        public HclWalkAction visitDefault(HclLocatable node, Void context) {
+          return HclWalkAction.CONTINUE;
+        }
+
+        @Override
+        public HclWalkAction visitObject(HclObjectNode node, Void context) {
+          return isMultiLine(node.leftToken(), node.rightToken(), node.elements());
+        }
+
+        @Override
+        public HclWalkAction visitTuple(HclTupleNode node, Void context) {
+          return isMultiLine(node.leftToken(), node.rightToken(), node.elements());
+        }
+
+        @Override
+        public HclWalkAction visitHeredocTemplate(HclHeredocTemplateNode node, Void context) {
+          return HclWalkAction.STOP;
+        }
+
+        private HclWalkAction isMultiLine(HclToken left, HclToken right, List<?> elements) {
+          return !elements.isEmpty() && left.start().line() != right.start().line()
+              ? HclWalkAction.STOP
+              : HclWalkAction.CONTINUE;
+        }
+      };
+
+  private final StringBuilder buffer;
+  private @Nullable CharSequence source;
+  private @Nullable Appendable output;
+  private int depth;
+  private int comments;
+  private int heredocLineEnd;
+  private boolean started;
+
+  /**
+   * Initialize the formatter.
+   */
+  public HclFormatter() {
+    buffer = new StringBuilder();
+    source = null;
+    output = null;
+    depth = 0;
+    comments = 0;
+    heredocLineEnd = -1;
+    started = false;
+  }
+
+  /**
+   * Format the given file.
+   *
+   * @param body   the parsed file.
+   * @param source the source text that the file was parsed from, or {@code null} if not available.
+   *               This is only used to carry over comments and blank lines.
+   * @return the formatted file.
+   */
+  public String format(HclBodyNode body, @Nullable CharSequence source) {
+    var output = new StringBuilder();
+    format(body, source, output);
+    return output.toString();
+  }
+
+  /**
+   * Format the given file, writing the result to the given output.
+   *
+   * @param body   the parsed file.
+   * @param source the source text that the file was parsed from, or {@code null} if not available.
+   *               This is only used to carry over comments and blank lines.
+   * @param output the output to write to. This will not be closed.
+   * @throws HclStreamException if an {@link IOException} occurs writing to the output.
+   */
+  public void format(
+      HclBodyNode body,
+      @Nullable CharSequence source,
+      Appendable output
+  ) throws HclStreamException {
+    this.source = source;
+    this.output = output;
+    depth = 0;
+    started = false;
+    heredocLineEnd = -1;
+    buffer.setLength(0);
+
+    try {
+      var end = source == null ? body.end().position() : source.length();
+      writeBody(body, 0, end);
+
+      if (started && buffer.length() != heredocLineEnd) {
+        buffer.append('\n');
+      }
+
+      flush();
+    } finally {
+      this.source = null;
+      this.output = null;
+      buffer.setLength(0);
+    }
+  }
+
+  /**
+   * Format a single expression.
+   *
+   * <p>If the expression ends with a heredoc, the result ends with the line break after its
+   * closing marker.
+   *
+   * @param expression the expression to format.
+   * @return the formatted expression.
+   */
+  public String formatExpression(HclExpressionNode expression) {
+    depth = 0;
+    heredocLineEnd = -1;
+    buffer.setLength(0);
+
+    try {
+      writeExpression(expression);
+      return buffer.toString();
+    } finally {
+      buffer.setLength(0);
+    }
+  }
+
+  private void flush() throws HclStreamException {
+    try {
+      output.append(buffer);
+    } catch (IOException ex) {
+      throw new HclStreamException("Failed to write formatted output", ex);
+    }
+
+    heredocLineEnd = heredocLineEnd == buffer.length() ? 0 : -1;
+    buffer.setLength(0);
+  }
+
+  ////////////////////
+  // Bodies and gaps.
+  ////////////////////
+
+  private void writeBody(HclBodyNode body, long from, long to) {
+    var items = body.bodyItems();
+    var previousEnd = from;
+    var groupEnd = -1;
+    var groupWidth = 0;
+
+    for (var i = 0; i < items.size(); ++i) {
+      var item = items.get(i);
+      var blankLine = writeGap(previousEnd, item.start().position(), i > 0)
+          || (source == null && i > 0 && item.start().line() - items.get(i - 1).end().line() > 1);
+
+      if (depth == 0) {
+        // Previous top-level item and its trailing comments are complete.
+        flush();
+      }
+
+      newLine();
+      if (blankLine) {
+        newLine();
+      }
+      indent();
+
+      if (item instanceof HclAttributeNode attribute) {
+        if (i > groupEnd) {
+          groupEnd = i;
+          groupWidth = width(attribute.identifier());
+
+          while (groupEnd + 1 < items.size()
+              && items.get(groupEnd + 1) instanceof HclAttributeNode next
+              && !isMultiLine(items.get(groupEnd))
+              && isAdjacent(items.get(groupEnd), next)) {
+            ++groupEnd;
+            groupWidth = Math.max(groupWidth, width(next.identifier()));
+          }
+        }
+
+        writeAttribute(attribute, groupWidth);
+      } else {
+        writeBlock((HclBlockNode) item);
+      }
+
+      previousEnd = item.end().position();
+    }
+
+    writeGap(previousEnd, to, !items.isEmpty());
+  }
+
+  private void writeAttribute(HclAttributeNode attribute, int width) {
+    var start = buffer.length();
+    writeExpression(attribute.identifier());
+    pad(width - (buffer.length() - start));
+    buffer.append(" = ");
+
+    var expression = attribute.expression();
+    var expressionStart = buffer.length();
+    var carried = comments;
+    writeExpression(expression);
+
+    if (source != null && comments - carried != countComments(expression)) {
+      // Somewhere we cannot carry a comment over, so keep the expression exactly as written.
+      buffer.setLength(expressionStart);
+      buffer.append(source, (int) expression.start().position(), (int) expression.end().position());
+      comments = carried;
+    }
+  }
+
+  private void writeBlock(HclBlockNode block) {
+    writeExpression(block.identifier());
+
+    for (var label : block.additionalIdentifiers()) {
+      buffer.append(' ');
+      writeExpression(label);
+    }
+
+    var from = block.leftToken().end().position();
+    var to = block.rightToken().start().position();
+
+    if (block.body().bodyItems().isEmpty() && !hasComment(from, to)) {
+      buffer.append(" {}");
+      return;
+    }
+
+    buffer.append(" {");
+    ++depth;
+    writeBody(block.body(), from, to);
+    --depth;
+    newLine();
+    indent();
+    buffer.append('}');
+  }
+
+  // Write any comments between two items, returning true if a blank line should precede the next.
+  private boolean writeGap(long from, long to, boolean afterItem) {
+    if (source == null) {
+      return false;
+    }
+
+    var newLines = 0;
+    var hasContent = afterItem;
+    var position = (int) from;
+
+    while (position < to) {
+      var next = source.charAt(position);
+
+      if (next == '\n') {
+        ++newLines;
+        ++position;
+      } else if (Character.isWhitespace(next)) {
+        ++position;
+      } else {
+        var end = commentEnd(position, (int) to);
+
+        if (end == position) {
+          // Not a comment, e.g. a separator the AST does not keep.
+          ++position;
+          continue;
+        }
+
+        var comment = source.subSequence(position, end).toString().stripTrailing();
+        ++comments;
+
+        if (newLines == 0 && hasContent) {
+          buffer.append(' ').append(comment);
+        } else {
+          newLine();
+          if (newLines > 1 && hasContent) {
+            newLine();
+          }
+          indent();
+          buffer.append(comment);
+        }
+
+        hasContent = true;
+        newLines = 0;
+        position = end;
+      }
+    }
+
+    return hasContent && newLines > 1;
+  }
+
+  private boolean hasComment(long from, long to) {
+    for (var position = (int) from; position < to; ++position) {
+      if (!Character.isWhitespace(source == null ? ' ' : source.charAt(position))) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  // Comments on their own line break alignment groups, but trailing comments do not.
+  private boolean hasLeadingComment(HclLocatable first, HclLocatable second) {
+    if (source == null) {
+      return false;
+    }
+
+    var to = (int) second.start().position();
+    var trailing = true;
+    var position = (int) first.end().position();
+
+    while (position < to) {
+      if (source.charAt(position) == '\n') {
+        trailing = false;
+        ++position;
+        continue;
+      }
+
+      var end = commentEnd(position, to);
+
+      if (end == position) {
+        ++position;
+        continue;
+      }
+
+      if (!trailing || hasNewLine(position, end)) {
+        return true;
+      }
+
+      position = end;
+    }
+
+    return false;
+  }
+
+  private boolean hasNewLine(int from, int to) {
+    for (var position = from; position < to; ++position) {
+      if (source.charAt(position) == '\n') {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private int countComments(HclLocatable node) {
+    var from = (int) node.start().position();
+    var to = (int) node.end().position();
+    var text = new BitSet();
+    HclNodeWalker.preOrder(node, text, TEXT_FINDER);
+
+    var count = 0;
+    var position = text.nextClearBit(from);
+
+    while (position < to) {
+      var end = commentEnd(position, to);
+
+      if (end == position) {
+        ++position;
+      } else {
+        ++count;
+        position = end;
+      }
+
+      position = text.nextClearBit(position);
+    }
+
+    return count;
+  }
+
+  private boolean isAdjacent(HclBodyItemNode first, HclBodyItemNode second) {
+    return second.start().line() - first.end().line() == 1 && !hasLeadingComment(first, second);
+  }
+
+  private boolean isAdjacent(HclObjectElementNode first, HclLocatable second) {
+    return second.start().line() - first.end().line() == 1 && !hasLeadingComment(first, second);
+  }
+
+  private int commentEnd(int position, int limit) {
+    if (source.charAt(position) == '#' || startsWith(position, '/', '/')) {
+      while (position < limit && source.charAt(position) != '\n') {
+        ++position;
+      }
+      return position;
+    }
+
+    if (startsWith(position, '/', '*')) {
+      for (var end = position + 2; end + 1 < limit; ++end) {
+        if (source.charAt(end) == '*' && source.charAt(end + 1) == '/') {
+          return end + 2;
+        }
+      }
+      return limit;
+    }
+
+    return position;
+  }
+
+  private boolean startsWith(int position, char first, char second) {
+    return position + 1 < source.length()
+        && source.charAt(position) == first
+        && source.charAt(position + 1) == second;
+  }
+
+  ////////////////
+  // Expressions.
+  ////////////////
+
+  private void writeExpression(HclLocatable node) {
+    var kind = HclNodeKind.of(node);
+
+    if (kind == null) {
+      throw new IllegalArgumentException("Cannot format node of type " + node.getClass());
+    }
+
+    switch (kind) {
+      case BINARY_OPERATION -> {
+        var operation = (HclBinaryOperationNode) node;
+        writeExpression(operation.leftValue());
+        buffer.append(' ').append(operation.operatorToken().raw()).append(' ');
+        writeExpression(operation.rightValue());
+      }
+      case TERNARY_OPERATION -> {
+        var operation = (HclTernaryOperationNode) node;
+        writeExpression(operation.condition());
+        buffer.append(" ? ");
+        writeExpression(operation.ifTrue());
+        buffer.append(" : ");
+        writeExpression(operation.ifFalse());
+      }
+      case UNARY_OPERATION -> {
+        var operation = (HclUnaryOperationNode) node;
+        buffer.append(operation.operatorToken().raw());
+        writeExpression(operation.value());
+      }
+      case WRAPPED_EXPRESSION -> {
+        buffer.append('(');
+        writeExpression(((HclWrappedExpressionNode) node).expression());
+        buffer.append(')');
+      }
+      case FUNCTION_CALL -> writeFunctionCall((HclFunctionCallNode) node);
+      case PARAMETER -> writeExpression(((HclParameterNode) node).expression());
+      case GET_ATTR -> {
+        var getAttr = (HclGetAttrNode) node;
+        writeExpression(getAttr.exprTerm());
+        buffer.append('.');
+        writeExpression(getAttr.identifier());
+      }
+      case IDENTIFIER -> buffer.append(((HclIdentifierNode) node).contentToken().raw());
+      case STRING_LITERAL -> {
+        var content = ((HclStringLiteralNode) node).contentToken();
+        buffer.append('"').append(content == null ? "" : content.raw()).append('"');
+      }
+      case VARIABLE_EXPR -> writeExpression(((HclVariableExprNode) node).identifier());
+      case INDEX -> {
+        var index = (HclIndexNode) node;
+        writeExpression(index.exprTerm());
+        buffer.append('[');
+        writeExpression(index.expression());
+        buffer.append(']');
+      }
+      case LEGACY_INDEX -> {
+        var index = (HclLegacyIndexNode) node;
+        writeExpression(index.exprTerm());
+        buffer.append('.');
+        writeExpression(index.digits());
+      }
+      case BOOLEAN_LITERAL, INTEGER_LITERAL, NULL_LITERAL, REAL_LITERAL ->
+          buffer.append(((HclLiteralValueNode<?>) node).token().raw());
+      case ATTR_SPLAT -> {
+        writeExpression(((HclAttrSplatNode) node).exprTerm());
+        buffer.append(".*");
+      }
+      case FULL_SPLAT -> {
+        writeExpression(((HclFullSplatNode) node).exprTerm());
+        buffer.append("[*]");
+      }
+      case FOR_TUPLE_EXPR -> {
+        var forExpr = (HclForTupleExprNode) node;
+        var spaced = isSpaced(forExpr.leftToken(), forExpr.intro());
+        buffer.append(spaced ? "[ " : "[");
+        writeForIntro(forExpr.intro());
+        writeExpression(forExpr.expression());
+        writeForCondition(forExpr.condition());
+        buffer.append(spaced ? " ]" : "]");
+      }
+      case FOR_OBJECT_EXPR -> {
+        var forExpr = (HclForObjectExprNode) node;
+        var spaced = isSpaced(forExpr.leftToken(), forExpr.intro());
+        buffer.append(spaced ? "{ " : "{");
+        writeForIntro(forExpr.intro());
+        writeExpression(forExpr.keyExpression());
+        buffer.append(" => ");
+        writeExpression(forExpr.valueExpression());
+        if (forExpr.ellipsisToken() != null) {
+          buffer.append("...");
+        }
+        writeForCondition(forExpr.condition());
+        buffer.append(spaced ? " }" : "}");
+      }
+      case TUPLE -> writeTuple((HclTupleNode) node);
+      case OBJECT -> writeObject((HclObjectNode) node);
+      case OBJECT_EXPRESSION_KEY ->
+          writeExpression(((HclObjectExpressionKeyNode) node).expression());
+      case OBJECT_IDENTIFIER_KEY ->
+          writeExpression(((HclObjectIdentifierKeyNode) node).identifier());
+      case QUOTED_TEMPLATE -> {
+        buffer.append('"');
+        writeTemplate(((HclQuotedTemplateNode) node).template());
+        buffer.append('"');
+      }
+      case HEREDOC_TEMPLATE -> {
+        var heredoc = (HclHeredocTemplateNode) node;
+        buffer.append("<<");
+        if (heredoc.indentToken() != null) {
+          buffer.append('-');
+        }
+        buffer.append(heredoc.openingIdentifierToken().raw()).append('\n');
+        writeTemplate(heredoc.template());
+        buffer.append(heredoc.closingIdentifierToken().raw());
+
+        // The closing marker must end its line, whatever follows the heredoc.
+        buffer.append('\n');
+        indent();
+        heredocLineEnd = buffer.length();
+      }
+      default -> throw new IllegalArgumentException("Cannot format " + kind + " as an expression");
+    }
+  }
+
+  private void writeFunctionCall(HclFunctionCallNode call) {
+    writeExpression(call.identifier());
+    buffer.append('(');
+
+    var arguments = call.arguments();
+    for (var i = 0; i < arguments.size(); ++i) {
+      if (i > 0) {
+        buffer.append(", ");
+      }
+      writeExpression(arguments.get(i));
+    }
+
+    var trailing = call.trailingToken();
+    if (trailing != null && trailing.type() == HclTokenType.ELLIPSIS) {
+      buffer.append("...");
+    }
+
+    buffer.append(')');
+  }
+
+  private void writeForIntro(HclForIntroNode intro) {
+    buffer.append("for ");
+    writeExpression(intro.firstIdentifier());
+
+    if (intro.secondIdentifier() != null) {
+      buffer.append(", ");
+      writeExpression(intro.secondIdentifier());
+    }
+
+    buffer.append(" in ");
+    writeExpression(intro.inExpression());
+    buffer.append(" : ");
+  }
+
+  private void writeForCondition(@Nullable HclForConditionNode condition) {
+    if (condition != null) {
+      buffer.append(" if ");
+      writeExpression(condition.ifExpression());
+    }
+  }
+
+  private void writeTuple(HclTupleNode tuple) {
+    var elements = tuple.elements();
+
+    if (!isMultiLine(tuple)) {
+      buffer.append('[');
+      for (var i = 0; i < elements.size(); ++i) {
+        if (i > 0) {
+          buffer.append(", ");
+        }
+        writeExpression(elements.get(i).expression());
+      }
+      writeSeparator(tuple.trailerComma());
+      buffer.append(']');
+      return;
+    }
+
+    buffer.append('[');
+    ++depth;
+
+    var previousEnd = tuple.leftToken().end().position();
+
+    for (var i = 0; i < elements.size(); ++i) {
+      var element = elements.get(i);
+      writeSeparator(element.commaToken());
+      var blankLine = writeGap(previousEnd, element.expression().start().position(), true);
+
+      newLine();
+      if (blankLine && i > 0) {
+        newLine();
+      }
+      indent();
+      writeExpression(element.expression());
+      previousEnd = element.end().position();
+    }
+
+    writeSeparator(tuple.trailerComma());
+    writeGap(previousEnd, tuple.rightToken().start().position(), true);
+    --depth;
+    newLine();
+    indent();
+    buffer.append(']');
+  }
+
+  private void writeObject(HclObjectNode object) {
+    var elements = object.elements();
+
+    if (elements.isEmpty()) {
+      buffer.append("{}");
+      return;
+    }
+
+    if (!isMultiLine(object)) {
+      buffer.append("{ ");
+      for (var i = 0; i < elements.size(); ++i) {
+        if (i > 0) {
+          buffer.append(", ");
+        }
+        writeObjectElement(elements.get(i), 0);
+      }
+      buffer.append(" }");
+      return;
+    }
+
+    buffer.append('{');
+    ++depth;
+
+    var previousEnd = object.leftToken().end().position();
+    var groupEnd = -1;
+    var groupWidth = 0;
+
+    for (var i = 0; i < elements.size(); ++i) {
+      var element = elements.get(i);
+
+      if (i > groupEnd) {
+        groupEnd = i;
+        groupWidth = keyWidth(element);
+
+        while (groupEnd + 1 < elements.size()
+            && !isMultiLine(elements.get(groupEnd).valueExpression())
+            && isAdjacent(elements.get(groupEnd), elements.get(groupEnd + 1).keyExpression())) {
+          ++groupEnd;
+          groupWidth = Math.max(groupWidth, keyWidth(elements.get(groupEnd)));
+        }
+      }
+
+      writeSeparator(element.commaToken());
+      var blankLine = writeGap(previousEnd, element.keyExpression().start().position(), true);
+
+      newLine();
+      if (blankLine && i > 0) {
+        newLine();
+      }
+      indent();
+      writeObjectElement(element, groupWidth);
+      previousEnd = element.end().position();
+    }
+
+    writeSeparator(object.trailerComma());
+    writeGap(previousEnd, object.rightToken().start().position(), true);
+    --depth;
+    newLine();
+    indent();
+    buffer.append('}');
+  }
+
+  private void writeSeparator(@Nullable HclToken comma) {
+    if (comma != null) {
+      buffer.append(',');
+    }
+  }
+
+  private void writeObjectElement(HclObjectElementNode element, int width) {
+    var start = buffer.length();
+    writeExpression(element.keyExpression());
+    pad(width - (buffer.length() - start));
+    buffer.append(' ').append(element.mapperToken().raw()).append(' ');
+    writeExpression(element.valueExpression());
+  }
+
+  private void writeTemplate(HclTemplateContentNode template) {
+    for (var item : template.items()) {
+      if (item instanceof HclTemplateLiteralNode literal) {
+        buffer.append(literal.valueToken().raw());
+      } else if (item instanceof HclTemplateInterpolationNode interpolation) {
+        buffer.append("${");
+        writeTrim(interpolation.leftTrimToken());
+        writeExpression(interpolation.expression());
+        writeTrim(interpolation.rightTrimToken());
+        buffer.append('}');
+      } else if (item instanceof HclTemplateIfNode templateIf) {
+        var ifPart = templateIf.ifPart();
+        openDirective(ifPart.leftTrimToken());
+        buffer.append("if ");
+        writeExpression(ifPart.expression());
+        closeDirective(ifPart.rightTrimToken());
+        writeTemplate(ifPart.template());
+
+        var elsePart = templateIf.elsePart();
+        if (elsePart != null) {
+          openDirective(elsePart.leftTrimToken());
+          buffer.append("else");
+          closeDirective(elsePart.rightTrimToken());
+          writeTemplate(elsePart.template());
+        }
+
+        var endPart = templateIf.endIfPart();
+        openDirective(endPart.leftTrimToken());
+        buffer.append("endif");
+        closeDirective(endPart.rightTrimToken());
+      } else if (item instanceof HclTemplateForNode templateFor) {
+        var forPart = templateFor.forPart();
+        openDirective(forPart.leftTrimToken());
+        buffer.append("for ");
+        writeExpression(forPart.firstIdentifier());
+        if (forPart.secondIdentifier() != null) {
+          buffer.append(", ");
+          writeExpression(forPart.secondIdentifier());
+        }
+        buffer.append(" in ");
+        writeExpression(forPart.expression());
+        closeDirective(forPart.rightTrimToken());
+        writeTemplate(templateFor.template());
+
+        var endPart = templateFor.endForPart();
+        openDirective(endPart.leftTrimToken());
+        buffer.append("endfor");
+        closeDirective(endPart.rightTrimToken());
+      }
+    }
+  }
+
+  private void openDirective(@Nullable HclToken trim) {
+    buffer.append("%{");
+    writeTrim(trim);
+    buffer.append(' ');
+  }
+
+  private void closeDirective(@Nullable HclToken trim) {
+    buffer.append(' ');
+    writeTrim(trim);
+    buffer.append('}');
+  }
+
+  private void writeTrim(@Nullable HclToken trim) {
+    if (trim != null) {
+      buffer.append('~');
+    }
+  }
+
+  //////////////
+  // Utilities.
+  //////////////
+
+  private int width(HclLocatable node) {
+    var start = buffer.length();
+    var carried = comments;
+    var lineEnd = heredocLineEnd;
+    writeExpression(node);
+    var width = buffer.length() - start;
+    buffer.setLength(start);
+    comments = carried;
+    heredocLineEnd = lineEnd;
+    return width;
+  }
+
+  private int keyWidth(HclObjectElementNode element) {
+    return width(element.keyExpression());
+  }
+
+  private void pad(int count) {
+    for (var i = 0; i < count; ++i) {
+      buffer.append(' ');
+    }
+  }
+
+  private void newLine() {
+    if (buffer.length() == heredocLineEnd) {
+      // A heredoc has already ended the line, so just drop its indentation.
+      while (buffer.length() > 0 && buffer.charAt(buffer.length() - 1) == ' ') {
+        buffer.setLength(buffer.length() - 1);
+      }
+    } else if (started) {
+      // Nothing precedes the first line.
+      buffer.append('\n');
+    }
+    heredocLineEnd = -1;
+    started = true;
+  }
+
+  private void indent() {
+    for (var i = 0; i < depth; ++i) {
+      buffer.append(INDENT);
+    }
+  }
+
+  // For expressions keep whatever spacing they had inside their brackets.
+  private static boolean isSpaced(HclToken leftToken, HclForIntroNode intro) {
+    var end = leftToken.end().position();
+    return end >= 0 && intro.start().position() > end;
+  }
+
+  private static boolean isMultiLine(HclLocatable node) {
+    return !HclNodeWalker.preOrder(node, null, MULTI_LINE_FINDER);
+  }
+}
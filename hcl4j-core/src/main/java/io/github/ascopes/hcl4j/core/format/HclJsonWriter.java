@@ -0,0 +1,423 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.format;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclAttributeNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBlockNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyItemNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectElementNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclTupleNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclUnaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclVariableExprNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclLiteralValueNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclNumericLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclHeredocTemplateNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclQuotedTemplateNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateContentNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateInterpolationNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.visit.HclNodeKind;
+import io.github.ascopes.hcl4j.core.ex.HclStreamException;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writer that converts an AST to the JSON syntax of HCL, such as is used by {@code *.tf.json}
+ * files.
+ *
+ * <p>This is the reverse of the JSON syntax parser:
+ *
+ * <ul>
+ *   <li>Attributes become properties of the enclosing object.</li>
+ *   <li>Blocks become properties named after the block type, with one level of nested objects
+ *      per label and the block body innermost. Blocks that share a type and all labels are
+ *      written as an array of bodies.</li>
+ *   <li>Literals, tuples and objects become the equivalent JSON values.</li>
+ *   <li>Quoted templates made of literals and interpolations become JSON strings.</li>
+ *   <li>Any other expression is written as a string holding a single interpolation of the
+ *      formatted expression, e.g. {@code "${upper(var.name)}"}.</li>
+ * </ul>
+ *
+ * <p>Bodies are written one property per line, and expressions are written on a single line.
+ * Each top-level property is written to an internal buffer and then flushed to the output, so the
+ * memory used does not grow with the size of the file. This class is <strong>not</strong>
+ * thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclJsonWriter {
+
+  private static final String INDENT = "  ";
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private final HclFormatter formatter;
+  private final StringBuilder buffer;
+  private final StringBuilder scratch;
+  private @Nullable Appendable output;
+  private int depth;
+
+  /**
+   * Initialize the writer.
+   */
+  public HclJsonWriter() {
+    formatter = new HclFormatter();
+    buffer = new StringBuilder();
+    scratch = new StringBuilder();
+    output = null;
+    depth = 0;
+  }
+
+  /**
+   * Write the given file as JSON.
+   *
+   * @param body the parsed file.
+   * @return the JSON text.
+   * @throws IllegalArgumentException if the body cannot be represented in JSON, such as when an
+   *                                  attribute name is also used as a block type.
+   */
+  public String write(HclBodyNode body) {
+    var output = new StringBuilder();
+    write(body, output);
+    return output.toString();
+  }
+
+  /**
+   * Write the given file as JSON to the given output.
+   *
+   * @param body   the parsed file.
+   * @param output the output to write to. This will not be closed.
+   * @throws HclStreamException       if an {@link IOException} occurs writing to the output.
+   * @throws IllegalArgumentException if the body cannot be represented in JSON, such as when an
+   *                                  attribute name is also used as a block type.
+   */
+  public void write(HclBodyNode body, Appendable output) throws HclStreamException {
+    this.output = output;
+    depth = 0;
+    buffer.setLength(0);
+
+    try {
+      writeBody(body);
+      buffer.append('\n');
+      flush();
+    } finally {
+      this.output = null;
+      buffer.setLength(0);
+    }
+  }
+
+  private void flush() throws HclStreamException {
+    try {
+      output.append(buffer);
+    } catch (IOException ex) {
+      throw new HclStreamException("Failed to write JSON output", ex);
+    }
+
+    buffer.setLength(0);
+  }
+
+  /////////////////////////
+  // Bodies and blocks.
+  /////////////////////////
+
+  private void writeBody(HclBodyNode body) {
+    // JSON object keys must be unique, so all blocks of the same type are written together.
+    var groups = new LinkedHashMap<String, List<HclBodyItemNode>>();
+
+    for (var item : body.bodyItems()) {
+      var name = item instanceof HclAttributeNode attribute
+          ? attribute.identifier().value()
+          : ((HclBlockNode) item).identifier().value();
+      groups.computeIfAbsent(name.toString(), ignored -> new ArrayList<>()).add(item);
+    }
+
+    buffer.append('{');
+    ++depth;
+
+    var first = true;
+    for (var group : groups.entrySet()) {
+      if (!first) {
+        buffer.append(',');
+      }
+      first = false;
+
+      newLine();
+      writeString(group.getKey());
+      buffer.append(": ");
+      writeGroup(group.getKey(), group.getValue());
+
+      if (depth == 1) {
+        flush();
+      }
+    }
+
+    --depth;
+
+    if (!groups.isEmpty()) {
+      newLine();
+    }
+
+    buffer.append('}');
+  }
+
+  private void writeGroup(String name, List<HclBodyItemNode> items) {
+    if (items.get(0) instanceof HclAttributeNode attribute) {
+      if (items.size() > 1) {
+        throw new IllegalArgumentException("Attribute " + name
+            + " is defined more than once, or is also used as a block type");
+      }
+
+      writeExpression(attribute.expression());
+      return;
+    }
+
+    var blocks = new ArrayList<HclBlockNode>(items.size());
+
+    for (var item : items) {
+      if (!(item instanceof HclBlockNode block)) {
+        throw new IllegalArgumentException("Block type " + name + " is also used as an attribute");
+      }
+
+      blocks.add(block);
+    }
+
+    writeBlocks(name, blocks, 0);
+  }
+
+  private void writeBlocks(String type, List<HclBlockNode> blocks, int labelIndex) {
+    var unlabelled = 0;
+
+    for (var block : blocks) {
+      if (block.additionalIdentifiers().size() == labelIndex) {
+        ++unlabelled;
+      }
+    }
+
+    if (unlabelled == blocks.size()) {
+      if (blocks.size() == 1) {
+        writeBody(blocks.get(0).body());
+        return;
+      }
+
+      buffer.append('[');
+      ++depth;
+
+      for (var i = 0; i < blocks.size(); ++i) {
+        if (i > 0) {
+          buffer.append(',');
+        }
+        newLine();
+        writeBody(blocks.get(i).body());
+      }
+
+      --depth;
+      newLine();
+      buffer.append(']');
+      return;
+    }
+
+    if (unlabelled != 0) {
+      throw new IllegalArgumentException("Blocks of type " + type
+          + " have differing numbers of labels");
+    }
+
+    var groups = new LinkedHashMap<String, List<HclBlockNode>>();
+
+    for (var block : blocks) {
+      var label = block.additionalIdentifiers().get(labelIndex).value().toString();
+      groups.computeIfAbsent(label, ignored -> new ArrayList<>()).add(block);
+    }
+
+    buffer.append('{');
+    ++depth;
+
+    var first = true;
+    for (var group : groups.entrySet()) {
+      if (!first) {
+        buffer.append(',');
+      }
+      first = false;
+
+      newLine();
+      writeString(group.getKey());
+      buffer.append(": ");
+      writeBlocks(type, group.getValue(), labelIndex + 1);
+    }
+
+    --depth;
+    newLine();
+    buffer.append('}');
+  }
+
+  ////////////////
+  // Expressions.
+  ////////////////
+
+  private void writeExpression(HclExpressionNode expression) {
+    var kind = HclNodeKind.of(expression);
+
+    if (kind == null) {
+      throw new IllegalArgumentException("Cannot write node of type " + expression.getClass());
+    }
+
+    switch (kind) {
+      case BOOLEAN_LITERAL, INTEGER_LITERAL, NULL_LITERAL, REAL_LITERAL ->
+          buffer.append(((HclLiteralValueNode<?>) expression).token().raw());
+      case UNARY_OPERATION -> {
+        var operation = (HclUnaryOperationNode) expression;
+
+        if (operation.operatorToken().type() == HclTokenType.MINUS
+            && operation.value() instanceof HclNumericLiteralNode<?> number) {
+          buffer.append('-').append(number.token().raw());
+        } else {
+          writeInterpolation(expression);
+        }
+      }
+      case TUPLE -> {
+        var elements = ((HclTupleNode) expression).elements();
+        buffer.append('[');
+        for (var i = 0; i < elements.size(); ++i) {
+          if (i > 0) {
+            buffer.append(", ");
+          }
+          writeExpression(elements.get(i).expression());
+        }
+        buffer.append(']');
+      }
+      case OBJECT -> {
+        var elements = ((HclObjectNode) expression).elements();
+        buffer.append('{');
+        for (var i = 0; i < elements.size(); ++i) {
+          if (i > 0) {
+            buffer.append(", ");
+          }
+          writeObjectElement(elements.get(i));
+        }
+        buffer.append('}');
+      }
+      case QUOTED_TEMPLATE -> {
+        if (!writeTemplateString(((HclQuotedTemplateNode) expression).template())) {
+          writeInterpolation(expression);
+        }
+      }
+      case HEREDOC_TEMPLATE -> {
+        var heredoc = (HclHeredocTemplateNode) expression;
+
+        // Indented heredocs have their common indentation removed, so are kept as expressions.
+        if (heredoc.indentToken() != null || !writeTemplateString(heredoc.template())) {
+          writeInterpolation(expression);
+        }
+      }
+      default -> writeInterpolation(expression);
+    }
+  }
+
+  private void writeObjectElement(HclObjectElementNode element) {
+    var key = element.keyExpression();
+
+    if (key instanceof HclVariableExprNode variable) {
+      // Bare identifiers are literal keys rather than variable references.
+      writeString(variable.identifier().value());
+    } else if (!(key instanceof HclQuotedTemplateNode template
+        && writeTemplateString(template.template()))) {
+      writeInterpolation(key);
+    }
+
+    buffer.append(": ");
+    writeExpression(element.valueExpression());
+  }
+
+  private boolean writeTemplateString(HclTemplateContentNode template) {
+    scratch.setLength(0);
+
+    for (var item : template.items()) {
+      if (item instanceof HclTemplateLiteralNode literal) {
+        appendTemplateLiteral(literal.value());
+      } else if (item instanceof HclTemplateInterpolationNode interpolation
+          && interpolation.leftTrimToken() == null
+          && interpolation.rightTrimToken() == null) {
+        scratch.append("${").append(formatter.formatExpression(interpolation.expression()))
+            .append('}');
+      } else {
+        // Directives and trim markers are kept by writing the whole template as an expression.
+        return false;
+      }
+    }
+
+    writeString(scratch);
+    return true;
+  }
+
+  private void appendTemplateLiteral(CharSequence content) {
+    for (var i = 0; i < content.length(); ++i) {
+      var next = content.charAt(i);
+      scratch.append(next);
+
+      // Escape anything that would otherwise start a template sequence.
+      if ((next == '$' || next == '%')
+          && i + 1 < content.length()
+          && content.charAt(i + 1) == '{') {
+        scratch.append(next);
+      }
+    }
+  }
+
+  private void writeInterpolation(HclExpressionNode expression) {
+    writeString("${" + formatter.formatExpression(expression) + "}");
+  }
+
+  private void writeString(CharSequence string) {
+    buffer.append('"');
+
+    for (var i = 0; i < string.length(); ++i) {
+      var next = string.charAt(i);
+
+      switch (next) {
+        case '"' -> buffer.append("\\\"");
+        case '\\' -> buffer.append("\\\\");
+        case '\b' -> buffer.append("\\b");
+        case '\f' -> buffer.append("\\f");
+        case '\n' -> buffer.append("\\n");
+        case '\r' -> buffer.append("\\r");
+        case '\t' -> buffer.append("\\t");
+        default -> {
+          if (next < ' ') {
+            buffer.append("\\u00").append(HEX_DIGITS[next >> 4]).append(HEX_DIGITS[next & 0xF]);
+          } else {
+            buffer.append(next);
+          }
+        }
+      }
+    }
+
+    buffer.append('"');
+  }
+
+  private void newLine() {
+    buffer.append('\n');
+    for (var i = 0; i < depth; ++i) {
+      buffer.append(INDENT);
+    }
+  }
+}
@@ -29,4 +29,10 @@ public record HclLocation(
     long line,
     long column
 ) {
+
+  /**
+   * Location used for content that is not tied to any particular place in a file, such as the
+   * placeholder tokens produced by {@code HclParseMode.SEMANTIC}.
+   */
+  public static final HclLocation UNKNOWN = new HclLocation(-1, 0, 0);
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.inputs;
+
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+
+/**
+ * An {@link HclCharSource} that reads from a {@link CharSequence} that is already in memory.
+ *
+ * <p>The source can start reading part of the way through the content. In this case, the initial
+ * location describes where to start, and all locations produced are absolute positions within the
+ * full content. This allows a fragment of a larger file to be lexed without copying it, and
+ * without having to adjust the locations afterwards.
+ *
+ * <p>This class is <strong>not</strong> thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclStringCharSource implements HclCharSource {
+
+  private static final HclLocation INITIAL_LOCATION = new HclLocation(0, 1, 1);
+
+  private final String name;
+  private final CharSequence content;
+
+  @Nullable
+  private HclLocation cachedLocation;
+
+  private int position;
+  private long line;
+  private long column;
+
+  /**
+   * Initialize the character source, reading from the start of the content.
+   *
+   * @param name    the symbolic name of the file that the {@code content} is for.
+   * @param content the content to read.
+   */
+  public HclStringCharSource(@Nullable String name, CharSequence content) {
+    this(name, content, INITIAL_LOCATION);
+  }
+
+  /**
+   * Initialize the character source, reading from the given location in the content.
+   *
+   * @param name            the symbolic name of the file that the {@code content} is for.
+   * @param content         the content to read.
+   * @param initialLocation the location to start reading from. The position must be an index
+   *                        within the content, and the line and column must correspond to it.
+   */
+  public HclStringCharSource(
+      @Nullable String name,
+      CharSequence content,
+      HclLocation initialLocation
+  ) {
+    if (initialLocation.position() < 0 || initialLocation.position() > content.length()) {
+      throw new IndexOutOfBoundsException("Initial location " + initialLocation
+          + " is out of bounds for content of length " + content.length());
+    }
+
+    this.name = name == null ? UNNAMED_FILE : name;
+    this.content = content;
+
+    cachedLocation = initialLocation;
+    position = (int) initialLocation.position();
+    line = initialLocation.line();
+    column = initialLocation.column();
+  }
+
+  @Override
+  public void advance(int count) {
+    if (count <= 0) {
+      throw new IllegalArgumentException("Cannot advance by less than 1 character");
+    }
+
+    for (var i = 0; i < count && position < content.length(); ++i) {
+      processNextChar(content.charAt(position));
+    }
+  }
+
+  @Override
+  public void close() {
+    // Nothing to release.
+  }
+
+  @Override
+  public HclLocation location() {
+    return cachedLocation == null
+        ? (cachedLocation = new HclLocation(position, line, column))
+        : cachedLocation;
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public int peek(int offset) {
+    if (offset < 0) {
+      throw new IllegalArgumentException("Cannot peek by a negative offset");
+    }
+
+    var index = position + offset;
+    return index < content.length() ? content.charAt(index) : EOF;
+  }
+
+  @Override
+  public int read() {
+    if (position >= content.length()) {
+      return EOF;
+    }
+
+    var next = content.charAt(position);
+    processNextChar(next);
+    return next;
+  }
+
+  @Override
+  public CharSequence readString(int count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("Cannot read a negative number of characters");
+    }
+
+    var start = position;
+    var end = Math.min(content.length(), position + count);
+
+    while (position < end) {
+      processNextChar(content.charAt(position));
+    }
+
+    return content.subSequence(start, end).toString();
+  }
+
+  @Override
+  public boolean startsWith(CharSequence match) {
+    var len = match.length();
+
+    if (position + len > content.length()) {
+      return false;
+    }
+
+    for (var i = 0; i < len; ++i) {
+      if (content.charAt(position + i) != match.charAt(i)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private void processNextChar(char next) {
+    if (next == '\n') {
+      ++line;
+      column = 1;
+    } else {
+      ++column;
+    }
+
+    ++position;
+
+    // Invalidate any cached location, the position is different now.
+    cachedLocation = null;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.inputs;
+
+/**
+ * A single edit to some source text, replacing a range of characters with new text.
+ *
+ * @param offset        the 0-indexed position of the first character to replace.
+ * @param removedLength the number of characters to remove, starting at {@code offset}.
+ * @param insertedText  the text to insert at {@code offset} after removing characters.
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public record HclTextEdit(int offset, int removedLength, CharSequence insertedText) {
+
+  /**
+   * Initialize the edit.
+   *
+   * @param offset        the 0-indexed position of the first character to replace.
+   * @param removedLength the number of characters to remove, starting at {@code offset}.
+   * @param insertedText  the text to insert at {@code offset} after removing characters.
+   * @throws IllegalArgumentException if the offset or removed length are negative.
+   */
+  public HclTextEdit {
+    if (offset < 0) {
+      throw new IllegalArgumentException("Offset cannot be negative");
+    }
+    if (removedLength < 0) {
+      throw new IllegalArgumentException("Removed length cannot be negative");
+    }
+  }
+
+  /**
+   * Get the position after the last removed character in the original text.
+   *
+   * @return the end of the removed range.
+   */
+  public int removedEnd() {
+    return offset + removedLength;
+  }
+
+  /**
+   * Get the position after the last inserted character in the edited text.
+   *
+   * @return the end of the inserted range.
+   */
+  public int insertedEnd() {
+    return offset + insertedText.length();
+  }
+
+  /**
+   * Apply this edit to the given text.
+   *
+   * @param text the original text.
+   * @return the edited text.
+   * @throws IndexOutOfBoundsException if the removed range is not within the text.
+   */
+  public String apply(CharSequence text) {
+    if (removedEnd() > text.length()) {
+      throw new IndexOutOfBoundsException("Edit " + this + " is out of bounds for text of length "
+          + text.length());
+    }
+
+    return new StringBuilder(text.length() - removedLength + insertedText.length())
+        .append(text, 0, offset)
+        .append(insertedText)
+        .append(text, removedEnd(), text.length())
+        .toString();
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.intern;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list view over an array that is owned exclusively by the list.
+ *
+ * <p>Unlike {@link java.util.List#of(Object[])}, this does not copy the array, so callers must
+ * not retain or modify the array after passing it in.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @param <T> the element type.
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class ImmutableArrayList<T> extends AbstractList<T> implements RandomAccess {
+
+  private final Object[] elements;
+
+  /**
+   * Initialize the list.
+   *
+   * @param elements the array of elements to take ownership of.
+   */
+  public ImmutableArrayList(Object[] elements) {
+    this.elements = elements;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T get(int index) {
+    return (T) elements[index];
+  }
+
+  @Override
+  public int size() {
+    return elements.length;
+  }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.intern;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Immutable sorted map that shares structure between versions.
+ *
+ * <p>Entries are held in a balanced (AVL) binary tree. Adding or removing an entry copies only
+ * the path from the root to the entry, so takes logarithmic time and space, and leaves the
+ * original map unchanged. Iteration is in ascending key order.
+ *
+ * <p>Null keys and values are not supported. This class is thread-safe.
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class PersistentSortedMap<K extends Comparable<? super K>, V>
+    implements Iterable<Map.Entry<K, V>> {
+
+  private static final PersistentSortedMap<?, ?> EMPTY = new PersistentSortedMap<>(null);
+
+  @Nullable
+  private final Node<K, V> root;
+
+  private PersistentSortedMap(@Nullable Node<K, V> root) {
+    this.root = root;
+  }
+
+  /**
+   * Get the empty map.
+   *
+   * @param <K> the key type.
+   * @param <V> the value type.
+   * @return the empty map.
+   */
+  @SuppressWarnings("unchecked")
+  public static <K extends Comparable<? super K>, V> PersistentSortedMap<K, V> empty() {
+    return (PersistentSortedMap<K, V>) EMPTY;
+  }
+
+  /**
+   * Get the number of entries.
+   *
+   * @return the number of entries.
+   */
+  public int size() {
+    return sizeOf(root);
+  }
+
+  /**
+   * Get the value for the given key.
+   *
+   * @param key the key.
+   * @return the value, or {@code null} if the key is not present.
+   */
+  @Nullable
+  public V get(K key) {
+    var node = root;
+
+    while (node != null) {
+      var comparison = key.compareTo(node.key);
+
+      if (comparison == 0) {
+        return node.value;
+      }
+
+      node = comparison < 0 ? node.left : node.right;
+    }
+
+    return null;
+  }
+
+  /**
+   * Create a new map with the given entry added, replacing any existing entry for the key.
+   *
+   * @param key   the key.
+   * @param value the value.
+   * @return the new map, or this map if it already holds the same value for the key.
+   */
+  public PersistentSortedMap<K, V> put(K key, V value) {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(value, "value");
+    var newRoot = insert(root, key, value);
+    return newRoot == root ? this : new PersistentSortedMap<>(newRoot);
+  }
+
+  /**
+   * Create a new map with the entry for the given key removed.
+   *
+   * @param key the key.
+   * @return the new map, or this map if the key is not present.
+   */
+  public PersistentSortedMap<K, V> remove(K key) {
+    var newRoot = delete(root, key);
+    return newRoot == root ? this : new PersistentSortedMap<>(newRoot);
+  }
+
+  @Override
+  public Iterator<Map.Entry<K, V>> iterator() {
+    return new Iterator<>() {
+      private final ArrayDeque<Node<K, V>> stack = new ArrayDeque<>();
+
+      {
+        pushLeft(root);
+      }
+
+      @Override
+      public boolean hasNext() {
+        return !stack.isEmpty();
+      }
+
+      @Override
+      public Map.Entry<K, V> next() {
+        if (stack.isEmpty()) {
+          throw new NoSuchElementException();
+        }
+
+        var node = stack.pop();
+        pushLeft(node.right);
+        return node;
+      }
+
+      private void pushLeft(@Nullable Node<K, V> node) {
+        for (; node != null; node = node.left) {
+          stack.push(node);
+        }
+      }
+    };
+  }
+
+  @Nullable
+  private static <K extends Comparable<? super K>, V> Node<K, V> insert(
+      @Nullable Node<K, V> node,
+      K key,
+      V value
+  ) {
+    if (node == null) {
+      return new Node<>(key, value, null, null);
+    }
+
+    var comparison = key.compareTo(node.key);
+
+    if (comparison == 0) {
+      return node.value == value ? node : new Node<>(key, value, node.left, node.right);
+    }
+
+    if (comparison < 0) {
+      var left = insert(node.left, key, value);
+      return left == node.left ? node : balance(node.key, node.value, left, node.right);
+    }
+
+    var right = insert(node.right, key, value);
+    return right == node.right ? node : balance(node.key, node.value, node.left, right);
+  }
+
+  @Nullable
+  private static <K extends Comparable<? super K>, V> Node<K, V> delete(
+      @Nullable Node<K, V> node,
+      K key
+  ) {
+    if (node == null) {
+      return null;
+    }
+
+    var comparison = key.compareTo(node.key);
+
+    if (comparison < 0) {
+      var left = delete(node.left, key);
+      return left == node.left ? node : balance(node.key, node.value, left, node.right);
+    }
+
+    if (comparison > 0) {
+      var right = delete(node.right, key);
+      return right == node.right ? node : balance(node.key, node.value, node.left, right);
+    }
+
+    if (node.left == null) {
+      return node.right;
+    }
+
+    if (node.right == null) {
+      return node.left;
+    }
+
+    var successor = node.right;
+    while (successor.left != null) {
+      successor = successor.left;
+    }
+
+    return balance(successor.key, successor.value, node.left, delete(node.right, successor.key));
+  }
+
+  private static <K, V> Node<K, V> balance(
+      K key,
+      V value,
+      @Nullable Node<K, V> left,
+      @Nullable Node<K, V> right
+  ) {
+    var difference = height(left) - height(right);
+
+    if (difference > 1) {
+      if (height(left.left) < height(left.right)) {
+        left = rotateLeft(left.left, left.right, left.key, left.value);
+      }
+
+      return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+    }
+
+    if (difference < -1) {
+      if (height(right.right) < height(right.left)) {
+        right = rotateRight(right.left, right.right, right.key, right.value);
+      }
+
+      return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left),
+          right.right);
+    }
+
+    return new Node<>(key, value, left, right);
+  }
+
+  private static <K, V> Node<K, V> rotateLeft(
+      @Nullable Node<K, V> left,
+      Node<K, V> right,
+      K key,
+      V value
+  ) {
+    return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left),
+        right.right);
+  }
+
+  private static <K, V> Node<K, V> rotateRight(
+      Node<K, V> left,
+      @Nullable Node<K, V> right,
+      K key,
+      V value
+  ) {
+    return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+  }
+
+  private static int height(@Nullable Node<?, ?> node) {
+    return node == null ? 0 : node.height;
+  }
+
+  private static int sizeOf(@Nullable Node<?, ?> node) {
+    return node == null ? 0 : node.size;
+  }
+
+  private static final class Node<K, V> implements Map.Entry<K, V> {
+
+    private final K key;
+    private final V value;
+    private final @Nullable Node<K, V> left;
+    private final @Nullable Node<K, V> right;
+    private final int height;
+    private final int size;
+
+    private Node(K key, V value, @Nullable Node<K, V> left, @Nullable Node<K, V> right) {
+      this.key = key;
+      this.value = value;
+      this.left = left;
+      this.right = right;
+      height = Math.max(height(left), height(right)) + 1;
+      size = sizeOf(left) + sizeOf(right) + 1;
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      throw new UnsupportedOperationException("Entries are immutable");
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Map.Entry<?, ?> entry
+          && key.equals(entry.getKey())
+          && value.equals(entry.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return key.hashCode() ^ value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + value;
+    }
+  }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.intern;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable list that shares structure between versions.
+ *
+ * <p>Elements are stored in the leaves of a 32-way trie, with the last partial leaf held
+ * separately as a "tail". Appending to or replacing an element of a vector copies at most one
+ * path through the trie, so is effectively constant-time, and leaves the original vector
+ * unchanged.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @param <T> the element type.
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class PersistentVector<T> implements Iterable<T> {
+
+  private static final int BITS = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK = WIDTH - 1;
+
+  private static final PersistentVector<?> EMPTY =
+      new PersistentVector<>(0, BITS, new Object[WIDTH], new Object[0]);
+
+  private final int size;
+  private final int shift;
+  private final Object[] root;
+  private final Object[] tail;
+
+  private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+    this.size = size;
+    this.shift = shift;
+    this.root = root;
+    this.tail = tail;
+  }
+
+  /**
+   * Get the empty vector.
+   *
+   * @param <T> the element type.
+   * @return the empty vector.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> PersistentVector<T> empty() {
+    return (PersistentVector<T>) EMPTY;
+  }
+
+  /**
+   * Create a vector holding the given elements.
+   *
+   * <p>The trie is built bottom-up in a single pass, rather than by appending one element at a
+   * time.
+   *
+   * @param elements the elements.
+   * @param <T>      the element type.
+   * @return the vector.
+   */
+  public static <T> PersistentVector<T> of(List<? extends T> elements) {
+    var size = elements.size();
+
+    if (size == 0) {
+      return empty();
+    }
+
+    // The tail always holds between 1 and 32 elements in a non-empty vector.
+    var tailOffset = ((size - 1) >>> BITS) << BITS;
+    var nodes = new Object[tailOffset >>> BITS];
+
+    for (var i = 0; i < nodes.length; ++i) {
+      nodes[i] = elements.subList(i << BITS, (i + 1) << BITS).toArray();
+    }
+
+    var shift = BITS;
+
+    while (nodes.length > WIDTH) {
+      var parents = new Object[(nodes.length + MASK) >>> BITS];
+
+      for (var i = 0; i < parents.length; ++i) {
+        parents[i] = Arrays.copyOfRange(nodes, i << BITS, (i + 1) << BITS);
+      }
+
+      nodes = parents;
+      shift += BITS;
+    }
+
+    var root = Arrays.copyOf(nodes, WIDTH);
+    var tail = elements.subList(tailOffset, size).toArray();
+    return new PersistentVector<>(size, shift, root, tail);
+  }
+
+  /**
+   * Get the number of elements.
+   *
+   * @return the number of elements.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Get the element at the given index.
+   *
+   * @param index the index.
+   * @return the element.
+   * @throws IndexOutOfBoundsException if the index is out of bounds.
+   */
+  @SuppressWarnings("unchecked")
+  public T get(int index) {
+    return (T) leafFor(index)[index & MASK];
+  }
+
+  /**
+   * Create a new vector with the given element added to the end.
+   *
+   * @param element the element to add.
+   * @return the new vector.
+   */
+  public PersistentVector<T> append(T element) {
+    if (size - tailOffset() < WIDTH) {
+      var newTail = Arrays.copyOf(tail, tail.length + 1);
+      newTail[tail.length] = element;
+      return new PersistentVector<>(size + 1, shift, root, newTail);
+    }
+
+    // The tail is full, so push it into the trie and start a new one.
+    Object[] newRoot;
+    var newShift = shift;
+
+    if ((size >>> BITS) > (1 << shift)) {
+      // The trie is full, so add another level.
+      newRoot = new Object[WIDTH];
+      newRoot[0] = root;
+      newRoot[1] = newPath(shift, tail);
+      newShift += BITS;
+    } else {
+      newRoot = pushTail(shift, root, tail);
+    }
+
+    return new PersistentVector<>(size + 1, newShift, newRoot, new Object[]{element});
+  }
+
+  /**
+   * Create a new vector with the element at the given index replaced.
+   *
+   * @param index   the index. If this is equal to the size, the element is appended.
+   * @param element the new element.
+   * @return the new vector.
+   * @throws IndexOutOfBoundsException if the index is out of bounds.
+   */
+  public PersistentVector<T> set(int index, T element) {
+    if (index == size) {
+      return append(element);
+    }
+
+    checkIndex(index);
+
+    if (index >= tailOffset()) {
+      var newTail = tail.clone();
+      newTail[index & MASK] = element;
+      return new PersistentVector<>(size, shift, root, newTail);
+    }
+
+    return new PersistentVector<>(size, shift, assoc(shift, root, index, element), tail);
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<>() {
+      private int index = 0;
+      private Object[] leaf = size == 0 ? tail : leafFor(0);
+
+      @Override
+      public boolean hasNext() {
+        return index < size;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public T next() {
+        if (index >= size) {
+          throw new NoSuchElementException();
+        }
+
+        if (index != 0 && (index & MASK) == 0) {
+          leaf = leafFor(index);
+        }
+
+        return (T) leaf[index++ & MASK];
+      }
+    };
+  }
+
+  private int tailOffset() {
+    return size - tail.length;
+  }
+
+  private Object[] leafFor(int index) {
+    checkIndex(index);
+
+    if (index >= tailOffset()) {
+      return tail;
+    }
+
+    var node = root;
+    for (var level = shift; level > 0; level -= BITS) {
+      node = (Object[]) node[(index >>> level) & MASK];
+    }
+    return node;
+  }
+
+  private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+    var index = ((size - 1) >>> level) & MASK;
+    var result = parent.clone();
+
+    if (level == BITS) {
+      result[index] = tailNode;
+    } else {
+      var child = (Object[]) parent[index];
+      result[index] = child == null
+          ? newPath(level - BITS, tailNode)
+          : pushTail(level - BITS, child, tailNode);
+    }
+
+    return result;
+  }
+
+  private static Object[] newPath(int level, Object[] node) {
+    if (level == 0) {
+      return node;
+    }
+
+    var result = new Object[WIDTH];
+    result[0] = newPath(level - BITS, node);
+    return result;
+  }
+
+  private static Object[] assoc(int level, Object[] node, int index, Object element) {
+    var result = node.clone();
+
+    if (level == 0) {
+      result[index & MASK] = element;
+    } else {
+      var childIndex = (index >>> level) & MASK;
+      result[childIndex] = assoc(level - BITS, (Object[]) node[childIndex], index, element);
+    }
+
+    return result;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+    }
+  }
+}
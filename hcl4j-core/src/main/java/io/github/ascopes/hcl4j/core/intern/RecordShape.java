@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.intern;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+
+/**
+ * Generic access to the components and canonical constructor of a record type.
+ *
+ * <p>This allows AST nodes and tokens to be taken apart and rebuilt without every node type
+ * needing dedicated code for each operation that does so. Method handles for the accessors and
+ * canonical constructor are created once per type, so reading and creating records does not go
+ * through reflection.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class RecordShape {
+
+  private static final ClassValue<RecordShape> SHAPES = new ClassValue<>() {
+    @Override
+    protected RecordShape computeValue(Class<?> type) {
+      return new RecordShape(type);
+    }
+  };
+
+  private final Class<?> type;
+  private final RecordComponent[] components;
+  private final MethodHandle[] accessors;
+  private final MethodHandle constructor;
+
+  private RecordShape(Class<?> type) {
+    if (!type.isRecord()) {
+      throw new IllegalArgumentException(type.getName() + " is not a record");
+    }
+
+    this.type = type;
+    components = type.getRecordComponents();
+
+    var lookup = MethodHandles.lookup();
+    var reader = MethodType.methodType(Object.class, Object.class);
+    accessors = new MethodHandle[components.length];
+    var parameterTypes = new Class<?>[components.length];
+
+    try {
+      for (var i = 0; i < components.length; ++i) {
+        accessors[i] = lookup.unreflect(components[i].getAccessor()).asType(reader);
+        parameterTypes[i] = components[i].getType();
+      }
+
+      constructor = lookup.unreflectConstructor(type.getDeclaredConstructor(parameterTypes))
+          .asSpreader(Object[].class, components.length)
+          .asType(MethodType.methodType(Object.class, Object[].class));
+    } catch (NoSuchMethodException ex) {
+      throw new IllegalStateException("Record " + type.getName() + " has no canonical constructor",
+          ex);
+    } catch (IllegalAccessException ex) {
+      throw new IllegalStateException("Record " + type.getName() + " is not accessible", ex);
+    }
+  }
+
+  /**
+   * Get the shape of the given record type.
+   *
+   * @param type the record type.
+   * @return the shape.
+   * @throws IllegalArgumentException if the type is not a record.
+   */
+  public static RecordShape of(Class<?> type) {
+    return SHAPES.get(type);
+  }
+
+  /**
+   * Get the record type.
+   *
+   * @return the record type.
+   */
+  public Class<?> type() {
+    return type;
+  }
+
+  /**
+   * Get the record components, in declaration order.
+   *
+   * @return a copy of the record components.
+   */
+  public RecordComponent[] components() {
+    return components.clone();
+  }
+
+  /**
+   * Get the number of record components.
+   *
+   * @return the number of components.
+   */
+  public int size() {
+    return components.length;
+  }
+
+  /**
+   * Read all component values from the given record.
+   *
+   * @param record the record to read.
+   * @return the component values, in declaration order.
+   */
+  public Object[] read(Record record) {
+    var values = new Object[components.length];
+
+    try {
+      for (var i = 0; i < components.length; ++i) {
+        values[i] = (Object) accessors[i].invokeExact((Object) record);
+      }
+    } catch (RuntimeException | Error ex) {
+      throw ex;
+    } catch (Throwable ex) {
+      throw new IllegalStateException("Failed to read record " + type.getName(), ex);
+    }
+
+    return values;
+  }
+
+  /**
+   * Create a new record from the given component values.
+   *
+   * @param values the component values, in declaration order.
+   * @return the new record.
+   */
+  public Record create(Object... values) {
+    if (values.length != components.length) {
+      throw new IllegalArgumentException("Expected " + components.length + " values for record "
+          + type.getName() + " but got " + values.length);
+    }
+
+    try {
+      return (Record) (Object) constructor.invokeExact(values);
+    } catch (RuntimeException | Error ex) {
+      throw ex;
+    } catch (Throwable ex) {
+      throw new IllegalStateException("Failed to create record " + type.getName(), ex);
+    }
+  }
+}
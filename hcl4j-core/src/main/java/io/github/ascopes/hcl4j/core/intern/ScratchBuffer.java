@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.intern;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reusable buffer for collecting elements before freezing them into an exact-size immutable list.
+ *
+ * <p>The buffer behaves like a stack, so it can be shared between nested collections that are
+ * being built at the same time. Each collection takes a {@link #mark() mark} before adding its
+ * elements, then {@link #freeze(int) freezes} everything added since the mark once it is
+ * complete. Since the buffer is retained between collections, it only grows to the size of the
+ * largest set of in-progress elements, rather than each collection growing its own list and
+ * keeping any unused capacity.
+ *
+ * <p>If building a collection fails part way through, {@link #release(int) release} its mark so
+ * that the elements it added are not left behind in the buffer.
+ *
+ * <p>This class is <strong>not</strong> thread-safe.
+ *
+ * @param <T> the element type.
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class ScratchBuffer<T> {
+
+  private static final int INITIAL_CAPACITY = 32;
+
+  private Object[] elements;
+  private int size;
+
+  /**
+   * Initialize the buffer.
+   */
+  public ScratchBuffer() {
+    elements = new Object[INITIAL_CAPACITY];
+    size = 0;
+  }
+
+  /**
+   * Get a mark representing the current top of the buffer.
+   *
+   * @return the mark.
+   */
+  public int mark() {
+    return size;
+  }
+
+  /**
+   * Add an element to the top of the buffer.
+   *
+   * @param element the element to add.
+   */
+  public void add(T element) {
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, size * 2);
+    }
+
+    elements[size++] = element;
+  }
+
+  /**
+   * Remove all elements added since the given mark, and return them in an immutable list.
+   *
+   * @param mark the mark previously returned by {@link #mark()}.
+   * @return the immutable list of elements.
+   * @throws IllegalArgumentException if the mark is not within the buffer.
+   */
+  public List<T> freeze(int mark) {
+    if (mark < 0 || mark > size) {
+      throw new IllegalArgumentException("Invalid mark " + mark + " for buffer of size " + size);
+    }
+
+    if (mark == size) {
+      return List.of();
+    }
+
+    var frozen = Arrays.copyOfRange(elements, mark, size);
+    release(mark);
+    return new ImmutableArrayList<>(frozen);
+  }
+
+  /**
+   * Discard all elements added since the given mark.
+   *
+   * <p>This does nothing if the elements have already been {@link #freeze(int) frozen}, so it
+   * can be called unconditionally once a collection is complete.
+   *
+   * @param mark the mark previously returned by {@link #mark()}.
+   * @throws IllegalArgumentException if the mark is negative.
+   */
+  public void release(int mark) {
+    if (mark < 0) {
+      throw new IllegalArgumentException("Invalid mark " + mark + " for buffer of size " + size);
+    }
+
+    if (mark < size) {
+      // Release the references so that the buffer does not keep the elements alive.
+      Arrays.fill(elements, mark, size, null);
+      size = mark;
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.lexer.strategy;
+
+import static io.github.ascopes.hcl4j.core.inputs.HclCharSource.EOF;
+
+import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
+import io.github.ascopes.hcl4j.core.intern.RawContentBuffer;
+import io.github.ascopes.hcl4j.core.lexer.HclDefaultLexer;
+import io.github.ascopes.hcl4j.core.tokens.HclDefaultToken;
+import io.github.ascopes.hcl4j.core.tokens.HclToken;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+
+/**
+ * Lexer strategy for files written in the JSON syntax of HCL.
+ *
+ * <p>JSON values are emitted using the same token types as the native syntax, so that the same
+ * token stream and parser infrastructure can be used for both:
+ *
+ * <ul>
+ *   <li>Structural characters are emitted as {@link HclTokenType#LEFT_BRACE},
+ *      {@link HclTokenType#RIGHT_BRACE}, {@link HclTokenType#LEFT_SQUARE},
+ *      {@link HclTokenType#RIGHT_SQUARE}, {@link HclTokenType#COLON} and
+ *      {@link HclTokenType#COMMA}.</li>
+ *   <li>A quote will emit a {@link HclTokenType#OPENING_QUOTE} token, and a new
+ *      {@link HclJsonStringLexerStrategy} will be pushed onto the lexer strategy stack.</li>
+ *   <li>Numbers are emitted as {@link HclTokenType#INTEGER} or {@link HclTokenType#REAL}, with
+ *      any leading sign emitted separately as {@link HclTokenType#MINUS}, as in the native
+ *      syntax.</li>
+ *   <li>The literals {@code true}, {@code false} and {@code null} are emitted as
+ *      {@link HclTokenType#IDENTIFIER}.</li>
+ *   <li>Whitespace and new lines are emitted as {@link HclTokenType#WHITESPACE} and
+ *      {@link HclTokenType#NEW_LINE}.</li>
+ * </ul>
+ *
+ * <p>This class is <strong>not</strong> thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclJsonLexerStrategy extends HclCommonLexerStrategyBase {
+
+  /**
+   * Initialize the strategy.
+   *
+   * @param context the context to use.
+   */
+  public HclJsonLexerStrategy(HclDefaultLexer context) {
+    super(context);
+  }
+
+  @Override
+  public HclToken nextToken() throws HclProcessingException {
+    var nextChar = context.charSource().peek(0);
+
+    if (isWhitespace(nextChar)) {
+      return consumeWhitespace();
+    }
+
+    if (isNewLineStart(nextChar)) {
+      return consumeNewLine();
+    }
+
+    if (isDigit(nextChar)) {
+      return consumeNumber();
+    }
+
+    if ('a' <= nextChar && nextChar <= 'z') {
+      return consumeIdentifier();
+    }
+
+    return switch (nextChar) {
+      case EOF -> consumeEndOfFile();
+      case '{' -> newToken(HclTokenType.LEFT_BRACE, 1);
+      case '}' -> newToken(HclTokenType.RIGHT_BRACE, 1);
+      case '[' -> newToken(HclTokenType.LEFT_SQUARE, 1);
+      case ']' -> newToken(HclTokenType.RIGHT_SQUARE, 1);
+      case ':' -> newToken(HclTokenType.COLON, 1);
+      case ',' -> newToken(HclTokenType.COMMA, 1);
+      case '-' -> newToken(HclTokenType.MINUS, 1);
+      case '"' -> {
+        var token = newToken(HclTokenType.OPENING_QUOTE, 1);
+        context.pushStrategy(new HclJsonStringLexerStrategy(context));
+        yield token;
+      }
+      default -> throw errorUnrecognisedCharacter();
+    };
+  }
+
+  private HclToken consumeNumber() throws HclProcessingException {
+    var start = context.charSource().location();
+    var buff = new RawContentBuffer();
+    var real = false;
+
+    consumeDigits(buff);
+
+    if (context.charSource().peek(0) == '.' && isDigit(context.charSource().peek(1))) {
+      buff.append(context.charSource().read());
+      consumeDigits(buff);
+      real = true;
+    }
+
+    var expPeek = context.charSource().peek(0);
+
+    if (expPeek == 'e' || expPeek == 'E') {
+      var signPeek = context.charSource().peek(1);
+      var signLength = signPeek == '+' || signPeek == '-' ? 2 : 1;
+
+      if (!isDigit(context.charSource().peek(signLength))) {
+        throw syntaxError("Expected digits in exponent", signLength);
+      }
+
+      buff.append(context.charSource().readString(signLength));
+      consumeDigits(buff);
+      real = true;
+    }
+
+    var end = context.charSource().location();
+    var type = real ? HclTokenType.REAL : HclTokenType.INTEGER;
+    return new HclDefaultToken(type, buff.content(), start, end);
+  }
+
+  private void consumeDigits(RawContentBuffer buff) throws HclProcessingException {
+    while (isDigit(context.charSource().peek(0))) {
+      buff.append(context.charSource().read());
+    }
+  }
+}
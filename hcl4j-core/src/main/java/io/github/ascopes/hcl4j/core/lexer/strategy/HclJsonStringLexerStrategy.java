@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.lexer.strategy;
+
+import static io.github.ascopes.hcl4j.core.inputs.HclCharSource.EOF;
+
+import io.github.ascopes.hcl4j.core.ex.HclBadTokenException;
+import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
+import io.github.ascopes.hcl4j.core.intern.RawContentBuffer;
+import io.github.ascopes.hcl4j.core.lexer.HclDefaultLexer;
+import io.github.ascopes.hcl4j.core.tokens.HclRawTextToken;
+import io.github.ascopes.hcl4j.core.tokens.HclToken;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+
+/**
+ * Lexer strategy to handle JSON strings.
+ *
+ * <p>This assumes that the opening quote has already been consumed by a
+ * {@link HclJsonLexerStrategy}.
+ *
+ * <ul>
+ *   <li>An end-of-file marker will pop the current mode and emit the end of file token.</li>
+ *   <li>A closing quote will pop the current mode and emit the closing quote token.</li>
+ *   <li>Anything else will be emitted as a single {@link HclTokenType#RAW_TEXT} token, with JSON
+ *      escape sequences converted in the token content. Template sequences are not interpreted
+ *      here, as whether they are meaningful depends on where the string appears.</li>
+ * </ul>
+ *
+ * <p>This class is <strong>not</strong> thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclJsonStringLexerStrategy extends HclCommonLexerStrategyBase {
+
+  private static final int HEX_DIGITS = 4;
+
+  /**
+   * Initialize the strategy.
+   *
+   * @param context the context to use.
+   */
+  public HclJsonStringLexerStrategy(HclDefaultLexer context) {
+    super(context);
+  }
+
+  @Override
+  public HclToken nextToken() throws HclProcessingException {
+    return switch (context.charSource().peek(0)) {
+      case '"' -> {
+        context.popStrategy();
+        yield newToken(HclTokenType.CLOSING_QUOTE, 1);
+      }
+      case EOF -> {
+        context.popStrategy();
+        yield consumeEndOfFile();
+      }
+      default -> consumeSomeText();
+    };
+  }
+
+  private HclToken consumeSomeText() throws HclProcessingException {
+    var start = context.charSource().location();
+    var raw = new RawContentBuffer();
+    var content = new RawContentBuffer();
+
+    while (true) {
+      var next = context.charSource().peek(0);
+
+      if (next == EOF || next == '"') {
+        break;
+      }
+
+      if (next < ' ') {
+        throw syntaxError("Control characters must be escaped in JSON strings", 1);
+      }
+
+      if (next == '\\') {
+        consumeEscape(raw, content);
+      } else {
+        context.charSource().advance(1);
+        raw.append(next);
+        content.append(next);
+      }
+    }
+
+    var end = context.charSource().location();
+    return new HclRawTextToken(raw.content(), content.content(), start, end);
+  }
+
+  private void consumeEscape(
+      RawContentBuffer raw,
+      RawContentBuffer content
+  ) throws HclProcessingException {
+    if (context.charSource().peek(1) == 'u') {
+      consumeUnicodeEscape(raw, content);
+      return;
+    }
+
+    var escaped = switch (context.charSource().peek(1)) {
+      case '"' -> '"';
+      case '\\' -> '\\';
+      case '/' -> '/';
+      case 'b' -> '\b';
+      case 'f' -> '\f';
+      case 'n' -> '\n';
+      case 'r' -> '\r';
+      case 't' -> '\t';
+      default -> throw syntaxError("Unrecognised string escape sequence", 2);
+    };
+
+    raw.append(context.charSource().readString(2));
+    content.append(escaped);
+  }
+
+  private void consumeUnicodeEscape(
+      RawContentBuffer raw,
+      RawContentBuffer content
+  ) throws HclProcessingException {
+    for (var i = 2; i < 2 + HEX_DIGITS; ++i) {
+      if (!isHexadecimal(context.charSource().peek(i))) {
+        throw syntaxError("Expected " + HEX_DIGITS + " hexadecimal digits for unicode escape",
+            i);
+      }
+    }
+
+    var start = context.charSource().location();
+    var sequence = context.charSource().readString(2 + HEX_DIGITS);
+    raw.append(sequence);
+
+    try {
+      // Surrogate pairs are written as two escapes, so each half is appended individually.
+      content.appendHexCodePoint(sequence.subSequence(2, sequence.length()));
+    } catch (IllegalArgumentException ex) {
+      throw new HclBadTokenException(
+          context.charSource().name(),
+          sequence,
+          start,
+          context.charSource().location(),
+          "Invalid unicode codepoint",
+          ex
+      );
+    }
+  }
+}
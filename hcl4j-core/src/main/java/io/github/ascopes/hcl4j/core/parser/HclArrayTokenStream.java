@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.parser;
+
+import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
+import io.github.ascopes.hcl4j.core.ex.HclUnexpectedTokenException;
+import io.github.ascopes.hcl4j.core.inputs.HclLocation;
+import io.github.ascopes.hcl4j.core.lexer.HclLexer;
+import io.github.ascopes.hcl4j.core.tokens.HclEofToken;
+import io.github.ascopes.hcl4j.core.tokens.HclToken;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Token stream that replays a range of tokens that have already been read into memory.
+ *
+ * <p>Many streams can share the same backing array, which allows ranges of tokens to be
+ * recorded once and parsed later on demand. Reaching the end of the range produces an
+ * {@link HclTokenType#EOF} token located at the end of the last token in the range.
+ *
+ * <p>This class is <strong>not</strong> thread-safe, but the backing array is never modified,
+ * so separate instances over the same array can be used concurrently.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+final class HclArrayTokenStream implements HclTokenStream {
+
+  private final String name;
+  private final HclToken[] tokens;
+  private final int end;
+  private final HclToken eofToken;
+  private final EnumSet<HclTokenType> skipMask;
+  private int index;
+
+  /**
+   * Initialize the stream.
+   *
+   * @param name   the file name.
+   * @param tokens the backing array of tokens.
+   * @param start  the index of the first token in the range (inclusive).
+   * @param end    the index of the last token in the range (exclusive).
+   */
+  HclArrayTokenStream(String name, HclToken[] tokens, int start, int end) {
+    this.name = name;
+    this.tokens = tokens;
+    this.end = end;
+    index = start;
+    skipMask = EnumSet.noneOf(HclTokenType.class);
+
+    if (end > start && tokens[end - 1].type() == HclTokenType.EOF) {
+      eofToken = tokens[end - 1];
+    } else {
+      eofToken = new HclEofToken(end > start ? tokens[end - 1].end() : new HclLocation(0, 1, 1));
+    }
+  }
+
+  /**
+   * Get the backing array.
+   *
+   * @return the backing array.
+   */
+  HclToken[] tokens() {
+    return tokens;
+  }
+
+  /**
+   * Get the index of the next token in the backing array.
+   *
+   * @return the index.
+   */
+  int index() {
+    return index;
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public void ignoreToken(HclTokenType tokenType) {
+    if (tokenType == HclTokenType.EOF) {
+      throw new IllegalArgumentException("Cannot ignore EOF");
+    }
+
+    skipMask.add(tokenType);
+  }
+
+  @Override
+  public HclLocation location() {
+    return peek(0).start();
+  }
+
+  @Override
+  public HclToken peek(int offset) throws HclProcessingException {
+    var i = indexOf(offset);
+    return i < end ? tokens[i] : eofToken;
+  }
+
+  @Override
+  public HclToken eat(HclTokenType type, HclTokenType... types) throws HclProcessingException {
+    var i = indexOf(0);
+    var token = i < end ? tokens[i] : eofToken;
+
+    if (token.type() == type) {
+      index = Math.min(i + 1, end);
+      return token;
+    }
+
+    for (var anotherType : types) {
+      if (token.type() == anotherType) {
+        index = Math.min(i + 1, end);
+        return token;
+      }
+    }
+
+    throw new HclUnexpectedTokenException(
+        token,
+        EnumSet.of(type, types),
+        name,
+        "Unexpected token in input"
+    );
+  }
+
+  private int indexOf(int offset) {
+    var i = index;
+
+    while (i < end) {
+      if (!skipMask.contains(tokens[i].type())) {
+        if (offset == 0) {
+          break;
+        }
+        --offset;
+      }
+      ++i;
+    }
+
+    return i;
+  }
+
+  /**
+   * Read every remaining token from a lexer into memory, discarding tokens of the given types.
+   *
+   * <p>The returned array will always end with the {@link HclTokenType#EOF} token.
+   *
+   * @param lexer        the lexer to read from.
+   * @param ignoredTypes the token types to discard.
+   * @return the tokens that were read.
+   * @throws HclProcessingException if the lexer fails to read the input.
+   */
+  static HclToken[] readAll(
+      HclLexer lexer,
+      Set<HclTokenType> ignoredTypes
+  ) throws HclProcessingException {
+    var tokens = new ArrayList<HclToken>();
+
+    while (true) {
+      var next = lexer.nextToken();
+
+      if (next.type() == HclTokenType.EOF) {
+        tokens.add(next);
+        return tokens.toArray(HclToken[]::new);
+      }
+
+      if (!ignoredTypes.contains(next.type())) {
+        tokens.add(next);
+      }
+    }
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.parser;
+
+import io.github.ascopes.hcl4j.core.inputs.HclLocatable;
+import io.github.ascopes.hcl4j.core.inputs.HclLocation;
+import java.util.List;
+
+/**
+ * Header of a block found by a {@link HclBlockHeaderScanner}.
+ *
+ * @param type   the block type identifier.
+ * @param labels the block labels, with any string labels unescaped.
+ * @param start  the location of the start of the block type identifier.
+ * @param end    the location of the end of the closing brace of the block.
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public record HclBlockHeader(
+    CharSequence type,
+    List<CharSequence> labels,
+    @Override HclLocation start,
+    @Override HclLocation end
+) implements HclLocatable {
+
+}
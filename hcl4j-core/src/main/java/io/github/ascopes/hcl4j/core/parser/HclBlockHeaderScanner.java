@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.parser;
+
+import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
+import io.github.ascopes.hcl4j.core.inputs.HclCharSource;
+import io.github.ascopes.hcl4j.core.lexer.HclDefaultLexer;
+import io.github.ascopes.hcl4j.core.lexer.strategy.HclConfigLexerStrategy;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Scanner that finds the headers of the top-level blocks in a config file without parsing their
+ * bodies.
+ *
+ * <p>This is intended for tooling that only needs to know which blocks a file declares, such as
+ * dependency discovery over {@code module}, {@code resource} and {@code variable} blocks. Block
+ * bodies and top-level attributes are skipped by matching brackets, so no expressions are built.
+ * As a result, most syntax errors within block bodies will not be detected.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclBlockHeaderScanner {
+
+  private final HclTokenStream tokenStream;
+
+  /**
+   * Initialize the scanner.
+   *
+   * @param charSource the character source to use for input.
+   */
+  public HclBlockHeaderScanner(HclCharSource charSource) {
+    var lexer = new HclDefaultLexer(charSource);
+    lexer.pushStrategy(new HclConfigLexerStrategy(lexer));
+    tokenStream = new HclDefaultTokenStream(lexer);
+    HclDefaultParserBase.IGNORED_TOKEN_TYPES.forEach(tokenStream::ignoreToken);
+  }
+
+  /**
+   * Scan the input for top-level block headers.
+   *
+   * @return the block headers, in the order they appear in the input.
+   * @throws HclProcessingException if the input cannot be tokenized, or is structurally invalid.
+   */
+  public List<HclBlockHeader> scan() throws HclProcessingException {
+    var headers = new ArrayList<HclBlockHeader>();
+
+    while (true) {
+      while (tokenStream.la(0) == HclTokenType.NEW_LINE) {
+        tokenStream.eat(HclTokenType.NEW_LINE);
+      }
+
+      if (tokenStream.la(0) == HclTokenType.EOF) {
+        headers.trimToSize();
+        return Collections.unmodifiableList(headers);
+      }
+
+      if (tokenStream.la(1) == HclTokenType.ASSIGN) {
+        HclTokenRanges.skipAttribute(tokenStream);
+      } else {
+        headers.add(blockHeader());
+      }
+    }
+  }
+
+  private HclBlockHeader blockHeader() throws HclProcessingException {
+    var typeToken = tokenStream.eat(HclTokenType.IDENTIFIER);
+    var labels = new ArrayList<CharSequence>();
+
+    while (true) {
+      var nextType = tokenStream.la(0);
+
+      if (nextType == HclTokenType.IDENTIFIER) {
+        labels.add(tokenStream.eat(HclTokenType.IDENTIFIER).raw());
+      } else if (nextType == HclTokenType.OPENING_QUOTE) {
+        labels.add(stringLabel());
+      } else {
+        break;
+      }
+    }
+
+    tokenStream.eat(HclTokenType.LEFT_BRACE);
+    HclTokenRanges.skipUntilClosed(tokenStream);
+    var rightBrace = tokenStream.eat(HclTokenType.RIGHT_BRACE);
+
+    return new HclBlockHeader(typeToken.raw(), List.copyOf(labels), typeToken.start(),
+        rightBrace.end());
+  }
+
+  private CharSequence stringLabel() throws HclProcessingException {
+    tokenStream.eat(HclTokenType.OPENING_QUOTE);
+
+    if (tokenStream.la(0) == HclTokenType.CLOSING_QUOTE) {
+      tokenStream.eat(HclTokenType.CLOSING_QUOTE);
+      return "";
+    }
+
+    var content = tokenStream.eat(HclTokenType.RAW_TEXT).content();
+    tokenStream.eat(HclTokenType.CLOSING_QUOTE);
+    return content;
+  }
+}
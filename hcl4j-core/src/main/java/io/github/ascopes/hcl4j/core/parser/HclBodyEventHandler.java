@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.parser;
+
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclIdentifierLikeNode;
+import java.util.List;
+
+/**
+ * Handler for events emitted by a streaming body parser.
+ *
+ * <p>Events are emitted in document order. Every call to {@link #startBlock} is matched by a
+ * later call to {@link #endBlock}, and any attributes or blocks emitted between the two belong to
+ * the body of that block.
+ *
+ * <p>All methods do nothing by default, so implementations only need to override the events
+ * they are interested in.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ * @see HclStreamingConfigFileParser
+ */
+public interface HclBodyEventHandler {
+
+  /**
+   * Handle the start of a block.
+   *
+   * @param type   the block type identifier.
+   * @param labels the block labels, which may be empty.
+   */
+  default void startBlock(HclIdentifierLikeNode type, List<HclIdentifierLikeNode> labels) {
+    // Do nothing by default.
+  }
+
+  /**
+   * Handle an attribute.
+   *
+   * @param name       the attribute name.
+   * @param expression the attribute value expression.
+   */
+  default void attribute(HclIdentifierLikeNode name, HclExpressionNode expression) {
+    // Do nothing by default.
+  }
+
+  /**
+   * Handle the end of the most recently started block.
+   */
+  default void endBlock() {
+    // Do nothing by default.
+  }
+}
@@ -30,12 +30,22 @@ import io.github.ascopes.hcl4j.core.lexer.strategy.HclConfigLexerStrategy;
 public final class HclConfigFileParser extends HclDefaultParserBase<HclBodyNode> {
 
   /**
-   * Initialize the parser.
+   * Initialize the parser in {@link HclParseMode#LOSSLESS lossless} mode.
    *
    * @param charSource the character source to use for input.
    */
   public HclConfigFileParser(HclCharSource charSource) {
-    super(initializeTokenStream(charSource));
+    this(charSource, HclParseMode.LOSSLESS);
+  }
+
+  /**
+   * Initialize the parser.
+   *
+   * @param charSource the character source to use for input.
+   * @param mode       the parse mode to use.
+   */
+  public HclConfigFileParser(HclCharSource charSource, HclParseMode mode) {
+    super(initializeTokenStream(charSource, mode));
   }
 
   @Override
@@ -43,10 +53,11 @@ public final class HclConfigFileParser extends HclDefaultParserBase<HclBodyNode>
     return body();
   }
 
-  private static HclTokenStream initializeTokenStream(HclCharSource charSource) {
+  private static HclTokenStream initializeTokenStream(HclCharSource charSource, HclParseMode mode) {
     var lexer = new HclDefaultLexer(charSource);
     var defaultMode = new HclConfigLexerStrategy(lexer);
     lexer.pushStrategy(defaultMode);
-    return new HclDefaultTokenStream(lexer);
+    var tokenStream = new HclDefaultTokenStream(lexer);
+    return mode == HclParseMode.SEMANTIC ? new HclSemanticTokenStream(tokenStream) : tokenStream;
   }
 }
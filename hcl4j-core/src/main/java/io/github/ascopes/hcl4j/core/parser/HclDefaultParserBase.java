@@ -65,11 +65,16 @@ import io.github.ascopes.hcl4j.core.ast.template.HclTemplateItemNode;
 import io.github.ascopes.hcl4j.core.ast.template.HclTemplateLiteralNode;
 import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
 import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.intern.ScratchBuffer;
 import io.github.ascopes.hcl4j.core.tokens.HclToken;
 import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Implementation of the bulk of the HCL parser functionality without defining the root node
@@ -85,8 +90,32 @@ import java.util.ArrayList;
  */
 public abstract class HclDefaultParserBase<T> implements HclParser<T> {
 
+  /**
+   * Token types that carry no syntactic meaning and are skipped by the parser.
+   */
+  protected static final Set<HclTokenType> IGNORED_TOKEN_TYPES = Collections.unmodifiableSet(
+      EnumSet.of(
+          HclTokenType.WHITESPACE,
+          HclTokenType.INLINE_COMMENT_START,
+          HclTokenType.INLINE_COMMENT_END,
+          HclTokenType.LINE_COMMENT_HASH_START,
+          HclTokenType.LINE_COMMENT_SLASH_START,
+          HclTokenType.COMMENT_CONTENT
+      )
+  );
+
   protected final HclTokenStream tokenStream;
 
+  // Shared between all collections of each kind being parsed, so that each one can be frozen into
+  // an exact-size immutable list once complete, without every collection having to grow its own
+  // list.
+  private final ScratchBuffer<HclBodyItemNode> bodyItems;
+  private final ScratchBuffer<HclIdentifierLikeNode> labels;
+  private final ScratchBuffer<HclParameterNode> arguments;
+  private final ScratchBuffer<HclTupleElementNode> tupleElements;
+  private final ScratchBuffer<HclObjectElementNode> objectElements;
+  private final ScratchBuffer<HclTemplateItemNode> templateItems;
+
   /**
    * Initialize the parser base.
    *
@@ -94,13 +123,16 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    */
   public HclDefaultParserBase(HclTokenStream tokenStream) {
     this.tokenStream = tokenStream;
-
-    tokenStream.ignoreToken(HclTokenType.WHITESPACE);
-    tokenStream.ignoreToken(HclTokenType.INLINE_COMMENT_START);
-    tokenStream.ignoreToken(HclTokenType.INLINE_COMMENT_END);
-    tokenStream.ignoreToken(HclTokenType.LINE_COMMENT_HASH_START);
-    tokenStream.ignoreToken(HclTokenType.LINE_COMMENT_SLASH_START);
-    tokenStream.ignoreToken(HclTokenType.COMMENT_CONTENT);
+    bodyItems = new ScratchBuffer<>();
+    labels = new ScratchBuffer<>();
+    arguments = new ScratchBuffer<>();
+    tupleElements = new ScratchBuffer<>();
+    objectElements = new ScratchBuffer<>();
+    templateItems = new ScratchBuffer<>();
+
+    for (var ignoredTokenType : IGNORED_TOKEN_TYPES) {
+      tokenStream.ignoreToken(ignoredTokenType);
+    }
   }
 
   /**
@@ -114,13 +146,13 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    * @return the node.
    */
   protected HclIdentifierLikeNode identifierOrStringLit() {
-    if (tokenStream.peek(0).type() == HclTokenType.IDENTIFIER) {
+    if (tokenStream.la(0) == HclTokenType.IDENTIFIER) {
       return identifier();
     }
 
     var openingQuote = tokenStream.eat(HclTokenType.OPENING_QUOTE);
 
-    var content = tokenStream.peek(0).type() == HclTokenType.CLOSING_QUOTE
+    var content = tokenStream.la(0) == HclTokenType.CLOSING_QUOTE
         ? null
         : tokenStream.eat(HclTokenType.RAW_TEXT);
 
@@ -153,25 +185,40 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    */
   protected HclBodyNode body() {
     var start = tokenStream.location();
-    var items = new ArrayList<HclBodyItemNode>();
+    var itemsMark = bodyItems.mark();
 
-    while (true) {
-      skipNewlines();
+    try {
+      while (true) {
+        skipNewlines();
 
-      if (tokenStream.peek(0).type() != HclTokenType.IDENTIFIER) {
-        break;
+        if (tokenStream.la(0) != HclTokenType.IDENTIFIER) {
+          break;
+        }
+
+        bodyItems.add(bodyItem());
       }
 
-      var nextItem = tokenStream.peek(1).type() == HclTokenType.ASSIGN
-          ? attribute()
-          : block();
+      var end = tokenStream.location();
 
-      items.add(nextItem);
+      return new HclBodyNode(bodyItems.freeze(itemsMark), start, end);
+    } finally {
+      bodyItems.release(itemsMark);
     }
+  }
 
-    var end = tokenStream.location();
-
-    return new HclBodyNode(items, start, end);
+  /**
+   * Parse a body item.
+   *
+   * <pre><code>
+   *   bodyItem = attribute | block ;
+   * </code></pre>
+   *
+   * @return the node.
+   */
+  protected HclBodyItemNode bodyItem() {
+    return tokenStream.la(1) == HclTokenType.ASSIGN
+        ? attribute()
+        : block();
   }
 
   /**
@@ -185,7 +232,7 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    */
   protected HclAttributeNode attribute() {
     var identifier = identifier();
-    var assignToken = tokenStream.eat(HclTokenType.ASSIGN);
+    var assignToken = tokenStream.interior(tokenStream.eat(HclTokenType.ASSIGN));
     var expression = expr();
     return new HclAttributeNode(identifier, assignToken, expression);
   }
@@ -203,19 +250,8 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    */
   protected HclBlockNode block() {
     var firstIdentifier = identifier();
-
-    var additionalIdentifiers = new ArrayList<HclIdentifierLikeNode>();
-
-    while (true) {
-      var nextType = tokenStream.peek(0).type();
-      if (nextType == HclTokenType.IDENTIFIER || nextType == HclTokenType.OPENING_QUOTE) {
-        additionalIdentifiers.add(identifierOrStringLit());
-      } else {
-        break;
-      }
-    }
-
-    var leftBrace = tokenStream.eat(HclTokenType.LEFT_BRACE);
+    var additionalIdentifiers = blockLabels();
+    var leftBrace = tokenStream.interior(tokenStream.eat(HclTokenType.LEFT_BRACE));
 
     tokenStream.tryEat(HclTokenType.NEW_LINE);
 
@@ -235,6 +271,70 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
     );
   }
 
+  /**
+   * Parse the labels that follow the type identifier in a block header.
+   *
+   * <pre><code>
+   *   blockLabels = identifierLike* ;
+   * </code></pre>
+   *
+   * @return the labels, which may be empty.
+   */
+  protected List<HclIdentifierLikeNode> blockLabels() {
+    var labelsMark = labels.mark();
+
+    try {
+      while (true) {
+        var nextType = tokenStream.la(0);
+        if (nextType == HclTokenType.IDENTIFIER || nextType == HclTokenType.OPENING_QUOTE) {
+          labels.add(identifierOrStringLit());
+        } else {
+          return labels.freeze(labelsMark);
+        }
+      }
+    } finally {
+      labels.release(labelsMark);
+    }
+  }
+
+  /**
+   * Parse a body, emitting each item to the given handler as it is parsed rather than building a
+   * {@link HclBodyNode}.
+   *
+   * <p>This follows the same grammar as {@link #body()}. Attributes are materialized one at a
+   * time, and nested blocks are streamed recursively, so memory usage is bounded by the nesting
+   * depth of the input rather than the size of the input.
+   *
+   * @param handler the handler to emit events to.
+   */
+  protected void bodyEvents(HclBodyEventHandler handler) {
+    while (true) {
+      skipNewlines();
+
+      if (tokenStream.la(0) != HclTokenType.IDENTIFIER) {
+        return;
+      }
+
+      if (tokenStream.la(1) == HclTokenType.ASSIGN) {
+        var attribute = attribute();
+        handler.attribute(attribute.identifier(), attribute.expression());
+        continue;
+      }
+
+      var type = identifier();
+      var labels = blockLabels();
+      tokenStream.eat(HclTokenType.LEFT_BRACE);
+      tokenStream.tryEat(HclTokenType.NEW_LINE);
+
+      handler.startBlock(type, labels);
+      bodyEvents(handler);
+
+      tokenStream.eat(HclTokenType.RIGHT_BRACE);
+      tokenStream.eat(HclTokenType.NEW_LINE);
+      handler.endBlock();
+    }
+  }
+
   /**
    * Parse an expression node that can have a conditional at the end.
    *
@@ -249,13 +349,13 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
   protected HclExpressionNode expr() {
     var expr = orOp();
 
-    if (tokenStream.peek(0).type() != HclTokenType.QUESTION_MARK) {
+    if (tokenStream.la(0) != HclTokenType.QUESTION_MARK) {
       return expr;
     }
 
-    var questionMark = tokenStream.eat(HclTokenType.QUESTION_MARK);
+    var questionMark = tokenStream.interior(tokenStream.eat(HclTokenType.QUESTION_MARK));
     var trueExpr = expr();
-    var colon = tokenStream.eat(HclTokenType.COLON);
+    var colon = tokenStream.interior(tokenStream.eat(HclTokenType.COLON));
     var falseExpr = expr();
 
     return new HclTernaryOperationNode(expr, questionMark, trueExpr, colon, falseExpr);
@@ -265,9 +365,7 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    * Parse an operation that may contain an OR after it.
    *
    * <pre><code>
-   *   orOp = andOp , OR , orOp
-   *        | andOp
-   *        ;
+   *   orOp = andOp , { OR , andOp } ;
    * </code></pre>
    *
    * @return the operation.
@@ -275,10 +373,9 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
   protected HclExpressionNode orOp() {
     var left = andOp();
 
-    if (tokenStream.peek(0).type() == HclTokenType.OR) {
-      var operator = tokenStream.eat(HclTokenType.OR);
-      var right = orOp();
-      return new HclBinaryOperationNode(left, operator, right);
+    while (tokenStream.la(0) == HclTokenType.OR) {
+      var operator = tokenStream.interior(tokenStream.eat(HclTokenType.OR));
+      left = new HclBinaryOperationNode(left, operator, andOp());
     }
 
     return left;
@@ -288,9 +385,7 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    * Parse an operation that may contain an AND after it.
    *
    * <pre><code>
-   *   andOp = eqOp , AND , andOp
-   *         | eqOp
-   *         ;
+   *   andOp = eqOp , { AND , eqOp } ;
    * </code></pre>
    *
    * @return the operation.
@@ -298,10 +393,9 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
   protected HclExpressionNode andOp() {
     var left = eqOp();
 
-    if (tokenStream.peek(0).type() == HclTokenType.AND) {
-      var operator = tokenStream.eat(HclTokenType.AND);
-      var right = andOp();
-      return new HclBinaryOperationNode(left, operator, right);
+    while (tokenStream.la(0) == HclTokenType.AND) {
+      var operator = tokenStream.interior(tokenStream.eat(HclTokenType.AND));
+      left = new HclBinaryOperationNode(left, operator, eqOp());
     }
 
     return left;
@@ -311,107 +405,108 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    * Parse an operation that may contain an equality or inequality operation after it.
    *
    * <pre><code>
-   *   eqOp = compOp , EQUAL , eqOp
-   *        | compOp , NOT_EQUAL , eqOp
-   *        | compOp
-   *        ;
+   *   eqOp = compOp , { ( EQUAL | NOT_EQUAL ) , compOp } ;
    * </code></pre>
    *
    * @return the operation.
    */
   protected HclExpressionNode eqOp() {
     var left = compOp();
-    var next = tokenStream.peek(0).type();
 
-    return switch (next) {
-      case EQUAL, NOT_EQUAL -> {
-        var operator = tokenStream.eat(next);
-        var right = eqOp();
-        yield new HclBinaryOperationNode(left, operator, right);
+    while (true) {
+      var next = tokenStream.la(0);
+
+      switch (next) {
+        case EQUAL, NOT_EQUAL -> {
+          var operator = tokenStream.interior(tokenStream.eat(next));
+          left = new HclBinaryOperationNode(left, operator, compOp());
+        }
+        default -> {
+          return left;
+        }
       }
-      default -> left;
-    };
+    }
   }
 
   /**
    * Parse an operation that may contain a comparative operation after it.
    *
    * <pre><code>
-   *   compOp = addOp , LESS , compOp
-   *          | addOp , LESS_EQUAL , compOp
-   *          | addOp , GREATER , compOp
-   *          | addOp , GREATER_EQUAL , compOp
-   *          | addOp
-   *          ;
+   *   compOp = addOp , { ( LESS | LESS_EQUAL | GREATER | GREATER_EQUAL ) , addOp } ;
    * </code></pre>
    *
    * @return the operation.
    */
   protected HclExpressionNode compOp() {
     var left = addOp();
-    var next = tokenStream.peek(0).type();
 
-    return switch (next) {
-      case LESS, GREATER, LESS_EQUAL, GREATER_EQUAL -> {
-        var operator = tokenStream.eat(next);
-        var right = compOp();
-        yield new HclBinaryOperationNode(left, operator, right);
+    while (true) {
+      var next = tokenStream.la(0);
+
+      switch (next) {
+        case LESS, GREATER, LESS_EQUAL, GREATER_EQUAL -> {
+          var operator = tokenStream.interior(tokenStream.eat(next));
+          left = new HclBinaryOperationNode(left, operator, addOp());
+        }
+        default -> {
+          return left;
+        }
       }
-      default -> left;
-    };
+    }
   }
 
   /**
    * Parse an operation that may contain an additive operation after it.
    *
    * <pre><code>
-   *   addOp = mulOp , PLUS , addOp
-   *         | mulOp , MINUS , addOp
-   *         | mulOp
-   *         ;
+   *   addOp = mulOp , { ( PLUS | MINUS ) , mulOp } ;
    * </code></pre>
    *
    * @return the operation.
    */
   protected HclExpressionNode addOp() {
     var left = mulOp();
-    var next = tokenStream.peek(0).type();
 
-    return switch (next) {
-      case PLUS, MINUS -> {
-        var operator = tokenStream.eat(next);
-        var right = addOp();
-        yield new HclBinaryOperationNode(left, operator, right);
+    while (true) {
+      var next = tokenStream.la(0);
+
+      switch (next) {
+        case PLUS, MINUS -> {
+          var operator = tokenStream.interior(tokenStream.eat(next));
+          left = new HclBinaryOperationNode(left, operator, mulOp());
+        }
+        default -> {
+          return left;
+        }
       }
-      default -> left;
-    };
+    }
   }
 
   /**
    * Parse an operation that may contain a multiplicative operation after it.
    *
    * <pre><code>
-   *   mulOp = unaryOp , STAR , mulOp
-   *         | unaryOp , DIVIDE , mulOp
-   *         | unaryOp , MODULO , mulOp
-   *         | unaryOp
-   *         ;
+   *   mulOp = unaryOp , { ( STAR | DIVIDE | MODULO ) , unaryOp } ;
    * </code></pre>
    *
    * @return the operation.
    */
   protected HclExpressionNode mulOp() {
     var left = unaryOp();
-    var next = tokenStream.peek(0).type();
 
-    return switch (next) {
-      case STAR, DIVIDE, MODULO -> {
-        var operator = tokenStream.eat(next);
-        var right = mulOp();
-        yield new HclBinaryOperationNode(left, operator, right);
+    while (true) {
+      var next = tokenStream.la(0);
+
+      switch (next) {
+        case STAR, DIVIDE, MODULO -> {
+          var operator = tokenStream.interior(tokenStream.eat(next));
+          left = new HclBinaryOperationNode(left, operator, unaryOp());
+        }
+        default -> {
+          return left;
+        }
       }
-      default -> left;
-    };
+    }
   }
 
   /**
@@ -427,7 +522,7 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    * @return the operation.
    */
   protected HclExpressionNode unaryOp() {
-    var next = tokenStream.peek(0).type();
+    var next = tokenStream.la(0);
 
     return switch (next) {
       case MINUS, NOT -> {
@@ -461,21 +556,19 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
 
     loop:
     while (true) {
-      var firstToken = tokenStream.peek(0);
-      var secondToken = tokenStream.peek(1);
-
-      switch (firstToken.type()) {
+      switch (tokenStream.la(0)) {
         case LEFT_SQUARE -> {
-          var open = tokenStream.eat(HclTokenType.LEFT_SQUARE);
+          var open = tokenStream.interior(tokenStream.eat(HclTokenType.LEFT_SQUARE));
           var expr = expr();
           var close = tokenStream.eat(HclTokenType.RIGHT_SQUARE);
           exprTerm = new HclIndexNode(exprTerm, open, expr, close);
         }
 
         case DOT -> {
-          switch (secondToken.type()) {
+          // Only look further ahead if we know we need to.
+          switch (tokenStream.la(1)) {
             case INTEGER -> {
-              var dot = tokenStream.eat(HclTokenType.DOT);
+              var dot = tokenStream.interior(tokenStream.eat(HclTokenType.DOT));
               var valueToken = tokenStream.eat(HclTokenType.INTEGER);
               var value = new BigInteger(valueToken.raw().toString());
               var index = new HclIntegerLiteralNode(valueToken, value);
@@ -483,7 +576,7 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
             }
 
             case IDENTIFIER -> {
-              var dot = tokenStream.eat(HclTokenType.DOT);
+              var dot = tokenStream.interior(tokenStream.eat(HclTokenType.DOT));
               var attr = identifier();
               exprTerm = new HclGetAttrNode(exprTerm, dot, attr);
             }
@@ -518,17 +611,16 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
   protected HclExprTermNode splattableExprTerm() {
     var exprTerm = singleExprTerm();
 
-    var firstToken = tokenStream.peek(0);
-    var secondToken = tokenStream.peek(1);
+    var firstType = tokenStream.la(0);
 
-    if ((firstToken.type() == HclTokenType.LEFT_SQUARE || firstToken.type() == HclTokenType.DOT)
-        && secondToken.type() == HclTokenType.STAR) {
-      var open = tokenStream.eat(HclTokenType.DOT, HclTokenType.LEFT_SQUARE);
+    if ((firstType == HclTokenType.LEFT_SQUARE || firstType == HclTokenType.DOT)
+        && tokenStream.la(1) == HclTokenType.STAR) {
+      var open = tokenStream.interior(tokenStream.eat(HclTokenType.DOT, HclTokenType.LEFT_SQUARE));
       var splat = tokenStream.eat(HclTokenType.STAR);
 
       if (open.type() == HclTokenType.LEFT_SQUARE) {
         var close = tokenStream.eat(HclTokenType.RIGHT_SQUARE);
-        return new HclFullSplatNode(exprTerm, open, splat, close);
+        return new HclFullSplatNode(exprTerm, open, tokenStream.interior(splat), close);
       }
 
       return new HclAttrSplatNode(exprTerm, open, splat);
@@ -563,24 +655,24 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    * @return the node.
    */
   protected HclExprTermNode singleExprTerm() {
-    var token = tokenStream.peek(0);
-
-    return switch (token.type()) {
+    return switch (tokenStream.la(0)) {
       case REAL -> {
-        var value = new BigDecimal(token.raw().toString());
-        yield new HclRealLiteralNode(tokenStream.eat(HclTokenType.REAL), value);
+        var token = tokenStream.eat(HclTokenType.REAL);
+        yield new HclRealLiteralNode(token, new BigDecimal(token.raw().toString()));
       }
 
       case INTEGER -> {
-        var value = new BigInteger(token.raw().toString());
-        yield new HclIntegerLiteralNode(tokenStream.eat(HclTokenType.INTEGER), value);
+        var token = tokenStream.eat(HclTokenType.INTEGER);
+        yield new HclIntegerLiteralNode(token, new BigInteger(token.raw().toString()));
       }
 
       case IDENTIFIER -> {
-        if (tokenStream.peek(1).type() == HclTokenType.LEFT_PAREN) {
+        if (tokenStream.la(1) == HclTokenType.LEFT_PAREN) {
           yield functionCall();
         }
 
+        var token = tokenStream.peek(0);
+
         if (token.rawEquals("true")) {
           yield new HclBooleanLiteralNode(tokenStream.eat(HclTokenType.IDENTIFIER), true);
         }
@@ -596,7 +688,8 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
         yield variableExpr();
       }
 
-      case LEFT_SQUARE, LEFT_BRACE -> tokenStream.peek(1).rawEquals("for")
+      case LEFT_SQUARE, LEFT_BRACE -> tokenStream.la(1) == HclTokenType.IDENTIFIER
+          && tokenStream.peek(1).rawEquals("for")
           ? forExpr()
           : collectionValue();
 
@@ -623,50 +716,60 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    */
   protected HclFunctionCallNode functionCall() {
     var identifier = identifier();
-    var leftParen = tokenStream.eat(HclTokenType.LEFT_PAREN);
+    var leftParen = tokenStream.interior(tokenStream.eat(HclTokenType.LEFT_PAREN));
 
-    var arguments = new ArrayList<HclParameterNode>();
+    var argumentsMark = arguments.mark();
 
-    skipNewlines();
+    try {
+      skipNewlines();
 
-    HclToken trailer = null;
+      HclToken trailer = null;
 
-    if (tokenStream.peek(0).type() != HclTokenType.RIGHT_PAREN) {
-      var firstExpr = expr();
+      if (tokenStream.la(0) != HclTokenType.RIGHT_PAREN) {
+        var firstExpr = expr();
 
-      arguments.add(new HclParameterNode(null, firstExpr));
+        arguments.add(new HclParameterNode(null, firstExpr));
 
-      while (true) {
-        skipNewlines();
+        while (true) {
+          skipNewlines();
 
-        if (tokenStream.peek(0).type() != HclTokenType.COMMA) {
-          break;
-        }
+          if (tokenStream.la(0) != HclTokenType.COMMA) {
+            break;
+          }
 
-        skipNewlines();
+          skipNewlines();
 
-        var comma = tokenStream.eat(HclTokenType.COMMA);
+          var comma = tokenStream.eat(HclTokenType.COMMA);
 
-        skipNewlines();
+          skipNewlines();
 
-        if (tokenStream.peek(0).type() == HclTokenType.RIGHT_PAREN) {
-          trailer = comma;
-          break;
-        }
+          if (tokenStream.la(0) == HclTokenType.RIGHT_PAREN) {
+            trailer = tokenStream.interior(comma);
+            break;
+          }
 
-        arguments.add(new HclParameterNode(comma, expr()));
+          arguments.add(new HclParameterNode(comma, expr()));
+        }
       }
-    }
 
-    skipNewlines();
-
-    if (trailer == null) {
-      trailer = tokenStream.tryEat(HclTokenType.ELLIPSIS);
       skipNewlines();
-    }
 
-    var rightParen = tokenStream.eat(HclTokenType.RIGHT_PAREN);
-    return new HclFunctionCallNode(identifier, leftParen, arguments, trailer, rightParen);
+      if (trailer == null) {
+        trailer = tokenStream.interior(tokenStream.tryEat(HclTokenType.ELLIPSIS));
+        skipNewlines();
+      }
+
+      var rightParen = tokenStream.eat(HclTokenType.RIGHT_PAREN);
+      return new HclFunctionCallNode(
+          identifier,
+          leftParen,
+          arguments.freeze(argumentsMark),
+          trailer,
+          rightParen
+      );
+    } finally {
+      arguments.release(argumentsMark);
+    }
   }
 
   /**
@@ -692,7 +795,7 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    * @return the node.
    */
   protected HclCollectionValueNode collectionValue() {
-    return tokenStream.peek(0).type() == HclTokenType.LEFT_SQUARE
+    return tokenStream.la(0) == HclTokenType.LEFT_SQUARE
         ? tuple()
         : object();
   }
@@ -710,48 +813,53 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    */
   protected HclTupleNode tuple() {
     var leftToken = tokenStream.eat(HclTokenType.LEFT_SQUARE);
-    var elements = new ArrayList<HclTupleElementNode>();
+    var elementsMark = tupleElements.mark();
 
-    skipNewlines();
+    try {
+      skipNewlines();
 
-    HclToken trailerComma = null;
+      HclToken trailerComma = null;
 
-    if (tokenStream.peek(0).type() != HclTokenType.RIGHT_SQUARE) {
-      elements.add(new HclTupleElementNode(null, expr()));
+      if (tokenStream.la(0) != HclTokenType.RIGHT_SQUARE) {
+        tupleElements.add(new HclTupleElementNode(null, expr()));
 
-      while (true) {
-        skipNewlines();
+        while (true) {
+          skipNewlines();
 
-        if (tokenStream.peek(0).type() != HclTokenType.COMMA) {
-          break;
-        }
+          if (tokenStream.la(0) != HclTokenType.COMMA) {
+            break;
+          }
 
-        var commaToken = tokenStream.tryEat(HclTokenType.COMMA);
+          var commaToken = tokenStream.tryEat(HclTokenType.COMMA);
 
-        if (commaToken == null) {
-          break;
-        }
+          if (commaToken == null) {
+            break;
+          }
 
-        skipNewlines();
+          skipNewlines();
 
-        if (tokenStream.peek(0).type() == HclTokenType.RIGHT_SQUARE) {
-          trailerComma = commaToken;
-          break;
-        }
+          if (tokenStream.la(0) == HclTokenType.RIGHT_SQUARE) {
+            trailerComma = tokenStream.interior(commaToken);
+            break;
+          }
 
-        var expression = expr();
+          var expression = expr();
 
-        skipNewlines();
+          skipNewlines();
 
-        elements.add(new HclTupleElementNode(commaToken, expression));
+          tupleElements.add(new HclTupleElementNode(commaToken, expression));
+        }
       }
-    }
 
-    skipNewlines();
+      skipNewlines();
 
-    var rightToken = tokenStream.eat(HclTokenType.RIGHT_SQUARE);
+      var rightToken = tokenStream.eat(HclTokenType.RIGHT_SQUARE);
 
-    return new HclTupleNode(leftToken, elements, trailerComma, rightToken);
+      return new HclTupleNode(leftToken, tupleElements.freeze(elementsMark), trailerComma,
+          rightToken);
+    } finally {
+      tupleElements.release(elementsMark);
+    }
   }
 
   /**
@@ -770,62 +878,70 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    */
   protected HclObjectNode object() {
     var leftToken = tokenStream.eat(HclTokenType.LEFT_BRACE);
-    var elements = new ArrayList<HclObjectElementNode>();
-
-    skipNewlines();
-
-    HclToken trailerComma = null;
+    var elementsMark = objectElements.mark();
 
-    if (tokenStream.peek(0).type() != HclTokenType.RIGHT_BRACE) {
-      var firstKeyIsExpression = tokenStream.peek(0).type() == HclTokenType.IDENTIFIER;
-      var firstKeyExpression = expr();
+    try {
       skipNewlines();
-      var firstMapperToken = tokenStream.eat(HclTokenType.ASSIGN, HclTokenType.COLON);
-      skipNewlines();
-      var firstValueExpression = expr();
 
-      elements.add(new HclObjectElementNode(
-          null,
-          firstKeyExpression,
-          firstKeyIsExpression,
-          firstMapperToken,
-          firstValueExpression
-      ));
+      HclToken trailerComma = null;
 
-      while (true) {
+      if (tokenStream.la(0) != HclTokenType.RIGHT_BRACE) {
+        var firstKeyIsExpression = tokenStream.la(0) == HclTokenType.IDENTIFIER;
+        var firstKeyExpression = expr();
+        skipNewlines();
+        var firstMapperToken = tokenStream.interior(
+            tokenStream.eat(HclTokenType.ASSIGN, HclTokenType.COLON));
         skipNewlines();
-        var commaToken = tokenStream.tryEat(HclTokenType.COMMA);
+        var firstValueExpression = expr();
+
+        objectElements.add(new HclObjectElementNode(
+            null,
+            firstKeyExpression,
+            firstKeyIsExpression,
+            firstMapperToken,
+            firstValueExpression
+        ));
 
-        if (commaToken == null) {
-          break;
-        }
+        while (true) {
+          skipNewlines();
+          var commaToken = tokenStream.tryEat(HclTokenType.COMMA);
 
-        if (tokenStream.peek(0).type() == HclTokenType.RIGHT_BRACE) {
-          trailerComma = commaToken;
-          break;
-        }
+          if (commaToken == null) {
+            break;
+          }
 
-        skipNewlines();
-        var keyIsExpression = tokenStream.peek(0).type() == HclTokenType.IDENTIFIER;
-        var keyExpression = expr();
-        skipNewlines();
-        var mapperToken = tokenStream.eat(HclTokenType.ASSIGN, HclTokenType.COLON);
-        skipNewlines();
-        var valueExpression = expr();
-
-        elements.add(new HclObjectElementNode(
-            commaToken,
-            keyExpression,
-            keyIsExpression,
-            mapperToken,
-            valueExpression
-        ));
+          skipNewlines();
+
+          if (tokenStream.la(0) == HclTokenType.RIGHT_BRACE) {
+            trailerComma = tokenStream.interior(commaToken);
+            break;
+          }
+
+          var keyIsExpression = tokenStream.la(0) == HclTokenType.IDENTIFIER;
+          var keyExpression = expr();
+          skipNewlines();
+          var mapperToken = tokenStream.interior(
+              tokenStream.eat(HclTokenType.ASSIGN, HclTokenType.COLON));
+          skipNewlines();
+          var valueExpression = expr();
+
+          objectElements.add(new HclObjectElementNode(
+              commaToken,
+              keyExpression,
+              keyIsExpression,
+              mapperToken,
+              valueExpression
+          ));
+        }
       }
-    }
 
-    skipNewlines();
-    var rightToken = tokenStream.eat(HclTokenType.RIGHT_BRACE);
-    return new HclObjectNode(leftToken, elements, trailerComma, rightToken);
+      skipNewlines();
+      var rightToken = tokenStream.eat(HclTokenType.RIGHT_BRACE);
+      return new HclObjectNode(leftToken, objectElements.freeze(elementsMark), trailerComma,
+          rightToken);
+    } finally {
+      objectElements.release(elementsMark);
+    }
   }
 
   /**
@@ -838,7 +954,7 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    * @return the node.
    */
   protected HclTemplateExprNode templateExpr() {
-    return tokenStream.peek(0).type() == HclTokenType.OPENING_QUOTE
+    return tokenStream.la(0) == HclTokenType.OPENING_QUOTE
         ? quotedTemplate()
         : heredocTemplate();
   }
@@ -873,7 +989,7 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
   protected HclHeredocTemplateNode heredocTemplate() {
     var anchorToken = tokenStream.eat(HclTokenType.HEREDOC_ANCHOR);
 
-    var indentToken = tokenStream.tryEat(HclTokenType.HEREDOC_INDENT_MARKER);
+    var indentToken = tokenStream.interior(tokenStream.tryEat(HclTokenType.HEREDOC_INDENT_MARKER));
     var openingIdentifierToken = tokenStream.eat(HclTokenType.IDENTIFIER);
     tokenStream.eat(HclTokenType.NEW_LINE);
     var template = template();
@@ -899,32 +1015,62 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    * @return the node.
    */
   protected HclTemplateContentNode template() {
-    var templateItems = new ArrayList<HclTemplateItemNode>();
-    var start = tokenStream.location();
+    var itemsMark = templateItems.mark();
+
+    try {
+      var start = tokenStream.location();
+      templateItems(templateItems::add);
+      var end = tokenStream.location();
+      return new HclTemplateContentNode(templateItems.freeze(itemsMark), start, end);
+    } finally {
+      templateItems.release(itemsMark);
+    }
+  }
 
+  /**
+   * Parse the items of a template, passing each item to the given consumer as soon as it has been
+   * parsed rather than building a {@link HclTemplateContentNode}.
+   *
+   * <p>This follows the same grammar as {@link #template()}. Directives are passed to the consumer
+   * as a single item once their closing directive has been parsed.
+   *
+   * @param consumer the consumer to pass each item to.
+   */
+  protected void templateItems(Consumer<? super HclTemplateItemNode> consumer) {
     while (true) {
-      switch (tokenStream.peek(0).type()) {
-        case RAW_TEXT -> templateItems.add(templateLiteral());
-        case LEFT_INTERPOLATION -> templateItems.add(templateInterpolation());
+      switch (tokenStream.la(0)) {
+        case RAW_TEXT -> consumer.accept(templateLiteral());
+        case LEFT_INTERPOLATION -> consumer.accept(templateInterpolation());
         case LEFT_DIRECTIVE -> {
+          if (isClosingDirective()) {
+            // Belongs to the enclosing directive.
+            return;
+          }
+
           var directiveOpen = tokenStream.eat(HclTokenType.LEFT_DIRECTIVE);
-          var directiveOpenTrim = tokenStream.tryEat(HclTokenType.TRIM);
+          var directiveOpenTrim = tokenStream.interior(tokenStream.tryEat(HclTokenType.TRIM));
           var directiveKeyword = tokenStream.eatKeyword("if", "for");
 
           if (directiveKeyword.rawEquals("if")) {
-            templateItems.add(templateIf(directiveOpen, directiveOpenTrim, directiveKeyword));
+            consumer.accept(templateIf(directiveOpen, directiveOpenTrim, directiveKeyword));
           } else {
-            templateItems.add(templateFor(directiveOpen, directiveOpenTrim, directiveKeyword));
+            consumer.accept(templateFor(directiveOpen, directiveOpenTrim, directiveKeyword));
           }
         }
         default -> {
-          var end = tokenStream.location();
-          return new HclTemplateContentNode(templateItems, start, end);
+          return;
         }
       }
     }
   }
 
+  private boolean isClosingDirective() {
+    var keywordOffset = tokenStream.la(1) == HclTokenType.TRIM ? 2 : 1;
+    var keyword = tokenStream.peek(keywordOffset);
+    return keyword.type() == HclTokenType.IDENTIFIER
+        && (keyword.rawEquals("else") || keyword.rawEquals("endif") || keyword.rawEquals("endfor"));
+  }
+
   /**
    * Parse a template literal.
    *
@@ -945,9 +1091,9 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    */
   protected HclTemplateInterpolationNode templateInterpolation() {
     var leftToken = tokenStream.eat(HclTokenType.LEFT_INTERPOLATION);
-    var leftTrimToken = tokenStream.tryEat(HclTokenType.TRIM);
+    var leftTrimToken = tokenStream.interior(tokenStream.tryEat(HclTokenType.TRIM));
     var expression = expr();
-    var rightTrimToken = tokenStream.tryEat(HclTokenType.TRIM);
+    var rightTrimToken = tokenStream.interior(tokenStream.tryEat(HclTokenType.TRIM));
     var rightToken = tokenStream.eat(HclTokenType.RIGHT_BRACE);
 
     return new HclTemplateInterpolationNode(
@@ -986,8 +1132,8 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
   ) {
     // If part
     var ifExpression = expr();
-    var ifRightTrim = tokenStream.tryEat(HclTokenType.TRIM);
-    var ifRightBrace = tokenStream.eat(HclTokenType.RIGHT_BRACE);
+    var ifRightTrim = tokenStream.interior(tokenStream.tryEat(HclTokenType.TRIM));
+    var ifRightBrace = tokenStream.interior(tokenStream.eat(HclTokenType.RIGHT_BRACE));
     var ifTemplate = template();
 
     var ifPart = new HclTemplateIfPartNode(
@@ -1002,9 +1148,9 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
 
     // Else part
     var nextLeftBrace = tokenStream.eat(HclTokenType.LEFT_DIRECTIVE);
-    var nextLeftTrim = tokenStream.tryEat(HclTokenType.TRIM);
+    var nextLeftTrim = tokenStream.interior(tokenStream.tryEat(HclTokenType.TRIM));
     var nextKeyword = tokenStream.eatKeyword("else", "endif");
-    var nextRightTrim = tokenStream.tryEat(HclTokenType.TRIM);
+    var nextRightTrim = tokenStream.interior(tokenStream.tryEat(HclTokenType.TRIM));
     var nextRightBrace = tokenStream.eat(HclTokenType.RIGHT_BRACE);
 
     HclTemplateElsePartNode elsePart = null;
@@ -1016,14 +1162,14 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
           nextLeftTrim,
           nextKeyword,
           nextRightTrim,
-          nextRightBrace,
+          tokenStream.interior(nextRightBrace),
           elseTemplate
       );
 
       nextLeftBrace = tokenStream.eat(HclTokenType.LEFT_DIRECTIVE);
-      nextLeftTrim = tokenStream.tryEat(HclTokenType.TRIM);
+      nextLeftTrim = tokenStream.interior(tokenStream.tryEat(HclTokenType.TRIM));
       nextKeyword = tokenStream.eatKeyword("endif");
-      nextRightTrim = tokenStream.tryEat(HclTokenType.TRIM);
+      nextRightTrim = tokenStream.interior(tokenStream.tryEat(HclTokenType.TRIM));
       nextRightBrace = tokenStream.eat(HclTokenType.RIGHT_BRACE);
     }
 
@@ -1073,14 +1219,14 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
     HclToken commaToken = null;
     HclIdentifierNode secondIdentifier = null;
 
-    if (tokenStream.peek(0).type() == HclTokenType.COMMA) {
-      commaToken = tokenStream.eat(HclTokenType.COMMA);
+    if (tokenStream.la(0) == HclTokenType.COMMA) {
+      commaToken = tokenStream.interior(tokenStream.eat(HclTokenType.COMMA));
       secondIdentifier = identifier();
     }
 
     var inKeyword = tokenStream.eatKeyword("in");
     var expr = expr();
-    var forRightTrim = tokenStream.tryEat(HclTokenType.TRIM);
+    var forRightTrim = tokenStream.interior(tokenStream.tryEat(HclTokenType.TRIM));
     var forRightBrace = tokenStream.eat(HclTokenType.RIGHT_BRACE);
 
     var forPart = new HclTemplateForPartNode(
@@ -1101,9 +1247,9 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
 
     // Endfor part.
     var endLeftBrace = tokenStream.eat(HclTokenType.LEFT_DIRECTIVE);
-    var endLeftTrim = tokenStream.tryEat(HclTokenType.TRIM);
+    var endLeftTrim = tokenStream.interior(tokenStream.tryEat(HclTokenType.TRIM));
     var endKeyword = tokenStream.eatKeyword("endfor");
-    var endRightTrim = tokenStream.tryEat(HclTokenType.TRIM);
+    var endRightTrim = tokenStream.interior(tokenStream.tryEat(HclTokenType.TRIM));
     var endRightBrace = tokenStream.eat(HclTokenType.RIGHT_BRACE);
 
     var endForPart = new HclTemplateEndPartNode(
@@ -1128,7 +1274,7 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    * @return the node.
    */
   protected HclForExprNode forExpr() {
-    return tokenStream.peek(0).type() == HclTokenType.LEFT_SQUARE
+    return tokenStream.la(0) == HclTokenType.LEFT_SQUARE
         ? forTupleExpr()
         : forObjectExpr();
   }
@@ -1146,7 +1292,7 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
     var leftToken = tokenStream.eat(HclTokenType.LEFT_SQUARE);
     var intro = forIntro();
     var expression = expr();
-    var forCondition = tokenStream.peek(0).type() == HclTokenType.IDENTIFIER
+    var forCondition = tokenStream.la(0) == HclTokenType.IDENTIFIER
         ? forCond()
         : null;
     var rightToken = tokenStream.eat(HclTokenType.RIGHT_SQUARE);
@@ -1175,10 +1321,10 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
     var leftToken = tokenStream.eat(HclTokenType.LEFT_BRACE);
     var intro = forIntro();
     var keyExpression = expr();
-    var fatArrowToken = tokenStream.eat(HclTokenType.FAT_ARROW);
+    var fatArrowToken = tokenStream.interior(tokenStream.eat(HclTokenType.FAT_ARROW));
     var valueExpression = expr();
-    var ellipsisToken = tokenStream.tryEat(HclTokenType.ELLIPSIS);
-    var forCondition = tokenStream.peek(0).type() == HclTokenType.IDENTIFIER
+    var ellipsisToken = tokenStream.interior(tokenStream.tryEat(HclTokenType.ELLIPSIS));
+    var forCondition = tokenStream.la(0) == HclTokenType.IDENTIFIER
         ? forCond()
         : null;
     var rightToken = tokenStream.eat(HclTokenType.RIGHT_BRACE);
@@ -1213,8 +1359,8 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
     HclToken commaToken = null;
     HclIdentifierNode secondIdentifier = null;
 
-    if (tokenStream.peek(0).type() == HclTokenType.COMMA) {
-      commaToken = tokenStream.eat(HclTokenType.COMMA);
+    if (tokenStream.la(0) == HclTokenType.COMMA) {
+      commaToken = tokenStream.interior(tokenStream.eat(HclTokenType.COMMA));
       secondIdentifier = identifier();
     }
 
@@ -1271,7 +1417,7 @@ public abstract class HclDefaultParserBase<T> implements HclParser<T> {
    * Skip zero or more newline tokens if present.
    */
   protected void skipNewlines() {
-    while (tokenStream.peek(0).type() == HclTokenType.NEW_LINE) {
+    while (tokenStream.la(0) == HclTokenType.NEW_LINE) {
       tokenStream.eat(HclTokenType.NEW_LINE);
     }
   }
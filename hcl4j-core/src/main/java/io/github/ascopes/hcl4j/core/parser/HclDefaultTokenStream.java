@@ -18,12 +18,10 @@ package io.github.ascopes.hcl4j.core.parser;
 import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
 import io.github.ascopes.hcl4j.core.ex.HclUnexpectedTokenException;
 import io.github.ascopes.hcl4j.core.inputs.HclLocation;
-import io.github.ascopes.hcl4j.core.intern.Indexed;
 import io.github.ascopes.hcl4j.core.lexer.HclLexer;
 import io.github.ascopes.hcl4j.core.tokens.HclToken;
 import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
 import java.util.EnumSet;
-import java.util.LinkedList;
 
 /**
  * A simple wrapper around a lexer that provides useful stream-oriented operations for parsers to
@@ -37,10 +35,20 @@ import java.util.LinkedList;
  */
 public final class HclDefaultTokenStream implements HclTokenStream {
 
+  private static final int INITIAL_WINDOW_SIZE = 8;
+
   private final HclLexer lexer;
-  private final LinkedList<HclToken> tokens;
   private final EnumSet<HclTokenType> skipMask;
 
+  // Ring buffer holding the look-ahead window of tokens that have been lexed but not yet eaten.
+  // Ignored tokens are dropped as they are lexed, so they never occupy space in the window. The
+  // token types are held in a parallel array so that they can be checked without dereferencing
+  // each token.
+  private HclToken[] window;
+  private HclTokenType[] windowTypes;
+  private int head;
+  private int size;
+
   /**
    * Initialize this stream.
    *
@@ -48,8 +56,11 @@ public final class HclDefaultTokenStream implements HclTokenStream {
    */
   public HclDefaultTokenStream(HclLexer lexer) {
     this.lexer = lexer;
-    tokens = new LinkedList<>();
     skipMask = EnumSet.noneOf(HclTokenType.class);
+    window = new HclToken[INITIAL_WINDOW_SIZE];
+    windowTypes = new HclTokenType[INITIAL_WINDOW_SIZE];
+    head = 0;
+    size = 0;
   }
 
   @Override
@@ -64,6 +75,26 @@ public final class HclDefaultTokenStream implements HclTokenStream {
     }
 
     skipMask.add(tokenType);
+
+    // Drop any tokens of this type that have already been buffered.
+    var oldSize = size;
+    size = 0;
+
+    for (var i = 0; i < oldSize; ++i) {
+      var slot = (head + i) & (window.length - 1);
+      if (windowTypes[slot] != tokenType) {
+        var newSlot = (head + size++) & (window.length - 1);
+        window[newSlot] = window[slot];
+        windowTypes[newSlot] = windowTypes[slot];
+      }
+    }
+
+    // Clear the slots that were left behind, so that the tokens in them can be collected.
+    for (var i = size; i < oldSize; ++i) {
+      var slot = (head + i) & (window.length - 1);
+      window[slot] = null;
+      windowTypes[slot] = null;
+    }
   }
 
   @Override
@@ -71,25 +102,33 @@ public final class HclDefaultTokenStream implements HclTokenStream {
     return peek(0).start();
   }
 
+  @Override
+  public HclTokenType la(int offset) throws HclProcessingException {
+    // Find the slot first, as filling it may replace the array.
+    var slot = slotOf(offset);
+    return windowTypes[slot];
+  }
+
   @Override
   public HclToken peek(int offset) throws HclProcessingException {
-    return retrieveToken(offset).object();
+    var slot = slotOf(offset);
+    return window[slot];
   }
 
   @Override
   public HclToken eat(HclTokenType type, HclTokenType... types) throws HclProcessingException {
-    var indexedToken = retrieveToken(0);
-    var index = indexedToken.index();
-    var token = indexedToken.object();
+    var slot = slotOf(0);
+    var token = window[slot];
+    var tokenType = windowTypes[slot];
 
-    if (token.type() == type) {
-      removeCachedTokensUntilIndex(index + 1);
+    if (tokenType == type) {
+      advance();
       return token;
     }
 
     for (var anotherType : types) {
-      if (token.type() == anotherType) {
-        removeCachedTokensUntilIndex(index + 1);
+      if (tokenType == anotherType) {
+        advance();
         return token;
       }
     }
@@ -102,48 +141,53 @@ public final class HclDefaultTokenStream implements HclTokenStream {
     );
   }
 
-  private Indexed<HclToken> retrieveToken(int offset) {
-    var currentOffset = 0;
-    var index = 0;
-
-    for (HclToken next : tokens) {
-      if (skipMask.contains(next.type())) {
-        ++index;
-        continue;
-      }
+  private void advance() {
+    window[head] = null;
+    head = (head + 1) & (window.length - 1);
+    --size;
+  }
 
-      if (currentOffset == offset || next.type() == HclTokenType.EOF) {
-        return new Indexed<>(index, next);
+  private int slotOf(int offset) {
+    while (size <= offset) {
+      if (size > 0 && windowTypes[(head + size - 1) & (window.length - 1)] == HclTokenType.EOF) {
+        // Nothing exists past the EOF, so keep returning it.
+        return (head + size - 1) & (window.length - 1);
       }
 
-      ++currentOffset;
-      ++index;
+      fill();
     }
 
-    while (true) {
-      var next = lexer.nextToken();
-      tokens.add(next);
+    return (head + offset) & (window.length - 1);
+  }
 
-      if (skipMask.contains(next.type())) {
-        ++index;
-        continue;
-      }
+  private void fill() {
+    HclToken next;
 
-      if (currentOffset == offset || next.type() == HclTokenType.EOF) {
-        return new Indexed<>(index, next);
-      }
+    do {
+      next = lexer.nextToken();
+    } while (skipMask.contains(next.type()));
 
-      ++currentOffset;
-      ++index;
+    if (size == window.length) {
+      grow();
     }
+
+    var slot = (head + size++) & (window.length - 1);
+    window[slot] = next;
+    windowTypes[slot] = next.type();
   }
 
-  private void removeCachedTokensUntilIndex(int index) {
-    var currentIndex = 0;
+  private void grow() {
+    var newWindow = new HclToken[window.length * 2];
+    var newWindowTypes = new HclTokenType[window.length * 2];
 
-    while (!tokens.isEmpty() && currentIndex < index) {
-      tokens.removeFirst();
-      ++currentIndex;
+    for (var i = 0; i < size; ++i) {
+      var slot = (head + i) & (window.length - 1);
+      newWindow[i] = window[slot];
+      newWindowTypes[i] = windowTypes[slot];
     }
+
+    window = newWindow;
+    windowTypes = newWindowTypes;
+    head = 0;
   }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.parser;
+
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
+import io.github.ascopes.hcl4j.core.inputs.HclStringCharSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least-recently-used cache of parsed stand-alone expressions, keyed by their source text.
+ *
+ * <p>AST nodes are immutable, so the same parsed expression can be shared between all callers.
+ * Expressions that fail to parse are not cached.
+ *
+ * <p>This class is thread-safe. The cache is only locked while it is being read or updated, not
+ * while parsing, so two threads that miss on the same expression at the same time may both parse
+ * it. In this case, the first result to be stored is returned to both threads.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclExpressionCache {
+
+  private final String name;
+  private final Map<String, HclExpressionNode> entries;
+
+  /**
+   * Initialize the cache.
+   *
+   * @param name    the name to report in syntax errors for expressions that fail to parse.
+   * @param maxSize the maximum number of expressions to hold before evicting the least recently
+   *                used.
+   * @throws IllegalArgumentException if the maximum size is less than 1.
+   */
+  public HclExpressionCache(String name, int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("Maximum size must be at least 1");
+    }
+
+    this.name = name;
+    entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, HclExpressionNode> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * Get the parsed expression for the given source, parsing it if it is not already cached.
+   *
+   * @param source the source of the expression.
+   * @return the parsed expression.
+   * @throws HclProcessingException if the expression cannot be parsed.
+   */
+  public HclExpressionNode parse(CharSequence source) throws HclProcessingException {
+    var key = source.toString();
+
+    synchronized (entries) {
+      var cached = entries.get(key);
+      if (cached != null) {
+        return cached;
+      }
+    }
+
+    HclExpressionNode expression;
+
+    try (var charSource = new HclStringCharSource(name, key)) {
+      expression = new HclExpressionParser(charSource).parseFile();
+    }
+
+    synchronized (entries) {
+      var existing = entries.putIfAbsent(key, expression);
+      return existing == null ? expression : existing;
+    }
+  }
+
+  /**
+   * Get the number of expressions currently cached.
+   *
+   * @return the number of expressions.
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Remove all expressions from the cache.
+   */
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+}
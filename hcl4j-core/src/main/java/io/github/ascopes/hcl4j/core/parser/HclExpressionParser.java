@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.parser;
+
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
+import io.github.ascopes.hcl4j.core.inputs.HclCharSource;
+import io.github.ascopes.hcl4j.core.lexer.HclDefaultLexer;
+import io.github.ascopes.hcl4j.core.lexer.strategy.HclConfigLexerStrategy;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+
+/**
+ * Parser for inputs that consist of a single stand-alone expression, such as
+ * {@code var.env == "prod" && length(x) > 3}.
+ *
+ * <p>Leading and trailing new lines are permitted, but anything else after the expression is
+ * treated as an error.
+ *
+ * <p>See {@link HclExpressionCache} for a way to parse the same expressions repeatedly without
+ * parsing them more than once.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclExpressionParser extends HclDefaultParserBase<HclExpressionNode> {
+
+  /**
+   * Initialize the parser.
+   *
+   * @param charSource the character source to use for input.
+   */
+  public HclExpressionParser(HclCharSource charSource) {
+    super(initializeTokenStream(charSource));
+  }
+
+  @Override
+  public HclExpressionNode parseFile() throws HclProcessingException {
+    skipNewlines();
+    var expression = expr();
+    skipNewlines();
+    tokenStream.eat(HclTokenType.EOF);
+    return expression;
+  }
+
+  private static HclTokenStream initializeTokenStream(HclCharSource charSource) {
+    var lexer = new HclDefaultLexer(charSource);
+    var defaultMode = new HclConfigLexerStrategy(lexer);
+    lexer.pushStrategy(defaultMode);
+    return new HclDefaultTokenStream(lexer);
+  }
+}
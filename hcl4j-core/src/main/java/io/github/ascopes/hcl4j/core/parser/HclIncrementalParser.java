@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.parser;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclBlockNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyItemNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
+import io.github.ascopes.hcl4j.core.ex.HclSyntaxException;
+import io.github.ascopes.hcl4j.core.inputs.HclCharSource;
+import io.github.ascopes.hcl4j.core.inputs.HclLocation;
+import io.github.ascopes.hcl4j.core.inputs.HclStringCharSource;
+import io.github.ascopes.hcl4j.core.inputs.HclTextEdit;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.lexer.HclDefaultLexer;
+import io.github.ascopes.hcl4j.core.lexer.strategy.HclConfigLexerStrategy;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.util.ArrayList;
+
+/**
+ * Parser for config files that updates a previously parsed file to account for an edit, reusing
+ * as much of the previous AST as possible.
+ *
+ * <p>Only the smallest attribute or block that encloses the edit is parsed again. The new node is
+ * spliced into the previous AST in place of the old one, and any nodes after the edit are moved to
+ * account for the change in length of the text. Nodes before the edit are reused as-is. If the
+ * edit changes the structure of the file such that the enclosing item cannot be parsed on its own
+ * (for example, if it now spans more lines than it did before), then the next enclosing item is
+ * tried instead, falling back to parsing the entire file.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclIncrementalParser {
+
+  private final String fileName;
+
+  /**
+   * Initialize the parser.
+   *
+   * @param fileName the name of the file being parsed.
+   */
+  public HclIncrementalParser(String fileName) {
+    this.fileName = fileName;
+  }
+
+  /**
+   * Parse the file again after an edit has been made.
+   *
+   * @param previous  the AST produced by parsing {@code oldSource}.
+   * @param oldSource the source before the edit.
+   * @param edit      the edit to apply to {@code oldSource}.
+   * @return the AST for the edited source.
+   * @throws HclProcessingException if the edited source cannot be parsed.
+   */
+  public HclBodyNode reparse(
+      HclBodyNode previous,
+      CharSequence oldSource,
+      HclTextEdit edit
+  ) throws HclProcessingException {
+    var newSource = edit.apply(oldSource);
+
+    // Locations are only needed relative to the nearest known location before the edit, so
+    // avoid scanning the entire file from the start.
+    var anchor = previous.start();
+    for (var item : previous.bodyItems()) {
+      if (item.start().position() > edit.offset()) {
+        break;
+      }
+      anchor = item.start();
+    }
+
+    var shifter = new HclLocationShifter(
+        advance(anchor, oldSource, edit.removedEnd()),
+        advance(anchor, newSource, edit.insertedEnd())
+    );
+
+    var body = new Reparse(newSource, edit, shifter).body(previous);
+
+    if (body != null) {
+      return body;
+    }
+
+    try (var charSource = new HclStringCharSource(fileName, newSource)) {
+      return new HclConfigFileParser(charSource).parseFile();
+    }
+  }
+
+  private static HclLocation advance(HclLocation from, CharSequence text, int untilPosition) {
+    var line = from.line();
+    var column = from.column();
+
+    for (var i = (int) from.position(); i < untilPosition; ++i) {
+      if (text.charAt(i) == '\n') {
+        ++line;
+        column = 1;
+      } else {
+        ++column;
+      }
+    }
+
+    return new HclLocation(untilPosition, line, column);
+  }
+
+  private final class Reparse {
+
+    private final CharSequence newSource;
+    private final HclTextEdit edit;
+    private final HclLocationShifter shifter;
+
+    private Reparse(CharSequence newSource, HclTextEdit edit, HclLocationShifter shifter) {
+      this.newSource = newSource;
+      this.edit = edit;
+      this.shifter = shifter;
+    }
+
+    @Nullable
+    private HclBodyNode body(HclBodyNode body) {
+      var items = body.bodyItems();
+      var index = 0;
+
+      while (index < items.size() && !encloses(items.get(index))) {
+        ++index;
+      }
+
+      if (index == items.size()) {
+        // The edit is between items, so the body structure itself has changed.
+        return null;
+      }
+
+      var item = item(items.get(index));
+
+      if (item == null) {
+        return null;
+      }
+
+      var newItems = new ArrayList<HclBodyItemNode>(items.size());
+      newItems.addAll(items.subList(0, index));
+      newItems.add(item);
+
+      for (var i = index + 1; i < items.size(); ++i) {
+        newItems.add(shifter.shift(items.get(i)));
+      }
+
+      // A body that starts at its first item moves with that item if the edit touches its start.
+      var start = index == 0 && body.start().equals(items.get(0).start())
+          ? item.start()
+          : shifter.shift(body.start());
+
+      return new HclBodyNode(newItems, start, shifter.shift(body.end()));
+    }
+
+    @Nullable
+    private HclBodyItemNode item(HclBodyItemNode item) {
+      if (item instanceof HclBlockNode block
+          && block.leftToken().end().position() <= edit.offset()
+          && edit.removedEnd() <= block.rightToken().start().position()) {
+        var body = body(block.body());
+
+        if (body != null) {
+          return new HclBlockNode(
+              block.identifier(),
+              block.additionalIdentifiers(),
+              block.leftToken(),
+              body,
+              shifter.shift(block.rightToken())
+          );
+        }
+      }
+
+      return parseItem(item);
+    }
+
+    @Nullable
+    private HclBodyItemNode parseItem(HclBodyItemNode item) {
+      var expectedEnd = shifter.shift(item.end());
+
+      try (var charSource = new HclStringCharSource(fileName, newSource, item.start())) {
+        var parser = new ItemParser(charSource);
+        var newItem = parser.parseFile();
+
+        // If the item no longer ends in the same place, the edit has affected the surrounding
+        // structure as well. Blocks consume their trailing new line, attributes do not.
+        var terminated = newItem instanceof HclBlockNode || parser.atEndOfAttribute();
+        return terminated && newItem.end().equals(expectedEnd)
+            ? newItem
+            : null;
+      } catch (HclSyntaxException ex) {
+        return null;
+      }
+    }
+
+    private boolean encloses(HclBodyItemNode item) {
+      return item.start().position() <= edit.offset()
+          && edit.removedEnd() <= item.end().position();
+    }
+  }
+
+  private static final class ItemParser extends HclDefaultParserBase<HclBodyItemNode> {
+
+    private ItemParser(HclCharSource charSource) {
+      super(initializeTokenStream(charSource));
+    }
+
+    @Override
+    public HclBodyItemNode parseFile() throws HclProcessingException {
+      return bodyItem();
+    }
+
+    private boolean atEndOfAttribute() {
+      var nextType = tokenStream.la(0);
+      return nextType == HclTokenType.NEW_LINE
+          || nextType == HclTokenType.RIGHT_BRACE
+          || nextType == HclTokenType.EOF;
+    }
+
+    private static HclTokenStream initializeTokenStream(HclCharSource charSource) {
+      var lexer = new HclDefaultLexer(charSource);
+      var defaultMode = new HclConfigLexerStrategy(lexer);
+      lexer.pushStrategy(defaultMode);
+      return new HclDefaultTokenStream(lexer);
+    }
+  }
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.parser;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclAttributeNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBlockNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyItemNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectElementNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclObjectNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclTupleElementNode;
+import io.github.ascopes.hcl4j.core.ast.collect.HclTupleNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclUnaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclIdentifierLikeNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclIdentifierNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclStringLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclBooleanLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclIntegerLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclNullLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclRealLiteralNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclQuotedTemplateNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateContentNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateLiteralNode;
+import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
+import io.github.ascopes.hcl4j.core.inputs.HclCharSource;
+import io.github.ascopes.hcl4j.core.inputs.HclLocation;
+import io.github.ascopes.hcl4j.core.inputs.HclStringCharSource;
+import io.github.ascopes.hcl4j.core.lexer.HclDefaultLexer;
+import io.github.ascopes.hcl4j.core.lexer.strategy.HclJsonLexerStrategy;
+import io.github.ascopes.hcl4j.core.tokens.HclDefaultToken;
+import io.github.ascopes.hcl4j.core.tokens.HclToken;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parser for HCL config files written in the JSON syntax, such as {@code *.tf.json} files.
+ *
+ * <p>This produces the same AST as the {@link HclConfigFileParser native syntax parser}, so
+ * consumers do not need to care which syntax a file was written in:
+ *
+ * <ul>
+ *   <li>The root object is the file body.</li>
+ *   <li>Properties of a body are attributes, unless the property name is a known block type,
+ *      in which case the value is an object nesting one level per block label, with the block
+ *      body innermost. Arrays of objects at any of these levels produce one block per
+ *      element.</li>
+ *   <li>Properties named {@code "//"} in a body are comments, and are discarded.</li>
+ *   <li>Objects, arrays, numbers, booleans and {@code null} in attribute values become the
+ *      equivalent native expressions.</li>
+ *   <li>Strings in attribute values and object keys are quoted templates, so may contain
+ *      interpolations and directives.</li>
+ * </ul>
+ *
+ * <p>The JSON syntax cannot distinguish blocks from attributes on its own, so the block types that
+ * may appear, and the number of labels each one has, must be provided up front. These apply at
+ * every level of nesting.
+ *
+ * <p>Locations within strings that contain escape sequences and template sequences are
+ * approximate, as the template is parsed from the unescaped content.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclJsonConfigFileParser implements HclParser<HclBodyNode> {
+
+  private static final HclLocation ORIGIN = new HclLocation(0, 1, 1);
+  private static final String COMMENT_PROPERTY = "//";
+
+  private final HclTokenStream tokenStream;
+  private final Map<String, Integer> blockTypes;
+
+  /**
+   * Initialize the parser, treating every property as an attribute.
+   *
+   * @param charSource the character source to use for input.
+   */
+  public HclJsonConfigFileParser(HclCharSource charSource) {
+    this(charSource, Map.of());
+  }
+
+  /**
+   * Initialize the parser.
+   *
+   * @param charSource the character source to use for input.
+   * @param blockTypes the names of the block types that may appear, mapped to the number of labels
+   *                   each block of that type has.
+   */
+  public HclJsonConfigFileParser(HclCharSource charSource, Map<String, Integer> blockTypes) {
+    var lexer = new HclDefaultLexer(charSource);
+    lexer.pushStrategy(new HclJsonLexerStrategy(lexer));
+    tokenStream = new HclDefaultTokenStream(lexer);
+    tokenStream.ignoreToken(HclTokenType.WHITESPACE);
+    tokenStream.ignoreToken(HclTokenType.NEW_LINE);
+    this.blockTypes = Map.copyOf(blockTypes);
+  }
+
+  @Override
+  public HclBodyNode parseFile() throws HclProcessingException {
+    tokenStream.eat(HclTokenType.LEFT_BRACE);
+    var body = body();
+    tokenStream.eat(HclTokenType.RIGHT_BRACE);
+    tokenStream.eat(HclTokenType.EOF);
+    return body;
+  }
+
+  /**
+   * Parse the properties of an object as a body, assuming the left brace has been consumed.
+   *
+   * <pre><code>
+   *   body = ( property , ( COMMA , property )* )? ;
+   *   property = string , COLON , ( value | blocks ) ;
+   * </code></pre>
+   *
+   * @return the node.
+   */
+  private HclBodyNode body() {
+    var start = tokenStream.location();
+    var items = new ArrayList<HclBodyItemNode>();
+
+    if (tokenStream.la(0) != HclTokenType.RIGHT_BRACE) {
+      do {
+        property(items);
+      } while (tokenStream.tryEat(HclTokenType.COMMA) != null);
+    }
+
+    var end = tokenStream.location();
+    return new HclBodyNode(List.copyOf(items), start, end);
+  }
+
+  private void property(List<HclBodyItemNode> items) {
+    var name = string();
+    var colonToken = tokenStream.eat(HclTokenType.COLON);
+    var nameValue = name.value().toString();
+
+    if (nameValue.equals(COMMENT_PROPERTY)) {
+      value();
+      return;
+    }
+
+    // Identifiers in the native syntax have no quotes, so only the content is kept.
+    var contentToken = name.contentToken();
+    var identifier = new HclIdentifierNode(new HclDefaultToken(
+        HclTokenType.IDENTIFIER,
+        nameValue,
+        contentToken == null ? name.closingQuoteToken().start() : contentToken.start(),
+        contentToken == null ? name.closingQuoteToken().start() : contentToken.end()
+    ));
+
+    var labelCount = blockTypes.get(nameValue);
+
+    if (labelCount == null) {
+      items.add(new HclAttributeNode(identifier, colonToken, value()));
+    } else {
+      blocks(identifier, new ArrayList<>(), labelCount, items);
+    }
+  }
+
+  /**
+   * Parse the value of a block property.
+   *
+   * <pre><code>
+   *   blocks = LEFT_SQUARE , ( blocks , ( COMMA , blocks )* )? , RIGHT_SQUARE
+   *          | LEFT_BRACE , body , RIGHT_BRACE
+   *          | LEFT_BRACE , ( string , COLON , blocks , ( COMMA , string , COLON , blocks )* )?
+   *          , RIGHT_BRACE
+   *          ;
+   * </code></pre>
+   *
+   * <p>The second form is used once all labels have been consumed, and the third form before
+   * then.
+   */
+  private void blocks(
+      HclIdentifierNode type,
+      List<HclIdentifierLikeNode> labels,
+      int remainingLabels,
+      List<HclBodyItemNode> items
+  ) {
+    if (tokenStream.tryEat(HclTokenType.LEFT_SQUARE) != null) {
+      if (tokenStream.la(0) != HclTokenType.RIGHT_SQUARE) {
+        do {
+          blocks(type, labels, remainingLabels, items);
+        } while (tokenStream.tryEat(HclTokenType.COMMA) != null);
+      }
+
+      tokenStream.eat(HclTokenType.RIGHT_SQUARE);
+      return;
+    }
+
+    var leftToken = tokenStream.eat(HclTokenType.LEFT_BRACE);
+
+    if (remainingLabels == 0) {
+      var body = body();
+      var rightToken = tokenStream.eat(HclTokenType.RIGHT_BRACE);
+      items.add(new HclBlockNode(type, List.copyOf(labels), leftToken, body, rightToken));
+      return;
+    }
+
+    if (tokenStream.la(0) != HclTokenType.RIGHT_BRACE) {
+      do {
+        labels.add(string());
+        tokenStream.eat(HclTokenType.COLON);
+        blocks(type, labels, remainingLabels - 1, items);
+        labels.remove(labels.size() - 1);
+      } while (tokenStream.tryEat(HclTokenType.COMMA) != null);
+    }
+
+    tokenStream.eat(HclTokenType.RIGHT_BRACE);
+  }
+
+  /**
+   * Parse an attribute value.
+   *
+   * <pre><code>
+   *   value = object | array | template | MINUS? number | IDENTIFIER ;
+   * </code></pre>
+   *
+   * @return the node.
+   */
+  private HclExpressionNode value() {
+    return switch (tokenStream.la(0)) {
+      case LEFT_BRACE -> object();
+      case LEFT_SQUARE -> array();
+      case MINUS -> new HclUnaryOperationNode(tokenStream.eat(HclTokenType.MINUS), number());
+      case INTEGER, REAL -> number();
+      case IDENTIFIER -> {
+        var token = tokenStream.eatKeyword("true", "false", "null");
+        yield token.rawEquals("null")
+            ? new HclNullLiteralNode(token)
+            : new HclBooleanLiteralNode(token, token.rawEquals("true"));
+      }
+      default -> template();
+    };
+  }
+
+  private HclObjectNode object() {
+    var leftToken = tokenStream.eat(HclTokenType.LEFT_BRACE);
+    var elements = new ArrayList<HclObjectElementNode>();
+    HclToken commaToken = null;
+
+    if (tokenStream.la(0) != HclTokenType.RIGHT_BRACE) {
+      do {
+        var key = template();
+        var colonToken = tokenStream.eat(HclTokenType.COLON);
+        elements.add(new HclObjectElementNode(commaToken, key, false, colonToken, value()));
+      } while ((commaToken = tokenStream.tryEat(HclTokenType.COMMA)) != null);
+    }
+
+    var rightToken = tokenStream.eat(HclTokenType.RIGHT_BRACE);
+    return new HclObjectNode(leftToken, List.copyOf(elements), null, rightToken);
+  }
+
+  private HclTupleNode array() {
+    var leftToken = tokenStream.eat(HclTokenType.LEFT_SQUARE);
+    var elements = new ArrayList<HclTupleElementNode>();
+    HclToken commaToken = null;
+
+    if (tokenStream.la(0) != HclTokenType.RIGHT_SQUARE) {
+      do {
+        elements.add(new HclTupleElementNode(commaToken, value()));
+      } while ((commaToken = tokenStream.tryEat(HclTokenType.COMMA)) != null);
+    }
+
+    var rightToken = tokenStream.eat(HclTokenType.RIGHT_SQUARE);
+    return new HclTupleNode(leftToken, List.copyOf(elements), null, rightToken);
+  }
+
+  private HclExpressionNode number() {
+    var token = tokenStream.eat(HclTokenType.INTEGER, HclTokenType.REAL);
+    return token.type() == HclTokenType.INTEGER
+        ? new HclIntegerLiteralNode(token, new BigInteger(token.raw().toString()))
+        : new HclRealLiteralNode(token, new BigDecimal(token.raw().toString()));
+  }
+
+  private HclStringLiteralNode string() {
+    var openingQuoteToken = tokenStream.eat(HclTokenType.OPENING_QUOTE);
+    var contentToken = tokenStream.tryEat(HclTokenType.RAW_TEXT);
+    var closingQuoteToken = tokenStream.eat(HclTokenType.CLOSING_QUOTE);
+    return new HclStringLiteralNode(openingQuoteToken, contentToken, closingQuoteToken);
+  }
+
+  private HclQuotedTemplateNode template() {
+    var string = string();
+    var contentToken = string.contentToken();
+    HclTemplateContentNode template;
+
+    if (contentToken == null) {
+      var location = string.closingQuoteToken().start();
+      template = new HclTemplateContentNode(List.of(), location, location);
+    } else if (isTemplate(contentToken.content())) {
+      template = parseTemplate(contentToken);
+    } else {
+      template = new HclTemplateContentNode(
+          List.of(new HclTemplateLiteralNode(contentToken)),
+          contentToken.start(),
+          contentToken.end()
+      );
+    }
+
+    return new HclQuotedTemplateNode(
+        string.openingQuoteToken(),
+        template,
+        string.closingQuoteToken()
+    );
+  }
+
+  private HclTemplateContentNode parseTemplate(HclToken contentToken) {
+    try (var charSource = new HclStringCharSource(tokenStream.name(), contentToken.content())) {
+      var template = new HclTemplateFileParser(charSource).parseFile();
+      return new HclLocationShifter(ORIGIN, contentToken.start()).shift(template);
+    }
+  }
+
+  private static boolean isTemplate(CharSequence content) {
+    for (var i = 0; i + 1 < content.length(); ++i) {
+      var next = content.charAt(i);
+      if ((next == '$' || next == '%') && content.charAt(i + 1) == '{') {
+        return true;
+      }
+    }
+
+    return false;
+  }
+}
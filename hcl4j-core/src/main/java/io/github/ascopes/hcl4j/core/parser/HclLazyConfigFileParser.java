@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.parser;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyItemNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
+import io.github.ascopes.hcl4j.core.inputs.HclCharSource;
+import io.github.ascopes.hcl4j.core.lexer.HclDefaultLexer;
+import io.github.ascopes.hcl4j.core.lexer.strategy.HclConfigLexerStrategy;
+import io.github.ascopes.hcl4j.core.tokens.HclToken;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Parser for HCL config files that defers parsing of body items until they are accessed.
+ *
+ * <p>The input is tokenized up front, but each body only records the token range of each of its
+ * items by matching brackets. An item is only parsed when it is first retrieved from
+ * {@link HclBodyNode#bodyItems()}, and the body of a block is itself lazy, so reading the header
+ * of every top-level block costs little more than tokenizing the file.
+ *
+ * <p>Since the parsing of each item is deferred, most syntax errors are only raised when the
+ * item containing them is first accessed. Structural errors such as unbalanced brackets are still
+ * raised by {@link #parseFile()}.
+ *
+ * <p>Items are parsed at most once per list in the single-threaded case. Bodies can be read
+ * from several threads, in which case an item may occasionally be parsed more than once, but the
+ * results will always be equivalent.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclLazyConfigFileParser extends HclDefaultParserBase<HclBodyNode> {
+
+  private final HclArrayTokenStream arrayTokenStream;
+
+  /**
+   * Initialize the parser.
+   *
+   * @param charSource the character source to use for input.
+   * @throws HclProcessingException if the input cannot be tokenized.
+   */
+  public HclLazyConfigFileParser(HclCharSource charSource) throws HclProcessingException {
+    this(initializeTokenStream(charSource));
+  }
+
+  private HclLazyConfigFileParser(HclArrayTokenStream tokenStream) {
+    super(tokenStream);
+    arrayTokenStream = tokenStream;
+  }
+
+  @Override
+  public HclBodyNode parseFile() throws HclProcessingException {
+    var body = body();
+    tokenStream.eat(HclTokenType.EOF);
+    return body;
+  }
+
+  /**
+   * Parse a body lazily, recording the token range of each item without parsing it.
+   *
+   * @return the node.
+   */
+  @Override
+  protected HclBodyNode body() {
+    var start = tokenStream.location();
+    var bounds = new int[16];
+    var count = 0;
+
+    while (true) {
+      skipNewlines();
+
+      if (tokenStream.la(0) != HclTokenType.IDENTIFIER) {
+        break;
+      }
+
+      if (count * 2 == bounds.length) {
+        bounds = Arrays.copyOf(bounds, bounds.length * 2);
+      }
+
+      bounds[count * 2] = arrayTokenStream.index();
+      HclTokenRanges.skipBodyItem(tokenStream);
+      bounds[count * 2 + 1] = arrayTokenStream.index();
+      ++count;
+    }
+
+    var end = tokenStream.location();
+    var items = new LazyBodyItemList(
+        tokenStream.name(),
+        arrayTokenStream.tokens(),
+        Arrays.copyOf(bounds, count * 2)
+    );
+
+    return new HclBodyNode(items, start, end);
+  }
+
+  private static HclArrayTokenStream initializeTokenStream(HclCharSource charSource) {
+    var lexer = new HclDefaultLexer(charSource);
+    var defaultMode = new HclConfigLexerStrategy(lexer);
+    lexer.pushStrategy(defaultMode);
+    var tokens = HclArrayTokenStream.readAll(lexer, IGNORED_TOKEN_TYPES);
+    return new HclArrayTokenStream(charSource.name(), tokens, 0, tokens.length);
+  }
+
+  /**
+   * List of body items that are parsed from their recorded token ranges on first access.
+   */
+  private static final class LazyBodyItemList
+      extends AbstractList<HclBodyItemNode>
+      implements RandomAccess {
+
+    private final String name;
+    private final HclToken[] tokens;
+    private final int[] bounds;
+    private final HclBodyItemNode[] items;
+
+    private LazyBodyItemList(String name, HclToken[] tokens, int[] bounds) {
+      this.name = name;
+      this.tokens = tokens;
+      this.bounds = bounds;
+      items = new HclBodyItemNode[bounds.length / 2];
+    }
+
+    @Override
+    public HclBodyItemNode get(int index) {
+      var item = items[index];
+
+      if (item == null) {
+        var start = bounds[index * 2];
+        var end = bounds[index * 2 + 1];
+        var itemTokenStream = new HclArrayTokenStream(name, tokens, start, end);
+        var parser = new HclLazyConfigFileParser(itemTokenStream);
+        item = parser.bodyItem();
+        // Ensure nothing was left over in the range.
+        itemTokenStream.eat(HclTokenType.EOF);
+        items[index] = item;
+      }
+
+      return item;
+    }
+
+    @Override
+    public int size() {
+      return items.length;
+    }
+  }
+}
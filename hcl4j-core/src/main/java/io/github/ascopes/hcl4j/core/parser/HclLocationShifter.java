@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.parser;
+
+import io.github.ascopes.hcl4j.core.inputs.HclLocatable;
+import io.github.ascopes.hcl4j.core.inputs.HclLocation;
+import io.github.ascopes.hcl4j.core.intern.ImmutableArrayList;
+import io.github.ascopes.hcl4j.core.intern.RecordShape;
+import java.util.List;
+
+/**
+ * Moves the locations of AST nodes and tokens that follow an edit to account for the change in
+ * length of the text before them.
+ *
+ * <p>AST nodes and tokens are immutable records, so moving them involves rebuilding them. This is
+ * done generically by reading each record component and passing it back into the canonical
+ * constructor, which avoids every node type needing to know how to move itself. Any subtree that
+ * lies entirely before the edit is returned as-is without being rebuilt.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+final class HclLocationShifter {
+
+  private final HclLocation oldEditEnd;
+  private final HclLocation newEditEnd;
+
+  /**
+   * Initialize the shifter.
+   *
+   * @param oldEditEnd the location of the end of the removed text in the original source.
+   * @param newEditEnd the location of the end of the inserted text in the edited source.
+   */
+  HclLocationShifter(HclLocation oldEditEnd, HclLocation newEditEnd) {
+    this.oldEditEnd = oldEditEnd;
+    this.newEditEnd = newEditEnd;
+  }
+
+  /**
+   * Shift a location, if it lies after the edit.
+   *
+   * @param location the location in the original source.
+   * @return the location in the edited source.
+   */
+  HclLocation shift(HclLocation location) {
+    if (location.position() < oldEditEnd.position()) {
+      return location;
+    }
+
+    var position = location.position() - oldEditEnd.position() + newEditEnd.position();
+
+    if (location.line() == oldEditEnd.line()) {
+      // Same line as the end of the edit, so the column moves too.
+      var column = location.column() - oldEditEnd.column() + newEditEnd.column();
+      return new HclLocation(position, newEditEnd.line(), column);
+    }
+
+    var line = location.line() - oldEditEnd.line() + newEditEnd.line();
+    return new HclLocation(position, line, location.column());
+  }
+
+  /**
+   * Shift all locations within an AST node or token.
+   *
+   * @param node the node or token to shift.
+   * @param <T>  the node or token type.
+   * @return the shifted node or token.
+   */
+  @SuppressWarnings("unchecked")
+  <T extends HclLocatable> T shift(T node) {
+    return (T) shiftValue(node);
+  }
+
+  private Object shiftValue(Object value) {
+    if (value instanceof HclLocation location) {
+      return shift(location);
+    }
+
+    if (value instanceof HclLocatable locatable
+        && locatable.end().position() < oldEditEnd.position()) {
+      // Entirely before the edit.
+      return value;
+    }
+
+    if (value instanceof Record record) {
+      var shape = RecordShape.of(record.getClass());
+      var components = shape.read(record);
+      var changed = false;
+
+      for (var i = 0; i < components.length; ++i) {
+        var component = components[i];
+        if (component != null) {
+          var shifted = shiftValue(component);
+          changed |= shifted != component;
+          components[i] = shifted;
+        }
+      }
+
+      return changed ? shape.create(components) : record;
+    }
+
+    if (value instanceof List<?> list) {
+      var shifted = new Object[list.size()];
+      var changed = false;
+
+      for (var i = 0; i < shifted.length; ++i) {
+        var item = list.get(i);
+        shifted[i] = shiftValue(item);
+        changed |= shifted[i] != item;
+      }
+
+      return changed ? new ImmutableArrayList<>(shifted) : list;
+    }
+
+    return value;
+  }
+}
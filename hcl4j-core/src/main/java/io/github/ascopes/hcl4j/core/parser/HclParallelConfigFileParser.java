@@ -0,0 +1,383 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.parser;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyItemNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
+import io.github.ascopes.hcl4j.core.inputs.HclCharSource;
+import io.github.ascopes.hcl4j.core.inputs.HclLocation;
+import io.github.ascopes.hcl4j.core.inputs.HclStringCharSource;
+import io.github.ascopes.hcl4j.core.lexer.HclDefaultLexer;
+import io.github.ascopes.hcl4j.core.lexer.strategy.HclConfigLexerStrategy;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Parser for HCL config files that splits a single file into chunks and parses the chunks in
+ * parallel.
+ *
+ * <p>The source is first scanned character by character to find the start of each line that is
+ * not nested within brackets, braces, parentheses, strings, heredocs or comments. These are the
+ * only places that a top-level body item can start, so the file can be split at any of them. Each
+ * chunk is then lexed and parsed on the given {@link ForkJoinPool}, and the resulting items are
+ * joined into a single {@link HclBodyNode}. Locations within the result are absolute positions
+ * within the entire source, as if the file had been parsed in one go.
+ *
+ * <p>Small inputs are parsed on the calling thread, since the overhead of splitting them would
+ * outweigh any benefit.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclParallelConfigFileParser implements HclParser<HclBodyNode> {
+
+  private static final int MIN_CHUNK_SIZE = 32 * 1024;
+  private static final int CHUNKS_PER_THREAD = 4;
+  private static final HclLocation INITIAL_LOCATION = new HclLocation(0, 1, 1);
+
+  private final String name;
+  private final CharSequence source;
+  private final ForkJoinPool pool;
+
+  /**
+   * Initialize the parser using the common {@link ForkJoinPool}.
+   *
+   * @param name   the name of the file.
+   * @param source the content of the file.
+   */
+  public HclParallelConfigFileParser(String name, CharSequence source) {
+    this(name, source, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Initialize the parser.
+   *
+   * @param name   the name of the file.
+   * @param source the content of the file.
+   * @param pool   the pool to parse chunks on.
+   */
+  public HclParallelConfigFileParser(String name, CharSequence source, ForkJoinPool pool) {
+    this.name = name;
+    this.source = source;
+    this.pool = pool;
+  }
+
+  @Override
+  public HclBodyNode parseFile() throws HclProcessingException {
+    var maxChunks = Math.min(
+        pool.getParallelism() * CHUNKS_PER_THREAD,
+        source.length() / MIN_CHUNK_SIZE
+    );
+
+    var chunkStarts = maxChunks > 1
+        ? findChunkStarts(source, source.length() / maxChunks)
+        : List.of(INITIAL_LOCATION);
+
+    if (chunkStarts.size() == 1) {
+      return toBody(List.of(parseChunk(INITIAL_LOCATION, source.length())));
+    }
+
+    var tasks = new ArrayList<ForkJoinTask<ChunkResult>>(chunkStarts.size());
+
+    for (var i = 0; i < chunkStarts.size(); ++i) {
+      var start = chunkStarts.get(i);
+      var end = i + 1 < chunkStarts.size()
+          ? chunkStarts.get(i + 1).position()
+          : source.length();
+
+      tasks.add(pool.submit(() -> parseChunk(start, end)));
+    }
+
+    var results = new ArrayList<ChunkResult>(tasks.size());
+
+    try {
+      for (var task : tasks) {
+        results.add(task.join());
+      }
+    } catch (RuntimeException | Error ex) {
+      // The file cannot be parsed, so do not spend any more time parsing the rest of it.
+      for (var task : tasks) {
+        task.cancel(false);
+      }
+      throw ex;
+    }
+
+    return toBody(results);
+  }
+
+  private ChunkResult parseChunk(HclLocation start, long end) {
+    try (var charSource = new HclStringCharSource(name, source, start)) {
+      return new ChunkParser(charSource, end).parseFile();
+    }
+  }
+
+  private HclBodyNode toBody(List<ChunkResult> results) {
+    var items = new ArrayList<HclBodyItemNode>();
+    var end = INITIAL_LOCATION;
+
+    for (var result : results) {
+      items.addAll(result.items());
+      end = result.end();
+
+      if (!result.complete()) {
+        // The body ended early, so anything after this point would not have been parsed by
+        // a sequential parser either.
+        break;
+      }
+    }
+
+    return new HclBodyNode(items, results.get(0).start(), end);
+  }
+
+  /**
+   * Find the locations to split the source at, such that each chunk is at least the given size
+   * (other than the last chunk) and starts at a line that is not nested within anything.
+   *
+   * @param source       the source to scan.
+   * @param minChunkSize the minimum size of each chunk.
+   * @return the start location of each chunk.
+   */
+  static List<HclLocation> findChunkStarts(CharSequence source, int minChunkSize) {
+    var starts = new ArrayList<HclLocation>();
+    starts.add(INITIAL_LOCATION);
+
+    // Each entry is one of the following, describing what we are currently nested within.
+    //   '{', '[', '(' - brackets in config or template expression context.
+    //   '$'           - a template interpolation or directive, closed by '}'.
+    //   '"'           - a quoted template.
+    //   'H'           - a heredoc template, closed by the identifier on heredocIds.
+    var nesting = new ArrayDeque<Character>();
+    var heredocIds = new ArrayDeque<String>();
+    String pendingHeredocId = null;
+
+    var length = source.length();
+    var line = 1L;
+    var nextSplit = (long) minChunkSize;
+    var i = 0;
+
+    while (i < length) {
+      var c = source.charAt(i);
+      var context = nesting.peek();
+
+      if (context != null && context == '"') {
+        if (c == '\\') {
+          i += 2;
+        } else if (c == '"') {
+          nesting.pop();
+          ++i;
+        } else if (isTemplateOpen(source, i)) {
+          nesting.push('$');
+          i += 2;
+        } else if (isEscapedTemplateOpen(source, i)) {
+          i += 3;
+        } else {
+          if (c == '\n') {
+            ++line;
+          }
+          ++i;
+        }
+        continue;
+      }
+
+      if (context != null && context == 'H') {
+        var id = heredocIds.peek();
+        if (source.length() > i + id.length()
+            && regionMatches(source, i, id)
+            && (source.charAt(i + id.length()) == '\n' || source.charAt(i + id.length()) == '\r')) {
+          nesting.pop();
+          heredocIds.pop();
+          i += id.length();
+        } else if (isTemplateOpen(source, i)) {
+          nesting.push('$');
+          i += 2;
+        } else if (isEscapedTemplateOpen(source, i)) {
+          i += 3;
+        } else {
+          if (c == '\n') {
+            ++line;
+          }
+          ++i;
+        }
+        continue;
+      }
+
+      switch (c) {
+        case '\n' -> {
+          ++line;
+          ++i;
+
+          if (pendingHeredocId != null) {
+            nesting.push('H');
+            heredocIds.push(pendingHeredocId);
+            pendingHeredocId = null;
+          } else if (nesting.isEmpty() && i >= nextSplit && i < length) {
+            starts.add(new HclLocation(i, line, 1));
+            nextSplit = i + (long) minChunkSize;
+          }
+        }
+        case '"' -> {
+          nesting.push('"');
+          ++i;
+        }
+        case '{', '[', '(' -> {
+          nesting.push(c);
+          ++i;
+        }
+        case '}', ']', ')' -> {
+          // Unbalanced input will be reported by the parser.
+          nesting.poll();
+          ++i;
+        }
+        case '#' -> i = skipLineComment(source, i);
+        case '/' -> {
+          if (i + 1 < length && source.charAt(i + 1) == '/') {
+            i = skipLineComment(source, i);
+          } else if (i + 1 < length && source.charAt(i + 1) == '*') {
+            var end = indexOf(source, "*/", i + 2);
+            line += countNewLines(source, i, end);
+            i = end;
+          } else {
+            ++i;
+          }
+        }
+        case '<' -> {
+          if (i + 1 < length && source.charAt(i + 1) == '<') {
+            var idStart = i + 2;
+            if (idStart < length && source.charAt(idStart) == '-') {
+              ++idStart;
+            }
+            var idEnd = idStart;
+            while (idEnd < length && Character.isUnicodeIdentifierPart(source.charAt(idEnd))) {
+              ++idEnd;
+            }
+            if (idEnd > idStart) {
+              pendingHeredocId = source.subSequence(idStart, idEnd).toString();
+            }
+            i = idEnd;
+          } else {
+            ++i;
+          }
+        }
+        default -> ++i;
+      }
+    }
+
+    return starts;
+  }
+
+  private static boolean isTemplateOpen(CharSequence source, int i) {
+    var c = source.charAt(i);
+    return (c == '$' || c == '%') && i + 1 < source.length() && source.charAt(i + 1) == '{';
+  }
+
+  private static boolean isEscapedTemplateOpen(CharSequence source, int i) {
+    var c = source.charAt(i);
+    return (c == '$' || c == '%')
+        && i + 2 < source.length()
+        && source.charAt(i + 1) == c
+        && source.charAt(i + 2) == '{';
+  }
+
+  private static int skipLineComment(CharSequence source, int i) {
+    // Stop before the new line so that it is handled as a line break.
+    while (i < source.length() && source.charAt(i) != '\n') {
+      ++i;
+    }
+    return i;
+  }
+
+  private static int indexOf(CharSequence source, String match, int from) {
+    // Scan in place, since converting the source to a string may copy all of it.
+    for (var i = from; i + match.length() <= source.length(); ++i) {
+      if (regionMatches(source, i, match)) {
+        return i + match.length();
+      }
+    }
+    return source.length();
+  }
+
+  private static boolean regionMatches(CharSequence source, int from, String match) {
+    for (var i = 0; i < match.length(); ++i) {
+      if (source.charAt(from + i) != match.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long countNewLines(CharSequence source, int from, int to) {
+    var count = 0L;
+    for (var i = from; i < to; ++i) {
+      if (source.charAt(i) == '\n') {
+        ++count;
+      }
+    }
+    return count;
+  }
+
+  private record ChunkResult(
+      HclLocation start,
+      List<HclBodyItemNode> items,
+      HclLocation end,
+      boolean complete
+  ) {
+  }
+
+  private static final class ChunkParser extends HclDefaultParserBase<ChunkResult> {
+
+    private final long end;
+
+    private ChunkParser(HclCharSource charSource, long end) {
+      super(initializeTokenStream(charSource));
+      this.end = end;
+    }
+
+    @Override
+    public ChunkResult parseFile() throws HclProcessingException {
+      // Mirrors body(), but stops at the end of the chunk.
+      var start = tokenStream.location();
+      var items = new ArrayList<HclBodyItemNode>();
+
+      while (true) {
+        skipNewlines();
+
+        var next = tokenStream.peek(0);
+
+        if (next.start().position() >= end) {
+          return new ChunkResult(start, items, tokenStream.location(), true);
+        }
+
+        if (next.type() != HclTokenType.IDENTIFIER) {
+          return new ChunkResult(start, items, tokenStream.location(), false);
+        }
+
+        items.add(bodyItem());
+      }
+    }
+
+    private static HclTokenStream initializeTokenStream(HclCharSource charSource) {
+      var lexer = new HclDefaultLexer(charSource);
+      var defaultMode = new HclConfigLexerStrategy(lexer);
+      lexer.pushStrategy(defaultMode);
+      return new HclDefaultTokenStream(lexer);
+    }
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.parser;
+
+import io.github.ascopes.hcl4j.core.inputs.HclLocation;
+
+/**
+ * Mode that controls how much syntactic detail a parser keeps in the AST it produces.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public enum HclParseMode {
+  /**
+   * Keep every token exactly as it was lexed, so that the source can be reproduced from the AST.
+   */
+  LOSSLESS,
+
+  /**
+   * Keep identifiers, literals and node spans only.
+   *
+   * <p>Punctuation and operator tokens that do not mark the start or end of a node are replaced
+   * with shared placeholders of the same type at {@link HclLocation#UNKNOWN}, and the rest reuse
+   * the symbol of their type rather than holding their own copy of the text. Every node still
+   * reports the same {@code start()} and {@code end()} as in {@link #LOSSLESS} mode, but the AST
+   * takes considerably less memory to hold onto.
+   */
+  SEMANTIC,
+}
@@ -15,7 +15,11 @@
  */
 package io.github.ascopes.hcl4j.core.parser;
 
+import io.github.ascopes.hcl4j.core.ex.HclDiagnostic;
 import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
+import io.github.ascopes.hcl4j.core.ex.HclSyntaxException;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import java.util.function.Consumer;
 
 /**
  * Base interface for an HCL parser implementation.
@@ -33,4 +37,26 @@ public interface HclParser<T> {
    * @throws HclProcessingException if an error occurs parsing the input.
    */
   T parseFile() throws HclProcessingException;
+
+  /**
+   * Attempt to parse the file, reporting any syntax error as a diagnostic rather than raising it.
+   *
+   * <p>This is intended for speculative parsing and for linting large numbers of files, where
+   * syntax errors are expected and should be collected rather than propagated.
+   *
+   * @param diagnostics the consumer to report any syntax error to.
+   * @return the parsed file, or {@code null} if a syntax error was reported.
+   * @throws HclProcessingException if an error other than a syntax error occurs parsing the input.
+   */
+  @Nullable
+  default T tryParseFile(
+      Consumer<? super HclDiagnostic> diagnostics
+  ) throws HclProcessingException {
+    try {
+      return parseFile();
+    } catch (HclSyntaxException ex) {
+      diagnostics.accept(ex.toDiagnostic());
+      return null;
+    }
+  }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.parser;
+
+import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
+import io.github.ascopes.hcl4j.core.inputs.HclLocation;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.tokens.HclDefaultToken;
+import io.github.ascopes.hcl4j.core.tokens.HclToken;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.util.Arrays;
+
+/**
+ * Token stream that drops the syntactic detail that {@link HclParseMode#SEMANTIC} does not keep,
+ * as tokens are eaten.
+ *
+ * <p>Tokens whose text is the symbol of their type reuse that symbol rather than holding their
+ * own copy of the text, and {@link #interior interior} tokens are replaced with shared
+ * placeholders at {@link HclLocation#UNKNOWN}.
+ *
+ * <p>This class is <strong>not</strong> thread-safe.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+final class HclSemanticTokenStream implements HclTokenStream {
+
+  private static final HclToken[] PLACEHOLDERS = Arrays.stream(HclTokenType.values())
+      .map(type -> type.symbol() == null
+          ? null
+          : new HclDefaultToken(type, type.symbol(), HclLocation.UNKNOWN, HclLocation.UNKNOWN))
+      .toArray(HclToken[]::new);
+
+  private final HclTokenStream delegate;
+
+  /**
+   * Initialize this stream.
+   *
+   * @param delegate the stream to read tokens from.
+   */
+  HclSemanticTokenStream(HclTokenStream delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public String name() {
+    return delegate.name();
+  }
+
+  @Override
+  public void ignoreToken(HclTokenType tokenType) {
+    delegate.ignoreToken(tokenType);
+  }
+
+  @Override
+  public HclLocation location() {
+    return delegate.location();
+  }
+
+  @Override
+  public HclToken peek(int offset) throws HclProcessingException {
+    return delegate.peek(offset);
+  }
+
+  @Override
+  public HclTokenType la(int offset) throws HclProcessingException {
+    return delegate.la(offset);
+  }
+
+  @Override
+  public HclToken eat(HclTokenType type, HclTokenType... types) throws HclProcessingException {
+    var token = delegate.eat(type, types);
+    return hasSymbol(token)
+        ? new HclDefaultToken(token.type(), token.type().symbol(), token.start(), token.end())
+        : token;
+  }
+
+  @Nullable
+  @Override
+  public HclToken interior(@Nullable HclToken token) {
+    return token != null && hasSymbol(token)
+        ? PLACEHOLDERS[token.type().ordinal()]
+        : token;
+  }
+
+  private static boolean hasSymbol(HclToken token) {
+    var symbol = token.type().symbol();
+    return token instanceof HclDefaultToken && symbol != null && token.rawEquals(symbol);
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.parser;
+
+import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
+import io.github.ascopes.hcl4j.core.inputs.HclCharSource;
+import io.github.ascopes.hcl4j.core.intern.Nullable;
+import io.github.ascopes.hcl4j.core.lexer.HclDefaultLexer;
+import io.github.ascopes.hcl4j.core.lexer.strategy.HclConfigLexerStrategy;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+
+/**
+ * Streaming parser for HCL config files.
+ *
+ * <p>Rather than building an entire {@code HclBodyNode} tree, this parser emits events to an
+ * {@link HclBodyEventHandler} as each block and attribute is encountered. This keeps memory usage
+ * bounded by the nesting depth of the file rather than the size of the file, which is useful for
+ * very large generated inputs.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+public final class HclStreamingConfigFileParser extends HclDefaultParserBase<Void> {
+
+  private final HclBodyEventHandler handler;
+
+  /**
+   * Initialize the parser.
+   *
+   * @param charSource the character source to use for input.
+   * @param handler    the handler to emit events to.
+   */
+  public HclStreamingConfigFileParser(HclCharSource charSource, HclBodyEventHandler handler) {
+    super(initializeTokenStream(charSource));
+    this.handler = handler;
+  }
+
+  /**
+   * Parse the file, emitting events to the handler.
+   *
+   * @return {@code null}, always.
+   * @throws HclProcessingException if an error occurs parsing the input.
+   */
+  @Override
+  @Nullable
+  public Void parseFile() throws HclProcessingException {
+    bodyEvents(handler);
+    tokenStream.eat(HclTokenType.EOF);
+    return null;
+  }
+
+  private static HclTokenStream initializeTokenStream(HclCharSource charSource) {
+    var lexer = new HclDefaultLexer(charSource);
+    var defaultMode = new HclConfigLexerStrategy(lexer);
+    lexer.pushStrategy(defaultMode);
+    return new HclDefaultTokenStream(lexer);
+  }
+}
@@ -16,10 +16,13 @@
 package io.github.ascopes.hcl4j.core.parser;
 
 import io.github.ascopes.hcl4j.core.ast.template.HclTemplateContentNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateItemNode;
 import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
 import io.github.ascopes.hcl4j.core.inputs.HclCharSource;
 import io.github.ascopes.hcl4j.core.lexer.HclDefaultLexer;
-import io.github.ascopes.hcl4j.core.lexer.strategy.HclConfigLexerStrategy;
+import io.github.ascopes.hcl4j.core.lexer.strategy.HclTemplateFileLexerStrategy;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.util.function.Consumer;
 
 /**
  * Default parser for files that should be interpreted as HCL templates.
@@ -40,12 +43,32 @@ public final class HclTemplateFileParser extends HclDefaultParserBase<HclTemplat
 
   @Override
   public HclTemplateContentNode parseFile() throws HclProcessingException {
-    throw new UnsupportedOperationException("not implemented");
+    var content = template();
+    tokenStream.eat(HclTokenType.EOF);
+    return content;
+  }
+
+  /**
+   * Parse the file, passing each top-level template item to the given consumer as soon as it has
+   * been parsed.
+   *
+   * <p>This avoids holding the AST for the entire template in memory at once, which is useful for
+   * very large templates. Directives are still parsed in full before being passed on, so memory
+   * usage is bounded by the size of the largest top-level item.
+   *
+   * @param consumer the consumer to pass each item to.
+   * @throws HclProcessingException if parsing fails.
+   */
+  public void parseFileItems(
+      Consumer<? super HclTemplateItemNode> consumer
+  ) throws HclProcessingException {
+    templateItems(consumer);
+    tokenStream.eat(HclTokenType.EOF);
   }
 
   private static HclTokenStream initializeTokenStream(HclCharSource charSource) {
     var lexer = new HclDefaultLexer(charSource);
-    var defaultMode = new HclConfigLexerStrategy(lexer);
+    var defaultMode = new HclTemplateFileLexerStrategy(lexer);
     lexer.pushStrategy(defaultMode);
     return new HclDefaultTokenStream(lexer);
   }
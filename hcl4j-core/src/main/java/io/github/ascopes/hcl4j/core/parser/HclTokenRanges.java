@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.parser;
+
+import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+
+/**
+ * Helpers for skipping over structural ranges of tokens without building any AST nodes.
+ *
+ * <p>These only track bracket nesting, so they are much cheaper than parsing, but they will not
+ * detect most syntax errors. Skipped ranges should be parsed properly later if their contents are
+ * needed.
+ *
+ * @author Ashley Scopes
+ * @since 0.0.1
+ */
+final class HclTokenRanges {
+
+  private HclTokenRanges() {
+    throw new UnsupportedOperationException("static-only class");
+  }
+
+  /**
+   * Skip over a body item, which is either an attribute or a block.
+   *
+   * <p>Attributes are skipped up to but not including the new line that terminates them, in the
+   * same way as {@link HclDefaultParserBase#attribute()}. Blocks are skipped up to and including
+   * the new line after the closing brace, in the same way as {@link HclDefaultParserBase#block()}.
+   *
+   * @param tokenStream the token stream, positioned at the first identifier of the item.
+   * @throws HclProcessingException if the item is structurally invalid.
+   */
+  static void skipBodyItem(HclTokenStream tokenStream) throws HclProcessingException {
+    if (tokenStream.la(1) == HclTokenType.ASSIGN) {
+      skipAttribute(tokenStream);
+    } else {
+      skipBlock(tokenStream);
+    }
+  }
+
+  /**
+   * Skip over an attribute.
+   *
+   * @param tokenStream the token stream, positioned at the attribute identifier.
+   * @throws HclProcessingException if the attribute is structurally invalid.
+   */
+  static void skipAttribute(HclTokenStream tokenStream) throws HclProcessingException {
+    tokenStream.eat(HclTokenType.IDENTIFIER);
+    tokenStream.eat(HclTokenType.ASSIGN);
+    skipExpression(tokenStream);
+  }
+
+  /**
+   * Skip over a block.
+   *
+   * @param tokenStream the token stream, positioned at the block type identifier.
+   * @throws HclProcessingException if the block is structurally invalid.
+   */
+  static void skipBlock(HclTokenStream tokenStream) throws HclProcessingException {
+    tokenStream.eat(HclTokenType.IDENTIFIER);
+
+    while (true) {
+      switch (tokenStream.la(0)) {
+        case IDENTIFIER, OPENING_QUOTE, RAW_TEXT, CLOSING_QUOTE -> skipToken(tokenStream);
+        default -> {
+          tokenStream.eat(HclTokenType.LEFT_BRACE);
+          skipUntilClosed(tokenStream);
+          tokenStream.eat(HclTokenType.RIGHT_BRACE);
+          tokenStream.tryEat(HclTokenType.NEW_LINE);
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Skip over an expression, stopping before the first new line, closing brace, comma or
+   * end-of-file that is not nested within brackets, braces, parentheses or a template.
+   *
+   * @param tokenStream the token stream, positioned at the start of the expression.
+   * @throws HclProcessingException if the expression is structurally invalid.
+   */
+  static void skipExpression(HclTokenStream tokenStream) throws HclProcessingException {
+    // Heredocs contain new lines in their header and after their closing identifier, neither of
+    // which terminate the expression.
+    var inHeredoc = false;
+
+    while (true) {
+      switch (tokenStream.la(0)) {
+        case EOF, RIGHT_BRACE, RIGHT_SQUARE, RIGHT_PAREN, COMMA -> {
+          return;
+        }
+        case NEW_LINE -> {
+          if (!inHeredoc) {
+            return;
+          }
+          skipToken(tokenStream);
+        }
+        case HEREDOC_ANCHOR -> {
+          // Anchor, optional indent marker, opening identifier and new line.
+          skipToken(tokenStream);
+          tokenStream.tryEat(HclTokenType.HEREDOC_INDENT_MARKER);
+          tokenStream.eat(HclTokenType.IDENTIFIER);
+          tokenStream.eat(HclTokenType.NEW_LINE);
+          inHeredoc = true;
+        }
+        case IDENTIFIER -> {
+          skipToken(tokenStream);
+          if (inHeredoc) {
+            // Closing identifier of the heredoc. The new line after it is part of the heredoc, so
+            // the expression ends here in the same way as it does in the parser.
+            tokenStream.eat(HclTokenType.NEW_LINE);
+            return;
+          }
+        }
+        case LEFT_BRACE, LEFT_SQUARE, LEFT_PAREN, LEFT_INTERPOLATION, LEFT_DIRECTIVE -> {
+          skipToken(tokenStream);
+          skipUntilClosed(tokenStream);
+          skipToken(tokenStream);
+        }
+        default -> skipToken(tokenStream);
+      }
+    }
+  }
+
+  /**
+   * Skip tokens until the closing bracket that matches an opening bracket that has already been
+   * consumed. The closing bracket itself is not consumed.
+   *
+   * @param tokenStream the token stream.
+   * @throws HclProcessingException if the end of the file is reached first.
+   */
+  static void skipUntilClosed(HclTokenStream tokenStream) throws HclProcessingException {
+    var depth = 0;
+
+    while (true) {
+      switch (tokenStream.la(0)) {
+        case EOF -> {
+          // Raises the appropriate error.
+          tokenStream.eat(HclTokenType.RIGHT_BRACE, HclTokenType.RIGHT_SQUARE,
+              HclTokenType.RIGHT_PAREN);
+          return;
+        }
+        case LEFT_BRACE, LEFT_SQUARE, LEFT_PAREN, LEFT_INTERPOLATION, LEFT_DIRECTIVE -> ++depth;
+        case RIGHT_BRACE, RIGHT_SQUARE, RIGHT_PAREN -> {
+          if (depth == 0) {
+            return;
+          }
+          --depth;
+        }
+        default -> {
+          // Nothing to track.
+        }
+      }
+
+      skipToken(tokenStream);
+    }
+  }
+
+  private static void skipToken(HclTokenStream tokenStream) throws HclProcessingException {
+    tokenStream.eat(tokenStream.la(0));
+  }
+}
@@ -72,6 +72,22 @@ public interface HclTokenStream {
    */
   HclToken peek(int offset) throws HclProcessingException;
 
+  /**
+   * Get the type of the token at the given offset from the current position without advancing the
+   * token stream state.
+   *
+   * <p>This is equivalent to {@code peek(offset).type()}, but implementations may be able to
+   * answer it more cheaply. Parsers should prefer this when making decisions on the next few
+   * tokens.
+   *
+   * @param offset the offset (greater or equal to 0) to look ahead at.
+   * @return the type of the token we looked ahead at.
+   * @throws HclProcessingException if an unexpected exception occurs.
+   */
+  default HclTokenType la(int offset) throws HclProcessingException {
+    return peek(offset).type();
+  }
+
   /**
    * Attempt to eat the next token, assuming it is one of the given types.
    *
@@ -89,6 +105,21 @@ public interface HclTokenStream {
    */
   HclToken eat(HclTokenType type, HclTokenType... types) throws HclProcessingException;
 
+  /**
+   * Mark a token that has been eaten as one that does not mark the start or end of the node that
+   * will hold it, such as an operator or separator.
+   *
+   * <p>Streams that do not need to keep such tokens can return a shared placeholder of the same
+   * type in their place. By default, the token is returned as-is.
+   *
+   * @param token the token that was eaten, or {@code null} if an optional token was absent.
+   * @return the token to hold in the node, or {@code null} if the given token was {@code null}.
+   */
+  @Nullable
+  default HclToken interior(@Nullable HclToken token) {
+    return token;
+  }
+
   /**
    * Attempt to eat a soft-keyword.
    *
@@ -151,7 +182,7 @@ public interface HclTokenStream {
       HclTokenType... tokenTypes
   ) throws HclProcessingException {
     boolean matches = false;
-    var next = peek(0).type();
+    var next = la(0);
 
     if (tokenType == next) {
       matches = true;
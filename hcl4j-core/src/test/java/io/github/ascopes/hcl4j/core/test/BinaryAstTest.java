@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.binary.HclBinaryAstReader;
+import io.github.ascopes.hcl4j.core.binary.HclBinaryAstWriter;
+import io.github.ascopes.hcl4j.core.ex.HclBinaryFormatException;
+import io.github.ascopes.hcl4j.core.inputs.HclStringCharSource;
+import io.github.ascopes.hcl4j.core.parser.HclConfigFileParser;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class BinaryAstTest {
+
+  static final String SOURCE = """
+      locals {
+        name    = "app-${var.env}"
+        enabled = !var.disabled && length(var.zones) > 2
+        ratio   = 1.5
+        zones   = [for z in var.zones : upper(z) if z != null]
+        tags    = { Name = local.name, "Owner" = "me" }
+        first   = var.zones[0]
+        ids     = apps[*].id
+        doc     = <<-EOF
+          %{ if var.enabled }enabled%{ else }disabled%{ endif }
+        EOF
+      }
+      """;
+
+  @Test
+  void testAstRoundTripsThroughBinaryEncoding() {
+    var expected = parse();
+    var out = new ByteArrayOutputStream();
+    new HclBinaryAstWriter().write(expected, SOURCE, out);
+
+    var actual = new HclBinaryAstReader()
+        .read(new ByteArrayInputStream(out.toByteArray()), SOURCE);
+
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  void testEncodingIsNotMuchLargerThanTheSource() {
+    var out = new ByteArrayOutputStream();
+    new HclBinaryAstWriter().write(parse(), SOURCE, out);
+
+    // Nearly every character of this source is part of a token, so this is close to the worst case.
+    assertThat(out.size()).isLessThan(SOURCE.length() * 5 / 2);
+  }
+
+  @Test
+  void testCorruptDataIsOnlyEverReportedAsFormatErrors() {
+    var out = new ByteArrayOutputStream();
+    new HclBinaryAstWriter().write(parse(), SOURCE, out);
+    var bytes = out.toByteArray();
+    var reader = new HclBinaryAstReader();
+
+    for (var offset = 0; offset < bytes.length; ++offset) {
+      for (var value : new int[] {0x00, 0x01, 0x3F, 0x7F, 0x80, 0xFF}) {
+        var corrupt = bytes.clone();
+        corrupt[offset] = (byte) value;
+
+        var thrown = catchThrowable(() -> reader.read(new ByteArrayInputStream(corrupt), SOURCE));
+
+        assertThat(thrown)
+            .as("offset %d set to %d", offset, value)
+            .satisfiesAnyOf(
+                ex -> assertThat(ex).isNull(),
+                ex -> assertThat(ex).isInstanceOf(HclBinaryFormatException.class)
+            );
+      }
+    }
+  }
+
+  @Test
+  void testPrecomputedHashesMatchTheSource() throws Exception {
+    var hash = MessageDigest.getInstance("SHA-256")
+        .digest(SOURCE.getBytes(StandardCharsets.UTF_8));
+    var expected = parse();
+    var out = new ByteArrayOutputStream();
+    new HclBinaryAstWriter().write(expected, hash, out);
+
+    var reader = new HclBinaryAstReader();
+    assertThat(reader.read(new ByteArrayInputStream(out.toByteArray()), SOURCE))
+        .isEqualTo(expected);
+    assertThat(reader.read(new ByteArrayInputStream(out.toByteArray()), hash))
+        .isEqualTo(expected);
+    assertThatThrownBy(() -> new HclBinaryAstWriter().write(expected, new byte[4], out))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void testStaleDataIsNotReturned() {
+    var out = new ByteArrayOutputStream();
+    new HclBinaryAstWriter().write(parse(), SOURCE, out);
+
+    var actual = new HclBinaryAstReader()
+        .read(new ByteArrayInputStream(out.toByteArray()), SOURCE + "\n");
+
+    assertThat(actual).isNull();
+  }
+
+  @Test
+  void testTruncatedDataIsRejected() {
+    var out = new ByteArrayOutputStream();
+    new HclBinaryAstWriter().write(parse(), SOURCE, out);
+    var bytes = out.toByteArray();
+    var truncated = Arrays.copyOf(bytes, bytes.length - 10);
+
+    assertThatThrownBy(() -> new HclBinaryAstReader()
+        .read(new ByteArrayInputStream(truncated), SOURCE))
+        .isInstanceOf(HclBinaryFormatException.class);
+  }
+
+  @Test
+  void testOversizedLengthsAreRejectedBeforeAllocating() {
+    var out = new ByteArrayOutputStream();
+    new HclBinaryAstWriter().write(parse(), SOURCE, out);
+    var bytes = out.toByteArray();
+
+    // Replace the string count that follows the header with the largest int.
+    var header = 4 + 1 + 8 + 32;
+    var corrupt = new ByteArrayOutputStream();
+    corrupt.write(bytes, 0, header);
+    corrupt.writeBytes(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07});
+    corrupt.write(bytes, header + 1, bytes.length - header - 1);
+
+    assertThatThrownBy(() -> new HclBinaryAstReader()
+        .read(new ByteArrayInputStream(corrupt.toByteArray()), SOURCE))
+        .isInstanceOf(HclBinaryFormatException.class)
+        .hasMessageContaining("exceeds the remaining data");
+  }
+
+  @Test
+  void testDeeplyNestedDataIsRejected() throws InterruptedException {
+    var source = "a = " + "(".repeat(3000) + "1" + ")".repeat(3000) + "\n";
+    var out = new ByteArrayOutputStream();
+
+    // Parsing and writing this much nesting needs more stack than the default.
+    var thread = new Thread(null, () -> {
+      try (var charSource = new HclStringCharSource("deep.tf", source)) {
+        new HclBinaryAstWriter().write(new HclConfigFileParser(charSource).parseFile(), source,
+            out);
+      }
+    }, "deep", 256L * 1024 * 1024);
+    thread.start();
+    thread.join();
+
+    assertThat(out.size()).isPositive();
+    assertThatThrownBy(() -> new HclBinaryAstReader()
+        .read(new ByteArrayInputStream(out.toByteArray()), source))
+        .isInstanceOf(HclBinaryFormatException.class)
+        .hasMessageContaining("nested");
+  }
+
+  static HclBodyNode parse() {
+    try (var charSource = new HclStringCharSource("main.tf", SOURCE)) {
+      return new HclConfigFileParser(charSource).parseFile();
+    }
+  }
+}
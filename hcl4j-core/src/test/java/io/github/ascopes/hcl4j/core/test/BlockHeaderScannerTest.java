@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.hcl4j.core.inputs.HclCharInputStream;
+import io.github.ascopes.hcl4j.core.parser.HclBlockHeader;
+import io.github.ascopes.hcl4j.core.parser.HclBlockHeaderScanner;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class BlockHeaderScannerTest {
+
+  @Test
+  void testTopLevelBlockHeadersAreScanned() throws IOException {
+    var source = """
+        variable "region" {
+          default = "eu-west-2"
+        }
+
+        module "vpc" {
+          source = "./modules/vpc"
+          nested {
+            cidr = "10.0.0.0/16"
+          }
+        }
+
+        foo = { bar = "}" }
+
+        resource "aws_instance" "app_server" { ami = "ami-08d70e59c07c61a3a" }
+        """.getBytes(StandardCharsets.UTF_8);
+
+    try (var in = new HclCharInputStream("example.tf", new ByteArrayInputStream(source))) {
+      var headers = new HclBlockHeaderScanner(in).scan();
+
+      assertThat(headers)
+          .extracting(header -> header.type().toString())
+          .containsExactly("variable", "module", "resource");
+
+      assertThat(headers)
+          .extracting(HclBlockHeader::labels)
+          .map(labels -> labels.stream().map(CharSequence::toString).toList())
+          .containsExactly(
+              List.of("region"),
+              List.of("vpc"),
+              List.of("aws_instance", "app_server")
+          );
+
+      assertThat(headers.get(1).start().line()).isEqualTo(5);
+      assertThat(headers.get(1).end().line()).isEqualTo(10);
+    }
+  }
+
+  @Test
+  void testStringLabelsAreReportedUnescaped() throws IOException {
+    var source = """
+        locale "caf\\u00e9" "say \\"hi\\"" "" {}
+        """.getBytes(StandardCharsets.UTF_8);
+
+    try (var in = new HclCharInputStream("example.tf", new ByteArrayInputStream(source))) {
+      var headers = new HclBlockHeaderScanner(in).scan();
+
+      assertThat(headers).singleElement()
+          .extracting(HclBlockHeader::labels)
+          .extracting(labels -> labels.stream().map(CharSequence::toString).toList())
+          .isEqualTo(List.of("café", "say \"hi\"", ""));
+    }
+  }
+}
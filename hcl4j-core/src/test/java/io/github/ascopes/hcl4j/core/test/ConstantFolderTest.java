@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.literal.HclIntegerLiteralNode;
+import io.github.ascopes.hcl4j.core.eval.HclConstantFolder;
+import io.github.ascopes.hcl4j.core.eval.HclEvalContext;
+import io.github.ascopes.hcl4j.core.eval.HclEvaluator;
+import io.github.ascopes.hcl4j.core.eval.HclStringValue;
+import io.github.ascopes.hcl4j.core.format.HclFormatter;
+import io.github.ascopes.hcl4j.core.parser.HclExpressionCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ConstantFolderTest {
+
+  static final HclEvalContext KNOWN = HclEvalContext.EMPTY
+      .withVariable("env", new HclStringValue("prod"));
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "60 * 60 * 24",
+      "1 - 4 * 2.5",
+      "10 - 2 - 3 + 8 / 4 / 2",
+      "env == \"prod\" ? zones[0] : zones[1]",
+      "(env != \"prod\" || missing) && !false",
+      "\"${\"prefix\"}-x-${env}\"",
+      "\"${1 + 1}\"",
+      "\"a ${upper(env)} %{ if env == \"prod\" }live${\"!\"}%{ endif } b\"",
+      "\"%{ if env == \"dev\" }${env ~}%{ endif } tail\"",
+      "\"$${escaped} \\\"quoted\\\" ${\"$\"}{not} %{ if true }\\n%{ endif }\"",
+      "[for env in zones : \"${env}-${1 + 2}\" if env != \"b\"]",
+      "{ env = 1 + 1, (env) = [for z in zones : z] }",
+      "apps[*].id",
+      "<<-EOF\n    ${env}\n      ${1 + 2}\n    EOF\n",
+  })
+  void testFoldedExpressionsEvaluateToTheSameValue(String source) {
+    var expression = parse(source);
+    var context = EvaluatorTest.CONTEXT.withVariable("missing", EvaluatorTest.eval("true"));
+    var evaluator = new HclEvaluator();
+
+    var folded = new HclConstantFolder(KNOWN).fold(expression);
+
+    var expected = evaluator.evaluate(expression, context);
+    assertThat(evaluator.evaluate(folded, context)).isEqualTo(expected);
+    assertThat(evaluator.evaluate(parse(format(folded)), context)).isEqualTo(expected);
+  }
+
+  @Test
+  void testLiteralArithmeticIsFolded() {
+    var folded = new HclConstantFolder().fold(parse("60 * 60 * 24"));
+
+    assertThat(folded).isInstanceOf(HclIntegerLiteralNode.class);
+    assertThat(format(folded)).isEqualTo("86400");
+  }
+
+  @Test
+  void testConstantTemplatesAreFoldedIntoStrings() {
+    var folded = new HclConstantFolder(KNOWN).fold(parse("\"${\"prefix\"}-x-${env}\""));
+
+    assertThat(format(folded)).isEqualTo("\"prefix-x-prod\"");
+  }
+
+  @Test
+  void testDeadBranchesArePruned() {
+    var folder = new HclConstantFolder(KNOWN);
+
+    assertThat(format(folder.fold(parse("env == \"prod\" ? zones[0] : zones[1]"))))
+        .isEqualTo("zones[0]");
+    assertThat(format(folder.fold(parse("\"%{ if env == \"dev\" }x%{ else }${y}%{ endif }!\""))))
+        .isEqualTo("\"${y}!\"");
+  }
+
+  @Test
+  void testVariablesDeclaredByForExpressionsAreNotReplaced() {
+    var folded = new HclConstantFolder(KNOWN).fold(parse("[for env in zones : env]"));
+
+    assertThat(format(folded)).isEqualTo("[for env in zones : env]");
+  }
+
+  @Test
+  void testUnchangedTreesAreReturnedAsIs() {
+    var expression = parse("upper(var.name) + length(local.zones)");
+
+    assertThat(new HclConstantFolder(KNOWN).fold(expression)).isSameAs(expression);
+  }
+
+  static HclExpressionNode parse(String source) {
+    return new HclExpressionCache("test", 1).parse(source);
+  }
+
+  static String format(HclExpressionNode expression) {
+    return new HclFormatter().formatExpression(expression);
+  }
+}
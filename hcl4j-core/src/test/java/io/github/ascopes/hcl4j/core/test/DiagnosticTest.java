@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+import io.github.ascopes.hcl4j.core.ex.HclBadTokenException;
+import io.github.ascopes.hcl4j.core.ex.HclDiagnostic;
+import io.github.ascopes.hcl4j.core.ex.HclSyntaxException;
+import io.github.ascopes.hcl4j.core.ex.HclUnexpectedTokenException;
+import io.github.ascopes.hcl4j.core.inputs.HclStringCharSource;
+import io.github.ascopes.hcl4j.core.parser.HclConfigFileParser;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+
+class DiagnosticTest {
+
+  @Test
+  void testValidFilesAreParsedWithoutDiagnostics() {
+    var diagnostics = new ArrayList<HclDiagnostic>();
+
+    try (var source = new HclStringCharSource("main.tf", "a = 1\nb = [2, 3]\n")) {
+      var body = new HclConfigFileParser(source).tryParseFile(diagnostics::add);
+
+      assertThat(body).isNotNull();
+      assertThat(body.bodyItems()).hasSize(2);
+    }
+
+    assertThat(diagnostics).isEmpty();
+  }
+
+  @Test
+  void testSyntaxErrorsAreReportedAsDiagnostics() {
+    var text = "a = 1\nb = = 2\n";
+    var diagnostics = new ArrayList<HclDiagnostic>();
+
+    try (var source = new HclStringCharSource("main.tf", text)) {
+      assertThat(new HclConfigFileParser(source).tryParseFile(diagnostics::add)).isNull();
+    }
+
+    assertThat(diagnostics).singleElement().satisfies(diagnostic -> {
+      assertThat(diagnostic.fileName()).isEqualTo("main.tf");
+      assertThat(diagnostic.start().line()).isEqualTo(2);
+      assertThat(diagnostic.start().column()).isEqualTo(5);
+      assertThat(diagnostic.unexpectedToken()).isNotNull();
+      assertThat(diagnostic.unexpectedToken().type()).isEqualTo(HclTokenType.ASSIGN);
+      assertThat(diagnostic.render())
+          .contains("Received:\n - assignment operator (\"=\")")
+          .endsWith("\n\nin main.tf at line 2, column: 5\n");
+      assertThat(diagnostic.render(text))
+          .isEqualTo(diagnostic.render() + "\nb = = 2\n    ^\n");
+    });
+  }
+
+  @Test
+  void testSyntaxExceptionsConvertToEquivalentDiagnostics() {
+    var text = "a = 1\nb = = 2\n";
+    var ex = parseExpectingError(text);
+    var diagnostic = ex.toDiagnostic();
+
+    assertThat(ex).isInstanceOf(HclUnexpectedTokenException.class);
+    assertThat(ex.getStackTrace()).isEmpty();
+    assertThat(diagnostic.message()).isEqualTo(ex.getMessage());
+    assertThat(diagnostic.start()).isEqualTo(ex.getStart());
+    assertThat(diagnostic.end()).isEqualTo(ex.getEnd());
+    assertThat(diagnostic.expectedTypes())
+        .isEqualTo(((HclUnexpectedTokenException) ex).getExpectedTypes());
+    assertThat(ex).hasToString(diagnostic.render());
+    assertThat(diagnostic.toException().toDiagnostic()).isEqualTo(diagnostic);
+  }
+
+  @Test
+  void testUntokenizableContentIsRenderedWithoutTokenType() {
+    var text = "a = 1\n\tb = 2 § 3\n";
+    var ex = parseExpectingError(text);
+    var diagnostic = ex.toDiagnostic();
+
+    assertThat(ex).isInstanceOf(HclBadTokenException.class);
+    assertThat(diagnostic.unexpectedToken()).isNull();
+    assertThat(diagnostic.render())
+        .contains("Received:\n - \"§\"")
+        .endsWith("\n\nin main.tf at line 2, column: 8\n");
+    assertThat(diagnostic.render(text))
+        .endsWith("\n\tb = 2 § 3\n\t      ^\n");
+  }
+
+  private static HclSyntaxException parseExpectingError(String text) {
+    try (var source = new HclStringCharSource("main.tf", text)) {
+      return catchThrowableOfType(
+          () -> new HclConfigFileParser(source).parseFile(),
+          HclSyntaxException.class
+      );
+    }
+  }
+}
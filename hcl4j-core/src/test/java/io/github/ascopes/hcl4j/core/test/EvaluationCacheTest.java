@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.eval.HclEvaluationCache;
+import io.github.ascopes.hcl4j.core.eval.HclNumberValue;
+import io.github.ascopes.hcl4j.core.eval.HclStringValue;
+import io.github.ascopes.hcl4j.core.ex.HclEvaluationException;
+import io.github.ascopes.hcl4j.core.parser.HclExpressionCache;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class EvaluationCacheTest {
+
+  private final AtomicInteger calls = new AtomicInteger();
+  private final HclEvaluationCache cache = new HclEvaluationCache(EvaluatorTest.CONTEXT
+      .withFunction("count", args -> {
+        calls.incrementAndGet();
+        return args.get(0);
+      }));
+
+  @Test
+  void testResultsAreReusedWhileTheirVariablesAreUnchanged() {
+    var expression = parse("count(\"${env}-${length}\")");
+    cache.bind("length", HclNumberValue.of(3));
+
+    assertThat(cache.evaluate(expression)).isEqualTo(new HclStringValue("prod-3"));
+    assertThat(cache.evaluate(expression)).isEqualTo(new HclStringValue("prod-3"));
+    assertThat(calls).hasValue(1);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  void testChangingVariablesInvalidatesOnlyTheResultsThatReadThem() {
+    var first = parse("count(env)");
+    var second = parse("count(zones[0])");
+    cache.evaluate(first);
+    cache.evaluate(second);
+
+    cache.bind("env", new HclStringValue("dev"));
+
+    assertThat(cache.evaluate(first)).isEqualTo(new HclStringValue("dev"));
+    assertThat(cache.evaluate(second)).isEqualTo(new HclStringValue("a"));
+    assertThat(calls).hasValue(3);
+  }
+
+  @Test
+  void testBindingAnEqualValueDoesNotInvalidate() {
+    var expression = parse("count(env)");
+    cache.evaluate(expression);
+
+    cache.bind("env", new HclStringValue("prod"));
+    cache.bind("unrelated", HclNumberValue.ONE);
+
+    assertThat(cache.evaluate(expression)).isEqualTo(new HclStringValue("prod"));
+    assertThat(calls).hasValue(1);
+  }
+
+  @Test
+  void testUnbindingVariablesInvalidatesTheResultsThatReadThem() {
+    var expression = parse("count(length)");
+    cache.bind("length", HclNumberValue.ONE);
+    cache.evaluate(expression);
+
+    cache.unbind("length");
+    cache.unbind("unrelated");
+
+    assertThat(cache.variable("length")).isNull();
+    assertThatThrownBy(() -> cache.evaluate(expression))
+        .isInstanceOf(HclEvaluationException.class);
+    assertThat(cache.evaluate(parse("count(env)"))).isEqualTo(new HclStringValue("prod"));
+    assertThat(calls).hasValue(2);
+  }
+
+  @Test
+  void testVariablesDeclaredInsideTheExpressionAreNotDependencies() {
+    var expression = parse("[for z in zones : count(z)]");
+    cache.evaluate(expression);
+
+    cache.bind("z", new HclStringValue("ignored"));
+    cache.evaluate(expression);
+
+    assertThat(calls).hasValue(3);
+  }
+
+  @Test
+  void testFailuresAreNotCached() {
+    var expression = parse("count(missing)");
+
+    assertThatThrownBy(() -> cache.evaluate(expression))
+        .isInstanceOf(HclEvaluationException.class);
+
+    cache.bind("missing", HclNumberValue.ONE);
+
+    assertThat(cache.evaluate(expression)).isEqualTo(HclNumberValue.ONE);
+    assertThat(calls).hasValue(1);
+  }
+
+  private static HclExpressionNode parse(String source) {
+    return new HclExpressionCache("test", 1).parse(source);
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.hcl4j.core.eval.HclEvalContext;
+import io.github.ascopes.hcl4j.core.eval.HclEvaluator;
+import io.github.ascopes.hcl4j.core.eval.HclNumberValue;
+import io.github.ascopes.hcl4j.core.eval.HclObjectValue;
+import io.github.ascopes.hcl4j.core.eval.HclStringValue;
+import io.github.ascopes.hcl4j.core.eval.HclTupleValue;
+import io.github.ascopes.hcl4j.core.eval.HclValue;
+import io.github.ascopes.hcl4j.core.ex.HclEvaluationException;
+import io.github.ascopes.hcl4j.core.parser.HclExpressionCache;
+import java.math.BigDecimal;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class EvaluatorTest {
+
+  static final HclEvalContext CONTEXT = HclEvalContext.EMPTY
+      .withVariable("env", new HclStringValue("prod"))
+      .withVariable("zones", HclTupleValue.of(
+          new HclStringValue("a"), new HclStringValue("b"), new HclStringValue("c")))
+      .withVariable("apps", HclTupleValue.of(
+          HclObjectValue.of(Map.of("id", HclNumberValue.of(1))),
+          HclObjectValue.of(Map.of("id", HclNumberValue.of(2)))))
+      .withFunction("upper", args -> new HclStringValue(
+          ((HclStringValue) args.get(0)).value().toUpperCase()));
+
+  @Test
+  void testArithmeticIsEvaluated() {
+    assertThat(eval("1 + 2 * 3 - 10 / 4")).isEqualTo(HclNumberValue.of(new BigDecimal("4.5")));
+    assertThat(eval("-(7 % 4) < 0 && !false")).isEqualTo(eval("true"));
+  }
+
+  @Test
+  void testOperatorsOfEqualPrecedenceAreLeftAssociative() {
+    assertThat(eval("10 - 2 - 3")).isEqualTo(HclNumberValue.of(5));
+    assertThat(eval("1 - 1 + 1")).isEqualTo(HclNumberValue.of(1));
+    assertThat(eval("8 / 4 / 2")).isEqualTo(HclNumberValue.of(1));
+    assertThat(eval("1 / 4 * 4")).isEqualTo(HclNumberValue.of(1));
+  }
+
+  @Test
+  void testLongOverflowFallsBackToDecimals() {
+    assertThat(eval("9223372036854775807 + 1"))
+        .isEqualTo(HclNumberValue.of(new BigDecimal("9223372036854775808")));
+  }
+
+  @Test
+  void testTemplatesAreRendered() {
+    assertThat(eval("\"${env}-%{ if env == \"prod\" }live%{ else }test%{ endif }\""))
+        .isEqualTo(new HclStringValue("prod-live"));
+    assertThat(eval("\"%{ for z in zones ~} ${upper(z)} %{~ endfor }\""))
+        .isEqualTo(new HclStringValue("ABC"));
+    assertThat(eval("<<-EOF\n    ${env}\n      indented\n    EOF\n"))
+        .isEqualTo(new HclStringValue("prod\n  indented\n"));
+  }
+
+  @Test
+  void testSplatsAndForExpressionsAreEvaluated() {
+    assertThat(eval("apps[*].id")).isEqualTo(eval("[1, 2]"));
+    assertThat(eval("[for i, z in zones : \"${i}${z}\" if z != \"b\"]"))
+        .isEqualTo(eval("[\"0a\", \"2c\"]"));
+    assertThat(eval("{for z in zones : z => upper(z)}"))
+        .isEqualTo(eval("{a = \"A\", b = \"B\", c = \"C\"}"));
+  }
+
+  @Test
+  void testFunctionArgumentsAreExpanded() {
+    var context = CONTEXT.withFunction("count", args -> HclNumberValue.of(args.size()));
+
+    assertThat(eval("count(1, zones...)", context)).isEqualTo(HclNumberValue.of(4));
+  }
+
+  @Test
+  void testValuesAreWrittenAsTheirContent() {
+    assertThat(eval("[env, 1, true, null]")).hasToString("[prod, 1, true, null]");
+    assertThat(new HclStringValue("a")).hasToString("a");
+  }
+
+  @Test
+  void testUnknownVariablesAreReported() {
+    assertThatThrownBy(() -> eval("1 + missing"))
+        .isInstanceOf(HclEvaluationException.class)
+        .hasMessageContaining("missing");
+  }
+
+  static HclValue eval(String expression) {
+    return eval(expression, CONTEXT);
+  }
+
+  static HclValue eval(String expression, HclEvalContext context) {
+    var node = new HclExpressionCache("test", 1).parse(expression);
+    return new HclEvaluator().evaluate(node, context);
+  }
+}
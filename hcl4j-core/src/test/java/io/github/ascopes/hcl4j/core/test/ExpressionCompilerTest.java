@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.eval.HclEvaluator;
+import io.github.ascopes.hcl4j.core.eval.HclExpressionCompiler;
+import io.github.ascopes.hcl4j.core.eval.HclNumberValue;
+import io.github.ascopes.hcl4j.core.eval.HclStringValue;
+import io.github.ascopes.hcl4j.core.ex.HclEvaluationException;
+import io.github.ascopes.hcl4j.core.parser.HclExpressionCache;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ExpressionCompilerTest {
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "1 + 2 * 3 - 10 / 4",
+      "10 - 2 - 3 + 8 / 4 / 2",
+      "-(7 % 4) < 0 && !false || missing",
+      "env == \"prod\" ? zones[1] : zones.0",
+      "apps[*].id",
+      "apps.*.id",
+      "{ name = env, (env) = 1, \"x\" = [for z in zones : upper(z)] }",
+      "[for i, z in zones : [for z in zones : \"${i}${z}\"] if i != 1]",
+      "{for z in zones : z => upper(z)}",
+      "{for i, z in zones : (i < 2 ? \"low\" : \"high\") => z...}",
+      "\"${env}-%{ if env == \"prod\" }live%{ else }test%{ endif }\"",
+      "\"%{ for z in zones ~} ${upper(z)} %{~ endfor }\"",
+      "<<-EOF\n    ${env}\n      indented\n    EOF\n",
+      "<<-EOF\n    just\n      text\n    EOF\n",
+  })
+  void testCompiledExpressionsMatchTheEvaluator(String source) {
+    var expression = parse(source);
+    var expected = new HclEvaluator().evaluate(expression, EvaluatorTest.CONTEXT);
+
+    var compiled = new HclExpressionCompiler(EvaluatorTest.CONTEXT).compile(expression);
+
+    assertThat(compiled.evaluate(EvaluatorTest.CONTEXT)).isEqualTo(expected);
+  }
+
+  @Test
+  void testVariablesAreNumberedInOrderOfFirstUse() {
+    var compiled = new HclExpressionCompiler(EvaluatorTest.CONTEXT)
+        .compile(parse("b + a * b - [for c in [1] : c][0]"));
+
+    assertThat(compiled.variables()).containsExactly("b", "a");
+    assertThat(compiled.evaluate(HclNumberValue.of(2), HclNumberValue.of(5)))
+        .isEqualTo(HclNumberValue.of(11));
+  }
+
+  @Test
+  void testCompiledExpressionsCanShareVariableLayouts() {
+    var compiler = new HclExpressionCompiler(EvaluatorTest.CONTEXT);
+    var layout = List.of("env", "region");
+    var first = compiler.compile(parse("\"${env}-${region}\""), layout);
+    var second = compiler.compile(parse("upper(region)"), layout);
+    var values = new HclStringValue[] {new HclStringValue("prod"), new HclStringValue("eu")};
+
+    assertThat(first.evaluate(values)).isEqualTo(new HclStringValue("prod-eu"));
+    assertThat(second.evaluate(values)).isEqualTo(new HclStringValue("EU"));
+  }
+
+  @Test
+  void testUndefinedVariablesOnlyFailWhenUsed() {
+    var compiled = new HclExpressionCompiler(EvaluatorTest.CONTEXT)
+        .compile(parse("flag ? 1 : other"), List.of("flag"));
+
+    assertThat(compiled.evaluate(EvaluatorTest.eval("true")))
+        .isEqualTo(HclNumberValue.of(1));
+    assertThatThrownBy(() -> compiled.evaluate(EvaluatorTest.eval("false")))
+        .isInstanceOf(HclEvaluationException.class)
+        .hasMessageContaining("other");
+  }
+
+  static HclExpressionNode parse(String source) {
+    return new HclExpressionCache("test", 1).parse(source);
+  }
+}
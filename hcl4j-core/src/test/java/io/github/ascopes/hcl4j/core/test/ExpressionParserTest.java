@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclAttributeNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclBinaryOperationNode;
+import io.github.ascopes.hcl4j.core.ex.HclUnexpectedTokenException;
+import io.github.ascopes.hcl4j.core.format.HclFormatter;
+import io.github.ascopes.hcl4j.core.inputs.HclStringCharSource;
+import io.github.ascopes.hcl4j.core.parser.HclConfigFileParser;
+import io.github.ascopes.hcl4j.core.parser.HclExpressionCache;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import org.junit.jupiter.api.Test;
+
+class ExpressionParserTest {
+
+  @Test
+  void testExpressionsAreParsedOnceAndShared() {
+    var cache = new HclExpressionCache("policy", 2);
+
+    var first = cache.parse("var.env == \"prod\" && length(x) > 3");
+    var second = cache.parse("var.env == \"prod\" && length(x) > 3");
+
+    assertThat(first).isInstanceOf(HclBinaryOperationNode.class);
+    assertThat(second).isSameAs(first);
+  }
+
+  @Test
+  void testBinaryOperatorsAreLeftAssociative() {
+    var cache = new HclExpressionCache("policy", 2);
+
+    var expr = (HclBinaryOperationNode) cache.parse("a - b + c");
+
+    assertThat(expr.operatorToken().type()).isEqualTo(HclTokenType.PLUS);
+    assertThat(expr.leftValue()).isInstanceOfSatisfying(HclBinaryOperationNode.class, left ->
+        assertThat(left.operatorToken().type()).isEqualTo(HclTokenType.MINUS));
+  }
+
+  @Test
+  void testChainsOfTheSameOperatorGroupToTheLeft() {
+    try (var source = new HclStringCharSource("main.tf", "x = a - b - c\ny = a || b || c\n")) {
+      var items = new HclConfigFileParser(source).parseFile().bodyItems();
+      var formatter = new HclFormatter();
+
+      for (var item : items) {
+        var expr = (HclBinaryOperationNode) ((HclAttributeNode) item).expression();
+
+        assertThat(expr.leftValue()).isInstanceOf(HclBinaryOperationNode.class);
+        assertThat(formatter.formatExpression(expr.leftValue())).isIn("a - b", "a || b");
+        assertThat(formatter.formatExpression(expr.rightValue())).isEqualTo("c");
+      }
+    }
+  }
+
+  @Test
+  void testLeastRecentlyUsedExpressionsAreEvicted() {
+    var cache = new HclExpressionCache("policy", 2);
+
+    var a = cache.parse("a");
+    cache.parse("b");
+    cache.parse("a");
+    cache.parse("c");
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.parse("a")).isSameAs(a);
+  }
+
+  @Test
+  void testTrailingContentIsRejected() {
+    var cache = new HclExpressionCache("policy", 2);
+
+    assertThatThrownBy(() -> cache.parse("a b"))
+        .isInstanceOf(HclUnexpectedTokenException.class);
+    assertThat(cache.size()).isZero();
+  }
+}
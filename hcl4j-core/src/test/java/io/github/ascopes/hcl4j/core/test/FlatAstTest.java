@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclAttributeNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBlockNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.ast.flat.HclFlatAst;
+import io.github.ascopes.hcl4j.core.ast.visit.HclNodeKind;
+import io.github.ascopes.hcl4j.core.inputs.HclStringCharSource;
+import io.github.ascopes.hcl4j.core.parser.HclConfigFileParser;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import org.junit.jupiter.api.Test;
+
+class FlatAstTest {
+
+  static final String SOURCE = """
+      locals {
+        name    = "app-${var.env}\\n"
+        enabled = !var.disabled && length(var.zones) > 2
+        ratio   = 1.5
+        zones   = [for z in var.zones : upper(z) if z != null]
+        tags    = { Name = local.name, "Owner" = "me" }
+        first   = var.zones[0]
+        ids     = apps[*].id
+        doc     = <<-EOF
+          %{ if var.enabled }enabled%{ else }disabled%{ endif }
+        EOF
+      }
+
+      resource "a" "b" { count = true ? 1 : null }
+      """;
+
+  @Test
+  void testViewsAreEqualToTheOriginalTree() {
+    var expected = parse();
+    var flat = HclFlatAst.of(expected, SOURCE);
+
+    assertThat(flat.body()).isEqualTo(expected);
+  }
+
+  @Test
+  void testNodesCanBeNavigatedWithoutViews() {
+    var flat = HclFlatAst.of(parse(), SOURCE);
+
+    var block = flat.firstChild(flat.root());
+    assertThat(flat.kind(block)).isEqualTo(HclNodeKind.BLOCK);
+    assertThat(flat.tokenType(flat.firstToken(block))).isEqualTo(HclTokenType.LEFT_BRACE);
+
+    var resource = flat.nextSibling(block);
+    assertThat(flat.kind(resource)).isEqualTo(HclNodeKind.BLOCK);
+    assertThat(flat.nextSibling(resource)).isEqualTo(HclFlatAst.NONE);
+
+    var identifier = flat.firstChild(resource);
+    assertThat(flat.kind(identifier)).isEqualTo(HclNodeKind.IDENTIFIER);
+    assertThat(flat.token(flat.firstToken(identifier)).raw()).isEqualTo("resource");
+  }
+
+  @Test
+  void testSubtreeViewsCanBeCreated() {
+    var body = parse();
+    var flat = HclFlatAst.of(body, SOURCE);
+    var locals = flat.firstChild(flat.root());
+    var localsBody = flat.firstChild(locals);
+
+    while (flat.kind(localsBody) != HclNodeKind.BODY) {
+      localsBody = flat.nextSibling(localsBody);
+    }
+
+    var firstAttribute = flat.firstChild(localsBody);
+    var expected = (HclAttributeNode) ((HclBlockNode)
+        body.bodyItems().get(0)).body().bodyItems().get(0);
+
+    assertThat(flat.node(firstAttribute)).isEqualTo(expected);
+  }
+
+  @Test
+  void testOnlyRawTextWithEscapesIsStoredAsTokens() {
+    var flat = HclFlatAst.of(parse(), SOURCE);
+    var plain = 0;
+    var escaped = 0;
+
+    for (var token = 0; token < flat.tokenCount(); ++token) {
+      if (flat.tokenType(token) != HclTokenType.RAW_TEXT) {
+        continue;
+      }
+
+      // Tokens that can be recreated from the source are created anew for each view.
+      if (flat.token(token).raw().equals(flat.token(token).content())) {
+        assertThat(flat.token(token)).isNotSameAs(flat.token(token));
+        ++plain;
+      } else {
+        assertThat(flat.token(token)).isSameAs(flat.token(token));
+        ++escaped;
+      }
+    }
+
+    assertThat(plain).isPositive();
+    assertThat(escaped).isPositive();
+  }
+
+  private static HclBodyNode parse() {
+    return new HclConfigFileParser(new HclStringCharSource("flat.tf", SOURCE)).parseFile();
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.format.HclFormatter;
+import io.github.ascopes.hcl4j.core.inputs.HclStringCharSource;
+import io.github.ascopes.hcl4j.core.parser.HclConfigFileParser;
+import org.junit.jupiter.api.Test;
+
+class FormatterTest {
+
+  static final String SOURCE = """
+      # Top comment.
+      terraform{
+      required_version=">= 1.0"
+        backend "s3" {
+          bucket = "b"   # trailing
+          key="state"
+            region =   "eu-west-1"
+
+
+          encrypt = true
+        }
+      }
+      locals {
+        tags = {
+          Name = "app",
+          Environment = var.env
+        }
+        ports = [80,443]
+        zones = [
+          "a",
+          "b"
+        ]
+        enabled = !var.disabled&&length(var.zones)>2 ? true : false
+        names = [for z in var.zones : upper(z) if z != null]
+        msg = "hi ${var.name}!%{ if var.x }x%{ endif }"
+        doc = <<-EOF
+          hello
+        EOF
+        empty {}
+      }
+      """;
+
+  static final String EXPECTED = """
+      # Top comment.
+      terraform {
+        required_version = ">= 1.0"
+        backend "s3" {
+          bucket = "b" # trailing
+          key    = "state"
+          region = "eu-west-1"
+
+          encrypt = true
+        }
+      }
+      locals {
+        tags = {
+          Name        = "app",
+          Environment = var.env
+        }
+        ports = [80, 443]
+        zones = [
+          "a",
+          "b"
+        ]
+        enabled = !var.disabled && length(var.zones) > 2 ? true : false
+        names   = [for z in var.zones : upper(z) if z != null]
+        msg     = "hi ${var.name}!%{ if var.x }x%{ endif }"
+        doc     = <<-EOF
+          hello
+        EOF
+        empty {}
+      }
+      """;
+
+  @Test
+  void testFileIsFormattedInCanonicalStyle() {
+    var actual = new HclFormatter().format(parse(SOURCE), SOURCE);
+
+    assertThat(actual).isEqualTo(EXPECTED);
+  }
+
+  @Test
+  void testFormattingIsIdempotent() {
+    var formatter = new HclFormatter();
+    var once = formatter.format(parse(SOURCE), SOURCE);
+    var twice = formatter.format(parse(once), once);
+
+    assertThat(twice).isEqualTo(once);
+  }
+
+  @Test
+  void testCommentsAreDroppedWithoutSource() {
+    var actual = new HclFormatter().format(parse(SOURCE), null);
+
+    assertThat(actual).isEqualTo(EXPECTED
+        .replace("# Top comment.\n", "")
+        .replace(" # trailing", ""));
+  }
+
+  @Test
+  void testCommentsInsideCollectionsAreKept() {
+    var source = """
+        tags = {
+          # owner team
+          Owner = "me", # inline
+          Team="core"
+        }
+        ports = [80, # http
+          443, // https
+
+          8080]
+        """;
+
+    var actual = new HclFormatter().format(parse(source), source);
+
+    assertThat(actual).isEqualTo("""
+        tags = {
+          # owner team
+          Owner = "me", # inline
+          Team  = "core"
+        }
+        ports = [
+          80, # http
+          443, // https
+
+          8080
+        ]
+        """);
+  }
+
+  @Test
+  void testTrailingCommentsDoNotBreakAlignment() {
+    var source = """
+        a = 1 # c
+        bb = 2
+        ccc = 3 /* d */
+        # own line
+        dddd = 4
+        tags = {
+          a = 1, # c
+          bb = 2
+        }
+        """;
+
+    var actual = new HclFormatter().format(parse(source), source);
+
+    assertThat(actual).isEqualTo("""
+        a   = 1 # c
+        bb  = 2
+        ccc = 3 /* d */
+        # own line
+        dddd = 4
+        tags = {
+          a  = 1, # c
+          bb = 2
+        }
+        """);
+  }
+
+  @Test
+  void testSeparatorsAndSpacingAreKeptAsWritten() {
+    var source = """
+        a = [1, 2, 3,]
+        b = { for k, v in x : k => v }
+        c = {for k, v in x : k => v}
+        d = [ for z in zones : z if z != null ]
+        e = [for z in zones : z]
+        """;
+
+    var actual = new HclFormatter().format(parse(source), source);
+
+    assertThat(actual).isEqualTo(source);
+  }
+
+  @Test
+  void testExpressionsWithCommentsThatCannotBeCarriedAreCopied() {
+    var source = "a = [1, /* one */ 2]\nb = 1 +   /* one */ 2\nc = \"# not a comment\"\n";
+
+    var actual = new HclFormatter().format(parse(source), source);
+
+    assertThat(actual).isEqualTo(source);
+  }
+
+  private static HclBodyNode parse(String source) {
+    return new HclConfigFileParser(new HclStringCharSource("format.tf", source)).parseFile();
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.func.HclFunctionCallNode;
+import io.github.ascopes.hcl4j.core.eval.HclExpressionCompiler;
+import io.github.ascopes.hcl4j.core.eval.HclFunction;
+import io.github.ascopes.hcl4j.core.eval.HclFunctionRegistry;
+import io.github.ascopes.hcl4j.core.eval.HclNumberValue;
+import io.github.ascopes.hcl4j.core.eval.HclValue;
+import io.github.ascopes.hcl4j.core.ex.HclEvaluationException;
+import io.github.ascopes.hcl4j.core.parser.HclExpressionCache;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class FunctionRegistryTest {
+
+  @Test
+  void testCallsWithTheSameShapeShareCallSites() {
+    var registry = HclFunctionRegistry.EMPTY.with("add", new Add());
+    var first = registry.resolve(call("add(1, 2)"));
+    var second = registry.resolve(call("add(x, y)"));
+    var expanded = registry.resolve(call("add(1, xs...)"));
+
+    assertThat(second).isSameAs(first);
+    assertThat(expanded).isNotSameAs(first);
+    assertThat(first.function()).isInstanceOf(Add.class);
+    assertThat(first.argumentCount()).isEqualTo(2);
+    assertThat(first.expandsFinalArgument()).isFalse();
+    assertThat(expanded.expandsFinalArgument()).isTrue();
+  }
+
+  @Test
+  void testContextsWithNewVariablesShareTheRegistry() {
+    var context = EvaluatorTest.CONTEXT.withFunction("add", new Add());
+
+    assertThat(context.withVariable("x", HclNumberValue.ONE).functions())
+        .isSameAs(context.functions());
+    assertThat(context.withFunctions(Map.of()).functions()).isSameAs(context.functions());
+    assertThat(context.withFunction("other", new Add()).functions())
+        .isNotSameAs(context.functions());
+  }
+
+  @Test
+  void testFixedArityCallsSkipTheArgumentList() {
+    var context = EvaluatorTest.CONTEXT.withFunction("add", new Add());
+    var compiled = new HclExpressionCompiler(context).compile(parse("add(add(1, 2), 3)"));
+
+    assertThat(EvaluatorTest.eval("add(add(1, 2), 3)", context))
+        .isEqualTo(HclNumberValue.of(6));
+    assertThat(compiled.evaluate()).isEqualTo(HclNumberValue.of(6));
+  }
+
+  @Test
+  void testExpandedCallsUseTheArgumentList() {
+    var context = EvaluatorTest.CONTEXT.withFunction("add", new Add());
+
+    assertThatThrownBy(() -> EvaluatorTest.eval("add([1, 2]...)", context))
+        .isInstanceOf(HclEvaluationException.class)
+        .hasMessageContaining("Call to function \"add\" failed: list called");
+  }
+
+  @Test
+  void testUnknownFunctionsFailWhenCalled() {
+    var callSite = HclFunctionRegistry.EMPTY.resolve(call("missing()"));
+
+    assertThat(callSite.function()).isNull();
+    assertThatThrownBy(() -> EvaluatorTest.eval("missing()"))
+        .isInstanceOf(HclEvaluationException.class)
+        .hasMessageContaining("Call to unknown function \"missing\"");
+  }
+
+  private static HclFunctionCallNode call(String source) {
+    return (HclFunctionCallNode) parse(source);
+  }
+
+  private static HclExpressionNode parse(String source) {
+    return new HclExpressionCache("test", 1).parse(source);
+  }
+
+  private static final class Add implements HclFunction {
+
+    @Override
+    public HclValue call(List<HclValue> arguments) {
+      throw new IllegalArgumentException("list called");
+    }
+
+    @Override
+    public HclValue call(HclValue first, HclValue second) {
+      return ((HclNumberValue) first).add((HclNumberValue) second);
+    }
+  }
+}
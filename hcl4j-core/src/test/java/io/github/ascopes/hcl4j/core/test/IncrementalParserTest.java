@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.inputs.HclStringCharSource;
+import io.github.ascopes.hcl4j.core.inputs.HclTextEdit;
+import io.github.ascopes.hcl4j.core.parser.HclConfigFileParser;
+import io.github.ascopes.hcl4j.core.parser.HclIncrementalParser;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class IncrementalParserTest {
+
+  static final String SOURCE = """
+      variable "region" {
+        default = "eu-west-2"
+      }
+
+      resource "aws_instance" "app_server" {
+        ami = "ami-08d70e59c07c61a3a"
+        tags = { Name = "app" }
+      }
+
+      locals { count = 1 }
+      """;
+
+  static Stream<Arguments> edits() {
+    return Stream.of(
+        // Change an attribute value within a block.
+        Arguments.of(new HclTextEdit(SOURCE.indexOf("eu-west-2"), 9, "us-east-1")),
+        // Make a value longer, which moves everything after it.
+        Arguments.of(new HclTextEdit(SOURCE.indexOf("app\""), 3, "application")),
+        // Add an element to an object.
+        Arguments.of(new HclTextEdit(SOURCE.indexOf(" }\n}"), 0, ", Owner = \"me\"")),
+        // Add a line within a block.
+        Arguments.of(new HclTextEdit(SOURCE.indexOf("  tags"), 0, "  count = 2\n")),
+        // Add a new attribute between items.
+        Arguments.of(new HclTextEdit(SOURCE.indexOf("\nresource"), 0, "\nfoo = 1\n")),
+        // Edit within a one-line block.
+        Arguments.of(new HclTextEdit(SOURCE.indexOf("1 }"), 1, "100")),
+        // Rename a block label.
+        Arguments.of(new HclTextEdit(SOURCE.indexOf("app_server"), 10, "web")),
+        // Insert at the very start of the file, both within and before the first token.
+        Arguments.of(new HclTextEdit(0, 0, "data_")),
+        Arguments.of(new HclTextEdit(0, 0, "  ")),
+        // Insert at the first attribute inside a block, both within and before it.
+        Arguments.of(new HclTextEdit(SOURCE.indexOf("default"), 0, "x_")),
+        Arguments.of(new HclTextEdit(SOURCE.indexOf("default"), 0, "  "))
+    );
+  }
+
+  @MethodSource("edits")
+  @ParameterizedTest(name = "{0}")
+  void testIncrementalReparseMatchesFullParse(HclTextEdit edit) {
+    var previous = parse(SOURCE);
+    var expected = parse(edit.apply(SOURCE));
+
+    var actual = new HclIncrementalParser("example.tf").reparse(previous, SOURCE, edit);
+
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  void testItemsBeforeTheEditAreReused() {
+    var previous = parse(SOURCE);
+    var edit = new HclTextEdit(SOURCE.indexOf("1 }"), 1, "100");
+
+    var actual = new HclIncrementalParser("example.tf").reparse(previous, SOURCE, edit);
+
+    assertThat(actual.bodyItems().get(0)).isSameAs(previous.bodyItems().get(0));
+    assertThat(actual.bodyItems().get(1)).isSameAs(previous.bodyItems().get(1));
+  }
+
+  static HclBodyNode parse(String source) {
+    try (var charSource = new HclStringCharSource("example.tf", source)) {
+      return new HclConfigFileParser(charSource).parseFile();
+    }
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclAttributeNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.ast.hash.HclStructuralHash;
+import io.github.ascopes.hcl4j.core.ast.template.HclQuotedTemplateNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateInterpolationNode;
+import io.github.ascopes.hcl4j.core.eval.HclEvaluator;
+import io.github.ascopes.hcl4j.core.eval.HclStandardFunctions;
+import io.github.ascopes.hcl4j.core.ex.HclSyntaxException;
+import io.github.ascopes.hcl4j.core.format.HclFormatter;
+import io.github.ascopes.hcl4j.core.format.HclJsonWriter;
+import io.github.ascopes.hcl4j.core.inputs.HclStringCharSource;
+import io.github.ascopes.hcl4j.core.parser.HclConfigFileParser;
+import io.github.ascopes.hcl4j.core.parser.HclJsonConfigFileParser;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class JsonSyntaxTest {
+
+  static final Map<String, Integer> BLOCK_TYPES = Map.of(
+      "variable", 1,
+      "resource", 2,
+      "ingress", 0
+  );
+
+  static final String NATIVE = """
+      variable "env" {
+        default = "dev"
+      }
+      resource "aws_instance" "web" {
+        ami     = "ami-123"
+        count   = -2
+        ratio   = 1.5e3
+        tags    = { "Name": "app-${var.env}", "Escaped": "$${literal}" }
+        zones   = ["a", "b\\n"]
+        enabled = true
+        owner   = null
+        ingress {
+          port = 80
+        }
+        ingress {
+          port = 443
+        }
+      }
+      """;
+
+  static final String JSON = """
+      {
+        "//": "Generated, do not edit",
+        "variable": {"env": {
+          "default": "dev"
+        }},
+        "resource": {"aws_instance": {"web": {
+          "ami": "ami-123",
+          "count": -2,
+          "ratio": 1.5e3,
+          "tags": {"Name": "app-${var.env}", "Escaped": "$${literal}"},
+          "zones": ["a", "b\\n"],
+          "enabled": true,
+          "owner": null,
+          "ingress": [{
+            "port": 80
+          }, {
+            "port": 443
+          }]
+        }}}
+      }
+      """;
+
+  @Test
+  void testJsonSyntaxProducesTheNativeAst() {
+    var formatter = new HclFormatter();
+
+    assertThat(formatter.format(parseJson(JSON), null))
+        .isEqualTo(formatter.format(parseNative(NATIVE), null));
+  }
+
+  @Test
+  void testTemplatesInStringsAreParsedWithSourceLocations() {
+    var body = parseJson("{\n  \"name\": \"app-${var.env}\"\n}");
+    var template = (HclQuotedTemplateNode) ((HclAttributeNode) body.bodyItems().get(0))
+        .expression();
+    var interpolation = (HclTemplateInterpolationNode) template.template().items().get(1);
+
+    assertThat(interpolation.expression().start().line()).isEqualTo(2);
+    assertThat(interpolation.expression().start().column()).isEqualTo(18);
+  }
+
+  @Test
+  void testWrittenJsonRoundTrips() {
+    var json = new HclJsonWriter().write(parseNative(NATIVE));
+
+    assertThat(HclStructuralHash.equals(parseJson(json), parseJson(JSON)))
+        .isTrue();
+  }
+
+  @Test
+  void testHeredocsRoundTripThroughJson() {
+    var source = """
+        plain    = <<EOF
+        hi ${1 + 1}
+        EOF
+        indented = <<-EOT
+            a
+              b
+            EOT
+        nested   = trimspace(<<EOF
+          x
+        EOF
+        )
+        """;
+    var nativeBody = parseNative(source);
+
+    var json = new HclJsonWriter().write(nativeBody);
+    var jsonBody = parseJson(json);
+
+    var evaluator = new HclEvaluator();
+    var context = HclStandardFunctions.context();
+    assertThat(jsonBody.bodyItems()).hasSameSizeAs(nativeBody.bodyItems());
+    for (var i = 0; i < nativeBody.bodyItems().size(); ++i) {
+      var expected = ((HclAttributeNode) nativeBody.bodyItems().get(i)).expression();
+      var actual = ((HclAttributeNode) jsonBody.bodyItems().get(i)).expression();
+      assertThat(evaluator.evaluate(actual, context))
+          .isEqualTo(evaluator.evaluate(expected, context));
+    }
+    assertThat(json).contains("\"plain\": \"hi ${1 + 1}\\n\"");
+  }
+
+  @Test
+  void testExpressionsAreWrittenAsInterpolations() {
+    var json = new HclJsonWriter().write(parseNative("name = upper(var.env)\n"));
+
+    assertThat(json).isEqualTo("""
+        {
+          "name": "${upper(var.env)}"
+        }
+        """);
+  }
+
+  @Test
+  void testInvalidJsonIsRejected() {
+    assertThatThrownBy(() -> parseJson("{\"name\": tru}"))
+        .isInstanceOf(HclSyntaxException.class);
+    assertThatThrownBy(() -> parseJson("{\"name\": \"a\\qb\"}"))
+        .isInstanceOf(HclSyntaxException.class);
+  }
+
+  static HclBodyNode parseJson(String source) {
+    try (var charSource = new HclStringCharSource("main.tf.json", source)) {
+      return new HclJsonConfigFileParser(charSource, BLOCK_TYPES).parseFile();
+    }
+  }
+
+  static HclBodyNode parseNative(String source) {
+    try (var charSource = new HclStringCharSource("main.tf", source)) {
+      return new HclConfigFileParser(charSource).parseFile();
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclBlockNode;
+import io.github.ascopes.hcl4j.core.ex.HclUnexpectedTokenException;
+import io.github.ascopes.hcl4j.core.inputs.HclCharInputStream;
+import io.github.ascopes.hcl4j.core.parser.HclConfigFileParser;
+import io.github.ascopes.hcl4j.core.parser.HclLazyConfigFileParser;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class LazyParserTest {
+
+  byte[] source = """
+      terraform {
+        required_providers {
+          aws = {
+            source = "hashicorp/aws",
+            version = "~> 4.16"
+          }
+        }
+      }
+
+      locals {
+        doc = <<EOF
+      hello ${var.name}
+      EOF
+        items = [
+          1,
+          2,
+        ]
+      }
+
+      resource "aws_instance" "app_server" { ami = "ami-08d70e59c07c61a3a" }
+      """.getBytes(StandardCharsets.UTF_8);
+
+  @Test
+  void testLazyParseIsEquivalentToEagerParse() throws IOException {
+    try (
+        var eagerIn = new HclCharInputStream("example.tf", new ByteArrayInputStream(source));
+        var lazyIn = new HclCharInputStream("example.tf", new ByteArrayInputStream(source))
+    ) {
+      var eager = new HclConfigFileParser(eagerIn).parseFile();
+      var lazy = new HclLazyConfigFileParser(lazyIn).parseFile();
+
+      assertThat(lazy.bodyItems()).hasSize(3);
+      assertThat(lazy).isEqualTo(eager);
+    }
+  }
+
+  @Test
+  void testSyntaxErrorsAreDeferredUntilTheItemIsAccessed() throws IOException {
+    var source = """
+        valid {
+          foo = 1
+        }
+
+        invalid {
+          bar = = 2
+        }
+        """.getBytes(StandardCharsets.UTF_8);
+
+    try (var in = new HclCharInputStream("example.tf", new ByteArrayInputStream(source))) {
+      var body = new HclLazyConfigFileParser(in).parseFile();
+      assertThat(((HclBlockNode) body.bodyItems().get(0)).body().bodyItems()).hasSize(1);
+
+      var invalid = (HclBlockNode) body.bodyItems().get(1);
+      assertThatThrownBy(() -> invalid.body().bodyItems().get(0))
+          .isInstanceOf(HclUnexpectedTokenException.class);
+    }
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclAttributeNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBlockNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclUnaryOperationNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclIdentifierNode;
+import io.github.ascopes.hcl4j.core.ast.visit.HclNodeKind;
+import io.github.ascopes.hcl4j.core.ast.visit.HclNodeVisitor;
+import io.github.ascopes.hcl4j.core.ast.visit.HclNodeWalker;
+import io.github.ascopes.hcl4j.core.ast.visit.HclWalkAction;
+import io.github.ascopes.hcl4j.core.inputs.HclLocatable;
+import io.github.ascopes.hcl4j.core.inputs.HclStringCharSource;
+import io.github.ascopes.hcl4j.core.parser.HclConfigFileParser;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class NodeWalkerTest {
+
+  @Test
+  void testNodesAreEnteredInSourceOrder() {
+    var body = parse("a = f(1, b)\nc { d = 2 }\n");
+    var kinds = new ArrayList<HclNodeKind>();
+
+    HclNodeWalker.preOrder(body, kinds, (node, ctx) -> {
+      ctx.add(HclNodeKind.of(node));
+      return HclWalkAction.CONTINUE;
+    });
+
+    assertThat(kinds).containsExactly(
+        HclNodeKind.BODY,
+        HclNodeKind.ATTRIBUTE,
+        HclNodeKind.IDENTIFIER,
+        HclNodeKind.FUNCTION_CALL,
+        HclNodeKind.IDENTIFIER,
+        HclNodeKind.PARAMETER,
+        HclNodeKind.INTEGER_LITERAL,
+        HclNodeKind.PARAMETER,
+        HclNodeKind.VARIABLE_EXPR,
+        HclNodeKind.IDENTIFIER,
+        HclNodeKind.BLOCK,
+        HclNodeKind.IDENTIFIER,
+        HclNodeKind.BODY,
+        HclNodeKind.ATTRIBUTE,
+        HclNodeKind.IDENTIFIER,
+        HclNodeKind.INTEGER_LITERAL
+    );
+  }
+
+  @Test
+  void testChildrenAreLeftBeforeTheirParents() {
+    var body = parse("a = -b\n");
+    var kinds = new ArrayList<HclNodeKind>();
+
+    HclNodeWalker.postOrder(body, kinds, (node, ctx) -> ctx.add(HclNodeKind.of(node)));
+
+    assertThat(kinds).containsExactly(
+        HclNodeKind.IDENTIFIER,
+        HclNodeKind.IDENTIFIER,
+        HclNodeKind.VARIABLE_EXPR,
+        HclNodeKind.UNARY_OPERATION,
+        HclNodeKind.ATTRIBUTE,
+        HclNodeKind.BODY
+    );
+  }
+
+  @Test
+  void testSubtreesCanBePruned() {
+    var body = parse("a = x\nb { c = y }\nd = z\n");
+    var names = new ArrayList<String>();
+
+    HclNodeWalker.preOrder(body, names, new Visitor<String>() {
+      @Override
+      public HclWalkAction visitDefault(HclLocatable node, List<String> context) {
+        return HclWalkAction.CONTINUE;
+      }
+
+      @Override
+      public HclWalkAction visitBlock(HclBlockNode node, List<String> context) {
+        return HclWalkAction.SKIP_CHILDREN;
+      }
+
+      @Override
+      public HclWalkAction visitIdentifier(HclIdentifierNode node, List<String> context) {
+        context.add(node.contentToken().raw().toString());
+        return HclWalkAction.CONTINUE;
+      }
+    });
+
+    assertThat(names).containsExactly("a", "x", "d", "z");
+  }
+
+  @Test
+  void testWalkCanBeStopped() {
+    var body = parse("a = 1\nb = 2\n");
+    var attributes = new ArrayList<HclAttributeNode>();
+
+    var completed = HclNodeWalker.preOrder(body, attributes, new Visitor<HclAttributeNode>() {
+      @Override
+      public HclWalkAction visitDefault(HclLocatable node, List<HclAttributeNode> context) {
+        return HclWalkAction.CONTINUE;
+      }
+
+      @Override
+      public HclWalkAction visitAttribute(HclAttributeNode node, List<HclAttributeNode> context) {
+        context.add(node);
+        return HclWalkAction.STOP;
+      }
+    });
+
+    assertThat(completed).isFalse();
+    assertThat(attributes).hasSize(1);
+  }
+
+  @Test
+  void testDeepTreesDoNotOverflowTheStack() {
+    var attribute = (HclAttributeNode) parse("a = -1\n").bodyItems().get(0);
+    var unary = (HclUnaryOperationNode) attribute.expression();
+    HclExpressionNode expression = unary;
+
+    for (var i = 0; i < 100_000; ++i) {
+      expression = new HclUnaryOperationNode(unary.operatorToken(), expression);
+    }
+
+    var count = new int[1];
+    var completed = HclNodeWalker.preOrder(expression, count, (node, ctx) -> {
+      ++ctx[0];
+      return HclWalkAction.CONTINUE;
+    });
+
+    assertThat(completed).isTrue();
+    assertThat(count[0]).isEqualTo(100_002);
+  }
+
+  private interface Visitor<T> extends HclNodeVisitor<HclWalkAction, List<T>> {
+  }
+
+  private static HclBodyNode parse(String source) {
+    return new HclConfigFileParser(new HclStringCharSource("test.tf", source)).parseFile();
+  }
+}
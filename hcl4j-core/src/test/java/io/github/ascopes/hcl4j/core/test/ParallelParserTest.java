@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.hcl4j.core.ex.HclProcessingException;
+import io.github.ascopes.hcl4j.core.inputs.HclStringCharSource;
+import io.github.ascopes.hcl4j.core.parser.HclConfigFileParser;
+import io.github.ascopes.hcl4j.core.parser.HclParallelConfigFileParser;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class ParallelParserTest {
+
+  @Test
+  void testParallelParseIsEquivalentToSequentialParse() {
+    var source = new StringBuilder();
+
+    for (var i = 0; i < 2_000; ++i) {
+      source.append("""
+          resource "aws_instance" "server_%1$d" {
+            ami = "ami-%1$d}{"
+            # comment with an unbalanced {
+            user_data = <<EOF
+          #!/bin/bash
+          echo "${var.message} }"
+          EOF
+            tags = { Name = "server-${%1$d}" }
+          }
+          /* multi-line
+             comment { */
+          count_%1$d = [
+            1,
+            2,
+          ]
+          """.formatted(i));
+    }
+
+    var pool = new ForkJoinPool(4);
+
+    try (var charSource = new HclStringCharSource("main.tf", source)) {
+      var expected = new HclConfigFileParser(charSource).parseFile();
+      var actual = new HclParallelConfigFileParser("main.tf", source, pool).parseFile();
+
+      assertThat(actual.bodyItems()).hasSize(4_000);
+      assertThat(actual).isEqualTo(expected);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void testSyntaxErrorsInAnyChunkAreReported() {
+    var source = new StringBuilder();
+
+    for (var i = 0; i < 5_000; ++i) {
+      source.append("value_").append(i).append(i == 100 ? " = = 1\n" : " = [1, 2, 3]\n");
+    }
+
+    var pool = new ForkJoinPool(2);
+
+    try {
+      assertThatThrownBy(() -> new HclParallelConfigFileParser("main.tf", source, pool)
+          .parseFile())
+          .isInstanceOf(HclProcessingException.class);
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.cache.HclLruEvictionPolicy;
+import io.github.ascopes.hcl4j.core.cache.HclParseCache;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ParseCacheTest {
+
+  @Test
+  void testIdenticalContentIsParsedOnce() {
+    var cache = new HclParseCache(1_000);
+
+    var first = cache.parse("a.tf", "a = 1\n");
+    var second = cache.parse("b.tf", "a = 1\n");
+
+    assertThat(second).isSameAs(first);
+    assertThat(cache.metrics().hits()).isEqualTo(1);
+    assertThat(cache.metrics().misses()).isEqualTo(1);
+  }
+
+  @Test
+  void testConcurrentRequestsParseContentOnce() throws Exception {
+    var cache = new HclParseCache(100_000);
+    var executor = Executors.newFixedThreadPool(8);
+
+    try {
+      for (var i = 0; i < 200; ++i) {
+        var source = "a = " + i + "\n";
+        var start = new CountDownLatch(1);
+        var results = new ArrayList<Future<HclBodyNode>>();
+
+        for (var thread = 0; thread < 8; ++thread) {
+          results.add(executor.submit(() -> {
+            start.await();
+            return cache.parse("a.tf", source);
+          }));
+        }
+
+        start.countDown();
+        var first = results.get(0).get();
+
+        for (var result : results) {
+          assertThat(result.get()).isSameAs(first);
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(cache.metrics().misses()).isEqualTo(200);
+    assertThat(cache.metrics().hits()).isEqualTo(200 * 7);
+  }
+
+  @Test
+  void testEntriesAreEvictedOnceOverweight() {
+    var cache = new HclParseCache(14);
+
+    var a = cache.parse("a.tf", "a = 1\n");
+    cache.parse("b.tf", "b = 2\n");
+    cache.parse("a.tf", "a = 1\n");
+    cache.parse("c.tf", "c = 3\n");
+
+    var metrics = cache.metrics();
+    assertThat(metrics.entryCount()).isEqualTo(2);
+    assertThat(metrics.totalWeight()).isEqualTo(12);
+    assertThat(metrics.evictions()).isEqualTo(1);
+    assertThat(metrics.collections()).isZero();
+    assertThat(cache.parse("a.tf", "a = 1\n")).isSameAs(a);
+  }
+
+  @Test
+  void testFilesAreReparsedWhenModified(@TempDir Path dir) throws Exception {
+    var cache = new HclParseCache(1_000);
+    var file = dir.resolve("main.tf");
+
+    Files.writeString(file, "a = 1\n");
+    var first = cache.parse(file);
+    assertThat(cache.parse(file)).isSameAs(first);
+
+    Files.writeString(file, "a = 22\n");
+    Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+    var second = cache.parse(file);
+
+    assertThat(second).isNotSameAs(first);
+    assertThat(second.end().position()).isEqualTo(7);
+  }
+
+  @Test
+  void testDiskTierIsUsedByNewCaches(@TempDir Path dir) {
+    var source = "resource \"x\" \"y\" {\n  count = 2\n}\n";
+    var first = new HclParseCache(1_000, new HclLruEvictionPolicy<>(), true, dir);
+    var expected = first.parse("main.tf", source);
+
+    var second = new HclParseCache(1_000, new HclLruEvictionPolicy<>(), true, dir);
+    var actual = second.parse("main.tf", source);
+
+    assertThat(actual).isEqualTo(expected);
+    assertThat(second.metrics().diskHits()).isEqualTo(1);
+    assertThat(second.metrics().misses()).isZero();
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclAttributeNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBlockNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.ast.visit.HclNodeWalker;
+import io.github.ascopes.hcl4j.core.ast.visit.HclWalkAction;
+import io.github.ascopes.hcl4j.core.inputs.HclLocation;
+import io.github.ascopes.hcl4j.core.inputs.HclStringCharSource;
+import io.github.ascopes.hcl4j.core.parser.HclConfigFileParser;
+import io.github.ascopes.hcl4j.core.parser.HclParseMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SemanticParseTest {
+
+  static final String SOURCE = """
+      locals {
+        name    = "app-${var.env}"
+        enabled = !var.disabled && length(var.zones, 2) > 2
+        zones   = [for z in var.zones : upper(z) if z != null]
+        tags    = { Name = local.name, "Owner" = "me" }
+        first   = var.zones[0]
+        doc     = <<-EOF
+          %{ if var.enabled }enabled%{ else }disabled%{ endif }
+        EOF
+      }
+      """;
+
+  @Test
+  void testNodeSpansArePreserved() {
+    var lossless = parse(HclParseMode.LOSSLESS);
+    var semantic = parse(HclParseMode.SEMANTIC);
+
+    assertThat(semantic).isNotEqualTo(lossless);
+    assertThat(spans(semantic)).isEqualTo(spans(lossless));
+  }
+
+  @Test
+  void testInteriorPunctuationIsShared() {
+    var first = parse(HclParseMode.SEMANTIC);
+    var second = parse(HclParseMode.SEMANTIC);
+
+    var firstAssign = firstAttribute(first).assignToken();
+    var secondAssign = firstAttribute(second).assignToken();
+
+    assertThat(firstAssign).isSameAs(secondAssign);
+    assertThat(firstAssign.start()).isEqualTo(HclLocation.UNKNOWN);
+    assertThat(firstAssign.raw()).isEqualTo("=");
+  }
+
+  @Test
+  void testIdentifiersKeepTheirLocations() {
+    var lossless = firstAttribute(parse(HclParseMode.LOSSLESS));
+    var semantic = firstAttribute(parse(HclParseMode.SEMANTIC));
+
+    assertThat(semantic.identifier()).isEqualTo(lossless.identifier());
+  }
+
+  @Test
+  void testSemanticTreesRetainLessMemory() throws ReflectiveOperationException {
+    var source = SOURCE.repeat(20).replace("locals {", "module \"m\" {");
+    var lossless = retainedSize(parse(source, HclParseMode.LOSSLESS));
+    var semantic = retainedSize(parse(source, HclParseMode.SEMANTIC));
+
+    assertThat(semantic).isLessThan(lossless * 4 / 5);
+  }
+
+  private static HclAttributeNode firstAttribute(HclBodyNode body) {
+    var block = (HclBlockNode) body.bodyItems().get(0);
+    return (HclAttributeNode) block.body().bodyItems().get(0);
+  }
+
+  private static List<String> spans(HclBodyNode body) {
+    var spans = new ArrayList<String>();
+    HclNodeWalker.preOrder(body, spans, (node, ctx) -> {
+      ctx.add(node.getClass().getSimpleName() + " " + node.start() + " " + node.end());
+      return HclWalkAction.CONTINUE;
+    });
+    return spans;
+  }
+
+  // Rough estimate of the bytes held by every distinct object reachable from the given root, on a
+  // 64-bit JVM with compressed references.
+  private static long retainedSize(Object root) throws ReflectiveOperationException {
+    var seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    var pending = new ArrayDeque<>(List.of(root));
+    var size = 0L;
+
+    while (!pending.isEmpty()) {
+      var next = pending.pop();
+
+      if (!seen.add(next)) {
+        continue;
+      }
+
+      if (next instanceof Record) {
+        var components = next.getClass().getRecordComponents();
+        size += align(12 + 8L * components.length);
+
+        for (var component : components) {
+          var value = component.getAccessor().invoke(next);
+          if (value != null && !component.getType().isPrimitive() && !(value instanceof Enum)) {
+            pending.push(value);
+          }
+        }
+      } else if (next instanceof List<?> list) {
+        size += align(16) + align(16 + 4L * list.size());
+        list.forEach(pending::push);
+      } else if (next instanceof CharSequence text) {
+        size += align(24) + align(16 + text.length());
+      } else {
+        size += align(16);
+      }
+    }
+
+    return size;
+  }
+
+  private static long align(long size) {
+    return (size + 7) & -8;
+  }
+
+  private static HclBodyNode parse(HclParseMode mode) {
+    return parse(SOURCE, mode);
+  }
+
+  private static HclBodyNode parse(String source, HclParseMode mode) {
+    return new HclConfigFileParser(new HclStringCharSource("semantic.tf", source), mode)
+        .parseFile();
+  }
+}
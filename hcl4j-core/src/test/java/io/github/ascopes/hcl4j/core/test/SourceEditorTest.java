@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclAttributeNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBlockNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.edit.HclSourceEditor;
+import io.github.ascopes.hcl4j.core.inputs.HclStringCharSource;
+import io.github.ascopes.hcl4j.core.inputs.HclTextEdit;
+import io.github.ascopes.hcl4j.core.parser.HclConfigFileParser;
+import org.junit.jupiter.api.Test;
+
+class SourceEditorTest {
+
+  static final String SOURCE = """
+      module "network" {
+        source  = "example/network"   # pinned
+        version = "1.2.3"
+        tags    = { Name = "net" }
+      }
+      """;
+
+  @Test
+  void testReplacedExpressionOnlyTouchesChangedCharacters() {
+    var version = attribute(parse(SOURCE), 1);
+    var editor = new HclSourceEditor(SOURCE)
+        .replaceExpression(version, "\"1.3.0\"");
+
+    assertThat(editor.edits())
+        .containsExactly(new HclTextEdit(SOURCE.indexOf("2.3"), 3, "3.0"));
+    assertThat(editor.apply())
+        .isEqualTo(SOURCE.replace("1.2.3", "1.3.0"));
+  }
+
+  @Test
+  void testUnchangedReplacementsAreDropped() {
+    var source = attribute(parse(SOURCE), 0);
+    var editor = new HclSourceEditor(SOURCE)
+        .replaceExpression(source, "\"example/network\"");
+
+    assertThat(editor.edits()).isEmpty();
+    assertThat(editor.apply()).isEqualTo(SOURCE);
+  }
+
+  @Test
+  void testMultipleEditsAreAppliedInOnePass() {
+    var body = parse(SOURCE);
+    var editor = new HclSourceEditor(SOURCE)
+        .replaceExpression(attribute(body, 0), "\"example/vpc\"")
+        .replaceExpression(attribute(body, 1), "\"2.0.0\"")
+        .removeItem(attribute(body, 2));
+
+    var expected = """
+        module "network" {
+          source  = "example/vpc"   # pinned
+          version = "2.0.0"
+        }
+        """;
+
+    assertThat(editor.apply()).isEqualTo(expected);
+    assertThat(editor.edits())
+        .extracting(HclTextEdit::offset)
+        .isSortedAccordingTo((a, b) -> Integer.compare(b, a));
+
+    var applied = SOURCE;
+    for (var edit : editor.edits()) {
+      applied = edit.apply(applied);
+    }
+    assertThat(applied).isEqualTo(expected);
+    assertThat(parse(applied).bodyItems()).hasSize(1);
+  }
+
+  @Test
+  void testOverlappingEditsAreRejected() {
+    var version = attribute(parse(SOURCE), 1);
+    var editor = new HclSourceEditor(SOURCE)
+        .replaceExpression(version, "\"9.9.9\"");
+
+    assertThatThrownBy(() -> editor.removeItem(version))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  static HclAttributeNode attribute(HclBodyNode body, int index) {
+    var block = (HclBlockNode) body.bodyItems().get(0);
+    return (HclAttributeNode) block.body().bodyItems().get(index);
+  }
+
+  static HclBodyNode parse(String source) {
+    try (var charSource = new HclStringCharSource("main.tf", source)) {
+      return new HclConfigFileParser(charSource).parseFile();
+    }
+  }
+}
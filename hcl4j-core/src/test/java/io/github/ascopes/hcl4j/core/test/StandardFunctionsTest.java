@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.hcl4j.core.eval.HclEvalContext;
+import io.github.ascopes.hcl4j.core.eval.HclFunction;
+import io.github.ascopes.hcl4j.core.eval.HclNumberValue;
+import io.github.ascopes.hcl4j.core.eval.HclObjectValue;
+import io.github.ascopes.hcl4j.core.eval.HclStandardFunctions;
+import io.github.ascopes.hcl4j.core.eval.HclStringValue;
+import io.github.ascopes.hcl4j.core.eval.HclTupleValue;
+import io.github.ascopes.hcl4j.core.eval.HclValue;
+import io.github.ascopes.hcl4j.core.ex.HclEvaluationException;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class StandardFunctionsTest {
+
+  static final HclEvalContext CONTEXT = EvaluatorTest.CONTEXT
+      .withFunctions(HclStandardFunctions.functions());
+
+  @ParameterizedTest
+  @CsvSource(delimiter = '|', quoteCharacter = '`', value = {
+      "length(zones)                                 | 3",
+      "length(\"héllo\")                              | 5",
+      "length({a = 1})                               | 1",
+      "merge({a = 1, b = 2}, null, {b = 3, c = 4})   | {\"a\":1,\"b\":3,\"c\":4}",
+      "concat([], zones, [], [1])                    | [\"a\",\"b\",\"c\",1]",
+      "lookup({a = 1}, \"b\", 2)                      | 2",
+      "flatten([[1, [2]], [], 3])                    | [1,2,3]",
+      "keys({b = 1, a = 2})                          | [\"a\",\"b\"]",
+      "values({b = 1, a = 2})                        | [2,1]",
+      "contains(zones, \"b\")                         | true",
+      "element(zones, 4)                             | \"b\"",
+      "slice(zones, 1, 3)                            | [\"b\",\"c\"]",
+      "reverse(zones)                                | [\"c\",\"b\",\"a\"]",
+      "distinct([1, 2, 1, 3, 2])                     | [1,2,3]",
+      "coalesce(null, \"\", \"x\")                      | \"x\"",
+      "compact([\"a\", \"\", null, \"b\"])                | [\"a\",\"b\"]",
+      "range(3)                                      | [0,1,2]",
+      "range(5, 1)                                   | [5,4,3,2]",
+      "range(0, 1, 0.25)                             | [0,0.25,0.5,0.75]",
+      "zipmap([\"a\", \"b\"], [1, 2])                   | {\"a\":1,\"b\":2}",
+      "join(\", \", zones, [\"d\"])                     | \"a, b, c, d\"",
+      "split(\",\", \"a,,b\")                           | [\"a\",\"\",\"b\"]",
+      "upper(\"abc\")                                 | \"ABC\"",
+      "trimspace(\"  x \\n\")                          | \"x\"",
+      "chomp(\"x\\r\\n\\n\")                             | \"x\"",
+      "replace(\"a-b-c\", \"-\", \"+\")                   | \"a+b+c\"",
+      "replace(\"a1b22\", \"/[0-9]+/\", \"#\")            | \"a#b#\"",
+      "substr(\"hello\", -3, 2)                       | \"ll\"",
+      "strrev(\"abc\")                                | \"cba\"",
+      "trimprefix(\"prod-db\", \"prod-\")               | \"db\"",
+      "startswith(env, \"pr\")                        | true",
+      "format(\"%s-%03d-%.2f-%t-%%\", env, 7, 1.5, true) | \"prod-007-1.50-true-%\"",
+      "format(\"%q %v %5s:%-4d.\", \"a\\\"b\", [1], \"x\", 2)"
+          + " | \"\\\"a\\\\\\\"b\\\" [1]     x:2   .\"",
+      "abs(-4)                                       | 4",
+      "ceil(1.2)                                     | 2",
+      "floor(-1.2)                                   | -2",
+      "max(1, 7.5, 3)                                | 7.5",
+      "min(1, -7, 3)                                 | -7",
+      "parseint(\"ff\", 16)                            | 255",
+      "tostring(12)                                  | \"12\"",
+      "tonumber(\"1e3\")                               | 1000",
+      "tobool(\"true\")                                | true",
+      "base64decode(base64encode(\"héllo\"))          | \"héllo\"",
+      "cidrsubnet(\"10.1.2.0/24\", 4, 15)               | \"10.1.2.240/28\"",
+      "cidrsubnet(\"fd00:fd12:3456:7890::/56\", 16, 162) | \"fd00:fd12:3456:7800:a200::/72\"",
+      "cidrhost(\"10.12.112.0/20\", 16)                 | \"10.12.112.16\"",
+      "cidrhost(\"10.12.112.0/20\", -2)                 | \"10.12.127.254\"",
+      "cidrnetmask(\"172.16.0.0/12\")                   | \"255.240.0.0\"",
+  })
+  void testFunctions(String expression, String expectedJson) {
+    var json = EvaluatorTest.eval("jsonencode(" + expression + ")", CONTEXT);
+
+    assertThat(json).isEqualTo(new HclStringValue(expectedJson));
+  }
+
+  @Test
+  void testJsonEncodeEscapesStrings() {
+    assertThat(EvaluatorTest.eval("jsonencode({\"a\\tb\" = \"\\u0001\\\"\"})", CONTEXT))
+        .isEqualTo(new HclStringValue("{\"a\\tb\":\"\\u0001\\\"\"}"));
+  }
+
+  @Test
+  void testJsonEncodeEscapesHtmlCharactersLikeTerraform() {
+    assertThat(EvaluatorTest.eval("jsonencode(\"<b> & </b>\")", CONTEXT))
+        .isEqualTo(new HclStringValue("\"\\u003cb\\u003e \\u0026 \\u003c/b\\u003e\""));
+  }
+
+  @Test
+  void testFunctionsReturnTheirArgumentWhenNothingChanges() {
+    var tuple = HclTupleValue.of(new HclStringValue("a"), new HclStringValue("b"));
+    var context = CONTEXT.withVariable("list", tuple);
+
+    assertThat(EvaluatorTest.eval("flatten(list)", context)).isSameAs(tuple);
+    assertThat(EvaluatorTest.eval("concat([], list)", context)).isSameAs(tuple);
+    assertThat(EvaluatorTest.eval("distinct(list)", context)).isSameAs(tuple);
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+      "length,     1",
+      "upper,      1",
+      "tostring,   1",
+      "range,      1",
+      "range,      2",
+      "range,      3",
+      "lookup,     2",
+      "lookup,     3",
+      "element,    2",
+      "cidrhost,   2",
+      "cidrsubnet, 3",
+      "slice,      3",
+  })
+  void testFixedArityFunctionsDoNotCallTheListForm(String name, int arguments)
+      throws NoSuchMethodException {
+    var parameterTypes = new Class<?>[arguments];
+    Arrays.fill(parameterTypes, HclValue.class);
+
+    // The defaults declared by the interface wrap the arguments in a list.
+    var overload = HclStandardFunctions.functions().get(name).getClass()
+        .getMethod("call", parameterTypes);
+
+    assertThat(overload.getDeclaringClass()).isNotEqualTo(HclFunction.class);
+  }
+
+  @Test
+  void testFixedArityOverloadsCheckTheirArgumentCount() {
+    var functions = HclStandardFunctions.functions();
+    var object = HclObjectValue.of(Map.of("a", HclNumberValue.of(1)));
+    var key = new HclStringValue("b");
+
+    assertThat(functions.get("upper").call(new HclStringValue("a")))
+        .isEqualTo(new HclStringValue("A"));
+    assertThat(functions.get("lookup").call(object, key, HclNumberValue.of(2)))
+        .isEqualTo(HclNumberValue.of(2));
+    assertThatThrownBy(() -> functions.get("upper").call(key, key))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Function upper expects 1 arguments but got 2");
+    assertThatThrownBy(() -> functions.get("lookup").call(object))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Function lookup expects 2 to 3 arguments but got 1");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "length(1)",
+      "lookup({}, \"a\")",
+      "element([], 0)",
+      "slice(zones, 2, 1)",
+      "format(\"%d\", 1.5)",
+      "format(\"%s %s\", 1)",
+      "format(\"%s\", 1, 2)",
+      "range(1, 2, 0)",
+      "cidrsubnet(\"10.0.0.0/24\", 2, 4)",
+      "cidrhost(\"example.com/24\", 1)",
+      "cidrnetmask(\"::/64\")",
+      "upper()",
+  })
+  void testInvalidCallsFail(String expression) {
+    assertThatThrownBy(() -> EvaluatorTest.eval(expression, CONTEXT))
+        .isInstanceOf(HclEvaluationException.class);
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.id.HclIdentifierLikeNode;
+import io.github.ascopes.hcl4j.core.inputs.HclCharInputStream;
+import io.github.ascopes.hcl4j.core.parser.HclBodyEventHandler;
+import io.github.ascopes.hcl4j.core.parser.HclStreamingConfigFileParser;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class StreamingParserTest {
+
+  @Test
+  void testEventsAreEmittedInDocumentOrder() throws IOException {
+    var source = """
+        resource "aws_instance" "app_server" {
+          ami = "ami-08d70e59c07c61a3a"
+
+          tags {
+            name = "app"
+          }
+        }
+
+        region = "eu-west-1"
+        """.getBytes(StandardCharsets.UTF_8);
+
+    var events = new ArrayList<String>();
+
+    var handler = new HclBodyEventHandler() {
+      @Override
+      public void startBlock(HclIdentifierLikeNode type, List<HclIdentifierLikeNode> labels) {
+        events.add("start " + type.value() + labels.stream()
+            .map(label -> " " + label.value())
+            .collect(Collectors.joining()));
+      }
+
+      @Override
+      public void attribute(HclIdentifierLikeNode name, HclExpressionNode expression) {
+        events.add("attribute " + name.value());
+      }
+
+      @Override
+      public void endBlock() {
+        events.add("end");
+      }
+    };
+
+    try (var in = new HclCharInputStream("example.tf", new ByteArrayInputStream(source))) {
+      new HclStreamingConfigFileParser(in, handler).parseFile();
+    }
+
+    assertThat(events).containsExactly(
+        "start resource aws_instance app_server",
+        "attribute ami",
+        "start tags",
+        "attribute name",
+        "end",
+        "end",
+        "attribute region"
+    );
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.hcl4j.core.ast.body.HclAttributeNode;
+import io.github.ascopes.hcl4j.core.ast.body.HclBodyNode;
+import io.github.ascopes.hcl4j.core.ast.expr.HclExpressionNode;
+import io.github.ascopes.hcl4j.core.ast.hash.HclNodeInterner;
+import io.github.ascopes.hcl4j.core.ast.hash.HclStructuralHash;
+import io.github.ascopes.hcl4j.core.inputs.HclStringCharSource;
+import io.github.ascopes.hcl4j.core.parser.HclConfigFileParser;
+import org.junit.jupiter.api.Test;
+
+class StructuralHashTest {
+
+  @Test
+  void testHashIgnoresLocations() {
+    var first = expression("a = merge(local.common_tags, { Name = \"x\" })\n", 0);
+    var second = expression("\n\nbb   =   merge(local.common_tags,{Name=\"x\"})\n", 0);
+
+    assertThat(first).isNotEqualTo(second);
+    assertThat(HclStructuralHash.equals(first, second)).isTrue();
+    assertThat(HclStructuralHash.hash(first)).isEqualTo(HclStructuralHash.hash(second));
+  }
+
+  @Test
+  void testHashDetectsChanges() {
+    var first = expression("a = merge(local.common_tags, { Name = \"x\" })\n", 0);
+    var second = expression("a = merge(local.common_tags, { Name = \"y\" })\n", 0);
+
+    assertThat(HclStructuralHash.equals(first, second)).isFalse();
+    assertThat(HclStructuralHash.hash(first)).isNotEqualTo(HclStructuralHash.hash(second));
+  }
+
+  @Test
+  void testInterningSharesIdenticalSubtrees() {
+    var interner = new HclNodeInterner();
+    var first = interner.intern(parse("a = var.tags\nb = [var.tags, 1]\n"));
+    var second = interner.intern(parse("c = [var.tags, 1]\n"));
+
+    var firstTags = ((HclAttributeNode) first.bodyItems().get(0)).expression();
+    var firstTuple = ((HclAttributeNode) first.bodyItems().get(1)).expression();
+    var secondTuple = ((HclAttributeNode) second.bodyItems().get(0)).expression();
+
+    assertThat(secondTuple).isSameAs(firstTuple);
+    assertThat(interner.intern(expression("x = var.tags\n", 0))).isSameAs(firstTags);
+    assertThat(interner.hash(firstTuple)).isEqualTo(HclStructuralHash.hash(firstTuple));
+  }
+
+  @Test
+  void testInterningPreservesStructure() {
+    var body = parse("a = { b = [1, 2.5, \"three\"] }\nc { d = e.f[0] }\n");
+    var interned = new HclNodeInterner().intern(body);
+
+    assertThat(interned).isEqualTo(body);
+  }
+
+  private static HclExpressionNode expression(String source, int index) {
+    return ((HclAttributeNode) parse(source).bodyItems().get(index)).expression();
+  }
+
+  private static HclBodyNode parse(String source) {
+    return new HclConfigFileParser(new HclStringCharSource("hash.tf", source)).parseFile();
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateForNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateInterpolationNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateItemNode;
+import io.github.ascopes.hcl4j.core.ast.template.HclTemplateLiteralNode;
+import io.github.ascopes.hcl4j.core.inputs.HclCharInputStream;
+import io.github.ascopes.hcl4j.core.parser.HclTemplateFileParser;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+
+class TemplateFileTest {
+
+  byte[] source = """
+      server {
+        listen ${port};
+      %{ for name in names ~}
+        server_name ${name};
+      %{ endfor ~}
+      }
+      """.getBytes(StandardCharsets.UTF_8);
+
+  @Test
+  void testTemplateFileIsParsed() throws IOException {
+    try (var in = new HclCharInputStream("nginx.conf.tftpl", new ByteArrayInputStream(source))) {
+      var content = new HclTemplateFileParser(in).parseFile();
+
+      assertThat(content.items())
+          .hasExactlyElementsOfTypes(
+              HclTemplateLiteralNode.class,
+              HclTemplateInterpolationNode.class,
+              HclTemplateLiteralNode.class,
+              HclTemplateForNode.class,
+              HclTemplateLiteralNode.class
+          );
+    }
+  }
+
+  @Test
+  void testTemplateFileItemsCanBeStreamed() throws IOException {
+    var items = new ArrayList<HclTemplateItemNode>();
+
+    try (var in = new HclCharInputStream("nginx.conf.tftpl", new ByteArrayInputStream(source))) {
+      new HclTemplateFileParser(in).parseFileItems(items::add);
+    }
+
+    try (var in = new HclCharInputStream("nginx.conf.tftpl", new ByteArrayInputStream(source))) {
+      assertThat(items).isEqualTo(new HclTemplateFileParser(in).parseFile().items());
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.ascopes.hcl4j.core.inputs.HclStringCharSource;
+import io.github.ascopes.hcl4j.core.lexer.HclDefaultLexer;
+import io.github.ascopes.hcl4j.core.lexer.strategy.HclConfigLexerStrategy;
+import io.github.ascopes.hcl4j.core.parser.HclDefaultTokenStream;
+import io.github.ascopes.hcl4j.core.tokens.HclTokenType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class TokenStreamTest {
+
+  // More identifiers than fit in the initial look-ahead window.
+  static final List<String> WORDS = IntStream.range(0, 40)
+      .mapToObj(i -> "w" + i)
+      .collect(Collectors.toList());
+
+  @Test
+  void testLookAheadIsCorrectAcrossTheEndOfTheWindow() {
+    var tokenStream = tokenStream();
+    tokenStream.ignoreToken(HclTokenType.WHITESPACE);
+
+    for (var i = 0; i < WORDS.size(); ++i) {
+      for (var offset = 0; offset < 5; ++offset) {
+        var expected = i + offset < WORDS.size() ? HclTokenType.IDENTIFIER : HclTokenType.EOF;
+        assertThat(tokenStream.la(offset)).isEqualTo(expected);
+
+        if (expected == HclTokenType.IDENTIFIER) {
+          assertThat(tokenStream.peek(offset).raw()).isEqualTo(WORDS.get(i + offset));
+        }
+      }
+
+      assertThat(tokenStream.eat(HclTokenType.IDENTIFIER).raw()).isEqualTo(WORDS.get(i));
+    }
+
+    assertThat(tokenStream.la(0)).isEqualTo(HclTokenType.EOF);
+    assertThat(tokenStream.la(10)).isEqualTo(HclTokenType.EOF);
+  }
+
+  @Test
+  void testWindowGrowsWhileWrappedAround() {
+    var tokenStream = tokenStream();
+    tokenStream.ignoreToken(HclTokenType.WHITESPACE);
+
+    // Move the start of the window part way along before it has to grow.
+    for (var i = 0; i < 6; ++i) {
+      tokenStream.la(1);
+      tokenStream.eat(HclTokenType.IDENTIFIER);
+    }
+
+    assertThat(tokenStream.peek(20).raw()).isEqualTo(WORDS.get(26));
+
+    for (var i = 6; i < WORDS.size(); ++i) {
+      assertThat(tokenStream.peek(0).raw()).isEqualTo(WORDS.get(i));
+      assertThat(tokenStream.eat(HclTokenType.IDENTIFIER).raw()).isEqualTo(WORDS.get(i));
+    }
+  }
+
+  @Test
+  void testIgnoringTokensDropsThemFromTheWindow() {
+    var tokenStream = tokenStream();
+
+    // Wrap the window around, then buffer a mix of identifiers and whitespace.
+    for (var i = 0; i < 3; ++i) {
+      tokenStream.eat(HclTokenType.IDENTIFIER);
+      tokenStream.la(6);
+      tokenStream.eat(HclTokenType.WHITESPACE);
+    }
+
+    assertThat(tokenStream.la(7)).isEqualTo(HclTokenType.WHITESPACE);
+
+    tokenStream.ignoreToken(HclTokenType.WHITESPACE);
+
+    var words = new ArrayList<String>();
+    while (tokenStream.la(0) != HclTokenType.EOF) {
+      words.add(tokenStream.eat(HclTokenType.IDENTIFIER).raw().toString());
+    }
+
+    assertThat(words).isEqualTo(WORDS.subList(3, WORDS.size()));
+  }
+
+  static HclDefaultTokenStream tokenStream() {
+    var lexer = new HclDefaultLexer(new HclStringCharSource("words.tf", String.join(" ", WORDS)));
+    lexer.pushStrategy(new HclConfigLexerStrategy(lexer));
+    return new HclDefaultTokenStream(lexer);
+  }
+}
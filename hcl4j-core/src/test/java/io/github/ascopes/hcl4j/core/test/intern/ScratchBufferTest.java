@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2022 - 2022 Ashley Scopes
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.ascopes.hcl4j.core.test.intern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.ascopes.hcl4j.core.intern.ScratchBuffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ScratchBuffer}.
+ *
+ * @author Ashley Scopes
+ */
+@DisplayName("ScratchBuffer tests")
+class ScratchBufferTest {
+
+  @DisplayName("Nested collections are frozen independently")
+  @Test
+  void nestedCollectionsAreFrozenIndependently() {
+    // Given
+    var buffer = new ScratchBuffer<Object>();
+
+    // When
+    var outerMark = buffer.mark();
+    buffer.add("a");
+    var innerMark = buffer.mark();
+    for (var i = 0; i < 100; ++i) {
+      buffer.add(i);
+    }
+    var inner = buffer.freeze(innerMark);
+    buffer.add("b");
+    var outer = buffer.freeze(outerMark);
+
+    // Then
+    assertThat(inner).hasSize(100).startsWith(0, 1, 2).endsWith(99);
+    assertThat(outer).containsExactly("a", "b");
+    assertThat(buffer.mark()).isZero();
+  }
+
+  @DisplayName("Frozen lists are immutable")
+  @Test
+  void frozenListsAreImmutable() {
+    // Given
+    var buffer = new ScratchBuffer<Object>();
+    var mark = buffer.mark();
+    buffer.add("a");
+
+    // When
+    var list = buffer.freeze(mark);
+
+    // Then
+    assertThatThrownBy(() -> list.add("b")).isInstanceOf(UnsupportedOperationException.class);
+    assertThatThrownBy(() -> list.set(0, "b")).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @DisplayName("Freezing with no new elements returns an empty list")
+  @Test
+  void freezingWithNoNewElementsReturnsAnEmptyList() {
+    // Given
+    var buffer = new ScratchBuffer<Object>();
+    buffer.add("a");
+
+    // When
+    var list = buffer.freeze(buffer.mark());
+
+    // Then
+    assertThat(list).isEmpty();
+    assertThat(buffer.mark()).isOne();
+  }
+
+  @DisplayName("Releasing a mark discards the elements added since it")
+  @Test
+  void releasingMarkDiscardsElementsAddedSinceIt() {
+    // Given
+    var buffer = new ScratchBuffer<String>();
+    buffer.add("a");
+    var mark = buffer.mark();
+    buffer.add("b");
+    buffer.add("c");
+
+    // When
+    buffer.release(mark);
+    buffer.release(mark);
+
+    // Then
+    assertThat(buffer.mark()).isOne();
+    assertThat(buffer.freeze(0)).containsExactly("a");
+  }
+}